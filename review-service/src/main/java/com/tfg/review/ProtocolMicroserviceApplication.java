@@ -6,8 +6,10 @@ import io.swagger.v3.oas.annotations.info.Info;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cloud.netflix.eureka.EnableEurekaClient;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @EnableEurekaClient
+@EnableScheduling
 @SpringBootApplication
 @OpenAPIDefinition(info = @Info(
 		title = "API ReviUS - Servicio de Revisiones y Protocolos",
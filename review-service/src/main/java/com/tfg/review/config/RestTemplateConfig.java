@@ -1,17 +1,32 @@
 package com.tfg.review.config;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cloud.client.loadbalancer.LoadBalanced;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
 
 @Configuration
 public class RestTemplateConfig {
 
     @Bean
+    @Primary
     @LoadBalanced
     public RestTemplate restTemplate() {
         return new RestTemplate();
     }
 
+    //The outbox relay publishes while it holds the locks of its batch, so a hung consumer must not block it for long
+    @Bean
+    @LoadBalanced
+    public RestTemplate eventRestTemplate(@Value("${outbox.connect-timeout-ms:2000}") int connectTimeout,
+                                          @Value("${outbox.read-timeout-ms:10000}") int readTimeout) {
+        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setConnectTimeout(connectTimeout);
+        requestFactory.setReadTimeout(readTimeout);
+        return new RestTemplate(requestFactory);
+    }
+
 }
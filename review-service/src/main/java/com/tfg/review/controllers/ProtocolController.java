@@ -7,6 +7,7 @@ import com.tfg.review.exceptions.SelectionCriteriaNotFoundException;
 import com.tfg.review.models.*;
 import com.tfg.review.services.*;
 import com.tfg.review.services.implementations.*;
+import com.tfg.review.utils.CachedView;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -35,6 +36,7 @@ import java.util.stream.Collectors;
 public class ProtocolController {
 
     private final ProtocolServiceImpl protocolService;
+    private final ViewCacheService viewCacheService;
     private final KeywordService keywordService;
     private final SelectionCriteriaServiceImpl selectionCriteriaService;
     private final DataSourceService dataSourceService;
@@ -48,7 +50,8 @@ public class ProtocolController {
     @ResponseStatus(HttpStatus.OK)
     @Operation(
             summary = "Obtener todos los protocolos existentes.",
-            description = "Este método permite consultar a la base de datos todos los protocolos que hay almacenados.",
+            description = "Este método permite consultar a la base de datos los protocolos que hay almacenados, ordenados por ID " +
+                    "y paginados. Cada página se obtiene con un número fijo de consultas, sin cargar las entidades relacionadas.",
             responses = {
                     @ApiResponse(
                             description = "OK",
@@ -60,8 +63,8 @@ public class ProtocolController {
                             content = @Content
                     ),
                     @ApiResponse(
-                            description = "Not Found",
-                            responseCode = "404",
+                            description = "Bad Request",
+                            responseCode = "400",
                             content = @Content
                     ),
                     @ApiResponse(
@@ -70,20 +73,30 @@ public class ProtocolController {
                     )
             }
     )
-    public ResponseEntity<List<FullProtocolDTO>> getAll(){
-        List<Protocol> protocols = protocolService.findAll();
-        return ResponseEntity.ok(protocols.stream().map(FullProtocolDTO::buildFromEntity).collect(Collectors.toList()));
+    public ResponseEntity<ProtocolPageDTO> getAll(@RequestParam(defaultValue = "0") int page,
+                                                  @RequestParam(defaultValue = "50") int size){
+        try{
+            return ResponseEntity.ok(protocolService.findViews(page, size));
+        }catch (Exception e){
+            return new ResponseEntity(e.getMessage(), HttpStatus.BAD_REQUEST);
+        }
     }
     @GetMapping("/{id}")
     @ResponseStatus(HttpStatus.OK)
     @Operation(
             summary = "Obtener un protocolo.",
-            description = "Este método permite consultar a la base de datos para extraer un protolo por su ID.",
+            description = "Este método permite consultar a la base de datos para extraer un protolo por su ID. La respuesta " +
+                    "incluye una ETag: si se envía en la cabecera If-None-Match y el protocolo no ha cambiado, se devuelve un 304.",
             responses = {
                     @ApiResponse(
                             description = "OK",
                             responseCode = "200"
                     ),
+                    @ApiResponse(
+                            description = "Not Modified",
+                            responseCode = "304",
+                            content = @Content
+                    ),
                     @ApiResponse(
                             description = "Unauthorized or Invalid Token",
                             responseCode = "403",
@@ -102,8 +115,10 @@ public class ProtocolController {
     )
     public ResponseEntity<FullProtocolDTO> getOne(@PathVariable Long id){
         try{
-            Protocol protocol = protocolService.findOne(id);
-            return ResponseEntity.ok(FullProtocolDTO.buildFromEntity(protocol));
+            CachedView<FullProtocolDTO> view = viewCacheService.getProtocol(id, protocolService::findView);
+
+            //Spring answers 304 without a body when the ETag matches If-None-Match
+            return ResponseEntity.ok().eTag(view.getEtag()).body(view.getValue());
         }catch (Exception e){
             return new ResponseEntity(e.getMessage(), HttpStatus.NOT_FOUND);
         }
@@ -562,4 +577,38 @@ public class ProtocolController {
         }
     }
 
+    @GetMapping("/{protocolId}/get-terms")
+    @Operation(
+            summary = "Obtener las palabras clave y preguntas de un protocolo.",
+            description = "Este método devuelve las palabras clave y las preguntas de investigación de un protocolo, que " +
+                    "el servicio de búsquedas usa para ordenar los estudios por relevancia.",
+            responses = {
+                    @ApiResponse(
+                            description = "OK",
+                            responseCode = "200"
+                    ),
+                    @ApiResponse(
+                            description = "Unauthorized or Invalid Token",
+                            responseCode = "403",
+                            content = @Content
+                    ),
+                    @ApiResponse(
+                            description = "Bad Request",
+                            responseCode = "400",
+                            content = @Content
+                    ),
+                    @ApiResponse(
+                            description = "Internal Server Error",
+                            responseCode = "500"
+                    )
+            }
+    )
+    public ResponseEntity<ProtocolTermsDTO> getTerms(@PathVariable Long protocolId){
+        try{
+            return ResponseEntity.ok(ProtocolTermsDTO.buildFromEntity(protocolService.findOne(protocolId)));
+        }catch (Exception e){
+            return new ResponseEntity(e.getMessage(), HttpStatus.BAD_REQUEST);
+        }
+    }
+
 }
@@ -7,6 +7,7 @@ import com.tfg.review.models.SLR;
 import com.tfg.review.repositories.SLRRepository;
 import com.tfg.review.services.*;
 import com.tfg.review.services.implementations.*;
+import com.tfg.review.utils.CachedView;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
@@ -37,6 +38,7 @@ import java.util.stream.Collectors;
 public class SLRController {
 
     private final SLRService SLRService;
+    private final ViewCacheService viewCacheService;
     private final SLRRepository sLRRepository;
     private final ResearcherService researcherService;
     private final ProtocolService protocolService;
@@ -84,12 +86,18 @@ public class SLRController {
     @ResponseStatus(HttpStatus.OK)
     @Operation(
             summary = "Método para obtener una SLR",
-            description = "Este método obtiene un revisión sistemática a través de su ID en la base de datos",
+            description = "Este método obtiene un revisión sistemática a través de su ID en la base de datos. La respuesta " +
+                    "incluye una ETag: si se envía en la cabecera If-None-Match y la revisión no ha cambiado, se devuelve un 304.",
             responses = {
                     @ApiResponse(
                             description = "OK",
                             responseCode = "200"
                     ),
+                    @ApiResponse(
+                            description = "Not Modified",
+                            responseCode = "304",
+                            content = @Content
+                    ),
                     @ApiResponse(
                             description = "Unauthorized or Invalid Token",
                             responseCode = "403",
@@ -108,9 +116,10 @@ public class SLRController {
     )
     public ResponseEntity<FullSLRDTO> findOne(@PathVariable Long id){
         try {
-            SLR result = SLRService.findOne(id);
+            CachedView<FullSLRDTO> view = viewCacheService.getSLR(id, slrId -> FullSLRDTO.buildFromEntity(SLRService.findOne(slrId)));
 
-            return ResponseEntity.ok(FullSLRDTO.buildFromEntity(result));
+            //Spring answers 304 without a body when the ETag matches If-None-Match
+            return ResponseEntity.ok().eTag(view.getEtag()).body(view.getValue());
         }catch (Exception e){
             return new ResponseEntity(e.getMessage(), HttpStatus.BAD_REQUEST);
         }
@@ -240,7 +249,10 @@ public class SLRController {
     @ResponseStatus(HttpStatus.OK)
     @Operation(
             summary = "Obtener todas las revisiones sistemáticas de un usuario",
-            description = "Este método obtiene todas las revisiones sistemáticas en las que un usuario actúa como investigador",
+            description = "Este método obtiene, con una única consulta y sin duplicados, el resumen de las revisiones sistemáticas " +
+                    "en las que un usuario actúa como investigador. Sin el parámetro size se devuelven todas; con él, la página " +
+                    "indicada. Se ordenan por el campo de sort (id, title, workField, initDate o endDate, seguido de ',asc' o " +
+                    "',desc'), por ID si no se indica. Los investigadores no forman parte del resumen.",
             responses = {
                     @ApiResponse(
                             description = "OK",
@@ -262,11 +274,12 @@ public class SLRController {
                     )
             }
     )
-    public ResponseEntity<List<SLRDTO>> getByResearcher(@PathVariable Long userId){
+    public ResponseEntity<List<SLRDTO>> getByResearcher(@PathVariable Long userId,
+                                                        @RequestParam(required = false) Integer page,
+                                                        @RequestParam(required = false) Integer size,
+                                                        @RequestParam(required = false) String sort){
        try{
-           List<SLR> slrs = SLRService.findByResearcherUserId(userId);
-           List<SLRDTO> dtos = slrs.stream().map(slr -> SLRDTO.buildFromEntity(slr)).collect(Collectors.toList());
-           return ResponseEntity.ok(dtos);
+           return ResponseEntity.ok(SLRService.findByResearcherUserId(userId, page, size, sort));
        }catch (Exception e) {
            return new ResponseEntity(e.getMessage(), HttpStatus.BAD_REQUEST);
        }
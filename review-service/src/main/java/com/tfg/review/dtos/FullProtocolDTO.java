@@ -1,6 +1,7 @@
 package com.tfg.review.dtos;
 
 import com.tfg.review.models.*;
+import com.tfg.review.repositories.ProtocolSummaryView;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import lombok.*;
@@ -41,19 +42,32 @@ public class FullProtocolDTO {
         if(protocol.getQualityForm() != null) dto.setQualityFormId(protocol.getQualityForm().getId());
         if(protocol.getKeywords()!= null && !protocol.getKeywords().isEmpty()) {
             for(Keyword keyword: protocol.getKeywords()){
-                dto.keywords.add("id: "+keyword.getId()+" - "+keyword.getKeyword());
+                dto.keywords.add(item(keyword.getId(), keyword.getKeyword()));
             }
         }
         if(protocol.getDataSources()!= null && !protocol.getDataSources().isEmpty()) {
             for(DataSource dataSource: protocol.getDataSources()){
-                dto.dataSources.add("id: "+dataSource.getId()+" - "+dataSource.getName());
+                dto.dataSources.add(item(dataSource.getId(), dataSource.getName()));
             }
         }
         if(protocol.getSelectionCriteria()!= null && !protocol.getSelectionCriteria().isEmpty()) {
             for(SelectionCriteria selectionCriteria: protocol.getSelectionCriteria()){
-                dto.selectionCriteria.add("id: "+selectionCriteria.getId()+" - "+selectionCriteria.getCriterion());
+                dto.selectionCriteria.add(item(selectionCriteria.getId(), selectionCriteria.getCriterion()));
             }
         }
         return dto;
     }
+
+    //Read model: the collections are added afterwards from the item queries of ProtocolRepository
+    public static FullProtocolDTO buildFromView (ProtocolSummaryView view) {
+        return FullProtocolDTO.builder().id(view.getId())
+                .principalQuestion(view.getPrincipalQuestion()).secondaryQuestion(view.getSecondaryQuestion())
+                .languages(new ArrayList<>()).slrId(view.getSlrId()).dataSources(new HashSet<>()).keywords(new HashSet<>())
+                .selectionCriteria(new HashSet<>()).extractionFormId(view.getExtractionFormId())
+                .qualityFormId(view.getQualityFormId()).build();
+    }
+
+    public static String item (Long id, String name) {
+        return "id: "+id+" - "+name;
+    }
 }
@@ -0,0 +1,23 @@
+package com.tfg.review.dtos;
+
+import lombok.*;
+
+import java.util.List;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@Builder
+public class ProtocolPageDTO {
+
+    private List<FullProtocolDTO> protocols;
+
+    private int page;
+
+    private int size;
+
+    private long total;
+
+    private boolean hasNext;
+}
@@ -0,0 +1,33 @@
+package com.tfg.review.dtos;
+
+import com.tfg.review.models.Keyword;
+import com.tfg.review.models.Protocol;
+import lombok.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+//Text of a protocol used by the search service to rank the studies found for it
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@Builder
+public class ProtocolTermsDTO {
+
+    private Long protocolId;
+    private String principalQuestion;
+    private String secondaryQuestion;
+    private List<String> keywords = new ArrayList<>();
+
+    public static ProtocolTermsDTO buildFromEntity(Protocol protocol){
+        ProtocolTermsDTO dto = ProtocolTermsDTO.builder().protocolId(protocol.getId())
+                .principalQuestion(protocol.getPrincipalQuestion()).secondaryQuestion(protocol.getSecondaryQuestion())
+                .keywords(new ArrayList<>()).build();
+        if(protocol.getKeywords() != null){
+            dto.setKeywords(protocol.getKeywords().stream().map(Keyword::getKeyword).sorted().collect(Collectors.toList()));
+        }
+        return dto;
+    }
+}
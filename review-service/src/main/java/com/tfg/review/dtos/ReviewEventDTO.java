@@ -0,0 +1,32 @@
+package com.tfg.review.dtos;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.tfg.review.models.EventType;
+import com.tfg.review.models.OutboxEvent;
+import lombok.*;
+
+import java.util.Date;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@Builder
+public class ReviewEventDTO {
+
+    private Long id;
+
+    private EventType type;
+
+    private Long protocolId;
+
+    private Long formId;
+
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private Date occurredAt;
+
+    public static ReviewEventDTO buildFromEntity(OutboxEvent event){
+        return ReviewEventDTO.builder().id(event.getId()).type(event.getType()).protocolId(event.getProtocolId())
+                .formId(event.getFormId()).occurredAt(event.getCreatedAt()).build();
+    }
+}
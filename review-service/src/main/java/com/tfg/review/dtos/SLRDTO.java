@@ -4,6 +4,7 @@ import com.fasterxml.jackson.annotation.JsonFormat;
 import com.google.common.collect.Lists;
 import com.tfg.review.models.Researcher;
 import com.tfg.review.models.SLR;
+import com.tfg.review.repositories.SLRSummaryView;
 import lombok.*;
 import org.hibernate.mapping.Collection;
 
@@ -47,6 +48,11 @@ public class SLRDTO {
                 .workField(slr.getWorkField()).objective(slr.getObjective())
                 .researchers(slr.getResearchers().stream().map(Researcher::getName).collect(Collectors.toList())).publicVisibility(slr.getPublicVisibility()).build();
     }
+    //Researchers are not part of the summary, so they are left null
+    public static SLRDTO buildFromView(SLRSummaryView view) {
+        return SLRDTO.builder().id(view.getId()).title(view.getTitle()).description(view.getDescription())
+                .workField(view.getWorkField()).objective(view.getObjective()).publicVisibility(view.getPublicVisibility()).build();
+    }
     public static SLR buildEntity(SLRDTO dto){
         return SLR.builder().title(dto.getTitle()).description(dto.getDescription()).workField(dto.getWorkField())
                 .objective(dto.getObjective()).publicVisibility(dto.getPublicVisibility()).build();
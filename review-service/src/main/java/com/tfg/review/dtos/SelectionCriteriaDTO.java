@@ -1,7 +1,9 @@
 package com.tfg.review.dtos;
 
 import com.tfg.review.models.CriteriaType;
+import com.tfg.review.models.RuleField;
 import com.tfg.review.models.SelectionCriteria;
+import com.tfg.review.utils.MessageConstants;
 import lombok.*;
 
 import javax.validation.constraints.NotBlank;
@@ -31,9 +33,20 @@ public class SelectionCriteriaDTO {
 
     private List<String> protocols = new ArrayList<>();
 
+    //Structured rule: YEAR, TYPE, VENUE, LANGUAGE or TITLE. Empty for criteria that are only applied by hand
+    private String ruleField;
+
+    private Integer minYear;
+
+    private Integer maxYear;
+
+    private List<String> ruleValues = new ArrayList<>();
+
     public static SelectionCriteriaDTO buildFromEntity(SelectionCriteria criteria){
         SelectionCriteriaDTO result = SelectionCriteriaDTO.builder().id(criteria.getId()).criterion(criteria.getCriterion())
-                .criteriaType(criteria.getCriteriaType().toString()).build();
+                .criteriaType(criteria.getCriteriaType().toString()).minYear(criteria.getMinYear()).maxYear(criteria.getMaxYear())
+                .ruleField(criteria.getRuleField() == null ? null : criteria.getRuleField().toString())
+                .ruleValues(criteria.getRuleValues() == null ? new ArrayList<>() : new ArrayList<>(criteria.getRuleValues())).build();
         if(criteria.getProtocols()!=null && !criteria.getProtocols().isEmpty()){
             List<String> protocolsList = criteria.getProtocols().stream().map(protocol -> protocol.getId()+": "+protocol.getPrincipalQuestion()).collect(Collectors.toList());
             result.setProtocols(protocolsList);
@@ -50,6 +63,29 @@ public class SelectionCriteriaDTO {
         }else{
             result.setCriteriaType(null);
         }
+        result.setRuleValues(new ArrayList<>());
+        if(dto.getRuleField() != null && !dto.getRuleField().isBlank()){
+            RuleField field;
+            try{
+                field = RuleField.valueOf(dto.getRuleField().trim().toUpperCase());
+            }catch (IllegalArgumentException e){
+                throw new IllegalArgumentException(MessageConstants.INVALID_CRITERIA_RULE);
+            }
+            List<String> values = dto.getRuleValues() == null ? new ArrayList<>() : dto.getRuleValues().stream()
+                    .filter(value -> value != null && !value.isBlank()).map(String::trim).distinct().collect(Collectors.toList());
+            boolean valid = field == RuleField.YEAR
+                    ? (dto.getMinYear() != null || dto.getMaxYear() != null)
+                        && (dto.getMinYear() == null || dto.getMaxYear() == null || dto.getMinYear() <= dto.getMaxYear())
+                    : !values.isEmpty();
+            if(!valid) throw new IllegalArgumentException(MessageConstants.INVALID_CRITERIA_RULE);
+            result.setRuleField(field);
+            if(field == RuleField.YEAR){
+                result.setMinYear(dto.getMinYear());
+                result.setMaxYear(dto.getMaxYear());
+            }else{
+                result.setRuleValues(values);
+            }
+        }
         return result;
     }
 }
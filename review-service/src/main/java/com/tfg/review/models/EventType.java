@@ -0,0 +1,7 @@
+package com.tfg.review.models;
+
+//Changes that other services keep in sync with, published through the outbox
+public enum EventType {
+
+    PROTOCOL_CHANGED, PROTOCOL_DELETED, SELECTION_CRITERIA_CHANGED, FORM_CHANGED, FORM_DELETED
+}
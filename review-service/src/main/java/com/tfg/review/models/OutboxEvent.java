@@ -0,0 +1,55 @@
+package com.tfg.review.models;
+
+import lombok.*;
+
+import javax.persistence.*;
+import javax.validation.constraints.NotNull;
+import java.util.Date;
+
+/**
+ * Domain event written in the same transaction as the change it describes, and deleted once the relay has delivered
+ * it. Events that search-service rejects are parked with a null next attempt and their last error.
+ */
+@Entity
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Getter
+@Setter
+@ToString
+@Table(name = "outbox_event", indexes = @Index(name = "idx_outbox_event_next_attempt", columnList = "next_attempt_at, outbox_event_id"))
+public class OutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.AUTO)
+    @Column(name = "outbox_event_id")
+    private Long id;
+
+    @NotNull
+    @Enumerated(EnumType.STRING)
+    @Column(name = "event_type", nullable = false)
+    private EventType type;
+
+    @NotNull
+    @Column(name = "protocol_id", nullable = false)
+    private Long protocolId;
+
+    //Only for form events
+    @Column(name = "form_id")
+    private Long formId;
+
+    @NotNull
+    @Temporal(TemporalType.TIMESTAMP)
+    @Column(name = "created_at", nullable = false)
+    private Date createdAt;
+
+    @Column(name = "attempts", nullable = false)
+    private int attempts;
+
+    @Temporal(TemporalType.TIMESTAMP)
+    @Column(name = "next_attempt_at")
+    private Date nextAttemptAt;
+
+    @Column(name = "last_error", columnDefinition = "TEXT")
+    private String lastError;
+}
@@ -20,7 +20,7 @@ import java.util.Set;
 @Getter
 @Setter
 @ToString
-@Table(name="researcher")
+@Table(name="researcher", indexes = @Index(name = "idx_researcher_user_id", columnList = "user_id"))
 public class Researcher {
 
     @Id
@@ -37,6 +37,7 @@ public class Researcher {
     @Enumerated(EnumType.STRING)
     private Rol rol;
 
+    @Column(name="user_id")
     private Long userId;
 
     //--Relationships--//
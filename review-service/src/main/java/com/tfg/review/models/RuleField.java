@@ -0,0 +1,10 @@
+package com.tfg.review.models;
+
+/**
+ * Study attribute checked by the structured rule of a selection criterion. YEAR uses a range, TYPE, VENUE and
+ * LANGUAGE a set of values, and TITLE a set of keywords of which at least one must appear in the title.
+ */
+public enum RuleField {
+
+    YEAR, TYPE, VENUE, LANGUAGE, TITLE
+}
@@ -6,7 +6,9 @@ import lombok.*;
 
 import javax.persistence.*;
 import javax.validation.constraints.NotNull;
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 
 @Entity
@@ -35,6 +37,29 @@ public class SelectionCriteria {
     @Enumerated(EnumType.STRING)
     private CriteriaType criteriaType;
 
+    //--Structured rule, optional--//
+    //An exclusion rejects the studies that match the rule, an inclusion the ones that do not. Studies without a
+    //value for the field are left for manual screening
+
+    @Enumerated(EnumType.STRING)
+    @Column(name="rule_field")
+    private RuleField ruleField;
+
+    @Column(name="min_year")
+    private Integer minYear;
+
+    @Column(name="max_year")
+    private Integer maxYear;
+
+    @ElementCollection
+    @CollectionTable(
+            name="selection_criteria_rule_values",
+            joinColumns=@JoinColumn(name="selection_criteria_id", nullable = false)
+    )
+    @Column(name="rule_value")
+    @ToString.Exclude
+    private List<String> ruleValues = new ArrayList<>();
+
     //--Relationships--/
 
     @Valid
@@ -2,8 +2,12 @@ package com.tfg.review.repositories;
 
 import com.tfg.review.models.Form;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.Optional;
 @Repository
 public interface FormRepository extends JpaRepository<Form, Long> {
@@ -12,4 +16,12 @@ public interface FormRepository extends JpaRepository<Form, Long> {
 
     Optional<Form> findFormById(Long id);
 
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from FormField f where f.form.id in :formIds")
+    int deleteFieldsInBulk(@Param("formIds") Collection<Long> formIds);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from Form f where f.id in :formIds")
+    int deleteInBulk(@Param("formIds") Collection<Long> formIds);
+
 }
\ No newline at end of file
@@ -0,0 +1,19 @@
+package com.tfg.review.repositories;
+
+import com.tfg.review.models.OutboxEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Date;
+import java.util.List;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    //Locked rows are skipped, so several instances of the service can relay at the same time without sending an event twice
+    @Query(value = "select * from outbox_event where next_attempt_at <= :now order by outbox_event_id " +
+            "limit :limit for update skip locked", nativeQuery = true)
+    List<OutboxEvent> findDue(@Param("now") Date now, @Param("limit") int limit);
+}
@@ -0,0 +1,11 @@
+package com.tfg.review.repositories;
+
+//Element of one of the collections of a protocol (keyword, data source, selection criterion or language)
+public interface ProtocolItemView {
+
+    Long getProtocolId();
+
+    Long getId();
+
+    String getName();
+}
@@ -1,14 +1,56 @@
 package com.tfg.review.repositories;
 
 import com.tfg.review.models.Protocol;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface ProtocolRepository extends JpaRepository<Protocol, Long> {
 
+  //Read model of the protocol views: one query for the protocols and one per collection, whatever the number of protocols
+  String SUMMARY = "select p.id as id, p.principalQuestion as principalQuestion, p.secondaryQuestion as secondaryQuestion, " +
+          "s.id as slrId, ef.id as extractionFormId, qf.id as qualityFormId " +
+          "from Protocol p left join p.slr s left join p.extractionForm ef left join p.qualityForm qf ";
+
   Optional<Protocol> findProtocolById(Long id);
 
+  @Query(SUMMARY + "where p.id = :id")
+  Optional<ProtocolSummaryView> findSummaryById(@Param("id") Long id);
+
+  @Query(value = SUMMARY + "order by p.id", countQuery = "select count(p) from Protocol p")
+  Page<ProtocolSummaryView> findSummaries(Pageable pageable);
+
+  @Query("select p.id as protocolId, k.id as id, k.keyword as name from Protocol p join p.keywords k " +
+          "where p.id in :protocolIds order by k.id")
+  List<ProtocolItemView> findKeywordItems(@Param("protocolIds") Collection<Long> protocolIds);
+
+  @Query("select p.id as protocolId, d.id as id, d.name as name from Protocol p join p.dataSources d " +
+          "where p.id in :protocolIds order by d.id")
+  List<ProtocolItemView> findDataSourceItems(@Param("protocolIds") Collection<Long> protocolIds);
+
+  @Query("select p.id as protocolId, c.id as id, c.criterion as name from Protocol p join p.selectionCriteria c " +
+          "where p.id in :protocolIds order by c.id")
+  List<ProtocolItemView> findSelectionCriteriaItems(@Param("protocolIds") Collection<Long> protocolIds);
+
+  @Query("select p.id as protocolId, l.language as name from Protocol p join p.languages l where p.id in :protocolIds")
+  List<ProtocolItemView> findLanguageItems(@Param("protocolIds") Collection<Long> protocolIds);
+
+  //Bulk deletion. Deleting the protocol also removes its rows in the join tables it owns, but not its languages
+  @Modifying(flushAutomatically = true, clearAutomatically = true)
+  @Query(value = "delete from protocol_languages where protocol_id = :protocolId", nativeQuery = true)
+  int deleteLanguages(@Param("protocolId") Long protocolId);
+
+  @Modifying(flushAutomatically = true, clearAutomatically = true)
+  @Query("delete from Protocol p where p.id = :protocolId")
+  int deleteInBulk(@Param("protocolId") Long protocolId);
+
 }
@@ -0,0 +1,17 @@
+package com.tfg.review.repositories;
+
+//Scalar columns of a protocol, read without loading the entity and its eager relationships
+public interface ProtocolSummaryView {
+
+    Long getId();
+
+    String getPrincipalQuestion();
+
+    String getSecondaryQuestion();
+
+    Long getSlrId();
+
+    Long getExtractionFormId();
+
+    Long getQualityFormId();
+}
@@ -1,18 +1,44 @@
 package com.tfg.review.repositories;
 
 import com.tfg.review.models.SLR;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface SLRRepository extends JpaRepository<SLR, Long> {
 
+    //Reviews of a user in a single statement: the subquery removes the duplicates of users with several researchers
+    String SUMMARIES_BY_USER = "select s.id as id, s.title as title, s.description as description, s.workField as workField, " +
+            "s.objective as objective, s.publicVisibility as publicVisibility from SLR s " +
+            "where s.id in (select rs.id from Researcher r join r.SLRs rs where r.userId = :userId)";
+
     @Override
     boolean existsById(Long id);
 
     Optional<SLR> findSLRById(Long slrId);
 
     void deleteSLRById(Long slrId);
+
+    @Query(SUMMARIES_BY_USER)
+    List<SLRSummaryView> findSummariesByUserId(@Param("userId") Long userId, Sort sort);
+
+    @Query(SUMMARIES_BY_USER)
+    List<SLRSummaryView> findSummariesByUserId(@Param("userId") Long userId, Pageable pageable);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update SLR s set s.protocol = null where s.protocol.id = :protocolId")
+    int detachProtocol(@Param("protocolId") Long protocolId);
+
+    //The researchers own the join table, so removing a review does not remove its links by itself
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "delete from researcher_slr where slr_id = :slrId", nativeQuery = true)
+    int deleteResearcherLinks(@Param("slrId") Long slrId);
 }
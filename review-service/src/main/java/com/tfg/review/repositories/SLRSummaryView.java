@@ -0,0 +1,17 @@
+package com.tfg.review.repositories;
+
+//Scalar columns of a review, read without loading its protocol, report and researchers
+public interface SLRSummaryView {
+
+    Long getId();
+
+    String getTitle();
+
+    String getDescription();
+
+    String getWorkField();
+
+    String getObjective();
+
+    Boolean getPublicVisibility();
+}
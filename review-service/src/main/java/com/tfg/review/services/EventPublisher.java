@@ -0,0 +1,19 @@
+package com.tfg.review.services;
+
+import com.tfg.review.dtos.ReviewEventDTO;
+
+import java.util.List;
+
+/**
+ * Delivers a batch of outbox events to their consumers. Chosen with the outbox.publisher property: "http" (default)
+ * posts them to search-service, "in-memory" keeps them in the process for tests and local runs.
+ */
+public interface EventPublisher {
+
+    /**
+     * @throws org.springframework.web.client.HttpClientErrorException.BadRequest if the consumer rejected the batch as
+     * malformed, which is parked
+     * @throws RuntimeException if the batch was not delivered, so that it is retried
+     */
+    void publish(List<ReviewEventDTO> events);
+}
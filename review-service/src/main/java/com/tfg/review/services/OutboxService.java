@@ -0,0 +1,40 @@
+package com.tfg.review.services;
+
+import com.tfg.review.models.Form;
+import com.tfg.review.models.Protocol;
+
+import java.util.Collection;
+
+/**
+ * Transactional outbox of the changes that search-service keeps in sync with. Events are recorded in the transaction
+ * of the change, so they exist if and only if it commits, and delivered later in batches by the relay.
+ */
+public interface OutboxService {
+
+    void protocolChanged(Long protocolId);
+
+    void protocolsChanged(Collection<Protocol> protocols);
+
+    /**
+     * @param formIds forms deleted with the protocol, whose instances search-service has to remove
+     */
+    void protocolDeleted(Long protocolId, Collection<Long> formIds);
+
+    void selectionCriteriaChanged(Collection<Protocol> protocols);
+
+    /**
+     * Ignored if the form does not belong to a protocol yet
+     */
+    void formChanged(Form form);
+
+    void formDeleted(Long protocolId, Long formId);
+
+    /**
+     * Delivers the oldest due events, up to the batch size. A failed batch is rescheduled with exponential backoff,
+     * capped at outbox.max-backoff-ms, and only parked if search-service rejects it as malformed with a 400 answer.
+     * @return the number of events delivered
+     */
+    int relayBatch();
+
+    int getBatchSize();
+}
@@ -2,6 +2,7 @@ package com.tfg.review.services;
 
 import com.tfg.review.dtos.FullProtocolDTO;
 import com.tfg.review.dtos.ProtocolDTO;
+import com.tfg.review.dtos.ProtocolPageDTO;
 import com.tfg.review.models.*;
 
 import java.util.List;
@@ -15,6 +16,10 @@ public interface ProtocolService {
     Protocol update (Protocol protocol);
     void delete(Long protocolId);
 
+    //--Read model: views built from projections, in a constant number of queries--//
+    FullProtocolDTO findView(Long protocolId);
+    ProtocolPageDTO findViews(int page, int size);
+
     //--Assistant methods--//
     List<SelectionCriteria> findSelectionCriteriaFromSearch(Long protocolId);
 }
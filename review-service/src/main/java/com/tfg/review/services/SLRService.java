@@ -19,9 +19,12 @@ public interface SLRService {
     /**
      *
      * @param userId
-     * @return A list with all the reviews associated to the same Researcher by its userID
+     * @param page page to return, starting at 0; ignored if there is no size
+     * @param size size of the page, or null to return all the reviews
+     * @param sort property to sort by, optionally followed by ",asc" or ",desc"; by ID if null
+     * @return The summaries of the reviews in which the user is a Researcher, without duplicates, read in one query
      */
-    List<SLR> findByResearcherUserId(Long userId);
+    List<SLRDTO> findByResearcherUserId(Long userId, Integer page, Integer size, String sort);
 
     /**
      *
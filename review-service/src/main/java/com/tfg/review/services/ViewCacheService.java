@@ -0,0 +1,31 @@
+package com.tfg.review.services;
+
+import com.tfg.review.dtos.FullProtocolDTO;
+import com.tfg.review.dtos.FullSLRDTO;
+import com.tfg.review.models.Protocol;
+import com.tfg.review.utils.CachedView;
+
+import java.util.Collection;
+import java.util.function.Function;
+
+/**
+ * Bounded cache of the assembled review and protocol views, with the ETag of each one so that unchanged views can be
+ * answered with a 304. The services that write the data of a view evict it; evictions run once the transaction
+ * commits, so a view loaded meanwhile from the old data is not kept.
+ */
+public interface ViewCacheService {
+
+    /**
+     * @param loader builds the view on a miss. It is called once for concurrent misses on the same review
+     */
+    CachedView<FullSLRDTO> getSLR(Long slrId, Function<Long, FullSLRDTO> loader);
+
+    CachedView<FullProtocolDTO> getProtocol(Long protocolId, Function<Long, FullProtocolDTO> loader);
+
+    void evictSLR(Long slrId);
+
+    void evictProtocol(Long protocolId);
+
+    //For shared entities (keywords, criteria, data sources) that appear in the view of every protocol they belong to
+    void evictProtocols(Collection<Protocol> protocols);
+}
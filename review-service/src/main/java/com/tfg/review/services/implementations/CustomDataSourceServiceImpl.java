@@ -8,6 +8,7 @@ import com.tfg.review.models.Protocol;
 import com.tfg.review.repositories.CustomDataSourceRepository;
 
 import com.tfg.review.services.CustomDataSourceService;
+import com.tfg.review.services.ViewCacheService;
 import com.tfg.review.utils.MessageConstants;
 import lombok.AllArgsConstructor;
 import org.springframework.stereotype.Service;
@@ -24,6 +25,7 @@ public class CustomDataSourceServiceImpl implements CustomDataSourceService {
 
     private final CustomDataSourceRepository customRepository;
     private final ProtocolServiceImpl protocolService;
+    private final ViewCacheService viewCacheService;
 
     //--CRUD--//
 
@@ -56,6 +58,8 @@ public class CustomDataSourceServiceImpl implements CustomDataSourceService {
     public CustomDataSource update(CustomDataSource dataSource){
         if(!customRepository.existsById(dataSource.getId())) throw new DataSourceNotFoundException(MessageConstants.DATA_SOURCE_NOT_FOUND);
 
+        //Shown in the view of every protocol it belongs to
+        viewCacheService.evictProtocols(dataSource.getProtocols());
         return customRepository.save(dataSource);
     }
 
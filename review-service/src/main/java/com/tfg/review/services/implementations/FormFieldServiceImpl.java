@@ -8,6 +8,7 @@ import com.tfg.review.models.FormField;
 import com.tfg.review.repositories.FormFieldRepository;
 import com.tfg.review.services.FormFieldService;
 import com.tfg.review.services.FormService;
+import com.tfg.review.services.OutboxService;
 import lombok.AllArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -22,6 +23,7 @@ public class FormFieldServiceImpl implements FormFieldService {
 
     private final FormFieldRepository formFieldRepository;
     private final FormService formService;
+    private final OutboxService outboxService;
 
 
     //--CRUD--//
@@ -51,7 +53,9 @@ public class FormFieldServiceImpl implements FormFieldService {
         if(field==null) throw new NullEntityException("FormField is null");
         if(!formFieldRepository.existsFormFieldById(field.getId())) throw new FormFieldNotFoundException("Form field not found");
 
-        return formFieldRepository.save(field);
+        FormField result = formFieldRepository.save(field);
+        outboxService.formChanged(result.getForm());
+        return result;
     }
 
     public void delete(Long id){
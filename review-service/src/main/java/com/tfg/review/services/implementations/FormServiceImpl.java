@@ -11,6 +11,7 @@ import com.tfg.review.models.FormType;
 import com.tfg.review.models.Protocol;
 import com.tfg.review.repositories.FormRepository;
 import com.tfg.review.services.FormService;
+import com.tfg.review.services.OutboxService;
 import com.tfg.review.utils.MessageConstants;
 import lombok.AllArgsConstructor;
 import org.springframework.stereotype.Service;
@@ -30,6 +31,7 @@ public class FormServiceImpl implements FormService {
     private final FormRepository formRepository;
 
     private final ProtocolServiceImpl protocolService;
+    private final OutboxService outboxService;
     //--CRUD--//
 
     public Optional<Form> findOne(Long formId){
@@ -83,6 +85,7 @@ public class FormServiceImpl implements FormService {
 
     public Form update(Form form){
         if(form==null) throw new NullEntityException(MessageConstants.NULL_ID_ENTITY);
+        outboxService.formChanged(form);
         return formRepository.save(form);
     }
 
@@ -95,12 +98,13 @@ public class FormServiceImpl implements FormService {
             relatedProtocol = form.getProtocolToQuality();
             relatedProtocol.setQualityForm(null);
         } else if (form.getFormType()== FormType.EXTRACTION){
-            relatedProtocol = form.getProtocolToQuality();
+            relatedProtocol = form.getProtocolToExtraction();
             relatedProtocol.setExtractionForm(null);
         }
 
         formRepository.delete(form);
         protocolService.update(relatedProtocol);
+        outboxService.formDeleted(relatedProtocol.getId(), form.getId());
     }
     //--Assistant methods--//
 }
@@ -0,0 +1,26 @@
+package com.tfg.review.services.implementations;
+
+import com.tfg.review.dtos.ReviewEventDTO;
+import com.tfg.review.services.EventPublisher;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.List;
+
+@Service
+@ConditionalOnProperty(name = "outbox.publisher", havingValue = "http", matchIfMissing = true)
+public class HttpEventPublisher implements EventPublisher {
+
+    private final RestTemplate restTemplate;
+
+    public HttpEventPublisher(@Qualifier("eventRestTemplate") RestTemplate restTemplate) {
+        this.restTemplate = restTemplate;
+    }
+
+    public void publish(List<ReviewEventDTO> events){
+        //Any answer other than 2xx throws: a 400 parks the batch, anything else retries it
+        restTemplate.postForEntity("http://search-service/api/review-events", events, Void.class);
+    }
+}
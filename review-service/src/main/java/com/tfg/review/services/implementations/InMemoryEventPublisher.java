@@ -0,0 +1,40 @@
+package com.tfg.review.services.implementations;
+
+import com.tfg.review.dtos.ReviewEventDTO;
+import com.tfg.review.services.EventPublisher;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+//In-process stand-in for the broker: keeps the published events and hands them to the registered consumers
+@Service
+@ConditionalOnProperty(name = "outbox.publisher", havingValue = "in-memory")
+public class InMemoryEventPublisher implements EventPublisher {
+
+    private final List<ReviewEventDTO> published = new CopyOnWriteArrayList<>();
+    private final List<Consumer<List<ReviewEventDTO>>> consumers = new CopyOnWriteArrayList<>();
+
+    public void publish(List<ReviewEventDTO> events){
+        for(Consumer<List<ReviewEventDTO>> consumer : consumers){
+            consumer.accept(events);
+        }
+        published.addAll(events);
+    }
+
+    public void subscribe(Consumer<List<ReviewEventDTO>> consumer){
+        consumers.add(consumer);
+    }
+
+    public List<ReviewEventDTO> getPublished(){
+        return new ArrayList<>(published);
+    }
+
+    public void clear(){
+        published.clear();
+        consumers.clear();
+    }
+}
@@ -7,6 +7,8 @@ import com.tfg.review.models.Keyword;
 import com.tfg.review.models.Protocol;
 import com.tfg.review.repositories.KeywordRepository;
 import com.tfg.review.services.KeywordService;
+import com.tfg.review.services.OutboxService;
+import com.tfg.review.services.ViewCacheService;
 import com.tfg.review.utils.MessageConstants;
 import lombok.AllArgsConstructor;
 import org.springframework.stereotype.Service;
@@ -24,6 +26,8 @@ public class KeywordServiceImpl implements KeywordService {
     private final KeywordRepository keywordRepository;
 
     private final ProtocolServiceImpl protocolService;
+    private final ViewCacheService viewCacheService;
+    private final OutboxService outboxService;
 
     //--CRUD--//
 
@@ -56,6 +60,9 @@ public class KeywordServiceImpl implements KeywordService {
     public Keyword update (Keyword keyword){
         if(keyword==null || !keywordRepository.existsById(keyword.getId())) throw new KeywordNotFoundException(MessageConstants.KEYWORD_NOT_FOUND);
 
+        //Shown in the view of every protocol it belongs to
+        viewCacheService.evictProtocols(keyword.getProtocols());
+        outboxService.protocolsChanged(keyword.getProtocols());
         return keywordRepository.save(keyword);
     }
 
@@ -0,0 +1,28 @@
+package com.tfg.review.services.implementations;
+
+import com.tfg.review.services.OutboxService;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+//Polls the outbox table; each batch is its own transaction
+@Component
+@AllArgsConstructor
+@Slf4j
+@ConditionalOnProperty(name = "outbox.relay.enabled", havingValue = "true", matchIfMissing = true)
+public class OutboxRelay {
+
+    private final OutboxService outboxService;
+
+    @Scheduled(fixedDelayString = "${outbox.poll-interval-ms:1000}")
+    public void relay(){
+        try{
+            //A full batch means there may be more due events, so they are sent without waiting for the next poll
+            while(outboxService.relayBatch() == outboxService.getBatchSize());
+        }catch (RuntimeException e){
+            log.error("Outbox relay failed", e);
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.tfg.review.services.implementations;
+
+import com.tfg.review.dtos.ReviewEventDTO;
+import com.tfg.review.models.EventType;
+import com.tfg.review.models.Form;
+import com.tfg.review.models.OutboxEvent;
+import com.tfg.review.models.Protocol;
+import com.tfg.review.repositories.OutboxEventRepository;
+import com.tfg.review.services.EventPublisher;
+import com.tfg.review.services.OutboxService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.client.HttpClientErrorException;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Collectors;
+
+@Service
+@Transactional
+@Slf4j
+public class OutboxServiceImpl implements OutboxService {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final EventPublisher eventPublisher;
+    private final int batchSize;
+    private final long initialBackoffMillis;
+    private final long maxBackoffMillis;
+
+    public OutboxServiceImpl(OutboxEventRepository outboxEventRepository, EventPublisher eventPublisher,
+                             @Value("${outbox.batch-size:100}") int batchSize,
+                             @Value("${outbox.initial-backoff-ms:1000}") long initialBackoffMillis,
+                             @Value("${outbox.max-backoff-ms:300000}") long maxBackoffMillis) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.eventPublisher = eventPublisher;
+        this.batchSize = batchSize;
+        this.initialBackoffMillis = initialBackoffMillis;
+        this.maxBackoffMillis = maxBackoffMillis;
+    }
+
+    //--Recording--//
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void protocolChanged(Long protocolId){
+        record(EventType.PROTOCOL_CHANGED, protocolId, null);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void protocolsChanged(Collection<Protocol> protocols){
+        for(Protocol protocol : protocols){
+            record(EventType.PROTOCOL_CHANGED, protocol.getId(), null);
+        }
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void protocolDeleted(Long protocolId, Collection<Long> formIds){
+        record(EventType.PROTOCOL_DELETED, protocolId, null);
+        for(Long formId : formIds){
+            record(EventType.FORM_DELETED, protocolId, formId);
+        }
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void selectionCriteriaChanged(Collection<Protocol> protocols){
+        for(Protocol protocol : protocols){
+            record(EventType.SELECTION_CRITERIA_CHANGED, protocol.getId(), null);
+        }
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void formChanged(Form form){
+        Protocol protocol = form.getProtocolToExtraction() != null ? form.getProtocolToExtraction() : form.getProtocolToQuality();
+        if(protocol == null) return;
+        record(EventType.FORM_CHANGED, protocol.getId(), form.getId());
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void formDeleted(Long protocolId, Long formId){
+        record(EventType.FORM_DELETED, protocolId, formId);
+    }
+
+    private void record(EventType type, Long protocolId, Long formId){
+        if(protocolId == null) return;
+        Date now = new Date();
+        outboxEventRepository.save(OutboxEvent.builder().type(type).protocolId(protocolId).formId(formId)
+                .createdAt(now).nextAttemptAt(now).attempts(0).build());
+    }
+
+    //--Relay--//
+
+    //The batch stays locked while it is published, so a slow consumer delays the relay but never the writers. The
+    //publisher's timeouts bound how long that can be
+    public int relayBatch(){
+        Date now = new Date();
+        List<OutboxEvent> events = outboxEventRepository.findDue(now, batchSize);
+        if(events.isEmpty()) return 0;
+
+        try{
+            eventPublisher.publish(events.stream().map(ReviewEventDTO::buildFromEntity).collect(Collectors.toList()));
+        }catch (HttpClientErrorException.BadRequest e){
+            park(events, e);
+            return 0;
+        }catch (RuntimeException e){
+            reschedule(events, now, e);
+            return 0;
+        }
+        outboxEventRepository.deleteAllInBatch(events);
+        return events.size();
+    }
+
+    //Transport errors, 5xx and any answer other than 400 are retried for as long as it takes, an outage or an
+    //authentication problem must not lose any event
+    private void reschedule(List<OutboxEvent> events, Date now, RuntimeException cause){
+        for(OutboxEvent event : events){
+            int attempts = event.getAttempts() + 1;
+            event.setAttempts(attempts);
+            event.setLastError(cause.getMessage());
+            event.setNextAttemptAt(new Date(now.getTime() + backoff(attempts)));
+        }
+        outboxEventRepository.saveAll(events);
+        log.warn("Could not publish {} outbox events, they will be retried: {}", events.size(), cause.getMessage());
+    }
+
+    //search-service only answers 400 to a malformed batch, retrying it would only fail again
+    private void park(List<OutboxEvent> events, HttpClientErrorException cause){
+        for(OutboxEvent event : events){
+            event.setAttempts(event.getAttempts() + 1);
+            event.setLastError(cause.getMessage());
+            event.setNextAttemptAt(null);
+        }
+        outboxEventRepository.saveAll(events);
+        log.error("Parked outbox events {} rejected by search-service: {}",
+                events.stream().map(OutboxEvent::getId).collect(Collectors.toList()), cause.getMessage());
+    }
+
+    private long backoff(int attempts){
+        return Math.min(initialBackoffMillis << Math.min(attempts - 1, 30), maxBackoffMillis);
+    }
+
+    public int getBatchSize(){
+        return batchSize;
+    }
+}
@@ -7,6 +7,7 @@ import com.tfg.review.models.PredefDataSource;
 import com.tfg.review.models.Protocol;
 import com.tfg.review.repositories.PredefDataSourceRepository;
 import com.tfg.review.services.PredefDataSourceService;
+import com.tfg.review.services.ViewCacheService;
 import com.tfg.review.utils.MessageConstants;
 import lombok.AllArgsConstructor;
 import org.springframework.stereotype.Service;
@@ -24,6 +25,7 @@ public class PredefDataSourceServiceImpl implements PredefDataSourceService {
     private final PredefDataSourceRepository predefRepository;
 
     private final ProtocolServiceImpl protocolService;
+    private final ViewCacheService viewCacheService;
 
     //--CRUD--//
 
@@ -58,6 +60,8 @@ public class PredefDataSourceServiceImpl implements PredefDataSourceService {
     public PredefDataSource update(PredefDataSource dataSource){
         if(!predefRepository.existsById(dataSource.getId())) throw new DataSourceNotFoundException(MessageConstants.DATA_SOURCE_NOT_FOUND);
 
+        //Shown in the view of every protocol it belongs to
+        viewCacheService.evictProtocols(dataSource.getProtocols());
         return predefRepository.save(dataSource);
     }
 
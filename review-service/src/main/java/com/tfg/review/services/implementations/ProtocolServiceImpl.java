@@ -2,22 +2,29 @@ package com.tfg.review.services.implementations;
 
 import com.tfg.review.dtos.FullProtocolDTO;
 import com.tfg.review.dtos.ProtocolDTO;
+import com.tfg.review.dtos.ProtocolPageDTO;
 import com.tfg.review.exceptions.*;
 import com.tfg.review.models.*;
 import com.tfg.review.repositories.*;
 import com.tfg.review.services.ProtocolService;
+import com.tfg.review.services.OutboxService;
+import com.tfg.review.services.ViewCacheService;
 import com.tfg.review.utils.MessageConstants;
 import lombok.AllArgsConstructor;
-import org.springframework.http.HttpMethod;
-import org.springframework.http.ResponseEntity;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.web.client.RestTemplate;
 
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @Transactional
@@ -25,13 +32,12 @@ import java.util.Set;
 public class ProtocolServiceImpl implements ProtocolService {
 
     private final ProtocolRepository protocolRepository;
-    private final SelectionCriteriaRepository selectionCriteriaRepository;
-    private final KeywordRepository keywordRepository;
-    private final CustomDataSourceRepository customDataSourceRepository;
-    private final PredefDataSourceRepository predefDataSourceRepository;
-    private final SnowballingRepository snowballingRepository;
-    private final RestTemplate restTemplate;
     private final SLRRepository sLRRepository;
+    private final FormRepository formRepository;
+    private final ViewCacheService viewCacheService;
+    private final OutboxService outboxService;
+
+    private static final int MAX_PAGE_SIZE = 100;
 
     //--CRUD--//
 
@@ -57,6 +63,7 @@ public class ProtocolServiceImpl implements ProtocolService {
         protocol.setSelectionCriteria(new HashSet<>());
         protocolRepository.save(protocol);
         sLRRepository.save(slr);
+        viewCacheService.evictSLR(slrId);
 
         return FullProtocolDTO.buildFromEntity(protocol);
     }
@@ -64,59 +71,71 @@ public class ProtocolServiceImpl implements ProtocolService {
     public Protocol update (Protocol protocol){
         if(!protocolRepository.existsById(protocol.getId())) throw new ProtocolNotFoundException(MessageConstants.PROTOCOL_NOT_FOUND);
 
+        //Every change to the keywords, criteria, data sources or forms of a protocol is saved here
+        viewCacheService.evictProtocol(protocol.getId());
+        outboxService.protocolChanged(protocol.getId());
         return protocolRepository.save(protocol);
     }
 
     public void delete(Long protocolId){
-        Protocol protocol = protocolRepository.findProtocolById(protocolId).orElseThrow(() -> new ProtocolNotFoundException(MessageConstants.PROTOCOL_NOT_FOUND));
-        SLR father = protocol.getSlr();
+        ProtocolSummaryView protocol = protocolRepository.findSummaryById(protocolId).orElseThrow(() -> new ProtocolNotFoundException(MessageConstants.PROTOCOL_NOT_FOUND));
+        List<Long> formIds = Stream.of(protocol.getExtractionFormId(), protocol.getQualityFormId())
+                .filter(Objects::nonNull).collect(Collectors.toList());
+
+        //One statement per table: keywords, criteria and data sources are shared, so only the links to them are removed
+        sLRRepository.detachProtocol(protocolId);
+        protocolRepository.deleteLanguages(protocolId);
+        protocolRepository.deleteInBulk(protocolId);
+        //Forms have a composition relationship, so they go with the protocol
+        if(!formIds.isEmpty()){
+            formRepository.deleteFieldsInBulk(formIds);
+            formRepository.deleteInBulk(formIds);
+        }
 
-        father.setProtocol(null);
-        sLRRepository.save(father);
+        if(protocol.getSlrId() != null) viewCacheService.evictSLR(protocol.getSlrId());
+        viewCacheService.evictProtocol(protocolId);
+        //search-service removes the instances of the forms when the event is delivered
+        outboxService.protocolDeleted(protocolId, formIds);
+    }
 
-        //Need to be an array list to iterate and modify
-        for(SelectionCriteria selectionCriteria: List.copyOf(protocol.getSelectionCriteria())){
-            selectionCriteria.removeProtocol(protocol);
-            selectionCriteriaRepository.save(selectionCriteria);
-        }
+    //--Read model--//
 
-        for(Keyword keyword: List.copyOf(protocol.getKeywords())){
-            keyword.removeProtocol(protocol);
-            keywordRepository.save(keyword);
-        }
+    @Transactional(readOnly = true)
+    public FullProtocolDTO findView(Long protocolId){
+        ProtocolSummaryView summary = protocolRepository.findSummaryById(protocolId).orElseThrow(() -> new ProtocolNotFoundException(MessageConstants.PROTOCOL_NOT_FOUND));
+        FullProtocolDTO dto = FullProtocolDTO.buildFromView(summary);
+        addItems(List.of(dto));
+        return dto;
+    }
 
-        for(DataSource dataSource: List.copyOf(protocol.getDataSources())){
-            if(dataSource instanceof CustomDataSource){
-                dataSource.removeProtocol(protocol);
-                customDataSourceRepository.save((CustomDataSource) dataSource);
-            }else if(dataSource instanceof PredefDataSource) {
-                dataSource.removeProtocol(protocol);
-                predefDataSourceRepository.save((PredefDataSource) dataSource);
-            } else if(dataSource instanceof Snowballing) {
-                snowballingRepository.save((Snowballing) dataSource);
-            }
-        }
-        //Forms have a composition relationship and they should delete automatically
-        if(protocol.getExtractionForm()!= null){
-            ResponseEntity<String> response = restTemplate.exchange("http://search-service/api/form-instance/full-delete/{formId}",
-                    HttpMethod.DELETE, null, String.class, protocol.getExtractionForm().getId());
+    @Transactional(readOnly = true)
+    public ProtocolPageDTO findViews(int page, int size){
+        if(page < 0 || size < 1 || size > MAX_PAGE_SIZE) throw new IllegalArgumentException(MessageConstants.INVALID_PAGE + MAX_PAGE_SIZE);
+
+        Page<ProtocolSummaryView> summaries = protocolRepository.findSummaries(PageRequest.of(page, size));
+        List<FullProtocolDTO> protocols = summaries.getContent().stream().map(FullProtocolDTO::buildFromView).collect(Collectors.toList());
+        addItems(protocols);
+
+        return ProtocolPageDTO.builder().protocols(protocols).page(page).size(size)
+                .total(summaries.getTotalElements()).hasNext(summaries.hasNext()).build();
+    }
 
-            if (response.getStatusCodeValue() == 500){
-                throw new ServiceDownException(MessageConstants.SERVICE_DOWN);
-            } else if (response.getStatusCodeValue() != 200){
-                throw new IllegalArgumentException(MessageConstants.ERROR_DELETING);
-            }
+    //One query per collection for all the protocols of the page
+    private void addItems(List<FullProtocolDTO> protocols){
+        if(protocols.isEmpty()) return;
+        Map<Long, FullProtocolDTO> byId = protocols.stream().collect(Collectors.toMap(FullProtocolDTO::getId, Function.identity()));
 
+        for(ProtocolItemView item: protocolRepository.findKeywordItems(byId.keySet())){
+            byId.get(item.getProtocolId()).getKeywords().add(FullProtocolDTO.item(item.getId(), item.getName()));
+        }
+        for(ProtocolItemView item: protocolRepository.findDataSourceItems(byId.keySet())){
+            byId.get(item.getProtocolId()).getDataSources().add(FullProtocolDTO.item(item.getId(), item.getName()));
+        }
+        for(ProtocolItemView item: protocolRepository.findSelectionCriteriaItems(byId.keySet())){
+            byId.get(item.getProtocolId()).getSelectionCriteria().add(FullProtocolDTO.item(item.getId(), item.getName()));
         }
-        if(protocol.getQualityForm()!= null){
-            ResponseEntity<String> response = restTemplate.exchange("http://search-service/api/form-instance/full-delete/{formId}",
-                    HttpMethod.DELETE, null, String.class, protocol.getQualityForm().getId());
-
-                if (response.getStatusCodeValue() == 500){
-                    throw new ServiceDownException(MessageConstants.SERVICE_DOWN);
-                } else if (response.getStatusCodeValue() != 200){
-                    throw new IllegalArgumentException(MessageConstants.ERROR_DELETING);
-                }
+        for(ProtocolItemView item: protocolRepository.findLanguageItems(byId.keySet())){
+            byId.get(item.getProtocolId()).getLanguages().add(new Language(item.getName()));
         }
     }
 
@@ -9,6 +9,7 @@ import com.tfg.review.models.SLR;
 import com.tfg.review.repositories.ReportRepository;
 import com.tfg.review.services.ReportService;
 import com.tfg.review.services.SLRService;
+import com.tfg.review.services.ViewCacheService;
 import lombok.AllArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -25,6 +26,8 @@ public class ReportServiceImpl implements ReportService {
 
     private final ReportRepository reportRepository;
 
+    private final ViewCacheService viewCacheService;
+
     //--CRUD--//
 
     public List<Report> findAll(){
@@ -67,6 +70,7 @@ public class ReportServiceImpl implements ReportService {
 
         reportRepository.deleteById(reportId);
         father.setProtocol(null);
+        viewCacheService.evictSLR(slrId);
     }
 
     //--Other methods--//
@@ -12,19 +12,24 @@ import com.tfg.review.models.Researcher;
 import com.tfg.review.models.Rol;
 import com.tfg.review.models.SLR;
 import com.tfg.review.repositories.SLRRepository;
+import com.tfg.review.repositories.SLRSummaryView;
 import com.tfg.review.services.ProtocolService;
 import com.tfg.review.services.ResearcherService;
 import com.tfg.review.services.SLRService;
+import com.tfg.review.services.ViewCacheService;
 import com.tfg.review.utils.MessageConstants;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 
 @Service
@@ -35,6 +40,10 @@ public class SLRServiceImpl implements SLRService {
     private final SLRRepository slrRepository;
     private final ProtocolService protocolService;
     private final ResearcherService researcherService;
+    private final ViewCacheService viewCacheService;
+
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final Set<String> SORTABLE = Set.of("id", "title", "workField", "initDate", "endDate");
 
     //--Basic CRUD methods--//
     @Override
@@ -77,6 +86,7 @@ public class SLRServiceImpl implements SLRService {
     public FullSLRDTO update (SLR slr){
         if(slr==null|| !slrRepository.existsById(slr.getId())) throw new SLRNotFoundException(MessageConstants.NULL_SLR);
 
+        viewCacheService.evictSLR(slr.getId());
         return FullSLRDTO.buildFromEntity(slrRepository.save(slr));
     }
 
@@ -85,8 +95,10 @@ public class SLRServiceImpl implements SLRService {
         SLR slr = slrRepository.findSLRById(slrId).orElseThrow(() -> new NullEntityException(MessageConstants.NULL_SLR));
         Protocol relatedProtocol = slr.getProtocol();
         try {
-            protocolService.delete(relatedProtocol.getId());
+            if(relatedProtocol != null) protocolService.delete(relatedProtocol.getId());
+            slrRepository.deleteResearcherLinks(slrId);
             slrRepository.deleteSLRById(slrId);
+            viewCacheService.evictSLR(slrId);
         }catch (Exception e){
             throw new CantDeleteException(MessageConstants.ERROR_DELETING);
         }
@@ -94,14 +106,35 @@ public class SLRServiceImpl implements SLRService {
 
     //--Assistant methods--//
     @Override
-    public List<SLR> findByResearcherUserId(Long userId){
+    @Transactional(readOnly = true)
+    public List<SLRDTO> findByResearcherUserId(Long userId, Integer page, Integer size, String sort){
         if(userId==null) throw new IllegalArgumentException(MessageConstants.USER_ID_IS_NULL);
-        List<Researcher> researcherList = researcherService.findByUserId(userId);
-        List<SLR> result = new ArrayList<>();
-        for(Researcher researcher : researcherList) {
-            result.addAll( researcher.getSLRs());
+        Sort order = parseSort(sort);
+
+        List<SLRSummaryView> summaries;
+        if(size == null){
+            summaries = slrRepository.findSummariesByUserId(userId, order);
+        }else{
+            int pageNumber = page == null ? 0 : page;
+            if(pageNumber < 0 || size < 1 || size > MAX_PAGE_SIZE) throw new IllegalArgumentException(MessageConstants.INVALID_PAGE + MAX_PAGE_SIZE);
+            summaries = slrRepository.findSummariesByUserId(userId, PageRequest.of(pageNumber, size, order));
+        }
+        return summaries.stream().map(SLRDTO::buildFromView).collect(Collectors.toList());
+    }
+
+    //"property" or "property,asc|desc", with the ID as tiebreaker so that pages are stable
+    private Sort parseSort(String sort){
+        if(sort == null || sort.isBlank()) return Sort.by("id");
+        String[] parts = sort.split(",");
+        String property = parts[0].trim();
+        if(!SORTABLE.contains(property) || parts.length > 2) throw new IllegalArgumentException(MessageConstants.INVALID_SORT + SORTABLE);
+        Sort.Direction direction = Sort.Direction.ASC;
+        if(parts.length == 2){
+            direction = Sort.Direction.fromOptionalString(parts[1].trim())
+                    .orElseThrow(() -> new IllegalArgumentException(MessageConstants.INVALID_SORT + SORTABLE));
         }
-        return result;
+        Sort result = Sort.by(direction, property);
+        return property.equals("id") ? result : result.and(Sort.by("id"));
     }
 
     public Researcher addResearcher(Long slrId, UserDTO researcherDTO, Long userId){
@@ -6,7 +6,9 @@ import com.tfg.review.exceptions.SelectionCriteriaNotFoundException;
 import com.tfg.review.models.Protocol;
 import com.tfg.review.models.SelectionCriteria;
 import com.tfg.review.repositories.SelectionCriteriaRepository;
+import com.tfg.review.services.OutboxService;
 import com.tfg.review.services.SelectionCriteriaService;
+import com.tfg.review.services.ViewCacheService;
 import com.tfg.review.utils.MessageConstants;
 import lombok.AllArgsConstructor;
 import org.springframework.stereotype.Service;
@@ -24,6 +26,8 @@ public class SelectionCriteriaServiceImpl implements SelectionCriteriaService {
 
     private final SelectionCriteriaRepository selectionCriteriaRepository;
     private final ProtocolServiceImpl protocolService;
+    private final ViewCacheService viewCacheService;
+    private final OutboxService outboxService;
 
     //--CRUD--//
 
@@ -89,6 +93,9 @@ public class SelectionCriteriaServiceImpl implements SelectionCriteriaService {
         if (!selectionCriteriaRepository.existsById(criteria.getId()))
             throw new SelectionCriteriaNotFoundException(MessageConstants.SELECTION_CRITERIA_NOT_FOUND);
 
+        //Shown in the view of every protocol it belongs to
+        viewCacheService.evictProtocols(criteria.getProtocols());
+        outboxService.selectionCriteriaChanged(criteria.getProtocols());
         return selectionCriteriaRepository.save(criteria);
     }
 
@@ -11,6 +11,7 @@ import com.tfg.review.models.SnowballingType;
 import com.tfg.review.repositories.SnowballingRepository;
 import com.tfg.review.services.ProtocolService;
 import com.tfg.review.services.SnowballingService;
+import com.tfg.review.services.ViewCacheService;
 import com.tfg.review.utils.MessageConstants;
 import lombok.AllArgsConstructor;
 import org.springframework.stereotype.Service;
@@ -27,6 +28,7 @@ public class SnowballingServiceImpl implements SnowballingService {
 
     private final SnowballingRepository snowballingRepository;
     private final ProtocolService protocolService;
+    private final ViewCacheService viewCacheService;
 
     //--CRUD--//
 
@@ -64,6 +66,8 @@ public class SnowballingServiceImpl implements SnowballingService {
         if(snowballing==null) throw new NullEntityException(MessageConstants.USER_ID_IS_NULL);
         if(!snowballingRepository.existsById(snowballing.getId())) throw new SnowballingNotFoundException(MessageConstants.SNOWBALLING_NOT_FOUND);
 
+        //Shown in the view of every protocol it belongs to
+        viewCacheService.evictProtocols(snowballing.getProtocols());
         return snowballingRepository.save(snowballing);
     }
 
@@ -0,0 +1,72 @@
+package com.tfg.review.services.implementations;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tfg.review.dtos.FullProtocolDTO;
+import com.tfg.review.dtos.FullSLRDTO;
+import com.tfg.review.models.Protocol;
+import com.tfg.review.services.ViewCacheService;
+import com.tfg.review.utils.CachedView;
+import com.tfg.review.utils.ExpiringCache;
+import com.tfg.review.utils.TransactionCallbacks;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.DigestUtils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Function;
+
+@Service
+public class ViewCacheServiceImpl implements ViewCacheService {
+
+    private final ObjectMapper objectMapper;
+    private final ExpiringCache<Long, CachedView<FullSLRDTO>> slrCache;
+    private final ExpiringCache<Long, CachedView<FullProtocolDTO>> protocolCache;
+
+    public ViewCacheServiceImpl(ObjectMapper objectMapper,
+                                @Value("${view-cache.max-size:1000}") int maxSize,
+                                @Value("${view-cache.ttl-seconds:600}") long ttlSeconds){
+        this.objectMapper = objectMapper;
+        this.slrCache = new ExpiringCache<>(maxSize, ttlSeconds * 1000);
+        this.protocolCache = new ExpiringCache<>(maxSize, ttlSeconds * 1000);
+    }
+
+    @Override
+    public CachedView<FullSLRDTO> getSLR(Long slrId, Function<Long, FullSLRDTO> loader){
+        return slrCache.get(slrId, id -> withEtag(loader.apply(id)));
+    }
+
+    @Override
+    public CachedView<FullProtocolDTO> getProtocol(Long protocolId, Function<Long, FullProtocolDTO> loader){
+        return protocolCache.get(protocolId, id -> withEtag(loader.apply(id)));
+    }
+
+    @Override
+    public void evictSLR(Long slrId){
+        if(slrId != null) TransactionCallbacks.afterCommit(() -> slrCache.invalidate(slrId));
+    }
+
+    @Override
+    public void evictProtocol(Long protocolId){
+        if(protocolId != null) TransactionCallbacks.afterCommit(() -> protocolCache.invalidate(protocolId));
+    }
+
+    @Override
+    public void evictProtocols(Collection<Protocol> protocols){
+        if(protocols == null || protocols.isEmpty()) return;
+        List<Long> ids = new ArrayList<>(protocols.size());
+        for(Protocol protocol : protocols) ids.add(protocol.getId());
+        TransactionCallbacks.afterCommit(() -> ids.forEach(protocolCache::invalidate));
+    }
+
+    //Strong ETag in the format of Spring's ShallowEtagHeaderFilter: a quoted MD5 of the JSON body
+    private <T> CachedView<T> withEtag(T value){
+        try{
+            return new CachedView<>(value, "\"0" + DigestUtils.md5DigestAsHex(objectMapper.writeValueAsBytes(value)) + "\"");
+        }catch (JsonProcessingException e){
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.tfg.review.utils;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Assembled response of a view together with its ETag, a hash of its JSON representation.
+ */
+@Getter
+@AllArgsConstructor
+public class CachedView<T> {
+
+    private final T value;
+
+    private final String etag;
+}
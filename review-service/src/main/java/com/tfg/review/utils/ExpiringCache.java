@@ -0,0 +1,89 @@
+package com.tfg.review.utils;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Bounded LRU cache whose entries expire after a fixed time. Concurrent misses on the same key share a single
+ * call to the loader (single flight). An invalidation that arrives while a value is being loaded prevents that
+ * value from being stored, so callers never see data older than the invalidation.
+ * Trimmed copy of search-service's ExpiringCache, keeping only what the view cache uses: the services do not share
+ * a module.
+ */
+public class ExpiringCache<K, V> {
+
+    private final long ttlMillis;
+    private final Map<K, Entry<V>> entries;
+    private final ConcurrentHashMap<K, CompletableFuture<V>> loading = new ConcurrentHashMap<>();
+
+    public ExpiringCache(int maxSize, long ttlMillis){
+        this.ttlMillis = ttlMillis;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true){
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    public V get(K key, Function<K, V> loader){
+        Entry<V> entry;
+        synchronized (entries){
+            entry = entries.get(key);
+        }
+        if(entry != null && entry.expiresAt > System.currentTimeMillis()){
+            return entry.value;
+        }
+
+        CompletableFuture<V> future = new CompletableFuture<>();
+        CompletableFuture<V> inFlight = loading.putIfAbsent(key, future);
+        if(inFlight != null){
+            return await(inFlight);
+        }
+        try{
+            V value = loader.apply(key);
+            synchronized (entries){
+                if(loading.get(key) == future){
+                    entries.put(key, new Entry<>(value, System.currentTimeMillis() + ttlMillis));
+                }
+            }
+            future.complete(value);
+            return value;
+        }catch (RuntimeException e){
+            future.completeExceptionally(e);
+            throw e;
+        }finally{
+            loading.remove(key, future);
+        }
+    }
+
+    public void invalidate(K key){
+        synchronized (entries){
+            loading.remove(key);
+            entries.remove(key);
+        }
+    }
+
+    private V await(CompletableFuture<V> future){
+        try{
+            return future.join();
+        }catch (CompletionException e){
+            if(e.getCause() instanceof RuntimeException) throw (RuntimeException) e.getCause();
+            throw e;
+        }
+    }
+
+    private static class Entry<V> {
+        private final V value;
+        private final long expiresAt;
+
+        Entry(V value, long expiresAt){
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
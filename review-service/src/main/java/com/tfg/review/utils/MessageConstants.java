@@ -21,5 +21,9 @@ public class MessageConstants {
     public static String USER_ID_NULL = "Para crear un investigador el usuario debe existir";
     public static String DATA_SOURCE_NOT_FOUND = "La fuente de datos solicitada no existe";
     public static String SNOWBALLING_NOT_FOUND = "No se ha encontrado el 'snowballing' introducido.";
+    public static String INVALID_CRITERIA_RULE = "La regla del criterio de selección no es válida: un rango de años necesita " +
+            "al menos un límite y el resto de campos al menos un valor.";
+    public static String INVALID_SORT = "Solo se puede ordenar por uno de estos campos, seguido opcionalmente de ',asc' o ',desc': ";
+    public static String INVALID_PAGE = "La página no puede ser negativa y su tamaño debe estar entre 1 y ";
     public static String KEYWORD_NOT_FOUND = "Las palabras claves introducidas no se han encontrado.";
 }
@@ -0,0 +1,27 @@
+package com.tfg.review.utils;
+
+import lombok.experimental.UtilityClass;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+@UtilityClass
+public class TransactionCallbacks {
+
+    /**
+     * Runs an action once the current transaction commits, or right away outside a transaction. Used for in-memory
+     * state derived from the database, which must not reflect changes that are rolled back. Same helper as in
+     * search-service, copied because the services do not share a module.
+     */
+    public static void afterCommit(Runnable action){
+        if(!TransactionSynchronizationManager.isSynchronizationActive()){
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
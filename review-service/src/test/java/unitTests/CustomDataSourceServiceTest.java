@@ -6,6 +6,7 @@ import com.tfg.review.exceptions.NullEntityException;
 import com.tfg.review.models.CustomDataSource;
 import com.tfg.review.models.Protocol;
 import com.tfg.review.repositories.CustomDataSourceRepository;
+import com.tfg.review.services.ViewCacheService;
 import com.tfg.review.services.implementations.CustomDataSourceServiceImpl;
 import com.tfg.review.services.implementations.ProtocolServiceImpl;
 import org.junit.jupiter.api.Assertions;
@@ -28,6 +29,8 @@ public class CustomDataSourceServiceTest {
     @InjectMocks
     private CustomDataSourceServiceImpl customDataSourceService;
     @Mock
+    private ViewCacheService viewCacheService;
+    @Mock
     private CustomDataSourceRepository customRepository;
     @Mock
     private ProtocolServiceImpl protocolService;
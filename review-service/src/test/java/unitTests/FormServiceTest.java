@@ -10,6 +10,7 @@ import com.tfg.review.models.FormField;
 import com.tfg.review.models.FormType;
 import com.tfg.review.models.Protocol;
 import com.tfg.review.repositories.FormRepository;
+import com.tfg.review.services.OutboxService;
 import com.tfg.review.services.ProtocolService;
 import com.tfg.review.services.implementations.FormServiceImpl;
 import com.tfg.review.services.implementations.ProtocolServiceImpl;
@@ -39,6 +40,8 @@ public class FormServiceTest {
     private FormRepository formRepository;
     @Mock
     private ProtocolServiceImpl protocolService;
+    @Mock
+    private OutboxService outboxService;
 
     @Test
     public void findAll_OK(){
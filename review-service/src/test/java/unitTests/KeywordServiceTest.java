@@ -6,6 +6,8 @@ import com.tfg.review.exceptions.ProtocolNotFoundException;
 import com.tfg.review.models.Keyword;
 import com.tfg.review.models.Protocol;
 import com.tfg.review.repositories.KeywordRepository;
+import com.tfg.review.services.OutboxService;
+import com.tfg.review.services.ViewCacheService;
 import com.tfg.review.services.implementations.KeywordServiceImpl;
 import com.tfg.review.services.implementations.ProtocolServiceImpl;
 import org.junit.jupiter.api.Assertions;
@@ -31,6 +33,10 @@ public class KeywordServiceTest {
 
     @InjectMocks
     private KeywordServiceImpl keywordService;
+    @Mock
+    private ViewCacheService viewCacheService;
+    @Mock
+    private OutboxService outboxService;
 
     @Mock
     private KeywordRepository keywordRepository;
@@ -0,0 +1,80 @@
+package unitTests;
+
+import com.tfg.review.dtos.ReviewEventDTO;
+import com.tfg.review.models.EventType;
+import com.tfg.review.models.OutboxEvent;
+import com.tfg.review.repositories.OutboxEventRepository;
+import com.tfg.review.services.implementations.InMemoryEventPublisher;
+import com.tfg.review.services.implementations.OutboxRelay;
+import com.tfg.review.services.implementations.OutboxServiceImpl;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class OutboxRelayTest {
+
+    private InMemoryEventPublisher eventPublisher;
+    private OutboxRelay outboxRelay;
+
+    @Mock
+    private OutboxEventRepository outboxEventRepository;
+
+    @BeforeEach
+    public void setUp(){
+        eventPublisher = new InMemoryEventPublisher();
+        outboxRelay = new OutboxRelay(new OutboxServiceImpl(outboxEventRepository, eventPublisher, 2, 1000, 60000));
+    }
+
+    private OutboxEvent event(Long id){
+        return OutboxEvent.builder().id(id).type(EventType.FORM_DELETED).protocolId(7L).formId(id).createdAt(new Date())
+                .nextAttemptAt(new Date()).attempts(0).build();
+    }
+
+    @Test
+    public void relay_DrainsFullBatches(){
+        List<List<ReviewEventDTO>> received = new ArrayList<>();
+        eventPublisher.subscribe(received::add);
+        when(outboxEventRepository.findDue(any(Date.class), eq(2)))
+                .thenReturn(List.of(event(1L), event(2L)))
+                .thenReturn(List.of(event(3L)));
+
+        outboxRelay.relay();
+
+        Assertions.assertEquals(2, received.size());
+        Assertions.assertEquals(3, eventPublisher.getPublished().size());
+        Assertions.assertEquals(3L, eventPublisher.getPublished().get(2).getFormId());
+        verify(outboxEventRepository, times(2)).findDue(any(Date.class), eq(2));
+        verify(outboxEventRepository, times(2)).deleteAllInBatch(anyIterable());
+    }
+
+    @Test
+    public void relay_RetriesAfterConsumerFailure(){
+        OutboxEvent event = event(1L);
+        eventPublisher.subscribe(events -> { throw new ResourceAccessException("Connection refused"); });
+        when(outboxEventRepository.findDue(any(Date.class), eq(2))).thenReturn(List.of(event));
+
+        outboxRelay.relay();
+
+        Assertions.assertTrue(eventPublisher.getPublished().isEmpty());
+        Assertions.assertEquals(1, event.getAttempts());
+        verify(outboxEventRepository, never()).deleteAllInBatch(anyIterable());
+
+        eventPublisher.clear();
+        outboxRelay.relay();
+
+        Assertions.assertEquals(1, eventPublisher.getPublished().size());
+        verify(outboxEventRepository).deleteAllInBatch(List.of(event));
+    }
+}
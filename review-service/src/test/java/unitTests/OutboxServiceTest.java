@@ -0,0 +1,158 @@
+package unitTests;
+
+import com.tfg.review.dtos.ReviewEventDTO;
+import com.tfg.review.models.EventType;
+import com.tfg.review.models.Form;
+import com.tfg.review.models.FormType;
+import com.tfg.review.models.OutboxEvent;
+import com.tfg.review.models.Protocol;
+import com.tfg.review.repositories.OutboxEventRepository;
+import com.tfg.review.services.EventPublisher;
+import com.tfg.review.services.implementations.OutboxServiceImpl;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.util.Date;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class OutboxServiceTest {
+
+    private OutboxServiceImpl outboxService;
+
+    @Mock
+    private OutboxEventRepository outboxEventRepository;
+    @Mock
+    private EventPublisher eventPublisher;
+
+    @BeforeEach
+    public void setUp(){
+        outboxService = new OutboxServiceImpl(outboxEventRepository, eventPublisher, 2, 1000, 4000);
+    }
+
+    private OutboxEvent event(Long id, int attempts){
+        return OutboxEvent.builder().id(id).type(EventType.PROTOCOL_CHANGED).protocolId(7L).createdAt(new Date())
+                .nextAttemptAt(new Date()).attempts(attempts).build();
+    }
+
+    @Test
+    public void protocolDeleted_RecordsOneEventPerForm(){
+        ArgumentCaptor<OutboxEvent> captor = ArgumentCaptor.forClass(OutboxEvent.class);
+
+        outboxService.protocolDeleted(7L, List.of(3L, 4L));
+
+        verify(outboxEventRepository, times(3)).save(captor.capture());
+        List<OutboxEvent> events = captor.getAllValues();
+        Assertions.assertEquals(EventType.PROTOCOL_DELETED, events.get(0).getType());
+        Assertions.assertEquals(EventType.FORM_DELETED, events.get(1).getType());
+        Assertions.assertEquals(4L, events.get(2).getFormId());
+        Assertions.assertEquals(7L, events.get(2).getProtocolId());
+        Assertions.assertNotNull(events.get(2).getNextAttemptAt());
+    }
+
+    @Test
+    public void formChanged_UsesTheProtocolOfTheForm(){
+        Protocol protocol = Protocol.builder().id(7L).build();
+        ArgumentCaptor<OutboxEvent> captor = ArgumentCaptor.forClass(OutboxEvent.class);
+
+        outboxService.formChanged(Form.builder().id(3L).formType(FormType.QUALITY).protocolToQuality(protocol).build());
+        outboxService.formChanged(Form.builder().id(4L).formType(FormType.EXTRACTION).build());
+
+        verify(outboxEventRepository).save(captor.capture());
+        Assertions.assertEquals(EventType.FORM_CHANGED, captor.getValue().getType());
+        Assertions.assertEquals(3L, captor.getValue().getFormId());
+    }
+
+    @Test
+    public void relayBatch_PublishesAndDeletes(){
+        List<OutboxEvent> events = List.of(event(1L, 0), event(2L, 0));
+        when(outboxEventRepository.findDue(any(Date.class), eq(2))).thenReturn(events);
+
+        Assertions.assertEquals(2, outboxService.relayBatch());
+
+        verify(eventPublisher).publish(argThat((List<ReviewEventDTO> published) -> published.size() == 2
+                && published.get(0).getId() == 1L && published.get(0).getType() == EventType.PROTOCOL_CHANGED));
+        verify(outboxEventRepository).deleteAllInBatch(events);
+    }
+
+    @Test
+    public void relayBatch_NothingDue(){
+        when(outboxEventRepository.findDue(any(Date.class), eq(2))).thenReturn(List.of());
+
+        Assertions.assertEquals(0, outboxService.relayBatch());
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    public void relayBatch_ReschedulesWithBackoff(){
+        OutboxEvent first = event(1L, 0);
+        OutboxEvent second = event(2L, 1);
+        when(outboxEventRepository.findDue(any(Date.class), eq(2))).thenReturn(List.of(first, second));
+        doThrow(new ResourceAccessException("Connection refused")).when(eventPublisher).publish(anyList());
+
+        long before = System.currentTimeMillis();
+        Assertions.assertEquals(0, outboxService.relayBatch());
+
+        Assertions.assertEquals(1, first.getAttempts());
+        Assertions.assertEquals(2, second.getAttempts());
+        Assertions.assertEquals("Connection refused", first.getLastError());
+        long firstDelay = first.getNextAttemptAt().getTime() - before;
+        long secondDelay = second.getNextAttemptAt().getTime() - before;
+        Assertions.assertTrue(firstDelay >= 1000 && firstDelay < 2000);
+        Assertions.assertTrue(secondDelay >= 2000 && secondDelay < 3000);
+        verify(outboxEventRepository).saveAll(List.of(first, second));
+        verify(outboxEventRepository, never()).deleteAllInBatch(anyIterable());
+    }
+
+    @Test
+    public void relayBatch_CapsBackoffAndKeepsRetrying(){
+        OutboxEvent event = event(1L, 40);
+        when(outboxEventRepository.findDue(any(Date.class), eq(2))).thenReturn(List.of(event));
+        doThrow(new HttpServerErrorException(HttpStatus.SERVICE_UNAVAILABLE)).when(eventPublisher).publish(anyList());
+
+        long before = System.currentTimeMillis();
+        outboxService.relayBatch();
+
+        Assertions.assertEquals(41, event.getAttempts());
+        long delay = event.getNextAttemptAt().getTime() - before;
+        Assertions.assertTrue(delay >= 4000 && delay < 5000);
+    }
+
+    @Test
+    public void relayBatch_RetriesOtherClientErrors(){
+        OutboxEvent event = event(1L, 0);
+        when(outboxEventRepository.findDue(any(Date.class), eq(2))).thenReturn(List.of(event));
+        doThrow(HttpClientErrorException.create(HttpStatus.FORBIDDEN, "Forbidden", null, null, null))
+                .when(eventPublisher).publish(anyList());
+
+        outboxService.relayBatch();
+
+        Assertions.assertEquals(1, event.getAttempts());
+        Assertions.assertNotNull(event.getNextAttemptAt());
+    }
+
+    @Test
+    public void relayBatch_ParksRejectedBatch(){
+        OutboxEvent event = event(1L, 0);
+        when(outboxEventRepository.findDue(any(Date.class), eq(2))).thenReturn(List.of(event));
+        doThrow(HttpClientErrorException.create(HttpStatus.BAD_REQUEST, "Bad Request", null, null, null)).when(eventPublisher).publish(anyList());
+
+        Assertions.assertEquals(0, outboxService.relayBatch());
+
+        Assertions.assertEquals(1, event.getAttempts());
+        Assertions.assertNull(event.getNextAttemptAt());
+        verify(outboxEventRepository).saveAll(List.of(event));
+    }
+}
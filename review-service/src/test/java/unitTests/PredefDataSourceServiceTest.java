@@ -8,6 +8,7 @@ import com.tfg.review.models.CustomDataSource;
 import com.tfg.review.models.PredefDataSource;
 import com.tfg.review.models.Protocol;
 import com.tfg.review.repositories.PredefDataSourceRepository;
+import com.tfg.review.services.ViewCacheService;
 import com.tfg.review.services.implementations.PredefDataSourceServiceImpl;
 import com.tfg.review.services.implementations.ProtocolServiceImpl;
 import org.junit.jupiter.api.Assertions;
@@ -34,6 +35,8 @@ public class PredefDataSourceServiceTest {
     @InjectMocks
     private PredefDataSourceServiceImpl predefDataSourceService;
     @Mock
+    private ViewCacheService viewCacheService;
+    @Mock
     private PredefDataSourceRepository predefDataSourceRepository;
     @Mock
     private ProtocolServiceImpl protocolService;
@@ -1,11 +1,15 @@
 package unitTests;
 
+import com.tfg.review.dtos.FullProtocolDTO;
 import com.tfg.review.dtos.ProtocolDTO;
+import com.tfg.review.dtos.ProtocolPageDTO;
 import com.tfg.review.exceptions.NullEntityException;
 import com.tfg.review.exceptions.ProtocolNotFoundException;
 import com.tfg.review.exceptions.SLRNotFoundException;
 import com.tfg.review.models.*;
 import com.tfg.review.repositories.*;
+import com.tfg.review.services.OutboxService;
+import com.tfg.review.services.ViewCacheService;
 import com.tfg.review.services.implementations.ProtocolServiceImpl;
 import org.assertj.core.util.Lists;
 import org.junit.jupiter.api.Assertions;
@@ -14,10 +18,16 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 
 import java.util.*;
 
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -25,21 +35,17 @@ public class ProtocolServiceTest {
 
     @InjectMocks
     private ProtocolServiceImpl protocolService;
+    @Mock
+    private ViewCacheService viewCacheService;
 
     @Mock
     private ProtocolRepository protocolRepository;
     @Mock
     private SLRRepository slrRepository;
     @Mock
-    private SelectionCriteriaRepository selectionCriteriaRepository;
-    @Mock
-    private KeywordRepository keywordRepository;
-    @Mock
-    private CustomDataSourceRepository customDataSourceRepository;
-    @Mock
-    private PredefDataSourceRepository predefDataSourceRepository;
+    private FormRepository formRepository;
     @Mock
-    private SnowballingRepository snowballingRepository;
+    private OutboxService outboxService;
 
     @Test
     public void findAll_OK(){
@@ -99,6 +105,8 @@ public class ProtocolServiceTest {
 
         when(protocolRepository.save(protocol)).thenReturn(protocol);
         Assertions.assertDoesNotThrow(()-> protocolService.update(protocol));
+        verify(viewCacheService).evictProtocol(2L);
+        verify(outboxService).protocolChanged(2L);
     }
 
     @Test
@@ -109,19 +117,43 @@ public class ProtocolServiceTest {
     @Test
     public void delete_OK() {
         Long protocolId = 1L;
-        Protocol protocol = new Protocol();
-        protocol.setSlr(new SLR());
-
-        when(protocolRepository.findProtocolById(protocolId)).thenReturn(Optional.of(protocol));
+        ProtocolSummaryView protocol = new ProtocolSummaryView() {
+            public Long getId() { return protocolId; }
+            public String getPrincipalQuestion() { return "Question"; }
+            public String getSecondaryQuestion() { return null; }
+            public Long getSlrId() { return 5L; }
+            public Long getExtractionFormId() { return 3L; }
+            public Long getQualityFormId() { return null; }
+        };
+
+        when(protocolRepository.findSummaryById(protocolId)).thenReturn(Optional.of(protocol));
         protocolService.delete(protocolId);
 
-        Assertions.assertDoesNotThrow(()-> protocolService.delete(protocolId));
+        verify(slrRepository).detachProtocol(protocolId);
+        verify(protocolRepository).deleteLanguages(protocolId);
+        verify(protocolRepository).deleteInBulk(protocolId);
+        verify(formRepository).deleteFieldsInBulk(List.of(3L));
+        verify(formRepository).deleteInBulk(List.of(3L));
+        verify(viewCacheService).evictSLR(5L);
+        verify(viewCacheService).evictProtocol(protocolId);
+        verify(outboxService).protocolDeleted(protocolId, List.of(3L));
+    }
+
+    @Test
+    public void delete_WithoutForms(){
+        when(protocolRepository.findSummaryById(2L)).thenReturn(Optional.of(summary(2L)));
+        protocolService.delete(2L);
+
+        verify(protocolRepository).deleteInBulk(2L);
+        verify(formRepository, never()).deleteInBulk(any());
+        verify(outboxService).protocolDeleted(2L, List.of());
     }
 
     @Test
     public void delete_KO(){
-        when(protocolRepository.findProtocolById(anyLong())).thenReturn(Optional.empty());
+        when(protocolRepository.findSummaryById(anyLong())).thenReturn(Optional.empty());
         Assertions.assertThrows(ProtocolNotFoundException.class, ()-> protocolService.delete(2L));
+        verifyNoInteractions(slrRepository, formRepository, outboxService);
     }
 
     @Test
@@ -147,5 +179,63 @@ public class ProtocolServiceTest {
         Assertions.assertThrows(ProtocolNotFoundException.class, ()-> protocolService.findSelectionCriteriaFromSearch(1L));
     }
 
+    private ProtocolSummaryView summary(Long id){
+        return new ProtocolSummaryView() {
+            public Long getId() { return id; }
+            public String getPrincipalQuestion() { return "Question " + id; }
+            public String getSecondaryQuestion() { return null; }
+            public Long getSlrId() { return 10L + id; }
+            public Long getExtractionFormId() { return null; }
+            public Long getQualityFormId() { return null; }
+        };
+    }
+
+    private ProtocolItemView item(Long protocolId, Long id, String name){
+        return new ProtocolItemView() {
+            public Long getProtocolId() { return protocolId; }
+            public Long getId() { return id; }
+            public String getName() { return name; }
+        };
+    }
+
+    @Test
+    public void findView_OK(){
+        when(protocolRepository.findSummaryById(1L)).thenReturn(Optional.of(summary(1L)));
+        when(protocolRepository.findKeywordItems(Set.of(1L))).thenReturn(List.of(item(1L, 5L, "testing")));
+        when(protocolRepository.findLanguageItems(Set.of(1L))).thenReturn(List.of(item(1L, null, "English")));
+
+        FullProtocolDTO result = protocolService.findView(1L);
+        Assertions.assertEquals("Question 1", result.getPrincipalQuestion());
+        Assertions.assertEquals(11L, result.getSlrId());
+        Assertions.assertEquals(Set.of("id: 5 - testing"), result.getKeywords());
+        Assertions.assertEquals("English", result.getLanguages().get(0).getLanguage());
+        Assertions.assertTrue(result.getDataSources().isEmpty());
+    }
+
+    @Test
+    public void findView_KO(){
+        when(protocolRepository.findSummaryById(anyLong())).thenReturn(Optional.empty());
+        Assertions.assertThrows(ProtocolNotFoundException.class, ()-> protocolService.findView(2L));
+    }
+
+    @Test
+    public void findViews_OK(){
+        when(protocolRepository.findSummaries(PageRequest.of(0, 2)))
+                .thenReturn(new PageImpl<>(List.of(summary(1L), summary(2L)), PageRequest.of(0, 2), 3));
+        when(protocolRepository.findSelectionCriteriaItems(Set.of(1L, 2L)))
+                .thenReturn(List.of(item(1L, 7L, "Only journals"), item(2L, 7L, "Only journals"), item(2L, 8L, "After 2010")));
+
+        ProtocolPageDTO result = protocolService.findViews(0, 2);
+        Assertions.assertEquals(3, result.getTotal());
+        Assertions.assertTrue(result.isHasNext());
+        Assertions.assertEquals(1, result.getProtocols().get(0).getSelectionCriteria().size());
+        Assertions.assertEquals(2, result.getProtocols().get(1).getSelectionCriteria().size());
+    }
+
+    @Test
+    public void findViews_KO(){
+        Assertions.assertThrows(IllegalArgumentException.class, ()-> protocolService.findViews(-1, 10));
+        Assertions.assertThrows(IllegalArgumentException.class, ()-> protocolService.findViews(0, 101));
+    }
 
 }
@@ -10,8 +10,10 @@ import com.tfg.review.models.Researcher;
 import com.tfg.review.models.Rol;
 import com.tfg.review.models.SLR;
 import com.tfg.review.repositories.SLRRepository;
+import com.tfg.review.repositories.SLRSummaryView;
 import com.tfg.review.services.ProtocolService;
 import com.tfg.review.services.ResearcherService;
+import com.tfg.review.services.ViewCacheService;
 import com.tfg.review.services.implementations.SLRServiceImpl;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.Assertions;
@@ -20,18 +22,24 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.test.context.TestExecutionListeners;
 
 import java.util.*;
 
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
 
 @ExtendWith(MockitoExtension.class)
 public class SLRServiceTest {
 
     @InjectMocks
     private SLRServiceImpl SLRService;
+    @Mock
+    private ViewCacheService viewCacheService;
 
     @Mock
     private SLRRepository slrRepository;
@@ -141,39 +149,58 @@ public class SLRServiceTest {
         Assertions.assertThrows(NullEntityException.class, ()-> SLRService.delete(deleteID));
     }
 
+    private SLRSummaryView summary(Long id, String title){
+        SLRSummaryView view = mock(SLRSummaryView.class);
+        when(view.getId()).thenReturn(id);
+        when(view.getTitle()).thenReturn(title);
+        return view;
+    }
+
     @Test
     public void findByResearcherUserId_OK(){
         Long userId = 23L;
 
-        Researcher researcher1 = Researcher.builder().userId(23L).name("Researcher 1").SLRs(new HashSet<>()).rol(Rol.PRINCIPAL).build();
-        Researcher researcher2 = Researcher.builder().userId(23L).name("Researcher 1").SLRs(new HashSet<>()).rol(Rol.COLLABORATOR).build();
+        List<SLRSummaryView> summaries = Lists.newArrayList(summary(1L, "Review 1"), summary(2L, "Review 2"));
+        when(slrRepository.findSummariesByUserId(userId, Sort.by("id"))).thenReturn(summaries);
 
-        SLR slr1 = new SLR();
-        SLR slr2 = new SLR();
-        SLR slr3 = new SLR();
+        List<SLRDTO> allSLR = SLRService.findByResearcherUserId(userId, null, null, null);
+        Assertions.assertEquals(2, allSLR.size());
+        Assertions.assertEquals("Review 2", allSLR.get(1).getTitle());
+    }
 
-        researcher1.addSLR(slr1);
-        researcher1.addSLR(slr2);
-        researcher2.addSLR(slr3);
+    @Test
+    public void findByResearcherUserId_Page(){
+        Long userId = 23L;
+        PageRequest expectedPage = PageRequest.of(1, 10, Sort.by(Sort.Direction.DESC, "title").and(Sort.by("id")));
+
+        List<SLRSummaryView> summaries = Lists.newArrayList(summary(3L, "Review 3"));
+        when(slrRepository.findSummariesByUserId(userId, expectedPage)).thenReturn(summaries);
 
-        List<Researcher> researchers = Lists.newArrayList(researcher1,researcher2);
-        when(researcherService.findByUserId(userId)).thenReturn(researchers);
+        List<SLRDTO> page = SLRService.findByResearcherUserId(userId, 1, 10, "title,desc");
+        Assertions.assertEquals(1, page.size());
+        Assertions.assertEquals(3L, page.get(0).getId());
+    }
 
-        List<SLR> allSLR = SLRService.findByResearcherUserId(userId);
-        Assertions.assertEquals(3, allSLR.size());
+    @Test
+    public void findByResearcherUserId_InvalidPageOrSort(){
+        Assertions.assertThrows(IllegalArgumentException.class, ()-> SLRService.findByResearcherUserId(23L, 0, 0, null));
+        Assertions.assertThrows(IllegalArgumentException.class, ()-> SLRService.findByResearcherUserId(23L, -1, 10, null));
+        Assertions.assertThrows(IllegalArgumentException.class, ()-> SLRService.findByResearcherUserId(23L, null, null, "protocol"));
+        Assertions.assertThrows(IllegalArgumentException.class, ()-> SLRService.findByResearcherUserId(23L, null, null, "title,up"));
+        verifyNoInteractions(slrRepository);
     }
 
     @Test
     public void findByResearcherUserId_NullID(){
-        Assertions.assertThrows(IllegalArgumentException.class, ()-> SLRService.findByResearcherUserId(null));
+        Assertions.assertThrows(IllegalArgumentException.class, ()-> SLRService.findByResearcherUserId(null, null, null, null));
     }
 
     @Test
     public void findByResearcherUserId_EmptyList(){
         Long userId = 11L;
 
-        when(researcherService.findByUserId(userId)).thenReturn(Collections.emptyList());
-        List<SLR> expectedList = SLRService.findByResearcherUserId(userId);
+        when(slrRepository.findSummariesByUserId(userId, Sort.by("id"))).thenReturn(Collections.emptyList());
+        List<SLRDTO> expectedList = SLRService.findByResearcherUserId(userId, null, null, null);
 
         Assertions.assertNotNull(expectedList);
         Assertions.assertTrue(expectedList.isEmpty());
@@ -8,8 +8,11 @@ import com.tfg.review.models.CriteriaType;
 import com.tfg.review.models.Protocol;
 import com.tfg.review.models.SelectionCriteria;
 import com.tfg.review.repositories.SelectionCriteriaRepository;
+import com.tfg.review.services.OutboxService;
+import com.tfg.review.services.ViewCacheService;
 import com.tfg.review.services.implementations.ProtocolServiceImpl;
 import com.tfg.review.services.implementations.SelectionCriteriaServiceImpl;
+import com.tfg.review.utils.MessageConstants;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -29,6 +32,10 @@ public class SelectionCriteriaServiceTest {
 
     @InjectMocks
     private SelectionCriteriaServiceImpl selectionCriteriaService;
+    @Mock
+    private ViewCacheService viewCacheService;
+    @Mock
+    private OutboxService outboxService;
 
     @Mock
     private SelectionCriteriaRepository selectionCriteriaRepository;
@@ -105,6 +112,46 @@ public class SelectionCriteriaServiceTest {
         Assertions.assertDoesNotThrow(()-> selectionCriteriaService.createAndSave(criteriaDTO, protocolId));
     }
 
+    @Test
+    public void createAndSave_KeepsRule(){
+        SelectionCriteriaDTO criteriaDTO = new SelectionCriteriaDTO();
+        criteriaDTO.setCriteriaType("EXCLUSION");
+        criteriaDTO.setRuleField("language");
+        criteriaDTO.setRuleValues(Arrays.asList(" Spanish ", "", "Spanish", "German"));
+        when(protocolService.findOne(1L)).thenReturn(new Protocol());
+        when(selectionCriteriaRepository.save(any(SelectionCriteria.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        SelectionCriteriaDTO savedDTO = selectionCriteriaService.createAndSave(criteriaDTO, 1L);
+
+        Assertions.assertEquals("LANGUAGE", savedDTO.getRuleField());
+        Assertions.assertEquals(Arrays.asList("Spanish", "German"), savedDTO.getRuleValues());
+    }
+
+    @Test
+    public void createAndSave_InvalidRule(){
+        SelectionCriteriaDTO criteriaDTO = new SelectionCriteriaDTO();
+        criteriaDTO.setCriteriaType("EXCLUSION");
+        criteriaDTO.setRuleField("YEAR");
+        criteriaDTO.setMinYear(2020);
+        criteriaDTO.setMaxYear(2010);
+        when(protocolService.findOne(1L)).thenReturn(new Protocol());
+
+        Assertions.assertThrows(IllegalArgumentException.class, ()-> selectionCriteriaService.createAndSave(criteriaDTO, 1L));
+    }
+
+    @Test
+    public void createAndSave_UnknownRuleField(){
+        SelectionCriteriaDTO criteriaDTO = new SelectionCriteriaDTO();
+        criteriaDTO.setCriteriaType("EXCLUSION");
+        criteriaDTO.setRuleField("publisher");
+        criteriaDTO.setRuleValues(Collections.singletonList("ACM"));
+        when(protocolService.findOne(1L)).thenReturn(new Protocol());
+
+        IllegalArgumentException e = Assertions.assertThrows(IllegalArgumentException.class,
+                ()-> selectionCriteriaService.createAndSave(criteriaDTO, 1L));
+        Assertions.assertEquals(MessageConstants.INVALID_CRITERIA_RULE, e.getMessage());
+    }
+
     @Test
     public void createAndSave_NullDTO(){
         Assertions.assertThrows(NullEntityException.class, ()-> selectionCriteriaService.createAndSave(null, 1L));
@@ -7,6 +7,7 @@ import com.tfg.review.models.Protocol;
 import com.tfg.review.models.Snowballing;
 import com.tfg.review.repositories.SnowballingRepository;
 import com.tfg.review.services.ProtocolService;
+import com.tfg.review.services.ViewCacheService;
 import com.tfg.review.services.implementations.SnowballingServiceImpl;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
@@ -31,6 +32,8 @@ public class SnowballingServiceTest {
 
     @InjectMocks
     private SnowballingServiceImpl snowballingService;
+    @Mock
+    private ViewCacheService viewCacheService;
 
     @Mock
     private ProtocolService protocolService;
@@ -0,0 +1,95 @@
+package unitTests;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tfg.review.dtos.FullProtocolDTO;
+import com.tfg.review.dtos.FullSLRDTO;
+import com.tfg.review.models.Protocol;
+import com.tfg.review.services.implementations.ViewCacheServiceImpl;
+import com.tfg.review.utils.CachedView;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+public class ViewCacheServiceTest {
+
+    private ViewCacheServiceImpl viewCacheService;
+    private AtomicInteger loads;
+    private String question;
+
+    @BeforeEach
+    public void setUp(){
+        viewCacheService = new ViewCacheServiceImpl(new ObjectMapper(), 2, 600);
+        loads = new AtomicInteger();
+        question = "Question";
+    }
+
+    private final Function<Long, FullProtocolDTO> loader = id -> {
+        loads.incrementAndGet();
+        return FullProtocolDTO.builder().id(id).principalQuestion(question).build();
+    };
+
+    @Test
+    public void getProtocol_CachesView(){
+        CachedView<FullProtocolDTO> first = viewCacheService.getProtocol(1L, loader);
+        CachedView<FullProtocolDTO> second = viewCacheService.getProtocol(1L, loader);
+
+        Assertions.assertEquals(1, loads.get());
+        Assertions.assertSame(first.getValue(), second.getValue());
+        Assertions.assertTrue(first.getEtag().startsWith("\"") && first.getEtag().endsWith("\""));
+    }
+
+    @Test
+    public void evictProtocol_ChangesEtagOnlyIfViewChanged(){
+        String etag = viewCacheService.getProtocol(1L, loader).getEtag();
+
+        viewCacheService.evictProtocol(1L);
+        Assertions.assertEquals(etag, viewCacheService.getProtocol(1L, loader).getEtag());
+
+        question = "Other question";
+        viewCacheService.evictProtocols(List.of(Protocol.builder().id(1L).build()));
+        Assertions.assertNotEquals(etag, viewCacheService.getProtocol(1L, loader).getEtag());
+        Assertions.assertEquals(3, loads.get());
+    }
+
+    @Test
+    public void evictProtocol_WaitsForCommit(){
+        viewCacheService.getProtocol(1L, loader);
+        TransactionSynchronizationManager.initSynchronization();
+        try{
+            viewCacheService.evictProtocol(1L);
+            viewCacheService.getProtocol(1L, loader);
+            Assertions.assertEquals(1, loads.get());
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        }finally{
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        viewCacheService.getProtocol(1L, loader);
+        Assertions.assertEquals(2, loads.get());
+    }
+
+    @Test
+    public void getProtocol_IsBounded(){
+        viewCacheService.getProtocol(1L, loader);
+        viewCacheService.getProtocol(2L, loader);
+        viewCacheService.getProtocol(3L, loader);
+        viewCacheService.getProtocol(1L, loader);
+
+        Assertions.assertEquals(4, loads.get());
+    }
+
+    @Test
+    public void getSLR_FailedLoadIsNotCached(){
+        Assertions.assertThrows(IllegalArgumentException.class, () -> viewCacheService.getSLR(1L, id -> {
+            throw new IllegalArgumentException("Not found");
+        }));
+        Assertions.assertEquals(Long.valueOf(1L), viewCacheService.getSLR(1L,
+                id -> FullSLRDTO.builder().id(id).build()).getValue().getId());
+    }
+}
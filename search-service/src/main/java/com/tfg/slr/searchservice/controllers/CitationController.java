@@ -0,0 +1,105 @@
+package com.tfg.slr.searchservice.controllers;
+
+import com.tfg.slr.searchservice.dtos.CitationExpansionDTO;
+import com.tfg.slr.searchservice.dtos.CitationIngestReportDTO;
+import com.tfg.slr.searchservice.dtos.CitationListDTO;
+import com.tfg.slr.searchservice.models.CitationDirection;
+import com.tfg.slr.searchservice.services.CitationService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.AllArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@AllArgsConstructor
+@RestController
+@RequestMapping("/api/citation")
+@Tag(name = "Citas", description = "Contiene las operaciones sobre el grafo de citas usado para el snowballing.")
+@SecurityRequirement(name="Bearer Authentication")
+public class CitationController {
+
+    private final CitationService citationService;
+
+    @PostMapping("/ingest")
+    @ResponseStatus(HttpStatus.OK)
+    @Operation(
+            summary = "Registrar referencias y citas de estudios.",
+            description = "Este método añade al grafo de citas las referencias de cada trabajo (snowballing hacia atrás) " +
+                    "y los trabajos que lo citan (snowballing hacia delante). Los trabajos se identifican por su DOI y " +
+                    "los que no lo tienen se ignoran.",
+            responses = {
+                    @ApiResponse(
+                            description = "OK",
+                            responseCode = "200"
+                    ),
+                    @ApiResponse(
+                            description = "Unauthorized or Invalid Token",
+                            responseCode = "403",
+                            content = @Content
+                    ),
+                    @ApiResponse(
+                            description = "Bad Request",
+                            responseCode = "400",
+                            content = @Content
+                    ),
+                    @ApiResponse(
+                            description = "Internal Server Error",
+                            responseCode = "500",
+                            content = @Content
+                    )
+            }
+    )
+    public ResponseEntity<CitationIngestReportDTO> ingest(@RequestBody List<CitationListDTO> lists){
+        try{
+            return ResponseEntity.ok(citationService.ingest(lists));
+        }catch (Exception e){
+            return new ResponseEntity(e.getMessage(), HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    @GetMapping("/expand")
+    @ResponseStatus(HttpStatus.OK)
+    @Operation(
+            summary = "Expandir los estudios aceptados de un protocolo por el grafo de citas.",
+            description = "Este método recorre hasta N saltos de citas desde los estudios aceptados de un protocolo, hacia " +
+                    "atrás (BACKWARD), hacia delante (FORWARD) o en ambos sentidos (BOTH), y devuelve los trabajos " +
+                    "alcanzados que todavía no son estudios del protocolo, ordenados por distancia y número de citas.",
+            responses = {
+                    @ApiResponse(
+                            description = "OK",
+                            responseCode = "200"
+                    ),
+                    @ApiResponse(
+                            description = "Unauthorized or Invalid Token",
+                            responseCode = "403",
+                            content = @Content
+                    ),
+                    @ApiResponse(
+                            description = "Bad Request",
+                            responseCode = "400",
+                            content = @Content
+                    ),
+                    @ApiResponse(
+                            description = "Internal Server Error",
+                            responseCode = "500",
+                            content = @Content
+                    )
+            }
+    )
+    public ResponseEntity<CitationExpansionDTO> expand(@RequestParam Long protocolId,
+                                                       @RequestParam(defaultValue = "BOTH") CitationDirection direction,
+                                                       @RequestParam(defaultValue = "1") int hops,
+                                                       @RequestParam(defaultValue = "200") int limit){
+        try{
+            return ResponseEntity.ok(citationService.expand(protocolId, direction, hops, limit));
+        }catch (Exception e){
+            return new ResponseEntity(e.getMessage(), HttpStatus.BAD_REQUEST);
+        }
+    }
+}
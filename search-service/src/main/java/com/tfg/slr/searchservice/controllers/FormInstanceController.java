@@ -1,6 +1,11 @@
 package com.tfg.slr.searchservice.controllers;
 
+import com.tfg.slr.searchservice.dtos.BulkFormReportDTO;
+import com.tfg.slr.searchservice.dtos.FormMigrationReportDTO;
+import com.tfg.slr.searchservice.dtos.StudyDTO;
+import com.tfg.slr.searchservice.models.FormType;
 import com.tfg.slr.searchservice.services.FormInstanceService;
+import com.tfg.slr.searchservice.services.StudyExportService;
 import com.tfg.slr.searchservice.utils.MessageConstants;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -8,9 +13,15 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.AllArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.List;
+import java.util.Map;
 
 @AllArgsConstructor
 @RestController
@@ -21,6 +32,7 @@ import org.springframework.web.bind.annotation.*;
 public class FormInstanceController {
 
     private FormInstanceService formInstanceService;
+    private StudyExportService studyExportService;
 
     @DeleteMapping("/full-delete/{formInstanceId}")
     @ResponseStatus(HttpStatus.OK)
@@ -57,4 +69,233 @@ public class FormInstanceController {
             return ResponseEntity.badRequest().body(MessageConstants.DELETE_FAIL);
         }
     }
+
+    @PostMapping("/bulk-create")
+    @ResponseStatus(HttpStatus.OK)
+    @Operation(
+            summary = "Aplicar formularios a todos los estudios aceptados.",
+            description = "Este método crea una instancia del formulario de extracción o de calidad para todos los estudios " +
+                    "aceptados de una búsqueda o de un protocolo que todavía no la tienen. El formulario se consulta una " +
+                    "única vez y las instancias se insertan por lotes.",
+            responses = {
+                    @ApiResponse(
+                            description = "OK",
+                            responseCode = "200"
+                    ),
+                    @ApiResponse(
+                            description = "Unauthorized or Invalid Token",
+                            responseCode = "403",
+                            content = @Content
+                    ),
+                    @ApiResponse(
+                            description = "Bad Request",
+                            responseCode = "400",
+                            content = @Content
+                    ),
+                    @ApiResponse(
+                            description = "Internal Server Error",
+                            responseCode = "500",
+                            content = @Content
+                    )
+            }
+    )
+    public ResponseEntity<BulkFormReportDTO> bulkCreate(@RequestParam FormType formType,
+                                                        @RequestParam(required = false) Long searchId,
+                                                        @RequestParam(required = false) Long protocolId){
+        try{
+            return ResponseEntity.ok(formInstanceService.createForAccepted(formType, searchId, protocolId));
+        }catch (Exception e){
+            return new ResponseEntity(e.getMessage(), HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    @GetMapping("/{formInstanceId}/answers")
+    @ResponseStatus(HttpStatus.OK)
+    @Operation(
+            summary = "Consultar las respuestas de una instancia de formulario.",
+            description = "Este método devuelve el valor de cada campo del formulario indexado por su nombre, independientemente de " +
+                    "si la instancia se almacena como filas o como documento JSONB.",
+            responses = {
+                    @ApiResponse(
+                            description = "OK",
+                            responseCode = "200"
+                    ),
+                    @ApiResponse(
+                            description = "Unauthorized or Invalid Token",
+                            responseCode = "403",
+                            content = @Content
+                    ),
+                    @ApiResponse(
+                            description = "Bad Request",
+                            responseCode = "400",
+                            content = @Content
+                    ),
+                    @ApiResponse(
+                            description = "Internal Server Error",
+                            responseCode = "500",
+                            content = @Content
+                    )
+            }
+    )
+    public ResponseEntity<Map<String, String>> getAnswers(@PathVariable Long formInstanceId){
+        try{
+            return ResponseEntity.ok(formInstanceService.getAnswers(formInstanceId));
+        }catch (Exception e){
+            return new ResponseEntity(e.getMessage(), HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    @PutMapping("/{formInstanceId}/answers")
+    @ResponseStatus(HttpStatus.OK)
+    @Operation(
+            summary = "Guardar respuestas de una instancia de formulario.",
+            description = "Este método actualiza los campos indicados y mantiene el resto. Todos los nombres deben pertenecer al " +
+                    "formulario.",
+            responses = {
+                    @ApiResponse(
+                            description = "OK",
+                            responseCode = "200"
+                    ),
+                    @ApiResponse(
+                            description = "Unauthorized or Invalid Token",
+                            responseCode = "403",
+                            content = @Content
+                    ),
+                    @ApiResponse(
+                            description = "Bad Request",
+                            responseCode = "400",
+                            content = @Content
+                    ),
+                    @ApiResponse(
+                            description = "Internal Server Error",
+                            responseCode = "500",
+                            content = @Content
+                    )
+            }
+    )
+    public ResponseEntity<Map<String, String>> saveAnswers(@PathVariable Long formInstanceId,
+                                                           @RequestBody Map<String, String> answers){
+        try{
+            return ResponseEntity.ok(formInstanceService.saveAnswers(formInstanceId, answers));
+        }catch (Exception e){
+            return new ResponseEntity(e.getMessage(), HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    @PostMapping("/filter-studies")
+    @ResponseStatus(HttpStatus.OK)
+    @Operation(
+            summary = "Filtrar estudios por las respuestas de sus formularios.",
+            description = "Este método devuelve los estudios de un protocolo cuyo formulario de extracción o de calidad contiene " +
+                    "todas las respuestas indicadas. Se resuelve con una única consulta sobre el índice de los documentos.",
+            responses = {
+                    @ApiResponse(
+                            description = "OK",
+                            responseCode = "200"
+                    ),
+                    @ApiResponse(
+                            description = "Unauthorized or Invalid Token",
+                            responseCode = "403",
+                            content = @Content
+                    ),
+                    @ApiResponse(
+                            description = "Bad Request",
+                            responseCode = "400",
+                            content = @Content
+                    ),
+                    @ApiResponse(
+                            description = "Internal Server Error",
+                            responseCode = "500",
+                            content = @Content
+                    )
+            }
+    )
+    public ResponseEntity<List<StudyDTO>> filterStudies(@RequestParam Long protocolId, @RequestParam FormType formType,
+                                                        @RequestBody Map<String, String> criteria){
+        try{
+            return ResponseEntity.ok(formInstanceService.findStudiesByAnswers(protocolId, formType, criteria));
+        }catch (Exception e){
+            return new ResponseEntity(e.getMessage(), HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    @PostMapping("/migrate-to-documents")
+    @ResponseStatus(HttpStatus.OK)
+    @Operation(
+            summary = "Migrar las instancias almacenadas como filas a documentos.",
+            description = "Este método convierte por lotes las instancias cuyos campos se guardan como filas en un único documento " +
+                    "JSONB. Puede relanzarse si se interrumpe, ya que solo procesa las instancias pendientes.",
+            responses = {
+                    @ApiResponse(
+                            description = "OK",
+                            responseCode = "200"
+                    ),
+                    @ApiResponse(
+                            description = "Unauthorized or Invalid Token",
+                            responseCode = "403",
+                            content = @Content
+                    ),
+                    @ApiResponse(
+                            description = "Bad Request",
+                            responseCode = "400",
+                            content = @Content
+                    ),
+                    @ApiResponse(
+                            description = "Internal Server Error",
+                            responseCode = "500",
+                            content = @Content
+                    )
+            }
+    )
+    public ResponseEntity<FormMigrationReportDTO> migrateToDocuments(){
+        try{
+            return ResponseEntity.ok(formInstanceService.migrateToDocuments());
+        }catch (Exception e){
+            return new ResponseEntity(e.getMessage(), HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    @GetMapping("/export-matrix")
+    @ResponseStatus(HttpStatus.OK)
+    @Operation(
+            summary = "Exportar la matriz de datos de los formularios de un protocolo.",
+            description = "Este método descarga un CSV con una fila por estudio del protocolo y una columna por cada campo " +
+                    "del formulario de extracción o de calidad. Las filas se escriben a medida que se leen de la base de datos.",
+            responses = {
+                    @ApiResponse(
+                            description = "OK",
+                            responseCode = "200"
+                    ),
+                    @ApiResponse(
+                            description = "Unauthorized or Invalid Token",
+                            responseCode = "403",
+                            content = @Content
+                    ),
+                    @ApiResponse(
+                            description = "Bad Request",
+                            responseCode = "400",
+                            content = @Content
+                    ),
+                    @ApiResponse(
+                            description = "Internal Server Error",
+                            responseCode = "500",
+                            content = @Content
+                    )
+            }
+    )
+    public ResponseEntity<StreamingResponseBody> exportMatrix(@RequestParam Long protocolId,
+                                                              @RequestParam(defaultValue = "EXTRACTION") FormType formType){
+        List<String> columns;
+        try{
+            columns = studyExportService.findMatrixColumns(protocolId, formType);
+        }catch (Exception e){
+            return new ResponseEntity(e.getMessage(), HttpStatus.BAD_REQUEST);
+        }
+        StreamingResponseBody body = out -> studyExportService.exportAnswerMatrix(protocolId, formType, columns, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("text/csv;charset=UTF-8"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + formType.name().toLowerCase() +
+                        "-matrix-" + protocolId + ".csv\"")
+                .body(body);
+    }
 }
@@ -0,0 +1,134 @@
+package com.tfg.slr.searchservice.controllers;
+
+import com.tfg.slr.searchservice.dtos.CacheStatsDTO;
+import com.tfg.slr.searchservice.services.ProtocolDataService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.AllArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@AllArgsConstructor
+@RestController
+@RequestMapping("/api/protocol-cache")
+@Tag(name = "Caché de protocolos", description = "Contiene las operaciones sobre la caché local de criterios de selección " +
+        "y formularios obtenidos del servicio de revisiones.")
+@SecurityRequirement(name="Bearer Authentication")
+public class ProtocolCacheController {
+
+    private final ProtocolDataService protocolDataService;
+
+    @GetMapping("/stats")
+    @ResponseStatus(HttpStatus.OK)
+    @Operation(
+            summary = "Obtener las estadísticas de la caché.",
+            description = "Este método muestra, para cada caché, el número de entradas, aciertos, fallos, cargas y expulsiones.",
+            responses = {
+                    @ApiResponse(
+                            description = "OK",
+                            responseCode = "200"
+                    ),
+                    @ApiResponse(
+                            description = "Unauthorized or Invalid Token",
+                            responseCode = "403",
+                            content = @Content
+                    ),
+                    @ApiResponse(
+                            description = "Bad Request",
+                            responseCode = "400",
+                            content = @Content
+                    ),
+                    @ApiResponse(
+                            description = "Internal Server Error",
+                            responseCode = "500",
+                            content = @Content
+                    )
+            }
+    )
+    public ResponseEntity<List<CacheStatsDTO>> getStats(){
+        try{
+            return ResponseEntity.ok(protocolDataService.getStats());
+        }catch (Exception e){
+            return new ResponseEntity(e.getMessage(), HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    @DeleteMapping("/{protocolId}")
+    @ResponseStatus(HttpStatus.OK)
+    @Operation(
+            summary = "Invalidar los datos cacheados de un protocolo.",
+            description = "Este método descarta los criterios de selección y formularios cacheados de un protocolo. " +
+                    "Los cambios del servicio de revisiones ya llegan como eventos; sirve para forzarlo a mano.",
+            responses = {
+                    @ApiResponse(
+                            description = "OK",
+                            responseCode = "200"
+                    ),
+                    @ApiResponse(
+                            description = "Unauthorized or Invalid Token",
+                            responseCode = "403",
+                            content = @Content
+                    ),
+                    @ApiResponse(
+                            description = "Bad Request",
+                            responseCode = "400",
+                            content = @Content
+                    ),
+                    @ApiResponse(
+                            description = "Internal Server Error",
+                            responseCode = "500",
+                            content = @Content
+                    )
+            }
+    )
+    public ResponseEntity<Void> invalidate(@PathVariable Long protocolId){
+        try{
+            protocolDataService.invalidate(protocolId);
+            return ResponseEntity.ok().build();
+        }catch (Exception e){
+            return new ResponseEntity(e.getMessage(), HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    @DeleteMapping("/all")
+    @ResponseStatus(HttpStatus.OK)
+    @Operation(
+            summary = "Vaciar la caché de protocolos.",
+            description = "Este método descarta todos los criterios de selección y formularios cacheados.",
+            responses = {
+                    @ApiResponse(
+                            description = "OK",
+                            responseCode = "200"
+                    ),
+                    @ApiResponse(
+                            description = "Unauthorized or Invalid Token",
+                            responseCode = "403",
+                            content = @Content
+                    ),
+                    @ApiResponse(
+                            description = "Bad Request",
+                            responseCode = "400",
+                            content = @Content
+                    ),
+                    @ApiResponse(
+                            description = "Internal Server Error",
+                            responseCode = "500",
+                            content = @Content
+                    )
+            }
+    )
+    public ResponseEntity<Void> invalidateAll(){
+        try{
+            protocolDataService.invalidateAll();
+            return ResponseEntity.ok().build();
+        }catch (Exception e){
+            return new ResponseEntity(e.getMessage(), HttpStatus.BAD_REQUEST);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.tfg.slr.searchservice.controllers;
+
+import com.tfg.slr.searchservice.dtos.ReviewEventDTO;
+import com.tfg.slr.searchservice.exceptions.NullEntityException;
+import com.tfg.slr.searchservice.services.ReviewEventService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.AllArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@AllArgsConstructor
+@RestController
+@RequestMapping("/api/review-events")
+@Tag(name = "Eventos de revisiones", description = "Recibe los eventos que publica el servicio de revisiones cuando cambian " +
+        "o se eliminan protocolos, criterios de selección y formularios.")
+@SecurityRequirement(name="Bearer Authentication")
+public class ReviewEventController {
+
+    private final ReviewEventService reviewEventService;
+
+    @PostMapping
+    @ResponseStatus(HttpStatus.OK)
+    @Operation(
+            summary = "Procesar un lote de eventos del servicio de revisiones.",
+            description = "Este método descarta los datos cacheados de los protocolos afectados y elimina las instancias de " +
+                    "los formularios borrados. Procesar un evento más de una vez no tiene efectos adicionales, y los tipos " +
+                    "desconocidos se ignoran. Un lote mal formado se rechaza con un 400; ante cualquier otro error se devuelve un 500 " +
+                    "y el servicio de revisiones lo reenvía más tarde.",
+            responses = {
+                    @ApiResponse(
+                            description = "OK",
+                            responseCode = "200"
+                    ),
+                    @ApiResponse(
+                            description = "Unauthorized or Invalid Token",
+                            responseCode = "403",
+                            content = @Content
+                    ),
+                    @ApiResponse(
+                            description = "Bad Request",
+                            responseCode = "400",
+                            content = @Content
+                    ),
+                    @ApiResponse(
+                            description = "Internal Server Error",
+                            responseCode = "500",
+                            content = @Content
+                    )
+            }
+    )
+    public ResponseEntity<Integer> handle(@RequestBody List<ReviewEventDTO> events){
+        try{
+            return ResponseEntity.ok(reviewEventService.handle(events));
+        }catch (NullEntityException | IllegalArgumentException e){
+            //Only a malformed batch is rejected, review-service parks it instead of retrying
+            return new ResponseEntity(e.getMessage(), HttpStatus.BAD_REQUEST);
+        }catch (Exception e){
+            //Any other failure may be transient, so the batch is sent again later
+            return new ResponseEntity(e.getMessage(), HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package com.tfg.slr.searchservice.controllers;
+
+import com.tfg.slr.searchservice.dtos.ScreeningBatchDTO;
+import com.tfg.slr.searchservice.dtos.ScreeningQueueDTO;
+import com.tfg.slr.searchservice.models.QueueOrder;
+import com.tfg.slr.searchservice.services.ScreeningQueueService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.AllArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@AllArgsConstructor
+@RestController
+@RequestMapping("/api/screening-queue")
+@Tag(name = "Cola de cribado", description = "Contiene las operaciones para repartir los estudios sin clasificar entre " +
+        "los investigadores de una revisión.")
+@SecurityRequirement(name="Bearer Authentication")
+public class ScreeningQueueController {
+
+    private final ScreeningQueueService screeningQueueService;
+
+    @PostMapping("/claim")
+    @ResponseStatus(HttpStatus.OK)
+    @Operation(
+            summary = "Obtener un lote de estudios para cribar.",
+            description = "Este método asigna al investigador estudios sin clasificar de una búsqueda o de un protocolo " +
+                    "hasta completar el tamaño del lote y renueva los que ya tenía asignados. Si no quedan estudios libres, " +
+                    "toma hasta la mitad de los pendientes del investigador con más estudios asignados. Pueden ordenarse " +
+                    "por ID, SCORE o PRIORITY.",
+            responses = {
+                    @ApiResponse(
+                            description = "OK",
+                            responseCode = "200"
+                    ),
+                    @ApiResponse(
+                            description = "Unauthorized or Invalid Token",
+                            responseCode = "403",
+                            content = @Content
+                    ),
+                    @ApiResponse(
+                            description = "Bad Request",
+                            responseCode = "400",
+                            content = @Content
+                    ),
+                    @ApiResponse(
+                            description = "Internal Server Error",
+                            responseCode = "500",
+                            content = @Content
+                    )
+            }
+    )
+    public ResponseEntity<ScreeningBatchDTO> claim(@RequestParam Long researcherId,
+                                                   @RequestParam(required = false) Long searchId,
+                                                   @RequestParam(required = false) Long protocolId,
+                                                   @RequestParam(defaultValue = "20") int size,
+                                                   @RequestParam(defaultValue = "ID") QueueOrder order){
+        try{
+            return ResponseEntity.ok(screeningQueueService.claim(researcherId, searchId, protocolId, size, order));
+        }catch (Exception e){
+            return new ResponseEntity(e.getMessage(), HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    @PostMapping("/renew")
+    @ResponseStatus(HttpStatus.OK)
+    @Operation(
+            summary = "Renovar los estudios asignados.",
+            description = "Este método amplía el plazo de los estudios asignados al investigador que todavía no han " +
+                    "caducado y devuelve cuántos se han renovado.",
+            responses = {
+                    @ApiResponse(
+                            description = "OK",
+                            responseCode = "200"
+                    ),
+                    @ApiResponse(
+                            description = "Unauthorized or Invalid Token",
+                            responseCode = "403",
+                            content = @Content
+                    ),
+                    @ApiResponse(
+                            description = "Bad Request",
+                            responseCode = "400",
+                            content = @Content
+                    ),
+                    @ApiResponse(
+                            description = "Internal Server Error",
+                            responseCode = "500",
+                            content = @Content
+                    )
+            }
+    )
+    public ResponseEntity<Integer> renew(@RequestParam Long researcherId,
+                                         @RequestParam(required = false) Long searchId,
+                                         @RequestParam(required = false) Long protocolId){
+        try{
+            return ResponseEntity.ok(screeningQueueService.renew(researcherId, searchId, protocolId));
+        }catch (Exception e){
+            return new ResponseEntity(e.getMessage(), HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    @PostMapping("/release")
+    @ResponseStatus(HttpStatus.OK)
+    @Operation(
+            summary = "Devolver estudios a la cola.",
+            description = "Este método libera los estudios indicados o, si no se indica ninguno, todos los estudios " +
+                    "asignados al investigador en la búsqueda o el protocolo.",
+            responses = {
+                    @ApiResponse(
+                            description = "OK",
+                            responseCode = "200"
+                    ),
+                    @ApiResponse(
+                            description = "Unauthorized or Invalid Token",
+                            responseCode = "403",
+                            content = @Content
+                    ),
+                    @ApiResponse(
+                            description = "Bad Request",
+                            responseCode = "400",
+                            content = @Content
+                    ),
+                    @ApiResponse(
+                            description = "Internal Server Error",
+                            responseCode = "500",
+                            content = @Content
+                    )
+            }
+    )
+    public ResponseEntity<Integer> release(@RequestParam Long researcherId,
+                                           @RequestParam(required = false) Long searchId,
+                                           @RequestParam(required = false) Long protocolId,
+                                           @RequestBody(required = false) List<Long> studyIds){
+        try{
+            return ResponseEntity.ok(screeningQueueService.release(researcherId, searchId, protocolId, studyIds));
+        }catch (Exception e){
+            return new ResponseEntity(e.getMessage(), HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    @GetMapping("/status")
+    @ResponseStatus(HttpStatus.OK)
+    @Operation(
+            summary = "Obtener el estado de la cola.",
+            description = "Este método muestra cuántos estudios tiene asignados cada investigador en una búsqueda o un protocolo.",
+            responses = {
+                    @ApiResponse(
+                            description = "OK",
+                            responseCode = "200"
+                    ),
+                    @ApiResponse(
+                            description = "Unauthorized or Invalid Token",
+                            responseCode = "403",
+                            content = @Content
+                    ),
+                    @ApiResponse(
+                            description = "Bad Request",
+                            responseCode = "400",
+                            content = @Content
+                    ),
+                    @ApiResponse(
+                            description = "Internal Server Error",
+                            responseCode = "500",
+                            content = @Content
+                    )
+            }
+    )
+    public ResponseEntity<ScreeningQueueDTO> getStatus(@RequestParam(required = false) Long searchId,
+                                                       @RequestParam(required = false) Long protocolId){
+        try{
+            return ResponseEntity.ok(screeningQueueService.getStatus(searchId, protocolId));
+        }catch (Exception e){
+            return new ResponseEntity(e.getMessage(), HttpStatus.BAD_REQUEST);
+        }
+    }
+}
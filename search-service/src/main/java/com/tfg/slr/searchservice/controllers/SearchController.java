@@ -1,10 +1,15 @@
 package com.tfg.slr.searchservice.controllers;
 
+import com.tfg.slr.searchservice.dtos.ImportReportDTO;
+import com.tfg.slr.searchservice.dtos.PrismaDTO;
 import com.tfg.slr.searchservice.dtos.SearchDTO;
 import com.tfg.slr.searchservice.dtos.StudyDTO;
 import com.tfg.slr.searchservice.models.Search;
 import com.tfg.slr.searchservice.models.Study;
+import com.tfg.slr.searchservice.services.DeduplicationService;
+import com.tfg.slr.searchservice.services.PrismaService;
 import com.tfg.slr.searchservice.services.SearchService;
+import com.tfg.slr.searchservice.services.StudyImportService;
 import com.tfg.slr.searchservice.services.StudyService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -13,11 +18,16 @@ import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.AllArgsConstructor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
 
 import javax.validation.Valid;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -30,6 +40,9 @@ public class SearchController {
 
     private final SearchService searchService;
     private final StudyService studyService;
+    private final StudyImportService studyImportService;
+    private final DeduplicationService deduplicationService;
+    private final PrismaService prismaService;
     @GetMapping("/all")
     @ResponseStatus(HttpStatus.OK)
     @Operation(
@@ -155,5 +168,185 @@ public class SearchController {
         }
     }
 
+    @PostMapping(value = "/{searchId}/import-bibtex", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @ResponseStatus(HttpStatus.OK)
+    @Operation(
+            summary = "Importar estudios desde un fichero BibTeX.",
+            description = "Este método lee un fichero BibTeX entrada a entrada y añade todos los estudios válidos a la búsqueda " +
+                    "en una única transacción. Devuelve un informe con las entradas que no se han podido importar.",
+            responses = {
+                    @ApiResponse(
+                            description = "OK",
+                            responseCode = "200"
+                    ),
+                    @ApiResponse(
+                            description = "Unauthorized or Invalid Token",
+                            responseCode = "403",
+                            content = @Content
+                    ),
+                    @ApiResponse(
+                            description = "Bad Request",
+                            responseCode = "400",
+                            content = @Content
+                    ),
+                    @ApiResponse(
+                            description = "Internal Server Error",
+                            responseCode = "500",
+                            content = @Content
+                    )
+            }
+    )
+    public ResponseEntity<ImportReportDTO> importBibTeX(@PathVariable Long searchId, @RequestParam("file") MultipartFile file){
+        try(Reader reader = new InputStreamReader(file.getInputStream(), StandardCharsets.UTF_8)){
+            return ResponseEntity.ok(studyImportService.importBibTeX(searchId, reader));
+        }catch (Exception e){
+            return new ResponseEntity(e.getMessage(),HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    @PostMapping(value = "/{searchId}/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @ResponseStatus(HttpStatus.OK)
+    @Operation(
+            summary = "Importar estudios desde un fichero exportado.",
+            description = "Este método importa un fichero BibTeX, RIS, CSV o JSON-lines en la búsqueda. Si no se indica el " +
+                    "formato, se deduce de la extensión del fichero. Devuelve un informe con las entradas rechazadas y el tiempo empleado.",
+            responses = {
+                    @ApiResponse(
+                            description = "OK",
+                            responseCode = "200"
+                    ),
+                    @ApiResponse(
+                            description = "Unauthorized or Invalid Token",
+                            responseCode = "403",
+                            content = @Content
+                    ),
+                    @ApiResponse(
+                            description = "Bad Request",
+                            responseCode = "400",
+                            content = @Content
+                    ),
+                    @ApiResponse(
+                            description = "Internal Server Error",
+                            responseCode = "500",
+                            content = @Content
+                    )
+            }
+    )
+    public ResponseEntity<ImportReportDTO> importStudies(@PathVariable Long searchId, @RequestParam("file") MultipartFile file,
+                                                        @RequestParam(value = "format", required = false) String format){
+        try(Reader reader = new InputStreamReader(file.getInputStream(), StandardCharsets.UTF_8)){
+            return ResponseEntity.ok(studyImportService.importStudies(searchId, format, file.getOriginalFilename(), reader));
+        }catch (Exception e){
+            return new ResponseEntity(e.getMessage(),HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    @PutMapping("/{searchId}/deduplicate")
+    @ResponseStatus(HttpStatus.OK)
+    @Operation(
+            summary = "Detectar estudios duplicados.",
+            description = "Este método reconstruye el índice de duplicados del protocolo al que pertenece la búsqueda y marca " +
+                    "como duplicados los estudios sin clasificar con el mismo DOI o un título casi idéntico a otro anterior. " +
+                    "Devuelve el número de estudios marcados.",
+            responses = {
+                    @ApiResponse(
+                            description = "OK",
+                            responseCode = "200"
+                    ),
+                    @ApiResponse(
+                            description = "Unauthorized or Invalid Token",
+                            responseCode = "403",
+                            content = @Content
+                    ),
+                    @ApiResponse(
+                            description = "Bad Request",
+                            responseCode = "400",
+                            content = @Content
+                    ),
+                    @ApiResponse(
+                            description = "Internal Server Error",
+                            responseCode = "500",
+                            content = @Content
+                    )
+            }
+    )
+    public ResponseEntity<Integer> deduplicate(@PathVariable Long searchId){
+        try{
+            return ResponseEntity.ok(deduplicationService.deduplicate(searchId));
+        }catch (Exception e){
+            return new ResponseEntity(e.getMessage(),HttpStatus.BAD_REQUEST);
+        }
+    }
 
+    @GetMapping("/{searchId}/prisma")
+    @ResponseStatus(HttpStatus.OK)
+    @Operation(
+            summary = "Obtener el diagrama PRISMA de una búsqueda.",
+            description = "Este método devuelve los registros identificados, los duplicados eliminados, los estudios cribados, " +
+                    "excluidos, incluidos y pendientes de una búsqueda.",
+            responses = {
+                    @ApiResponse(
+                            description = "OK",
+                            responseCode = "200"
+                    ),
+                    @ApiResponse(
+                            description = "Unauthorized or Invalid Token",
+                            responseCode = "403",
+                            content = @Content
+                    ),
+                    @ApiResponse(
+                            description = "Bad Request",
+                            responseCode = "400",
+                            content = @Content
+                    ),
+                    @ApiResponse(
+                            description = "Internal Server Error",
+                            responseCode = "500",
+                            content = @Content
+                    )
+            }
+    )
+    public ResponseEntity<PrismaDTO> getPrisma(@PathVariable Long searchId){
+        try{
+            return ResponseEntity.ok(prismaService.getBySearch(searchId));
+        }catch (Exception e){
+            return new ResponseEntity(e.getMessage(),HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    @GetMapping("/protocol/{protocolId}/prisma")
+    @ResponseStatus(HttpStatus.OK)
+    @Operation(
+            summary = "Obtener el diagrama PRISMA de un protocolo.",
+            description = "Este método suma los contadores PRISMA de todas las búsquedas de un protocolo y desglosa los registros " +
+                    "identificados por fuente de datos.",
+            responses = {
+                    @ApiResponse(
+                            description = "OK",
+                            responseCode = "200"
+                    ),
+                    @ApiResponse(
+                            description = "Unauthorized or Invalid Token",
+                            responseCode = "403",
+                            content = @Content
+                    ),
+                    @ApiResponse(
+                            description = "Bad Request",
+                            responseCode = "400",
+                            content = @Content
+                    ),
+                    @ApiResponse(
+                            description = "Internal Server Error",
+                            responseCode = "500",
+                            content = @Content
+                    )
+            }
+    )
+    public ResponseEntity<PrismaDTO> getProtocolPrisma(@PathVariable Long protocolId){
+        try{
+            return ResponseEntity.ok(prismaService.getByProtocol(protocolId));
+        }catch (Exception e){
+            return new ResponseEntity(e.getMessage(),HttpStatus.BAD_REQUEST);
+        }
+    }
 }
@@ -1,24 +1,48 @@
 package com.tfg.slr.searchservice.controllers;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tfg.slr.searchservice.dtos.AutoExclusionReportDTO;
+import com.tfg.slr.searchservice.dtos.BulkDecisionDTO;
+import com.tfg.slr.searchservice.dtos.CriteriaMatrixDTO;
 import com.tfg.slr.searchservice.dtos.FormInstanceDTO;
+import com.tfg.slr.searchservice.dtos.RankingDTO;
 import com.tfg.slr.searchservice.dtos.SelectionCriteriaDTO;
 import com.tfg.slr.searchservice.dtos.StudyDTO;
+import com.tfg.slr.searchservice.dtos.StudyFilterDTO;
+import com.tfg.slr.searchservice.dtos.StudyPageDTO;
+import com.tfg.slr.searchservice.dtos.StudyQueryDTO;
+import com.tfg.slr.searchservice.dtos.StudyStatusDTO;
 import com.tfg.slr.searchservice.exceptions.ItemsNotFoundException;
 import com.tfg.slr.searchservice.models.FormType;
+import com.tfg.slr.searchservice.models.Status;
 import com.tfg.slr.searchservice.models.Study;
 import com.tfg.slr.searchservice.services.FormInstanceService;
+import com.tfg.slr.searchservice.services.AppliedCriteriaService;
+import com.tfg.slr.searchservice.services.AutoExclusionService;
+import com.tfg.slr.searchservice.services.RankingService;
+import com.tfg.slr.searchservice.services.StudyExportService;
+import com.tfg.slr.searchservice.services.StudyQueryService;
 import com.tfg.slr.searchservice.services.StudyService;
+import com.tfg.slr.searchservice.utils.StudyWriter;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.AllArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import javax.validation.Valid;
 import javax.websocket.server.PathParam;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -32,6 +56,12 @@ public class StudyController {
 
     private final StudyService studyService;
     private final FormInstanceService formInstanceService;
+    private final ObjectMapper objectMapper;
+    private final StudyExportService studyExportService;
+    private final AppliedCriteriaService appliedCriteriaService;
+    private final RankingService rankingService;
+    private final AutoExclusionService autoExclusionService;
+    private final StudyQueryService studyQueryService;
 
     @GetMapping("/all")
     @ResponseStatus(HttpStatus.OK)
@@ -72,6 +102,336 @@ public class StudyController {
         }
     }
 
+    @GetMapping("/page")
+    @ResponseStatus(HttpStatus.OK)
+    @Operation(
+            summary = "Obtener una página de estudios.",
+            description = "Este método devuelve los estudios ordenados por ID a partir del cursor indicado, filtrados opcionalmente " +
+                    "por búsqueda, protocolo y estado de selección. Para pedir la siguiente página se envía el nextCursor recibido.",
+            responses = {
+                    @ApiResponse(
+                            description = "OK",
+                            responseCode = "200"
+                    ),
+                    @ApiResponse(
+                            description = "Unauthorized or Invalid Token",
+                            responseCode = "403",
+                            content = @Content
+                    ),
+                    @ApiResponse(
+                            description = "Bad Request",
+                            responseCode = "400",
+                            content = @Content
+                    ),
+                    @ApiResponse(
+                            description = "Internal Server Error",
+                            responseCode = "500",
+                            content = @Content
+                    )
+            }
+    )
+    public ResponseEntity<StudyPageDTO> getPage(@RequestParam(required = false) Long searchId,
+                                                @RequestParam(required = false) Long protocolId,
+                                                @RequestParam(required = false) String status,
+                                                @RequestParam(required = false) Long after,
+                                                @RequestParam(defaultValue = "50") int size){
+        try{
+            return ResponseEntity.ok(studyService.findPage(searchId, protocolId, parseStatus(status), after, size));
+        }catch (Exception e){
+            return new ResponseEntity(e.getMessage(),HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    @PostMapping("/query")
+    @ResponseStatus(HttpStatus.OK)
+    @Operation(
+            summary = "Filtrar estudios con recuentos por faceta.",
+            description = "Este método devuelve una página de los estudios de una búsqueda o protocolo filtrados por estado de selección, " +
+                    "rango de años, tipo, revista o congreso, fuente de datos y criterio aplicado. Si se solicitan, incluye en la misma " +
+                    "respuesta el número de estudios por cada valor de esos filtros, calculado sin aplicar el filtro de la propia faceta.",
+            responses = {
+                    @ApiResponse(
+                            description = "OK",
+                            responseCode = "200"
+                    ),
+                    @ApiResponse(
+                            description = "Unauthorized or Invalid Token",
+                            responseCode = "403",
+                            content = @Content
+                    ),
+                    @ApiResponse(
+                            description = "Bad Request",
+                            responseCode = "400",
+                            content = @Content
+                    ),
+                    @ApiResponse(
+                            description = "Internal Server Error",
+                            responseCode = "500",
+                            content = @Content
+                    )
+            }
+    )
+    public ResponseEntity<StudyQueryDTO> query(@RequestBody StudyFilterDTO filter){
+        try{
+            return ResponseEntity.ok(studyQueryService.query(filter));
+        }catch (Exception e){
+            return new ResponseEntity(e.getMessage(),HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    @GetMapping("/search")
+    @ResponseStatus(HttpStatus.OK)
+    @Operation(
+            summary = "Buscar estudios por texto.",
+            description = "Este método busca estudios por título, autor o publicación, ordenados por relevancia, dentro de una " +
+                    "búsqueda o de un protocolo. Si el texto es un DOI, se busca el estudio con ese DOI.",
+            responses = {
+                    @ApiResponse(
+                            description = "OK",
+                            responseCode = "200"
+                    ),
+                    @ApiResponse(
+                            description = "Unauthorized or Invalid Token",
+                            responseCode = "403",
+                            content = @Content
+                    ),
+                    @ApiResponse(
+                            description = "Bad Request",
+                            responseCode = "400",
+                            content = @Content
+                    ),
+                    @ApiResponse(
+                            description = "Internal Server Error",
+                            responseCode = "500",
+                            content = @Content
+                    )
+            }
+    )
+    public ResponseEntity<List<StudyDTO>> searchText(@RequestParam("q") String query,
+                                                     @RequestParam(required = false) Long searchId,
+                                                     @RequestParam(required = false) Long protocolId,
+                                                     @RequestParam(defaultValue = "0") int page,
+                                                     @RequestParam(defaultValue = "20") int size){
+        try{
+            return ResponseEntity.ok(studyService.searchText(query, searchId, protocolId, page, size));
+        }catch (Exception e){
+            return new ResponseEntity(e.getMessage(),HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    @GetMapping("/stream")
+    @ResponseStatus(HttpStatus.OK)
+    @Operation(
+            summary = "Obtener todos los estudios en streaming.",
+            description = "Este método escribe los estudios filtrados en un array JSON a medida que se leen de la base de datos, " +
+                    "sin cargarlos todos en memoria.",
+            responses = {
+                    @ApiResponse(
+                            description = "OK",
+                            responseCode = "200"
+                    ),
+                    @ApiResponse(
+                            description = "Unauthorized or Invalid Token",
+                            responseCode = "403",
+                            content = @Content
+                    ),
+                    @ApiResponse(
+                            description = "Bad Request",
+                            responseCode = "400",
+                            content = @Content
+                    ),
+                    @ApiResponse(
+                            description = "Internal Server Error",
+                            responseCode = "500",
+                            content = @Content
+                    )
+            }
+    )
+    public ResponseEntity<StreamingResponseBody> streamAll(@RequestParam(required = false) Long searchId,
+                                                           @RequestParam(required = false) Long protocolId,
+                                                           @RequestParam(required = false) String status){
+        Status selectionStatus;
+        try{
+            selectionStatus = parseStatus(status);
+        }catch (Exception e){
+            return new ResponseEntity(e.getMessage(),HttpStatus.BAD_REQUEST);
+        }
+        StreamingResponseBody body = out -> {
+            try(JsonGenerator generator = objectMapper.getFactory().createGenerator(out)){
+                generator.writeStartArray();
+                studyService.streamAll(searchId, protocolId, selectionStatus, dto -> {
+                    try{
+                        generator.writeObject(dto);
+                    }catch (IOException e){
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                generator.writeEndArray();
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+
+    @GetMapping("/export")
+    @ResponseStatus(HttpStatus.OK)
+    @Operation(
+            summary = "Exportar estudios.",
+            description = "Este método descarga los estudios filtrados por búsqueda, protocolo y estado de selección en formato " +
+                    "BibTeX, RIS o CSV. Los estudios se escriben a medida que se leen de la base de datos.",
+            responses = {
+                    @ApiResponse(
+                            description = "OK",
+                            responseCode = "200"
+                    ),
+                    @ApiResponse(
+                            description = "Unauthorized or Invalid Token",
+                            responseCode = "403",
+                            content = @Content
+                    ),
+                    @ApiResponse(
+                            description = "Bad Request",
+                            responseCode = "400",
+                            content = @Content
+                    ),
+                    @ApiResponse(
+                            description = "Internal Server Error",
+                            responseCode = "500",
+                            content = @Content
+                    )
+            }
+    )
+    public ResponseEntity<StreamingResponseBody> export(@RequestParam(defaultValue = "bibtex") String format,
+                                                        @RequestParam(required = false) Long searchId,
+                                                        @RequestParam(required = false) Long protocolId,
+                                                        @RequestParam(required = false) String status){
+        StudyWriter writer;
+        Status selectionStatus;
+        try{
+            writer = studyExportService.findWriter(format);
+            selectionStatus = parseStatus(status);
+        }catch (Exception e){
+            return new ResponseEntity(e.getMessage(),HttpStatus.BAD_REQUEST);
+        }
+        StreamingResponseBody body = out -> studyExportService.export(writer, searchId, protocolId, selectionStatus, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(writer.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"studies." + writer.getExtension() + "\"")
+                .body(body);
+    }
+
+    @GetMapping("/criteria-matrix")
+    @ResponseStatus(HttpStatus.OK)
+    @Operation(
+            summary = "Obtener la matriz de criterios aplicados de un protocolo.",
+            description = "Este método devuelve, para cada estudio del protocolo, qué criterios de selección se le han aplicado, " +
+                    "junto al número de estudios a los que se ha aplicado cada criterio.",
+            responses = {
+                    @ApiResponse(
+                            description = "OK",
+                            responseCode = "200"
+                    ),
+                    @ApiResponse(
+                            description = "Unauthorized or Invalid Token",
+                            responseCode = "403",
+                            content = @Content
+                    ),
+                    @ApiResponse(
+                            description = "Bad Request",
+                            responseCode = "400",
+                            content = @Content
+                    ),
+                    @ApiResponse(
+                            description = "Internal Server Error",
+                            responseCode = "500",
+                            content = @Content
+                    )
+            }
+    )
+    public ResponseEntity<CriteriaMatrixDTO> getCriteriaMatrix(@RequestParam Long protocolId){
+        try{
+            return ResponseEntity.ok(appliedCriteriaService.getMatrix(protocolId));
+        }catch (Exception e){
+            return new ResponseEntity(e.getMessage(),HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    @GetMapping("/ranking")
+    @ResponseStatus(HttpStatus.OK)
+    @Operation(
+            summary = "Obtener los estudios sin clasificar ordenados por relevancia.",
+            description = "Este método ordena los estudios sin clasificar de un protocolo, o de una de sus búsquedas, según su " +
+                    "relevancia (BM25) respecto a las palabras clave y las preguntas de investigación del protocolo. Con " +
+                    "size=1 devuelve el siguiente estudio a cribar.",
+            responses = {
+                    @ApiResponse(
+                            description = "OK",
+                            responseCode = "200"
+                    ),
+                    @ApiResponse(
+                            description = "Unauthorized or Invalid Token",
+                            responseCode = "403",
+                            content = @Content
+                    ),
+                    @ApiResponse(
+                            description = "Bad Request",
+                            responseCode = "400",
+                            content = @Content
+                    ),
+                    @ApiResponse(
+                            description = "Internal Server Error",
+                            responseCode = "500",
+                            content = @Content
+                    )
+            }
+    )
+    public ResponseEntity<RankingDTO> getRanking(@RequestParam(required = false) Long protocolId,
+                                                 @RequestParam(required = false) Long searchId,
+                                                 @RequestParam(defaultValue = "20") int size){
+        try{
+            return ResponseEntity.ok(rankingService.rank(protocolId, searchId, size));
+        }catch (Exception e){
+            return new ResponseEntity(e.getMessage(),HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    @PostMapping("/auto-exclude")
+    @ResponseStatus(HttpStatus.OK)
+    @Operation(
+            summary = "Aplicar automáticamente los criterios de selección con regla.",
+            description = "Este método rechaza los estudios sin clasificar de un protocolo, o de una de sus búsquedas, que " +
+                    "cumplen un criterio de exclusión o no cumplen uno de inclusión con regla estructurada (rango de años, " +
+                    "tipo, fuente, idioma o palabras del título). Los criterios se registran como aplicados en cada estudio.",
+            responses = {
+                    @ApiResponse(
+                            description = "OK",
+                            responseCode = "200"
+                    ),
+                    @ApiResponse(
+                            description = "Unauthorized or Invalid Token",
+                            responseCode = "403",
+                            content = @Content
+                    ),
+                    @ApiResponse(
+                            description = "Bad Request",
+                            responseCode = "400",
+                            content = @Content
+                    ),
+                    @ApiResponse(
+                            description = "Internal Server Error",
+                            responseCode = "500",
+                            content = @Content
+                    )
+            }
+    )
+    public ResponseEntity<AutoExclusionReportDTO> autoExclude(@RequestParam(required = false) Long protocolId,
+                                                              @RequestParam(required = false) Long searchId){
+        try{
+            return ResponseEntity.ok(autoExclusionService.applyRules(protocolId, searchId));
+        }catch (Exception e){
+            return new ResponseEntity(e.getMessage(),HttpStatus.BAD_REQUEST);
+        }
+    }
+
     @GetMapping("/{id}")
     @ResponseStatus(HttpStatus.OK)
     @Operation(
@@ -286,5 +646,46 @@ public class StudyController {
         }
     }
 
+    @PutMapping("/bulk-decision")
+    @ResponseStatus(HttpStatus.OK)
+    @Operation(
+            summary = "Aplicar decisiones de selección en bloque.",
+            description = "Este método cambia el estado de selección de varios estudios y añade los criterios aplicados a cada uno " +
+                    "en una única transacción. Si alguno de los estudios no existe, no se aplica ninguna decisión.",
+            responses = {
+                    @ApiResponse(
+                            description = "OK",
+                            responseCode = "200"
+                    ),
+                    @ApiResponse(
+                            description = "Unauthorized or Invalid Token",
+                            responseCode = "403",
+                            content = @Content
+                    ),
+                    @ApiResponse(
+                            description = "Bad Request",
+                            responseCode = "400",
+                            content = @Content
+                    ),
+                    @ApiResponse(
+                            description = "Internal Server Error",
+                            responseCode = "500",
+                            content = @Content
+                    )
+            }
+    )
+    public ResponseEntity<List<StudyStatusDTO>> applyDecisions(@Valid @RequestBody BulkDecisionDTO bulkDecisionDTO, BindingResult bindingResult){
+        if(bindingResult.hasErrors()){
+            return new ResponseEntity(bindingResult.toString(),HttpStatus.BAD_REQUEST);
+        }
+        try{
+            return ResponseEntity.ok(studyService.applyDecisions(bulkDecisionDTO.getDecisions()));
+        }catch (Exception e){
+            return new ResponseEntity(e.getMessage(),HttpStatus.BAD_REQUEST);
+        }
+    }
 
+    private Status parseStatus(String status){
+        return status == null || status.isBlank() ? null : Status.valueOf(status.trim().toUpperCase());
+    }
 }
@@ -0,0 +1,29 @@
+package com.tfg.slr.searchservice.dtos;
+
+import lombok.*;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@Builder
+public class AutoExclusionReportDTO {
+
+    private Long protocolId;
+
+    private Long searchId;
+
+    //Criteria of the protocol with a structured rule
+    private int rules;
+
+    private int rejectedStudies;
+
+    //Rejected studies by criteria ID. A study rejected by several criteria counts for each of them
+    @Builder.Default
+    private Map<Long, Integer> rejectedByCriteria = new HashMap<>();
+
+    private long elapsedMillis;
+}
@@ -0,0 +1,21 @@
+package com.tfg.slr.searchservice.dtos;
+
+import lombok.*;
+
+import javax.validation.Valid;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.Size;
+import java.util.List;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@Builder
+public class BulkDecisionDTO {
+
+    @NotEmpty
+    @Size(max = 1000)
+    @Valid
+    private List<ScreeningDecisionDTO> decisions;
+}
@@ -0,0 +1,26 @@
+package com.tfg.slr.searchservice.dtos;
+
+import com.tfg.slr.searchservice.models.FormType;
+import lombok.*;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@Builder
+public class BulkFormReportDTO {
+
+    private FormType formType;
+
+    private Long protocolId;
+
+    private Long formId;
+
+    private int pendingStudies;
+
+    private int createdInstances;
+
+    private int fieldsPerInstance;
+
+    private long elapsedMillis;
+}
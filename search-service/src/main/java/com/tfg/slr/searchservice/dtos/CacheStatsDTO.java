@@ -0,0 +1,31 @@
+package com.tfg.slr.searchservice.dtos;
+
+import com.tfg.slr.searchservice.utils.ExpiringCache;
+import lombok.*;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@Builder
+public class CacheStatsDTO {
+
+    private String name;
+
+    private int size;
+
+    private long hits;
+
+    private long misses;
+
+    private long loads;
+
+    private long loadFailures;
+
+    private long evictions;
+
+    public static CacheStatsDTO buildFromCache(ExpiringCache<?, ?> cache){
+        return CacheStatsDTO.builder().name(cache.getName()).size(cache.size()).hits(cache.getHits()).misses(cache.getMisses())
+                .loads(cache.getLoads()).loadFailures(cache.getLoadFailures()).evictions(cache.getEvictions()).build();
+    }
+}
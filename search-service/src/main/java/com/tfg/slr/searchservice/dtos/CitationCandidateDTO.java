@@ -0,0 +1,21 @@
+package com.tfg.slr.searchservice.dtos;
+
+import lombok.*;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@Builder
+public class CitationCandidateDTO {
+
+    private String doi;
+
+    private String title;
+
+    //Distance in citations from the closest accepted study
+    private int hop;
+
+    //Citations between this work and the expanded works, a rough measure of how central it is
+    private int links;
+}
@@ -0,0 +1,31 @@
+package com.tfg.slr.searchservice.dtos;
+
+import com.tfg.slr.searchservice.models.CitationDirection;
+import lombok.*;
+
+import java.util.List;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@Builder
+public class CitationExpansionDTO {
+
+    private Long protocolId;
+
+    private CitationDirection direction;
+
+    private int hops;
+
+    //Accepted studies of the protocol found in the citation graph
+    private int seeds;
+
+    //Works reached that are not studies of the protocol yet, before applying the limit
+    private int discovered;
+
+    //True when the expansion stopped early because it reached too many works
+    private boolean truncated;
+
+    private List<CitationCandidateDTO> candidates;
+}
@@ -0,0 +1,19 @@
+package com.tfg.slr.searchservice.dtos;
+
+import lombok.*;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@Builder
+public class CitationIngestReportDTO {
+
+    //Distinct works in the request
+    private int works;
+
+    private int edgesAdded;
+
+    //Works ignored because they have no DOI
+    private int skipped;
+}
@@ -0,0 +1,29 @@
+package com.tfg.slr.searchservice.dtos;
+
+import lombok.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+//Reference list and citing papers of one work, identified by its DOI or by the ID of a study that has one
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@Builder
+public class CitationListDTO {
+
+    private Long studyId;
+
+    private String doi;
+
+    private String title;
+
+    //Works cited by this one (backward snowballing)
+    @Builder.Default
+    private List<CitedWorkDTO> references = new ArrayList<>();
+
+    //Works that cite this one (forward snowballing)
+    @Builder.Default
+    private List<CitedWorkDTO> citedBy = new ArrayList<>();
+}
@@ -0,0 +1,15 @@
+package com.tfg.slr.searchservice.dtos;
+
+import lombok.*;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@Builder
+public class CitedWorkDTO {
+
+    private String doi;
+
+    private String title;
+}
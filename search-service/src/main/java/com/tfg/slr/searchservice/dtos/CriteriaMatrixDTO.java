@@ -0,0 +1,45 @@
+package com.tfg.slr.searchservice.dtos;
+
+import lombok.*;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Studies × selection criteria matrix of a protocol. Character n of each row is '1' when the criterion at
+ * position n of criteriaIds was applied to the study.
+ */
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@Builder
+public class CriteriaMatrixDTO {
+
+    private Long protocolId;
+
+    @Builder.Default
+    private List<Long> criteriaIds = new ArrayList<>();
+
+    @Builder.Default
+    private List<Row> rows = new ArrayList<>();
+
+    //Number of studies each criterion was applied to
+    @Builder.Default
+    private Map<Long, Long> counts = new LinkedHashMap<>();
+
+    @AllArgsConstructor
+    @NoArgsConstructor
+    @Getter
+    @Setter
+    public static class Row {
+
+        private Long studyId;
+
+        private String selectionStatus;
+
+        private String applied;
+    }
+}
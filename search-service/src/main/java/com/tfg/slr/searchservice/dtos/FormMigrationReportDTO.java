@@ -0,0 +1,19 @@
+package com.tfg.slr.searchservice.dtos;
+
+import lombok.*;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@Builder
+public class FormMigrationReportDTO {
+
+    private int scannedInstances;
+
+    private int migratedInstances;
+
+    private int batches;
+
+    private long elapsedMillis;
+}
@@ -0,0 +1,17 @@
+package com.tfg.slr.searchservice.dtos;
+
+import lombok.*;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@Builder
+public class ImportErrorDTO {
+
+    private Integer entryIndex;
+
+    private String entryKey;
+
+    private String message;
+}
@@ -0,0 +1,33 @@
+package com.tfg.slr.searchservice.dtos;
+
+import lombok.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@Builder
+public class ImportReportDTO {
+
+    private Long searchId;
+
+    private String format;
+
+    private int totalEntries;
+
+    private int importedStudies;
+
+    private int duplicatedStudies;
+
+    private long elapsedMillis;
+
+    @Builder.Default
+    private List<ImportErrorDTO> errors = new ArrayList<>();
+
+    public void addError(int entryIndex, String entryKey, String message){
+        errors.add(ImportErrorDTO.builder().entryIndex(entryIndex).entryKey(entryKey).message(message).build());
+    }
+}
@@ -0,0 +1,54 @@
+package com.tfg.slr.searchservice.dtos;
+
+import com.tfg.slr.searchservice.models.PrismaCounter;
+import lombok.*;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * PRISMA flow numbers of a search or of all the searches of a protocol.
+ */
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@Builder
+public class PrismaDTO {
+
+    private Long searchId;
+
+    private Long protocolId;
+
+    private long identified;
+
+    private long duplicatesRemoved;
+
+    private long screened;
+
+    private long excluded;
+
+    private long included;
+
+    private long pending;
+
+    @Builder.Default
+    private Map<Long, Long> identifiedByDataSource = new HashMap<>();
+
+    public static PrismaDTO buildFromCounters(List<PrismaCounter> counters){
+        PrismaDTO dto = new PrismaDTO();
+        for(PrismaCounter counter : counters){
+            dto.identified += counter.getIdentified();
+            dto.duplicatesRemoved += counter.getDuplicated();
+            dto.excluded += counter.getRejected();
+            dto.included += counter.getAccepted();
+            dto.pending += counter.getUnclassified();
+            if(counter.getDataSourceId() != null){
+                dto.identifiedByDataSource.merge(counter.getDataSourceId(), counter.getIdentified(), Long::sum);
+            }
+        }
+        dto.screened = dto.identified - dto.duplicatesRemoved;
+        return dto;
+    }
+}
@@ -0,0 +1,20 @@
+package com.tfg.slr.searchservice.dtos;
+
+import lombok.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@Builder
+public class ProtocolTermsDTO {
+
+    private Long protocolId;
+    private String principalQuestion;
+    private String secondaryQuestion;
+    @Builder.Default
+    private List<String> keywords = new ArrayList<>();
+}
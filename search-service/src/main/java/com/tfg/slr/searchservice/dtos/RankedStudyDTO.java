@@ -0,0 +1,18 @@
+package com.tfg.slr.searchservice.dtos;
+
+import lombok.*;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@Builder
+public class RankedStudyDTO {
+
+    private int rank;
+
+    //BM25 score against the keywords and questions of the protocol, 0 when no term matches
+    private double relevance;
+
+    private StudyDTO study;
+}
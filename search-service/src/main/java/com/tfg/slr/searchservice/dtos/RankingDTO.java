@@ -0,0 +1,24 @@
+package com.tfg.slr.searchservice.dtos;
+
+import lombok.*;
+
+import java.util.List;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@Builder
+public class RankingDTO {
+
+    private Long protocolId;
+
+    private Long searchId;
+
+    //Unclassified studies of the protocol known to the ranking
+    private int unclassified;
+
+    private List<String> terms;
+
+    private List<RankedStudyDTO> studies;
+}
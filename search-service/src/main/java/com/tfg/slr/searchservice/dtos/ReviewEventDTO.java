@@ -0,0 +1,27 @@
+package com.tfg.slr.searchservice.dtos;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.*;
+
+import java.util.Date;
+
+//Event published by the outbox of the review service. The type is kept as text so that new types can be skipped
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@Builder
+public class ReviewEventDTO {
+
+    private Long id;
+
+    private String type;
+
+    private Long protocolId;
+
+    //Only for form events
+    private Long formId;
+
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private Date occurredAt;
+}
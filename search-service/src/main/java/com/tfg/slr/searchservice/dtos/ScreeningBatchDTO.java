@@ -0,0 +1,26 @@
+package com.tfg.slr.searchservice.dtos;
+
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@Builder
+public class ScreeningBatchDTO {
+
+    private Long researcherId;
+
+    //Every study currently leased to the researcher, including the ones claimed in previous calls
+    private List<StudyDTO> studies;
+
+    private int claimed;
+
+    //Studies taken over from the researcher with the largest backlog
+    private int stolen;
+
+    private LocalDateTime expiresAt;
+}
@@ -0,0 +1,26 @@
+package com.tfg.slr.searchservice.dtos;
+
+import lombok.*;
+
+import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.NotNull;
+import java.util.HashSet;
+import java.util.Set;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@Builder
+public class ScreeningDecisionDTO {
+
+    @NotNull
+    private Long studyId;
+
+    //ACCEPTED, REJECTED, DUPLICATED or UNCLASSIFIED
+    @NotBlank
+    private String decision;
+
+    @Builder.Default
+    private Set<Long> appliedCriteriaIds = new HashSet<>();
+}
@@ -0,0 +1,17 @@
+package com.tfg.slr.searchservice.dtos;
+
+import lombok.*;
+
+import java.util.Map;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@Builder
+public class ScreeningQueueDTO {
+
+    private long leased;
+
+    private Map<Long, Long> leasesByResearcher;
+}
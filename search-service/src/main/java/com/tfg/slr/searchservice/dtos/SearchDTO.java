@@ -25,12 +25,13 @@ public class SearchDTO {
 
     public static Search buildEntity(SearchDTO searchDTO){
         return Search.builder().searchString(searchDTO.getSearchString())
-                .observations(searchDTO.getObservations()).build();
+                .observations(searchDTO.getObservations()).protocolId(searchDTO.getProtocolId()).build();
     }
 
     public static SearchDTO buildFromEntity(Search search){
         return SearchDTO.builder().id(search.getId()).searchReference(search.getSearchReference()).searchString(search.getSearchString())
-                .observations(search.getObservations()).dataSourceId(search.getDataSourceId()).build();
+                .observations(search.getObservations()).dataSourceId(search.getDataSourceId())
+                .protocolId(search.getProtocolId()).build();
     }
 
 }
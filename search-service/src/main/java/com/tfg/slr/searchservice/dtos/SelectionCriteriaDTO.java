@@ -4,6 +4,7 @@ import lombok.*;
 
 import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.NotNull;
+import java.util.List;
 
 @AllArgsConstructor
 @NoArgsConstructor
@@ -20,4 +21,13 @@ public class SelectionCriteriaDTO {
     @NotNull
     private String criteriaType;
 
+    //Structured rule defined in the protocol, see CriteriaRule. Null for criteria that are only applied by hand
+    private String ruleField;
+
+    private Integer minYear;
+
+    private Integer maxYear;
+
+    private List<String> ruleValues;
+
 }
\ No newline at end of file
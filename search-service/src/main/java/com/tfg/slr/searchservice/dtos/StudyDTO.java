@@ -30,6 +30,8 @@ public class StudyDTO {
 
     private String venue;
 
+    private String language;
+
     @NotBlank
     @URL
     private String sourceURL;
@@ -50,13 +52,13 @@ public class StudyDTO {
 
     public static Study buildEntity(StudyDTO dto){
         return Study.builder().title(dto.getTitle()).author(dto.getAuthor()).year(dto.getYear())
-                .venue(dto.getVenue()).type(dto.getType()).sourceURL(dto.getSourceURL()).priority(dto.getPriority())
+                .venue(dto.getVenue()).language(dto.getLanguage()).type(dto.getType()).sourceURL(dto.getSourceURL()).priority(dto.getPriority())
                 .score(dto.getScore()).DOI(dto.getDOI()).build();
     }
 
     public static StudyDTO buildFromEntity(Study study){
         StudyDTO dto = StudyDTO.builder().id(study.getId()).title(study.getTitle()).author(study.getAuthor()).year(study.getYear())
-                .venue(study.getVenue()).type(study.getType()).sourceURL(study.getSourceURL()).priority(study.getPriority())
+                .venue(study.getVenue()).language(study.getLanguage()).type(study.getType()).sourceURL(study.getSourceURL()).priority(study.getPriority())
                 .selectionStatus(study.getSelectionStatus().toString()).extractionStatus(study.getExtractionStatus().toString())
                 .score(study.getScore()).DOI(study.getDOI()).build();
         if(study.getSearch()!=null){
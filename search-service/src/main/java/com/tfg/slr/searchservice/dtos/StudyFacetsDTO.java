@@ -0,0 +1,38 @@
+package com.tfg.slr.searchservice.dtos;
+
+import lombok.*;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Number of studies per value of each filter dimension, most frequent first. The counts of a dimension apply every
+ * filter except its own, so they are the results the query would have if that filter were changed. Studies without
+ * a value for the dimension are not counted.
+ */
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@Builder
+public class StudyFacetsDTO {
+
+    @Builder.Default
+    private Map<String, Long> selectionStatus = new LinkedHashMap<>();
+
+    @Builder.Default
+    private Map<String, Long> year = new LinkedHashMap<>();
+
+    @Builder.Default
+    private Map<String, Long> type = new LinkedHashMap<>();
+
+    @Builder.Default
+    private Map<String, Long> venue = new LinkedHashMap<>();
+
+    @Builder.Default
+    private Map<String, Long> dataSource = new LinkedHashMap<>();
+
+    //By criteria ID, only the criteria applied to some study
+    @Builder.Default
+    private Map<Long, Long> criteria = new LinkedHashMap<>();
+}
@@ -0,0 +1,50 @@
+package com.tfg.slr.searchservice.dtos;
+
+import com.tfg.slr.searchservice.models.Status;
+import lombok.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Filters of the study query. Empty lists and null values don't filter. At least the search or the protocol must be
+ * given.
+ */
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@Builder
+public class StudyFilterDTO {
+
+    private Long searchId;
+
+    private Long protocolId;
+
+    @Builder.Default
+    private List<Status> selectionStatus = new ArrayList<>();
+
+    private Integer minYear;
+
+    private Integer maxYear;
+
+    @Builder.Default
+    private List<String> types = new ArrayList<>();
+
+    @Builder.Default
+    private List<String> venues = new ArrayList<>();
+
+    @Builder.Default
+    private List<Long> dataSourceIds = new ArrayList<>();
+
+    //Only studies to which this selection criterion was applied
+    private Long criteriaId;
+
+    private int page;
+
+    @Builder.Default
+    private int size = 50;
+
+    @Builder.Default
+    private boolean facets = true;
+}
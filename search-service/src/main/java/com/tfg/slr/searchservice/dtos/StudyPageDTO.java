@@ -0,0 +1,20 @@
+package com.tfg.slr.searchservice.dtos;
+
+import lombok.*;
+
+import java.util.List;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@Builder
+public class StudyPageDTO {
+
+    private List<StudyDTO> studies;
+
+    //ID to send as "after" to get the next page, null on the last page
+    private Long nextCursor;
+
+    private boolean hasNext;
+}
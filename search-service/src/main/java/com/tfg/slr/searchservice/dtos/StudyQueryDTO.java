@@ -0,0 +1,27 @@
+package com.tfg.slr.searchservice.dtos;
+
+import lombok.*;
+
+import java.util.List;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@Builder
+public class StudyQueryDTO {
+
+    private List<StudyDTO> studies;
+
+    private int page;
+
+    private int size;
+
+    //Studies matching every filter
+    private long total;
+
+    private boolean hasNext;
+
+    //Null when the query didn't ask for them
+    private StudyFacetsDTO facets;
+}
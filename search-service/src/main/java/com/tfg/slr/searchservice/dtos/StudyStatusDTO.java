@@ -0,0 +1,15 @@
+package com.tfg.slr.searchservice.dtos;
+
+import lombok.*;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@Builder
+public class StudyStatusDTO {
+
+    private Long studyId;
+
+    private String selectionStatus;
+}
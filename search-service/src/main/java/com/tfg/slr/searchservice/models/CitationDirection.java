@@ -0,0 +1,8 @@
+package com.tfg.slr.searchservice.models;
+
+/**
+ * BACKWARD follows the references of a work, FORWARD the works that cite it.
+ */
+public enum CitationDirection {
+    BACKWARD, FORWARD, BOTH
+}
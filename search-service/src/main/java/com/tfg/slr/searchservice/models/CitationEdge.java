@@ -0,0 +1,39 @@
+package com.tfg.slr.searchservice.models;
+
+import lombok.*;
+
+import javax.persistence.*;
+import java.io.Serializable;
+
+/**
+ * The work {@code citingId} cites the work {@code citedId}. The primary key serves backward snowballing (references
+ * of a work) and the second index forward snowballing (works citing it).
+ */
+@Entity
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@Builder
+@IdClass(CitationEdge.Key.class)
+@Table(name="citation_edge", indexes = {
+        @Index(name = "idx_citation_edge_cited", columnList = "cited_id, citing_id")
+})
+public class CitationEdge {
+
+    @Id
+    @Column(name="citing_id")
+    private Long citingId;
+
+    @Id
+    @Column(name="cited_id")
+    private Long citedId;
+
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    public static class Key implements Serializable {
+        private Long citingId;
+        private Long citedId;
+    }
+}
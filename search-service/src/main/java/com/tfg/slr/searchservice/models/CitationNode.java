@@ -0,0 +1,32 @@
+package com.tfg.slr.searchservice.models;
+
+import lombok.*;
+
+import javax.persistence.*;
+
+/**
+ * A work of the citation graph, identified by its normalized DOI. It may or may not be one of the studies found
+ * by the searches; studies are matched to works through their DOI.
+ */
+@Entity
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@Builder
+@Table(name="citation_node", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_citation_node_doi", columnNames = {"doi"})
+})
+public class CitationNode {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.AUTO)
+    @Column(name="node_id")
+    private Long id;
+
+    @Column(name="doi", nullable = false)
+    private String doi;
+
+    @Column(name="title", columnDefinition = "TEXT")
+    private String title;
+}
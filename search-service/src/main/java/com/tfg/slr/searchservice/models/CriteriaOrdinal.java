@@ -0,0 +1,42 @@
+package com.tfg.slr.searchservice.models;
+
+import lombok.*;
+
+import javax.persistence.*;
+import java.io.Serializable;
+
+/**
+ * Position of a selection criterion in the applied-criteria bitmap of the studies of a protocol. Ordinals are
+ * assigned on first use and never reused, so existing bitmaps stay valid when criteria are added or removed.
+ */
+@Entity
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@Builder
+@IdClass(CriteriaOrdinal.Key.class)
+@Table(name="criteria_ordinal", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_criteria_ordinal", columnNames = {"protocol_id", "ordinal"})
+})
+public class CriteriaOrdinal {
+
+    @Id
+    @Column(name="protocol_id")
+    private Long protocolId;
+
+    @Id
+    @Column(name="criteria_id")
+    private Long criteriaId;
+
+    @Column(name="ordinal", nullable = false)
+    private int ordinal;
+
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    public static class Key implements Serializable {
+        private Long protocolId;
+        private Long criteriaId;
+    }
+}
@@ -25,14 +25,14 @@ public class FormFieldInstance {
     @Column(name="name")
     private String name;
 
-    @NotBlank
+    //Empty until the researcher fills in the field
     @Column(name="value", columnDefinition = "TEXT")
     private String value;
 
     //--Relationships--//
 
     @Valid
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name="form_instance_id", nullable = false)
     @ToString.Exclude
     private FormInstance formInstance;
@@ -1,6 +1,8 @@
 package com.tfg.slr.searchservice.models;
 
 import lombok.*;
+import org.hibernate.annotations.LazyToOne;
+import org.hibernate.annotations.LazyToOneOption;
 
 import javax.persistence.*;
 import javax.validation.Valid;
@@ -30,14 +32,25 @@ public class FormInstance {
 
     private Long formId;
 
+    //Null for instances created before the storage mode existed, which are stored as ROWS
+    @Enumerated(EnumType.STRING)
+    @Column(name="storage")
+    private FormStorage storage;
+
     //--Relationships--//
+    //The inverse one-to-ones can only be lazy with bytecode enhancement (see pom.xml), otherwise Hibernate has to
+    //query the study to know whether it exists
 
     @Valid
-    @OneToOne(mappedBy = "extractionFormInstance")
+    @OneToOne(mappedBy = "extractionFormInstance", fetch = FetchType.LAZY)
+    @LazyToOne(LazyToOneOption.NO_PROXY)
+    @ToString.Exclude
     private Study studyToExtract;
 
     @Valid
-    @OneToOne(mappedBy = "qualityFormInstance")
+    @OneToOne(mappedBy = "qualityFormInstance", fetch = FetchType.LAZY)
+    @LazyToOne(LazyToOneOption.NO_PROXY)
+    @ToString.Exclude
     private Study studyToQuality;
 
     @Valid
@@ -0,0 +1,9 @@
+package com.tfg.slr.searchservice.models;
+
+/**
+ * How the answers of a form instance are stored. ROWS keeps one FormFieldInstance per field, DOCUMENT keeps all of
+ * them in the JSONB column form_instance.answers (PostgreSQL only, created by DatabaseInitializer).
+ */
+public enum FormStorage {
+    ROWS, DOCUMENT
+}
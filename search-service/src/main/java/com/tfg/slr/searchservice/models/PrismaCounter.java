@@ -0,0 +1,42 @@
+package com.tfg.slr.searchservice.models;
+
+import lombok.*;
+
+import javax.persistence.*;
+
+/**
+ * PRISMA flow numbers of a search. The row is updated in the same transaction that changes the selection status
+ * of its studies, so reading it never requires counting the study table.
+ */
+@Entity
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@Builder
+@ToString
+@Table(name="prisma_counter")
+public class PrismaCounter {
+
+    @Id
+    @Column(name="search_id")
+    private Long searchId;
+
+    @Column(name="data_source_id")
+    private Long dataSourceId;
+
+    @Column(name="identified")
+    private long identified;
+
+    @Column(name="duplicated")
+    private long duplicated;
+
+    @Column(name="unclassified")
+    private long unclassified;
+
+    @Column(name="accepted")
+    private long accepted;
+
+    @Column(name="rejected")
+    private long rejected;
+}
@@ -0,0 +1,8 @@
+package com.tfg.slr.searchservice.models;
+
+/**
+ * Order in which the screening queue hands out unclassified studies.
+ */
+public enum QueueOrder {
+    ID, SCORE, PRIORITY
+}
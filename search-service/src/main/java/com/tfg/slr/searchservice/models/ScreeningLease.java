@@ -0,0 +1,59 @@
+package com.tfg.slr.searchservice.models;
+
+import lombok.*;
+import org.springframework.data.domain.Persistable;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Temporary assignment of an unclassified study to a researcher. There is one row per study, so concurrent reviewers
+ * only ever contend on the studies they are claiming and never on a shared queue row.
+ */
+@Entity
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@Builder
+@Table(name="screening_lease", indexes = {
+        @Index(name = "idx_screening_lease_researcher", columnList = "researcher_id, expires_at"),
+        @Index(name = "idx_screening_lease_search", columnList = "search_id, expires_at")
+})
+public class ScreeningLease implements Persistable<Long> {
+
+    @Id
+    @Column(name="study_id")
+    private Long studyId;
+
+    @Column(name="search_id", nullable = false)
+    private Long searchId;
+
+    @Column(name="researcher_id", nullable = false)
+    private Long researcherId;
+
+    @Column(name="claimed_at", nullable = false)
+    private LocalDateTime claimedAt;
+
+    @Column(name="expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    //Leases are always created with their ID, this avoids the select that merge would run before every insert
+    @Transient
+    @Builder.Default
+    private boolean isNew = true;
+
+    public Long getId(){
+        return studyId;
+    }
+
+    public boolean isNew(){
+        return isNew;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew(){
+        this.isNew = false;
+    }
+}
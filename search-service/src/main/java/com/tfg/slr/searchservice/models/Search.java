@@ -18,7 +18,9 @@ import java.util.Set;
 @Getter
 @Setter
 @Builder
-@Table(name="search")
+@Table(name="search", indexes = {
+        @Index(name = "idx_search_protocol", columnList = "protocol_id")
+})
 public class Search {
 
     @Id
@@ -46,6 +48,8 @@ public class Search {
     private String observations;
 
     private Long dataSourceId;
+
+    @Column(name="protocol_id")
     private Long protocolId;
 
     //--Relationships---//
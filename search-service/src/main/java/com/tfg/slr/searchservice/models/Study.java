@@ -15,7 +15,11 @@ import java.util.*;
 @Getter
 @Setter
 @Builder
-@Table(name="study")
+@Table(name="study", indexes = {
+        @Index(name = "idx_study_search_status", columnList = "search_id, selection_status, study_id"),
+        //Filters and facet counts of the study query
+        @Index(name = "idx_study_search_status_year_type", columnList = "search_id, selection_status, year, type")
+})
 public class Study {
 
     @Id
@@ -42,6 +46,10 @@ public class Study {
     @Column(name="venue")
     private String venue;
 
+    //As given by the export, e.g. "English"
+    @Column(name="language")
+    private String language;
+
     @NotBlank
     @URL
     @Column(name="source_url")
@@ -53,11 +61,13 @@ public class Study {
     @NotNull
     @Valid
     @Enumerated(EnumType.STRING)
+    @Column(name="selection_status")
     private Status selectionStatus;
 
     @NotNull
     @Valid
     @Enumerated(EnumType.STRING)
+    @Column(name="extraction_status")
     private Status extractionStatus;
 
     @NotNull
@@ -68,23 +78,25 @@ public class Study {
     @Column(name="doi")
     private String DOI;
 
-    @ElementCollection
-    private Set<Long> appliedCriteriaIds = new HashSet<>();
+    //Bitmap indexed by the CriteriaOrdinal of each applied criterion, see CriteriaBitmap
+    @Column(name="applied_criteria")
+    private byte[] appliedCriteria;
 
     //--Relationships--//
+    //All lazy: list queries fetch the search with an entity graph and forms are only loaded when a single study needs them
 
     @Valid
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name="search_id", nullable = false)
     private Search search;
 
     @Valid
-    @OneToOne(cascade = CascadeType.ALL, orphanRemoval = true)
+    @OneToOne(fetch = FetchType.LAZY, cascade = CascadeType.ALL, orphanRemoval = true)
     @JoinColumn(name = "extraction_form_instance_id")
     private FormInstance extractionFormInstance;
 
     @Valid
-    @OneToOne(cascade = CascadeType.ALL, orphanRemoval = true)
+    @OneToOne(fetch = FetchType.LAZY, cascade = CascadeType.ALL, orphanRemoval = true)
     @JoinColumn(name = "quality_form_instance_id")
     private FormInstance qualityFormInstance;
 }
@@ -0,0 +1,39 @@
+package com.tfg.slr.searchservice.models;
+
+import lombok.*;
+
+import javax.persistence.*;
+import javax.validation.constraints.NotNull;
+
+@Entity
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@Builder
+@Table(name="study_fingerprint", indexes = {
+        @Index(name = "idx_fingerprint_protocol_key", columnList = "protocol_id, fingerprint_key"),
+        @Index(name = "idx_fingerprint_search_key", columnList = "search_id, fingerprint_key")
+})
+public class StudyFingerprint {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.AUTO)
+    @Column(name="study_fingerprint_id")
+    private Long id;
+
+    @NotNull
+    @Column(name="fingerprint_key")
+    private Long key;
+
+    @NotNull
+    @Column(name="study_id")
+    private Long studyId;
+
+    @NotNull
+    @Column(name="search_id")
+    private Long searchId;
+
+    @Column(name="protocol_id")
+    private Long protocolId;
+}
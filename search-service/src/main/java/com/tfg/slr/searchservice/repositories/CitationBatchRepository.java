@@ -0,0 +1,30 @@
+package com.tfg.slr.searchservice.repositories;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.function.LongConsumer;
+
+public interface CitationBatchRepository {
+
+    /**
+     * Creates the works that do not exist yet and returns the ID of every given DOI.
+     * @param works titles by normalized DOI, a title may be null
+     */
+    Map<String, Long> upsertNodes(Map<String, String> works);
+
+    /**
+     * @param edges pairs of citing and cited work IDs
+     * @return number of edges that did not exist yet
+     */
+    int insertEdges(Collection<long[]> edges);
+
+    //Streams the whole graph without building entities, in ascending node ID order
+    void forEachNodeId(LongConsumer consumer);
+
+    void forEachEdge(EdgeConsumer consumer);
+
+    @FunctionalInterface
+    interface EdgeConsumer {
+        void accept(long citingId, long citedId);
+    }
+}
@@ -0,0 +1,64 @@
+package com.tfg.slr.searchservice.repositories;
+
+import com.google.common.collect.Lists;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.util.*;
+import java.util.function.LongConsumer;
+
+public class CitationBatchRepositoryImpl implements CitationBatchRepository {
+
+    private static final int CHUNK_SIZE = 1000;
+
+    //Same sequence Hibernate uses for GenerationType.AUTO, so identifiers never collide with JPA inserts
+    private static final String INSERT_NODE = "insert into citation_node (node_id, doi, title) " +
+            "values (nextval('hibernate_sequence'), ?, ?) on conflict do nothing";
+    private static final String FIND_NODES = "select node_id, doi from citation_node where doi in (:dois)";
+    private static final String INSERT_EDGE = "insert into citation_edge (citing_id, cited_id) values (?, ?) on conflict do nothing";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    //Reads the whole graph in a cursor instead of buffering the result set
+    private final JdbcTemplate streamingTemplate;
+
+    public CitationBatchRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        this.streamingTemplate = new JdbcTemplate(jdbcTemplate.getDataSource());
+        this.streamingTemplate.setFetchSize(10000);
+    }
+
+    public Map<String, Long> upsertNodes(Map<String, String> works){
+        Map<String, Long> ids = new HashMap<>();
+        for(List<String> chunk : Lists.partition(new ArrayList<>(works.keySet()), CHUNK_SIZE)){
+            List<Object[]> rows = new ArrayList<>(chunk.size());
+            for(String doi : chunk) rows.add(new Object[]{doi, works.get(doi)});
+            jdbcTemplate.batchUpdate(INSERT_NODE, rows);
+            namedJdbcTemplate.query(FIND_NODES, new MapSqlParameterSource("dois", chunk),
+                    rs -> { ids.put(rs.getString(2), rs.getLong(1)); });
+        }
+        return ids;
+    }
+
+    public int insertEdges(Collection<long[]> edges){
+        int inserted = 0;
+        for(List<long[]> chunk : Lists.partition(new ArrayList<>(edges), CHUNK_SIZE)){
+            List<Object[]> rows = new ArrayList<>(chunk.size());
+            for(long[] edge : chunk) rows.add(new Object[]{edge[0], edge[1]});
+            for(int count : jdbcTemplate.batchUpdate(INSERT_EDGE, rows)){
+                if(count > 0) inserted += count;
+            }
+        }
+        return inserted;
+    }
+
+    public void forEachNodeId(LongConsumer consumer){
+        streamingTemplate.query("select node_id from citation_node order by node_id", rs -> { consumer.accept(rs.getLong(1)); });
+    }
+
+    public void forEachEdge(EdgeConsumer consumer){
+        streamingTemplate.query("select citing_id, cited_id from citation_edge", rs -> { consumer.accept(rs.getLong(1), rs.getLong(2)); });
+    }
+}
@@ -0,0 +1,21 @@
+package com.tfg.slr.searchservice.repositories;
+
+import com.tfg.slr.searchservice.models.CitationNode;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface CitationNodeRepository extends JpaRepository<CitationNode, Long>, CitationBatchRepository {
+
+    //Lookup through the unique DOI index
+    @Query("select n.id as id, n.doi as doi from CitationNode n where n.doi in :dois")
+    List<CitationNodeView> findByDoiIn(@Param("dois") Collection<String> dois);
+
+    @Query("select n from CitationNode n where n.id in :ids")
+    List<CitationNode> findByIdIn(@Param("ids") Collection<Long> ids);
+}
@@ -0,0 +1,8 @@
+package com.tfg.slr.searchservice.repositories;
+
+public interface CitationNodeView {
+
+    Long getId();
+
+    String getDoi();
+}
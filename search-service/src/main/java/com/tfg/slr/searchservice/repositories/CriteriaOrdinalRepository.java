@@ -0,0 +1,23 @@
+package com.tfg.slr.searchservice.repositories;
+
+import com.tfg.slr.searchservice.models.CriteriaOrdinal;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface CriteriaOrdinalRepository extends JpaRepository<CriteriaOrdinal, CriteriaOrdinal.Key> {
+
+    List<CriteriaOrdinal> findByProtocolIdOrderByOrdinalAsc(Long protocolId);
+
+    //Takes the next free ordinal. A concurrent assignment violates one of the unique keys and inserts nothing
+    @Modifying
+    @Query(value = "insert into criteria_ordinal (protocol_id, criteria_id, ordinal) " +
+            "select :protocolId, :criteriaId, coalesce(max(ordinal), -1) + 1 from criteria_ordinal where protocol_id = :protocolId " +
+            "on conflict do nothing", nativeQuery = true)
+    int assign(@Param("protocolId") Long protocolId, @Param("criteriaId") Long criteriaId);
+}
@@ -0,0 +1,48 @@
+package com.tfg.slr.searchservice.repositories;
+
+import com.tfg.slr.searchservice.models.FormType;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Access to the JSONB answers of form instances stored as documents. Implemented with plain JDBC in
+ * {@link FormAnswersRepositoryImpl} because the column is PostgreSQL specific and not mapped by JPA.
+ */
+public interface FormAnswersRepository {
+
+    Optional<String> findAnswers(Long formInstanceId);
+
+    int writeAnswers(Long formInstanceId, String answers);
+
+    /**
+     * Overwrites the given keys of the document and keeps the rest.
+     */
+    int mergeAnswers(Long formInstanceId, String answers);
+
+    List<Long> findRowInstanceIds(Long afterId, int limit);
+
+    /**
+     * Moves the field rows of the given instances into their document and deletes the rows, in one statement.
+     * @return the number of instances converted
+     */
+    int migrateToDocuments(List<Long> formInstanceIds);
+
+    /**
+     * Studies of a protocol whose form of the given type has every criterion as an answer. Documents are matched
+     * through the GIN index, instances still stored as rows with one lookup per criterion.
+     */
+    List<Long> findStudyIdsByAnswers(Long protocolId, FormType formType, Map<String, String> criteria, String document);
+
+    /**
+     * Streams the answers of every form of the given type in a protocol from a database cursor, ordered by study.
+     * Document instances produce one record with the JSON answers; row instances one record per field.
+     */
+    void forEachAnswer(Long protocolId, FormType formType, AnswerConsumer consumer);
+
+    @FunctionalInterface
+    interface AnswerConsumer {
+        void accept(long studyId, String title, String doi, String answers, String fieldName, String value);
+    }
+}
@@ -0,0 +1,94 @@
+package com.tfg.slr.searchservice.repositories;
+
+import com.tfg.slr.searchservice.models.FormType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+public class FormAnswersRepositoryImpl implements FormAnswersRepository {
+
+    private static final String FIND_ANSWERS = "select answers::text from form_instance where form_instance_id = ?";
+    private static final String WRITE_ANSWERS = "update form_instance set answers = cast(? as jsonb), storage = 'DOCUMENT' " +
+            "where form_instance_id = ?";
+    private static final String MERGE_ANSWERS = "update form_instance set answers = coalesce(answers, '{}'::jsonb) || cast(? as jsonb) " +
+            "where form_instance_id = ? and storage = 'DOCUMENT'";
+    private static final String FIND_ROW_INSTANCES = "select form_instance_id from form_instance " +
+            "where coalesce(storage, 'ROWS') = 'ROWS' and form_instance_id > ? order by form_instance_id limit ?";
+    //Both steps in one statement, so a batch is either fully migrated or untouched
+    private static final String MIGRATE = "with moved as (" +
+            "update form_instance fi set storage = 'DOCUMENT', answers = coalesce((select jsonb_object_agg(f.name, f.value) " +
+            "from form_field_instance f where f.form_instance_id = fi.form_instance_id), '{}'::jsonb) " +
+            "where fi.form_instance_id in (:ids) and coalesce(fi.storage, 'ROWS') = 'ROWS' returning fi.form_instance_id) " +
+            "delete from form_field_instance where form_instance_id in (select form_instance_id from moved)";
+    private static final String COUNT_DOCUMENTS = "select count(*) from form_instance where form_instance_id in (:ids) " +
+            "and storage = 'DOCUMENT'";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    //Reads whole protocols in a cursor instead of buffering the result set
+    private final JdbcTemplate streamingTemplate;
+
+    public FormAnswersRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        this.streamingTemplate = new JdbcTemplate(jdbcTemplate.getDataSource());
+        this.streamingTemplate.setFetchSize(10000);
+    }
+
+    public Optional<String> findAnswers(Long formInstanceId){
+        return jdbcTemplate.queryForList(FIND_ANSWERS, String.class, formInstanceId).stream().findFirst();
+    }
+
+    public int writeAnswers(Long formInstanceId, String answers){
+        return jdbcTemplate.update(WRITE_ANSWERS, answers, formInstanceId);
+    }
+
+    public int mergeAnswers(Long formInstanceId, String answers){
+        return jdbcTemplate.update(MERGE_ANSWERS, answers, formInstanceId);
+    }
+
+    public List<Long> findRowInstanceIds(Long afterId, int limit){
+        return jdbcTemplate.queryForList(FIND_ROW_INSTANCES, Long.class, afterId, limit);
+    }
+
+    public int migrateToDocuments(List<Long> formInstanceIds){
+        if(formInstanceIds.isEmpty()) return 0;
+        MapSqlParameterSource parameters = new MapSqlParameterSource("ids", formInstanceIds);
+        Integer before = namedJdbcTemplate.queryForObject(COUNT_DOCUMENTS, parameters, Integer.class);
+        namedJdbcTemplate.update(MIGRATE, parameters);
+        Integer after = namedJdbcTemplate.queryForObject(COUNT_DOCUMENTS, parameters, Integer.class);
+        return after - before;
+    }
+
+    public List<Long> findStudyIdsByAnswers(Long protocolId, FormType formType, Map<String, String> criteria, String document){
+        String column = formType == FormType.EXTRACTION ? "extraction_form_instance_id" : "quality_form_instance_id";
+        MapSqlParameterSource parameters = new MapSqlParameterSource("protocolId", protocolId).addValue("document", document);
+        StringBuilder rows = new StringBuilder();
+        int i = 0;
+        for(Map.Entry<String, String> criterion : criteria.entrySet()){
+            rows.append(" and exists (select 1 from form_field_instance f where f.form_instance_id = fi.form_instance_id " +
+                    "and f.name = :name").append(i).append(" and f.value is not distinct from :value").append(i).append(")");
+            parameters.addValue("name" + i, criterion.getKey()).addValue("value" + i, criterion.getValue());
+            i++;
+        }
+        String sql = "select s.study_id from study s join search se on se.search_id = s.search_id " +
+                "join form_instance fi on fi.form_instance_id = s." + column + " where se.protocol_id = :protocolId " +
+                "and ((fi.storage = 'DOCUMENT' and fi.answers @> cast(:document as jsonb)) " +
+                "or (coalesce(fi.storage, 'ROWS') = 'ROWS'" + rows + ")) order by s.study_id";
+        return namedJdbcTemplate.queryForList(sql, parameters, Long.class);
+    }
+
+    public void forEachAnswer(Long protocolId, FormType formType, AnswerConsumer consumer){
+        String column = formType == FormType.EXTRACTION ? "extraction_form_instance_id" : "quality_form_instance_id";
+        String sql = "select s.study_id, s.title, s.doi, fi.answers::text, f.name, f.value from study s " +
+                "join search se on se.search_id = s.search_id join form_instance fi on fi.form_instance_id = s." + column +
+                " left join form_field_instance f on f.form_instance_id = fi.form_instance_id " +
+                "where se.protocol_id = ? order by s.study_id";
+        streamingTemplate.query(sql, rs -> { consumer.accept(rs.getLong(1), rs.getString(2), rs.getString(3),
+                rs.getString(4), rs.getString(5), rs.getString(6)); }, protocolId);
+    }
+}
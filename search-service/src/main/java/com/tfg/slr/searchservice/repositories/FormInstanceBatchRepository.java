@@ -0,0 +1,21 @@
+package com.tfg.slr.searchservice.repositories;
+
+import com.tfg.slr.searchservice.models.FormType;
+
+import java.util.List;
+
+/**
+ * Bulk writes of form instances that bypass the persistence context. Implemented with plain JDBC batches in
+ * {@link FormInstanceBatchRepositoryImpl}.
+ */
+public interface FormInstanceBatchRepository {
+
+    /**
+     * Creates one form instance of the given type for every study in the list and links it to the study. Studies
+     * that already have a form of that type are left untouched. With a null document each instance gets one empty
+     * field row per name; otherwise the instance is stored as DOCUMENT with that JSON as its answers and no rows.
+     *
+     * @return the number of studies that received a new form instance
+     */
+    int insertForStudies(FormType formType, Long formId, List<Long> studyIds, List<String> fieldNames, String document);
+}
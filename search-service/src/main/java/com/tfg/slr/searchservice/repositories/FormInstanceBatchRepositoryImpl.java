@@ -0,0 +1,66 @@
+package com.tfg.slr.searchservice.repositories;
+
+import com.tfg.slr.searchservice.models.FormType;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+public class FormInstanceBatchRepositoryImpl implements FormInstanceBatchRepository {
+
+    //Same sequence Hibernate uses for GenerationType.AUTO, so identifiers never collide with JPA inserts
+    private static final String RESERVE_IDS = "select nextval('hibernate_sequence') from generate_series(1, ?)";
+    private static final String INSERT_INSTANCE = "insert into form_instance (form_instance_id, form_type, form_id, storage) values (?, ?, ?, 'ROWS')";
+    private static final String INSERT_DOCUMENT = "insert into form_instance (form_instance_id, form_type, form_id, storage, answers) " +
+            "values (?, ?, ?, 'DOCUMENT', cast(? as jsonb))";
+    private static final String INSERT_FIELD = "insert into form_field_instance (form_field_instance_id, name, value, form_instance_id) values (?, ?, null, ?)";
+    private static final String DELETE_INSTANCE = "delete from form_instance where form_instance_id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public FormInstanceBatchRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public int insertForStudies(FormType formType, Long formId, List<Long> studyIds, List<String> fieldNames, String document){
+        if(studyIds.isEmpty()) return 0;
+
+        int fieldRows = document == null ? fieldNames.size() : 0;
+        Iterator<Long> ids = jdbcTemplate.queryForList(RESERVE_IDS, Long.class, studyIds.size() * (1 + fieldRows)).iterator();
+        List<Object[]> instances = new ArrayList<>(studyIds.size());
+        List<Object[]> links = new ArrayList<>(studyIds.size());
+        for(Long studyId : studyIds){
+            Long instanceId = ids.next();
+            instances.add(document == null ? new Object[]{instanceId, formType.name(), formId}
+                    : new Object[]{instanceId, formType.name(), formId, document});
+            links.add(new Object[]{instanceId, studyId});
+        }
+        jdbcTemplate.batchUpdate(document == null ? INSERT_INSTANCE : INSERT_DOCUMENT, instances);
+
+        //Only studies still without a form are linked, so a concurrent single-study instantiation wins
+        String column = formType == FormType.EXTRACTION ? "extraction_form_instance_id" : "quality_form_instance_id";
+        int[] linked = jdbcTemplate.batchUpdate("update study set " + column + " = ? where study_id = ? and " + column + " is null", links);
+
+        List<Object[]> orphans = new ArrayList<>();
+        List<Object[]> fields = new ArrayList<>(studyIds.size() * fieldNames.size());
+        int created = 0;
+        for(int i = 0; i < links.size(); i++){
+            Object instanceId = links.get(i)[0];
+            if(linked[i] == 0){
+                orphans.add(new Object[]{instanceId});
+                for(int j = 0; j < fieldRows; j++) ids.next();
+                continue;
+            }
+            created++;
+            if(document != null) continue;
+            for(String fieldName : fieldNames){
+                fields.add(new Object[]{ids.next(), fieldName, instanceId});
+            }
+        }
+        if(!orphans.isEmpty()) jdbcTemplate.batchUpdate(DELETE_INSTANCE, orphans);
+        if(!fields.isEmpty()) jdbcTemplate.batchUpdate(INSERT_FIELD, fields);
+
+        return created;
+    }
+}
@@ -2,12 +2,35 @@ package com.tfg.slr.searchservice.repositories;
 
 import com.tfg.slr.searchservice.models.FormInstance;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.Optional;
 
-public interface FormInstanceRepository extends JpaRepository<FormInstance, Long> {
+public interface FormInstanceRepository extends JpaRepository<FormInstance, Long>, FormInstanceBatchRepository,
+        FormAnswersRepository {
 
     Optional<FormInstance> findFormInstanceById(Long id);
 
     Optional<FormInstance> findFormInstanceByFormId(Long formId);
+
+    //Bulk removal of every instance of a form: unlink the studies, then delete the field rows and the instances
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Study s set s.extractionFormInstance = null where s.extractionFormInstance.id in " +
+            "(select f.id from FormInstance f where f.formId = :formId)")
+    int unlinkExtractionInstances(@Param("formId") Long formId);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Study s set s.qualityFormInstance = null where s.qualityFormInstance.id in " +
+            "(select f.id from FormInstance f where f.formId = :formId)")
+    int unlinkQualityInstances(@Param("formId") Long formId);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from FormFieldInstance fi where fi.formInstance.id in (select f.id from FormInstance f where f.formId = :formId)")
+    int deleteFieldsByFormId(@Param("formId") Long formId);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from FormInstance f where f.formId = :formId")
+    int deleteByFormId(@Param("formId") Long formId);
 }
\ No newline at end of file
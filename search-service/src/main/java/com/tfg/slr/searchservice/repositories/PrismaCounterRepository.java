@@ -0,0 +1,44 @@
+package com.tfg.slr.searchservice.repositories;
+
+import com.tfg.slr.searchservice.models.PrismaCounter;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface PrismaCounterRepository extends JpaRepository<PrismaCounter, Long> {
+
+    //Relative update: concurrent transactions serialize on the row instead of overwriting each other
+    @Modifying(flushAutomatically = true)
+    @Query("update PrismaCounter c set c.identified = c.identified + :identified, c.duplicated = c.duplicated + :duplicated, " +
+            "c.unclassified = c.unclassified + :unclassified, c.accepted = c.accepted + :accepted, " +
+            "c.rejected = c.rejected + :rejected where c.searchId = :searchId")
+    int increment(@Param("searchId") Long searchId, @Param("identified") long identified, @Param("duplicated") long duplicated,
+                  @Param("unclassified") long unclassified, @Param("accepted") long accepted, @Param("rejected") long rejected);
+
+    /**
+     * Creates the counter of a search from its studies, as seen by the current transaction. A counter created
+     * concurrently wins and nothing is inserted, its own count does not include this transaction's changes.
+     * @return 1 if the counter was created, 0 if it already existed or the search does not exist
+     */
+    @Modifying(flushAutomatically = true)
+    @Query(value = "insert into prisma_counter (search_id, data_source_id, identified, duplicated, unclassified, accepted, rejected) " +
+            "select se.search_id, se.data_source_id, count(s.study_id), " +
+            "coalesce(sum(case when s.selection_status = 'DUPLICATED' then 1 else 0 end), 0), " +
+            "coalesce(sum(case when s.selection_status in ('DUPLICATED', 'ACCEPTED', 'REJECTED') then 0 when s.study_id is null then 0 else 1 end), 0), " +
+            "coalesce(sum(case when s.selection_status = 'ACCEPTED' then 1 else 0 end), 0), " +
+            "coalesce(sum(case when s.selection_status = 'REJECTED' then 1 else 0 end), 0) " +
+            "from search se left join study s on s.search_id = se.search_id where se.search_id = :searchId " +
+            "group by se.search_id, se.data_source_id on conflict do nothing", nativeQuery = true)
+    int createCounted(@Param("searchId") Long searchId);
+
+    @Query("select c from PrismaCounter c where c.searchId in (select s.id from Search s where s.protocolId = :protocolId)")
+    List<PrismaCounter> findByProtocolId(@Param("protocolId") Long protocolId);
+
+    @Query("select s.id from Search s where not exists (select c from PrismaCounter c where c.searchId = s.id)")
+    List<Long> findSearchIdsWithoutCounter();
+}
@@ -0,0 +1,16 @@
+package com.tfg.slr.searchservice.repositories;
+
+import com.tfg.slr.searchservice.models.Status;
+
+public interface RankingDocumentView {
+
+    Long getId();
+
+    Long getSearchId();
+
+    String getTitle();
+
+    String getVenue();
+
+    Status getSelectionStatus();
+}
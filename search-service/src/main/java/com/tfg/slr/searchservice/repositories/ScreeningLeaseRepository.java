@@ -0,0 +1,77 @@
+package com.tfg.slr.searchservice.repositories;
+
+import com.tfg.slr.searchservice.models.ScreeningLease;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ScreeningLeaseRepository extends JpaRepository<ScreeningLease, Long> {
+
+    //Only leases of studies that are still unclassified count, a decision made elsewhere ends the lease
+    String ACTIVE = "l.expiresAt > :now and l.searchId in :searchIds and exists (select s.id from Study s " +
+            "where s.id = l.studyId and s.selectionStatus = com.tfg.slr.searchservice.models.Status.UNCLASSIFIED)";
+
+    @Query("select l from ScreeningLease l where l.researcherId = :researcherId and " + ACTIVE +
+            " order by l.claimedAt, l.studyId")
+    List<ScreeningLease> findActive(@Param("researcherId") Long researcherId, @Param("searchIds") Collection<Long> searchIds,
+                                    @Param("now") LocalDateTime now);
+
+    @Query("select count(l) from ScreeningLease l where l.researcherId = :researcherId and " + ACTIVE)
+    long countActive(@Param("researcherId") Long researcherId, @Param("searchIds") Collection<Long> searchIds,
+                     @Param("now") LocalDateTime now);
+
+    @Query("select l.researcherId as researcherId, count(l) as total from ScreeningLease l where " + ACTIVE +
+            " group by l.researcherId order by count(l) desc, l.researcherId")
+    List<LeaseCountView> countActiveByResearcher(@Param("searchIds") Collection<Long> searchIds, @Param("now") LocalDateTime now);
+
+    //The most recently claimed studies are the ones their holder is furthest from reaching
+    @Query("select l.studyId from ScreeningLease l where l.researcherId = :researcherId and " + ACTIVE +
+            " order by l.claimedAt desc, l.studyId desc")
+    List<Long> findNewestActiveIds(@Param("researcherId") Long researcherId, @Param("searchIds") Collection<Long> searchIds,
+                                   @Param("now") LocalDateTime now, Pageable pageable);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update ScreeningLease l set l.expiresAt = :expiresAt where l.researcherId = :researcherId " +
+            "and l.searchId in :searchIds and l.expiresAt > :now")
+    int renew(@Param("researcherId") Long researcherId, @Param("searchIds") Collection<Long> searchIds,
+              @Param("now") LocalDateTime now, @Param("expiresAt") LocalDateTime expiresAt);
+
+    //The holder is checked again by the update itself, so a lease taken in the meantime is left alone
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update ScreeningLease l set l.researcherId = :to, l.claimedAt = :now, l.expiresAt = :expiresAt " +
+            "where l.studyId in :studyIds and l.researcherId = :from and l.expiresAt > :now")
+    int reassign(@Param("studyIds") Collection<Long> studyIds, @Param("from") Long from, @Param("to") Long to,
+                 @Param("now") LocalDateTime now, @Param("expiresAt") LocalDateTime expiresAt);
+
+    @Modifying(flushAutomatically = true)
+    @Query("delete from ScreeningLease l where l.researcherId = :researcherId and l.studyId in :studyIds")
+    int release(@Param("researcherId") Long researcherId, @Param("studyIds") Collection<Long> studyIds);
+
+    @Modifying(flushAutomatically = true)
+    @Query("delete from ScreeningLease l where l.researcherId = :researcherId and l.searchId in :searchIds")
+    int releaseAll(@Param("researcherId") Long researcherId, @Param("searchIds") Collection<Long> searchIds);
+
+    @Modifying(flushAutomatically = true)
+    @Query("delete from ScreeningLease l where l.studyId in :studyIds")
+    int deleteByStudyIds(@Param("studyIds") Collection<Long> studyIds);
+
+    @Modifying(flushAutomatically = true)
+    @Query("delete from ScreeningLease l where l.studyId in :studyIds and l.expiresAt <= :now")
+    int deleteExpiredByStudyIds(@Param("studyIds") Collection<Long> studyIds, @Param("now") LocalDateTime now);
+
+    //A study leased by a concurrent claimer since our snapshot keeps its lease, the conflict skips it
+    @Modifying
+    @Query(value = "insert into screening_lease (study_id, search_id, researcher_id, claimed_at, expires_at) " +
+            "select s.study_id, s.search_id, :researcherId, :now, :expiresAt from study s where s.study_id in (:studyIds) " +
+            "on conflict do nothing", nativeQuery = true)
+    int insertIfFree(@Param("studyIds") Collection<Long> studyIds, @Param("researcherId") Long researcherId,
+                     @Param("now") LocalDateTime now, @Param("expiresAt") LocalDateTime expiresAt);
+}
@@ -2,8 +2,11 @@ package com.tfg.slr.searchservice.repositories;
 
 import com.tfg.slr.searchservice.models.Search;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -12,4 +15,7 @@ public interface SearchRepository extends JpaRepository<Search, Long> {
     Optional<Search> findSearchById(Long id);
 
     Optional<Search> findSearchBySearchReference(String ref);
+
+    @Query("select s.id from Search s where s.protocolId = :protocolId")
+    List<Long> findIdsByProtocolId(@Param("protocolId") Long protocolId);
 }
\ No newline at end of file
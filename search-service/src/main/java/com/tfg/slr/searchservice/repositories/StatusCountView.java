@@ -0,0 +1,12 @@
+package com.tfg.slr.searchservice.repositories;
+
+import com.tfg.slr.searchservice.models.Status;
+
+public interface StatusCountView {
+
+    Long getSearchId();
+
+    Status getStatus();
+
+    Long getTotal();
+}
@@ -0,0 +1,12 @@
+package com.tfg.slr.searchservice.repositories;
+
+import com.tfg.slr.searchservice.models.Status;
+
+public interface StudyCriteriaView {
+
+    Long getId();
+
+    Status getSelectionStatus();
+
+    byte[] getAppliedCriteria();
+}
@@ -0,0 +1,10 @@
+package com.tfg.slr.searchservice.repositories;
+
+import com.tfg.slr.searchservice.models.Status;
+
+public interface StudyDoiView {
+
+    String getDoi();
+
+    Status getSelectionStatus();
+}
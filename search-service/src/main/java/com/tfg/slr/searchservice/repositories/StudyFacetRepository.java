@@ -0,0 +1,26 @@
+package com.tfg.slr.searchservice.repositories;
+
+import com.tfg.slr.searchservice.models.Study;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Facet counts of the study query, implemented with the Criteria API in {@link StudyFacetRepositoryImpl} so that they
+ * share the specifications of the query.
+ */
+public interface StudyFacetRepository {
+
+    /**
+     * @return the number of matching studies by value of the dimension, most frequent first. Null values are not counted
+     */
+    Map<Object, Long> countBy(Specification<Study> spec, StudySpecifications.Dimension dimension, int limit);
+
+    /**
+     * Counts all the criteria with a single query.
+     *
+     * @return the number of matching studies each criterion ordinal was applied to, in the order of the ordinals
+     */
+    long[] countByCriteria(Specification<Study> spec, List<Integer> ordinals);
+}
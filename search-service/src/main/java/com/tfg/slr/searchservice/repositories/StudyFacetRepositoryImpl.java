@@ -0,0 +1,68 @@
+package com.tfg.slr.searchservice.repositories;
+
+import com.tfg.slr.searchservice.models.Study;
+import org.springframework.data.jpa.domain.Specification;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.Tuple;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Expression;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import javax.persistence.criteria.Selection;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class StudyFacetRepositoryImpl implements StudyFacetRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public Map<Object, Long> countBy(Specification<Study> spec, StudySpecifications.Dimension dimension, int limit){
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Study> root = query.from(Study.class);
+        Path<Object> value = dimension.path(root);
+        Expression<Long> count = cb.count(root);
+
+        query.multiselect(value, count).where(where(spec, root, query, cb, cb.isNotNull(value)))
+                .groupBy(value).orderBy(cb.desc(count), cb.asc(value));
+
+        Map<Object, Long> counts = new LinkedHashMap<>();
+        for(Tuple row : entityManager.createQuery(query).setMaxResults(limit).getResultList()){
+            counts.put(row.get(0), row.get(1, Long.class));
+        }
+        return counts;
+    }
+
+    public long[] countByCriteria(Specification<Study> spec, List<Integer> ordinals){
+        long[] counts = new long[ordinals.size()];
+        if(ordinals.isEmpty()) return counts;
+
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Study> root = query.from(Study.class);
+        List<Selection<?>> sums = new ArrayList<>(ordinals.size());
+        for(Integer ordinal : ordinals){
+            sums.add(cb.sum(cb.<Integer>selectCase().when(StudySpecifications.applied(root, cb, ordinal), 1).otherwise(0)));
+        }
+        query.multiselect(sums).where(where(spec, root, query, cb, cb.isNotNull(root.get("appliedCriteria"))));
+
+        Tuple row = entityManager.createQuery(query).getSingleResult();
+        for(int i = 0; i < counts.length; i++){
+            Number count = (Number) row.get(i);
+            counts[i] = count == null ? 0 : count.longValue();
+        }
+        return counts;
+    }
+
+    private Predicate where(Specification<Study> spec, Root<Study> root, CriteriaQuery<?> query, CriteriaBuilder cb, Predicate extra){
+        Predicate predicate = spec == null ? null : spec.toPredicate(root, query, cb);
+        return predicate == null ? extra : cb.and(predicate, extra);
+    }
+}
@@ -0,0 +1,32 @@
+package com.tfg.slr.searchservice.repositories;
+
+import com.tfg.slr.searchservice.models.Study;
+import com.tfg.slr.searchservice.models.StudyFingerprint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface StudyFingerprintRepository extends JpaRepository<StudyFingerprint, Long> {
+
+    @Query("select s from Study s where s.id in (select f.studyId from StudyFingerprint f " +
+            "where f.protocolId = :protocolId and f.key in :keys)")
+    List<Study> findCandidatesByProtocol(@Param("protocolId") Long protocolId, @Param("keys") Collection<Long> keys);
+
+    @Query("select s from Study s where s.id in (select f.studyId from StudyFingerprint f " +
+            "where f.searchId = :searchId and f.key in :keys)")
+    List<Study> findCandidatesBySearch(@Param("searchId") Long searchId, @Param("keys") Collection<Long> keys);
+
+    @Modifying
+    @Query("delete from StudyFingerprint f where f.protocolId = :protocolId")
+    void deleteByProtocol(@Param("protocolId") Long protocolId);
+
+    @Modifying
+    @Query("delete from StudyFingerprint f where f.searchId = :searchId")
+    void deleteBySearch(@Param("searchId") Long searchId);
+}
@@ -1,13 +1,152 @@
 package com.tfg.slr.searchservice.repositories;
 
+import com.tfg.slr.searchservice.models.Status;
 import com.tfg.slr.searchservice.models.Study;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.QueryHint;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface StudyRepository extends JpaRepository<Study, Long> {
+public interface StudyRepository extends JpaRepository<Study, Long>, JpaSpecificationExecutor<Study>,
+        StudyRuleRepository, StudyFacetRepository {
+
+    //Full-text document of a study. Must match the GIN index created by DatabaseInitializer
+    String SEARCH_DOCUMENT = "to_tsvector('english', coalesce(title, '') || ' ' || coalesce(author, '') || ' ' || coalesce(venue, ''))";
+
+    //Unclassified studies without a live lease. Rows locked by another claimer are skipped instead of waited on,
+    //so concurrent reviewers get disjoint batches
+    String CLAIMABLE = "select s.study_id from study s where s.search_id in (:searchIds) and s.selection_status = 'UNCLASSIFIED' " +
+            "and not exists (select 1 from screening_lease l where l.study_id = s.study_id and l.expires_at > :now) order by ";
+    String SKIP_LOCKED = " limit :limit for update skip locked";
+    String PRIORITY_RANK = "case upper(s.priority) when 'HIGH' then 0 when 'MEDIUM' then 1 when 'LOW' then 2 else 3 end";
 
     Optional<Study> findStudyById(Long id);
-}
\ No newline at end of file
+
+    //List paths fetch the search in the same statement, since every StudyDTO shows its reference
+    @Override
+    @EntityGraph(attributePaths = "search")
+    List<Study> findAll();
+
+    @Override
+    @EntityGraph(attributePaths = "search")
+    Page<Study> findAll(Specification<Study> spec, Pageable pageable);
+
+    @EntityGraph(attributePaths = "search")
+    Slice<Study> findBySearchProtocolIdOrderByIdAsc(Long protocolId, Pageable pageable);
+
+    @EntityGraph(attributePaths = "search")
+    Slice<Study> findBySearchIdOrderByIdAsc(Long searchId, Pageable pageable);
+
+    //Keyset pagination: the cursor is the last study ID of the previous page
+    @Query("select s from Study s join fetch s.search se where s.id > :afterId " +
+            "and (:searchId is null or se.id = :searchId) " +
+            "and (:protocolId is null or se.protocolId = :protocolId) " +
+            "and (:status is null or s.selectionStatus = :status) order by s.id asc")
+    List<Study> findPageAfter(@Param("searchId") Long searchId, @Param("protocolId") Long protocolId,
+                              @Param("status") Status status, @Param("afterId") Long afterId, Pageable pageable);
+
+    @QueryHints({
+            @QueryHint(name = "org.hibernate.fetchSize", value = "500"),
+            @QueryHint(name = "org.hibernate.readOnly", value = "true")
+    })
+    @Query("select s from Study s join fetch s.search se where (:searchId is null or se.id = :searchId) " +
+            "and (:protocolId is null or se.protocolId = :protocolId) " +
+            "and (:status is null or s.selectionStatus = :status) order by s.id asc")
+    Stream<Study> streamFiltered(@Param("searchId") Long searchId, @Param("protocolId") Long protocolId,
+                                 @Param("status") Status status);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Study s set s.selectionStatus = :status where s.id in :ids")
+    int updateSelectionStatus(@Param("ids") Collection<Long> ids, @Param("status") Status status);
+
+    @Query(value = "select s.* from study s join search se on se.search_id = s.search_id " +
+            "where " + SEARCH_DOCUMENT + " @@ websearch_to_tsquery('english', :query) " +
+            "and (cast(:searchId as bigint) is null or s.search_id = cast(:searchId as bigint)) " +
+            "and (cast(:protocolId as bigint) is null or se.protocol_id = cast(:protocolId as bigint)) " +
+            "order by ts_rank(" + SEARCH_DOCUMENT + ", websearch_to_tsquery('english', :query)) desc, s.study_id " +
+            "limit :limit offset :offset", nativeQuery = true)
+    List<Study> searchText(@Param("query") String query, @Param("searchId") Long searchId, @Param("protocolId") Long protocolId,
+                           @Param("limit") int limit, @Param("offset") int offset);
+
+    @Query(value = "select s.* from study s join search se on se.search_id = s.search_id where lower(s.doi) = lower(:doi) " +
+            "and (cast(:searchId as bigint) is null or s.search_id = cast(:searchId as bigint)) " +
+            "and (cast(:protocolId as bigint) is null or se.protocol_id = cast(:protocolId as bigint)) order by s.study_id",
+            nativeQuery = true)
+    List<Study> findByDoiIgnoreCase(@Param("doi") String doi, @Param("searchId") Long searchId, @Param("protocolId") Long protocolId);
+
+    @Query("select s from Study s join fetch s.search where s.id in :ids")
+    List<Study> findWithSearchByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("select s.id as id, s.selectionStatus as selectionStatus, s.appliedCriteria as appliedCriteria from Study s " +
+            "join s.search se where se.protocolId = :protocolId order by s.id")
+    List<StudyCriteriaView> findCriteriaByProtocolId(@Param("protocolId") Long protocolId);
+
+    @Query("select s.id as id, s.selectionStatus as selectionStatus, s.appliedCriteria as appliedCriteria from Study s " +
+            "where s.id in :ids")
+    List<StudyCriteriaView> findCriteriaByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("select s.id from Study s join s.search se where s.selectionStatus = :status and s.extractionFormInstance is null " +
+            "and (:searchId is null or se.id = :searchId) and (:protocolId is null or se.protocolId = :protocolId) order by s.id")
+    List<Long> findIdsWithoutExtractionForm(@Param("searchId") Long searchId, @Param("protocolId") Long protocolId,
+                                            @Param("status") Status status);
+
+    @Query("select s.id from Study s join s.search se where s.selectionStatus = :status and s.qualityFormInstance is null " +
+            "and (:searchId is null or se.id = :searchId) and (:protocolId is null or se.protocolId = :protocolId) order by s.id")
+    List<Long> findIdsWithoutQualityForm(@Param("searchId") Long searchId, @Param("protocolId") Long protocolId,
+                                         @Param("status") Status status);
+
+    @Query(value = CLAIMABLE + "s.study_id" + SKIP_LOCKED, nativeQuery = true)
+    List<Long> lockClaimableById(@Param("searchIds") Collection<Long> searchIds, @Param("now") LocalDateTime now,
+                                 @Param("limit") int limit);
+
+    @Query(value = CLAIMABLE + "s.score desc nulls last, s.study_id" + SKIP_LOCKED, nativeQuery = true)
+    List<Long> lockClaimableByScore(@Param("searchIds") Collection<Long> searchIds, @Param("now") LocalDateTime now,
+                                    @Param("limit") int limit);
+
+    @Query(value = CLAIMABLE + PRIORITY_RANK + ", s.score desc nulls last, s.study_id" + SKIP_LOCKED, nativeQuery = true)
+    List<Long> lockClaimableByPriority(@Param("searchIds") Collection<Long> searchIds, @Param("now") LocalDateTime now,
+                                       @Param("limit") int limit);
+
+    @Query(value = "select s.study_id from study s where s.study_id in (:ids) and s.selection_status = 'UNCLASSIFIED' " +
+            "order by s.study_id for update skip locked", nativeQuery = true)
+    List<Long> lockUnclassified(@Param("ids") Collection<Long> ids);
+
+    //Status changes lock their studies first, so the status read afterwards is the one the update replaces
+    @Query(value = "select s.study_id from study s where s.study_id in (:ids) order by s.study_id for update", nativeQuery = true)
+    List<Long> lockByIdIn(@Param("ids") Collection<Long> ids);
+
+    @QueryHints({
+            @QueryHint(name = "org.hibernate.fetchSize", value = "1000"),
+            @QueryHint(name = "org.hibernate.readOnly", value = "true")
+    })
+    @Query("select s.id as id, s.search.id as searchId, s.title as title, s.venue as venue, s.selectionStatus as selectionStatus " +
+            "from Study s where s.search.id in (select se.id from Search se where se.protocolId = :protocolId) order by s.id")
+    List<RankingDocumentView> findRankingDocumentsByProtocolId(@Param("protocolId") Long protocolId);
+
+    @Query("select s.DOI as doi, s.selectionStatus as selectionStatus from Study s " +
+            "where s.search.id in (select se.id from Search se where se.protocolId = :protocolId) and s.DOI is not null")
+    List<StudyDoiView> findDoisByProtocolId(@Param("protocolId") Long protocolId);
+
+    @Query("select s.id as id, s.search.id as searchId, s.selectionStatus as selectionStatus from Study s where s.id in :ids")
+    List<StudyStatusView> findStatusesByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("select s.search.id as searchId, s.selectionStatus as status, count(s) as total from Study s " +
+            "where s.search.id in :searchIds group by s.search.id, s.selectionStatus")
+    List<StatusCountView> countBySearchAndStatus(@Param("searchIds") Collection<Long> searchIds);
+}
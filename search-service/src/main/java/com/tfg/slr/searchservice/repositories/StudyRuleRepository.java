@@ -0,0 +1,18 @@
+package com.tfg.slr.searchservice.repositories;
+
+import com.tfg.slr.searchservice.utils.CriteriaRule;
+
+import java.util.List;
+
+/**
+ * Evaluates structured selection criteria in the database. Implemented with plain JDBC in
+ * {@link StudyRuleRepositoryImpl}, since the conditions are built at runtime from the rules of each protocol.
+ */
+public interface StudyRuleRepository {
+
+    /**
+     * @param searchId optional, restricts the studies to one search of the protocol
+     * @return the IDs of the unclassified studies of the protocol that the rule rejects, in ascending order
+     */
+    List<Long> findUnclassifiedRejectedBy(Long protocolId, Long searchId, CriteriaRule rule);
+}
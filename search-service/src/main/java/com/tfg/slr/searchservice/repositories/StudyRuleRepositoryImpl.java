@@ -0,0 +1,29 @@
+package com.tfg.slr.searchservice.repositories;
+
+import com.tfg.slr.searchservice.utils.CriteriaRule;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.util.List;
+
+public class StudyRuleRepositoryImpl implements StudyRuleRepository {
+
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+
+    public StudyRuleRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+    }
+
+    public List<Long> findUnclassifiedRejectedBy(Long protocolId, Long searchId, CriteriaRule rule){
+        MapSqlParameterSource parameters = new MapSqlParameterSource("protocolId", protocolId);
+        StringBuilder sql = new StringBuilder("select s.study_id from study s join search se on se.search_id = s.search_id " +
+                "where se.protocol_id = :protocolId and s.selection_status = 'UNCLASSIFIED'");
+        if(searchId != null){
+            sql.append(" and s.search_id = :searchId");
+            parameters.addValue("searchId", searchId);
+        }
+        sql.append(" and ").append(rule.toSql("s", "rule", parameters)).append(" order by s.study_id");
+        return namedJdbcTemplate.queryForList(sql.toString(), parameters, Long.class);
+    }
+}
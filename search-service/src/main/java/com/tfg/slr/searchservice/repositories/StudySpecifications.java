@@ -0,0 +1,94 @@
+package com.tfg.slr.searchservice.repositories;
+
+import com.tfg.slr.searchservice.dtos.StudyFilterDTO;
+import com.tfg.slr.searchservice.models.Study;
+import lombok.experimental.UtilityClass;
+import org.springframework.data.jpa.domain.Specification;
+
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.Expression;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import java.util.Collection;
+
+/**
+ * Specifications of the study query. Each filter dimension is a separate specification, so that the facet counts of a
+ * dimension can leave its own filter out.
+ */
+@UtilityClass
+public class StudySpecifications {
+
+    public enum Dimension {
+        SELECTION_STATUS("selectionStatus"), YEAR("year"), TYPE("type"), VENUE("venue"),
+        DATA_SOURCE("search.dataSourceId"), CRITERIA("appliedCriteria");
+
+        private final String attribute;
+
+        Dimension(String attribute) {
+            this.attribute = attribute;
+        }
+
+        public <T> Path<T> path(Root<Study> root){
+            Path<?> path = root;
+            for(String name : attribute.split("\\.")) path = path.get(name);
+            return (Path<T>) path;
+        }
+    }
+
+    /**
+     * @param criteriaOrdinal ordinal of the filtered criterion in the protocol, negative if it has none, in which case
+     *                        no study matches
+     * @param skipped dimension whose filter is left out, null to apply all of them
+     */
+    public Specification<Study> of(StudyFilterDTO filter, Integer criteriaOrdinal, Dimension skipped){
+        Specification<Study> spec = Specification.where(inScope(filter.getSearchId(), filter.getProtocolId()));
+        if(skipped != Dimension.SELECTION_STATUS) spec = spec.and(in(Dimension.SELECTION_STATUS, filter.getSelectionStatus()));
+        if(skipped != Dimension.YEAR) spec = spec.and(yearBetween(filter.getMinYear(), filter.getMaxYear()));
+        if(skipped != Dimension.TYPE) spec = spec.and(in(Dimension.TYPE, filter.getTypes()));
+        if(skipped != Dimension.VENUE) spec = spec.and(in(Dimension.VENUE, filter.getVenues()));
+        if(skipped != Dimension.DATA_SOURCE) spec = spec.and(in(Dimension.DATA_SOURCE, filter.getDataSourceIds()));
+        if(skipped != Dimension.CRITERIA && criteriaOrdinal != null) spec = spec.and(hasCriterion(criteriaOrdinal));
+        return spec;
+    }
+
+    public Specification<Study> inScope(Long searchId, Long protocolId){
+        return (root, query, cb) -> {
+            Predicate scope = cb.conjunction();
+            if(searchId != null) scope = cb.and(scope, cb.equal(root.get("search").get("id"), searchId));
+            if(protocolId != null) scope = cb.and(scope, cb.equal(root.get("search").get("protocolId"), protocolId));
+            return scope;
+        };
+    }
+
+    public Specification<Study> in(Dimension dimension, Collection<?> values){
+        if(values == null || values.isEmpty()) return null;
+        return (root, query, cb) -> dimension.path(root).in(values);
+    }
+
+    public Specification<Study> yearBetween(Integer minYear, Integer maxYear){
+        if(minYear == null && maxYear == null) return null;
+        return (root, query, cb) -> {
+            Path<Integer> year = root.get("year");
+            if(minYear == null) return cb.le(year, maxYear);
+            if(maxYear == null) return cb.ge(year, minYear);
+            return cb.between(year, minYear, maxYear);
+        };
+    }
+
+    public Specification<Study> hasCriterion(int ordinal){
+        return (root, query, cb) -> ordinal < 0 ? cb.disjunction() : applied(root, cb, ordinal);
+    }
+
+    /**
+     * Whether the bit of the ordinal is set in the criteria bitmap (see CriteriaBitmap). Bitmaps are stored without
+     * trailing zero bytes, so the length is checked first: get_bit fails on out of range bits.
+     */
+    public Predicate applied(Root<Study> root, CriteriaBuilder cb, int ordinal){
+        Path<byte[]> bitmap = Dimension.CRITERIA.path(root);
+        Expression<Integer> bit = cb.<Integer>selectCase()
+                .when(cb.le(cb.function("octet_length", Integer.class, bitmap), ordinal / 8), cb.literal(0))
+                .otherwise(cb.function("get_bit", Integer.class, bitmap, cb.literal(ordinal)));
+        return cb.equal(bit, 1);
+    }
+}
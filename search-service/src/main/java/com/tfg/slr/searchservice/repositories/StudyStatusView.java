@@ -0,0 +1,12 @@
+package com.tfg.slr.searchservice.repositories;
+
+import com.tfg.slr.searchservice.models.Status;
+
+public interface StudyStatusView {
+
+    Long getId();
+
+    Long getSearchId();
+
+    Status getSelectionStatus();
+}
@@ -0,0 +1,36 @@
+package com.tfg.slr.searchservice.services;
+
+import com.tfg.slr.searchservice.dtos.CriteriaMatrixDTO;
+import com.tfg.slr.searchservice.models.Study;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Reads and writes the applied selection criteria of studies, stored as a bitmap per study.
+ */
+public interface AppliedCriteriaService {
+
+    /**
+     * Adds criteria to the bitmap of each study, assigning an ordinal to the criteria used for the first time.
+     * Ordinals are read once per protocol, whatever the number of studies.
+     *
+     * @param criteriaByStudy the criteria IDs to add, by study ID
+     */
+    void apply(List<Study> studies, Map<Long, Set<Long>> criteriaByStudy);
+
+    void remove(Study study, Collection<Long> criteriaIds);
+
+    Set<Long> getApplied(Study study);
+
+    CriteriaMatrixDTO getMatrix(Long protocolId);
+
+    /**
+     * Moves the criteria stored in the old study_applied_criteria_ids table to the bitmaps and drops the table.
+     *
+     * @return the number of migrated studies
+     */
+    int migrateLegacyCriteria();
+}
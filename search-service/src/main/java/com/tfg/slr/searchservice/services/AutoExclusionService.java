@@ -0,0 +1,27 @@
+package com.tfg.slr.searchservice.services;
+
+import com.tfg.slr.searchservice.dtos.AutoExclusionReportDTO;
+import com.tfg.slr.searchservice.models.Study;
+
+import java.util.List;
+
+/**
+ * Rejects studies automatically with the selection criteria of the protocol that have a structured rule (year range,
+ * type, venue, language or title keywords). Rejected studies get the matching criteria as applied criteria.
+ */
+public interface AutoExclusionService {
+
+    /**
+     * Applies the rules to the unclassified studies of a protocol, or of one of its searches, evaluating each rule
+     * with a single query.
+     */
+    AutoExclusionReportDTO applyRules(Long protocolId, Long searchId);
+
+    /**
+     * Applies the rules in memory to studies that have just been saved by an import. Must run in the importing
+     * transaction, before the studies are counted.
+     *
+     * @return the number of rejected studies
+     */
+    int screenImported(List<Study> studies);
+}
@@ -0,0 +1,23 @@
+package com.tfg.slr.searchservice.services;
+
+import com.tfg.slr.searchservice.dtos.CitationExpansionDTO;
+import com.tfg.slr.searchservice.dtos.CitationIngestReportDTO;
+import com.tfg.slr.searchservice.dtos.CitationListDTO;
+import com.tfg.slr.searchservice.models.CitationDirection;
+
+import java.util.List;
+
+/**
+ * Citation graph used for snowballing. Works are identified by DOI, so the graph is shared by every protocol and
+ * the studies of a protocol are matched to it through their DOI.
+ */
+public interface CitationService {
+
+    CitationIngestReportDTO ingest(List<CitationListDTO> lists);
+
+    /**
+     * Works reachable in up to {@code hops} citations from the accepted studies of a protocol that are not studies
+     * of the protocol yet.
+     */
+    CitationExpansionDTO expand(Long protocolId, CitationDirection direction, int hops, int limit);
+}
@@ -0,0 +1,27 @@
+package com.tfg.slr.searchservice.services;
+
+import com.tfg.slr.searchservice.models.Study;
+
+import java.util.List;
+
+public interface DeduplicationService {
+
+    /**
+     * Saves new studies of the same search, marking as DUPLICATED those that match a study already indexed
+     * for the protocol (or for the search, when it has no protocol) or an earlier study of the same list.
+     * Candidates are found through a single indexed key lookup per call instead of pairwise comparisons. The
+     * remaining studies are screened with the structured selection criteria of the protocol.
+     *
+     * @param studies unsaved studies that belong to the same search
+     * @return the saved studies
+     */
+    List<Study> saveAndDeduplicate(List<Study> studies);
+
+    /**
+     * Rebuilds the duplicate index for the protocol of a search, checking every stored study in insertion order.
+     *
+     * @param searchId any search of the protocol to process
+     * @return the number of studies that have been marked as duplicated
+     */
+    int deduplicate(Long searchId);
+}
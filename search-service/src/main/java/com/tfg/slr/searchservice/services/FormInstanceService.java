@@ -1,10 +1,15 @@
 package com.tfg.slr.searchservice.services;
 
+import com.tfg.slr.searchservice.dtos.BulkFormReportDTO;
 import com.tfg.slr.searchservice.dtos.FormInstanceDTO;
+import com.tfg.slr.searchservice.dtos.FormMigrationReportDTO;
+import com.tfg.slr.searchservice.dtos.StudyDTO;
 import com.tfg.slr.searchservice.models.FormInstance;
 import com.tfg.slr.searchservice.models.FormType;
+import com.tfg.slr.searchservice.utils.AnswerMatrix;
 
 import java.util.List;
+import java.util.Map;
 
 public interface FormInstanceService {
 
@@ -14,9 +19,52 @@ public interface FormInstanceService {
 
     FormInstanceDTO createAndSave(FormType formType, Long formID);
 
+    /**
+     * Creates a form of the given type for every accepted study of a search or protocol that does not have one yet.
+     * The form definition is fetched once and all instances and fields are inserted in JDBC batches.
+     */
+    BulkFormReportDTO createForAccepted(FormType formType, Long searchId, Long protocolId);
+
+    /**
+     * Answers of a form instance by field name, whatever its storage. Unanswered fields map to null.
+     */
+    Map<String, String> getAnswers(Long formInstanceId);
+
+    /**
+     * Updates the given fields and keeps the rest. Every name must belong to the form.
+     */
+    Map<String, String> saveAnswers(Long formInstanceId, Map<String, String> answers);
+
+    /**
+     * Studies of a protocol whose form of the given type has all the given answers, in a single query.
+     */
+    List<StudyDTO> findStudiesByAnswers(Long protocolId, FormType formType, Map<String, String> criteria);
+
+    /**
+     * Converts every instance stored as field rows into a JSONB document, in batches that commit independently.
+     */
+    FormMigrationReportDTO migrateToDocuments();
+
+    /**
+     * Streams one row per study of the protocol with a form of the given type, with its answers in the order of the
+     * given field names. Rows are read from a database cursor and pivoted on the fly.
+     *
+     * @return the number of rows
+     */
+    long streamAnswerMatrix(Long protocolId, FormType formType, List<String> fieldNames, AnswerMatrix.RowConsumer consumer);
+
     FormInstanceDTO update(FormInstance formInstance);
 
     void delete(Long formInstanceId);
 
+    /**
+     * Deletes every instance of a form of the review service, with its answers. Fails if the form has no instances.
+     */
     void deleteFromProtocol(Long formId);
+
+    /**
+     * Same as {@link #deleteFromProtocol(Long)}, but a form without instances is not an error, so it can be repeated.
+     * @return the number of instances deleted
+     */
+    int deleteAllOfForm(Long formId);
 }
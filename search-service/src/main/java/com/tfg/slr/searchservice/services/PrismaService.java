@@ -0,0 +1,38 @@
+package com.tfg.slr.searchservice.services;
+
+import com.tfg.slr.searchservice.dtos.PrismaDTO;
+import com.tfg.slr.searchservice.models.Search;
+import com.tfg.slr.searchservice.models.Status;
+import com.tfg.slr.searchservice.models.Study;
+
+import java.util.Collection;
+
+/**
+ * Keeps the PRISMA counters of each search. Every method that changes the selection status of studies must call
+ * it inside the same transaction.
+ */
+public interface PrismaService {
+
+    PrismaDTO getBySearch(Long searchId);
+
+    PrismaDTO getByProtocol(Long protocolId);
+
+    void initialize(Search search);
+
+    /**
+     * Counts newly saved studies as identified, with their current selection status.
+     */
+    void studiesAdded(Collection<Study> studies);
+
+    void statusChanged(Long searchId, Status from, Status to, long count);
+
+    /**
+     * Rebuilds the counters of a search, or of every search of its protocol, from the study table.
+     */
+    void recount(Search search);
+
+    /**
+     * Creates the counters of the searches that existed before counters were introduced.
+     */
+    int initializeMissing();
+}
@@ -0,0 +1,31 @@
+package com.tfg.slr.searchservice.services;
+
+import com.tfg.slr.searchservice.dtos.CacheStatsDTO;
+import com.tfg.slr.searchservice.dtos.FormFieldInstanceDTO;
+import com.tfg.slr.searchservice.dtos.ProtocolTermsDTO;
+import com.tfg.slr.searchservice.dtos.SelectionCriteriaDTO;
+import com.tfg.slr.searchservice.models.FormType;
+
+import java.util.List;
+
+/**
+ * Protocol data owned by the review service (selection criteria, form definitions and keywords), read through a local
+ * cache keyed by protocol.
+ */
+public interface ProtocolDataService {
+
+    List<SelectionCriteriaDTO> getSelectionCriteria(Long protocolId);
+
+    List<FormFieldInstanceDTO> getFormFields(Long protocolId, FormType formType);
+
+    ProtocolTermsDTO getTerms(Long protocolId);
+
+    /**
+     * Drops the cached criteria, forms and keywords of a protocol. Must be called when the review service changes them.
+     */
+    void invalidate(Long protocolId);
+
+    void invalidateAll();
+
+    List<CacheStatsDTO> getStats();
+}
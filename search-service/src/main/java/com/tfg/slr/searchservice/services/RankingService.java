@@ -0,0 +1,26 @@
+package com.tfg.slr.searchservice.services;
+
+import com.tfg.slr.searchservice.dtos.RankingDTO;
+import com.tfg.slr.searchservice.models.Status;
+import com.tfg.slr.searchservice.models.Study;
+
+import java.util.Collection;
+
+/**
+ * Orders the unclassified studies of a protocol by their relevance to its keywords and research questions. The
+ * index of each protocol is built on first use and then kept up to date by the methods below, which take effect
+ * when the calling transaction commits.
+ */
+public interface RankingService {
+
+    RankingDTO rank(Long protocolId, Long searchId, int size);
+
+    void studiesAdded(Collection<Study> studies);
+
+    void statusChanged(Collection<Long> studyIds, Status status);
+
+    /**
+     * Drops the index of a protocol, it is rebuilt on the next ranking.
+     */
+    void invalidate(Long protocolId);
+}
@@ -0,0 +1,17 @@
+package com.tfg.slr.searchservice.services;
+
+import com.tfg.slr.searchservice.dtos.ReviewEventDTO;
+
+import java.util.List;
+
+/**
+ * Consumer of the events of the review service, which keeps the local caches and form instances in sync with it.
+ * Events are delivered at least once and in batches, so handling one again leaves the same state.
+ */
+public interface ReviewEventService {
+
+    /**
+     * @return the number of events handled; events of unknown type are skipped
+     */
+    int handle(List<ReviewEventDTO> events);
+}
@@ -0,0 +1,34 @@
+package com.tfg.slr.searchservice.services;
+
+import com.tfg.slr.searchservice.dtos.ScreeningBatchDTO;
+import com.tfg.slr.searchservice.dtos.ScreeningQueueDTO;
+import com.tfg.slr.searchservice.models.QueueOrder;
+
+import java.util.Collection;
+
+/**
+ * Hands out unclassified studies of a search, or of every search of a protocol, to the researchers screening them.
+ * Each study is leased to one researcher at a time and returns to the queue when the lease expires.
+ */
+public interface ScreeningQueueService {
+
+    /**
+     * Renews the leases the researcher already holds and tops them up to the batch size with free studies. When the
+     * queue is empty, up to half of the backlog of the researcher with the most leases is reassigned.
+     */
+    ScreeningBatchDTO claim(Long researcherId, Long searchId, Long protocolId, int size, QueueOrder order);
+
+    int renew(Long researcherId, Long searchId, Long protocolId);
+
+    /**
+     * Returns the given studies to the queue, or every study leased to the researcher when none is given.
+     */
+    int release(Long researcherId, Long searchId, Long protocolId, Collection<Long> studyIds);
+
+    ScreeningQueueDTO getStatus(Long searchId, Long protocolId);
+
+    /**
+     * Ends the leases of studies that have been classified. Called in the same transaction as the decision.
+     */
+    void completed(Collection<Long> studyIds);
+}
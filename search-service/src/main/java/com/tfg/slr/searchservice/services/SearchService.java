@@ -3,7 +3,6 @@ package com.tfg.slr.searchservice.services;
 import com.tfg.slr.searchservice.dtos.SearchDTO;
 import com.tfg.slr.searchservice.exceptions.SearchNotFoundException;
 import com.tfg.slr.searchservice.models.Search;
-import com.tfg.slr.searchservice.utils.ReferenceGenerator;
 
 import java.util.Calendar;
 import java.util.List;
@@ -0,0 +1,41 @@
+package com.tfg.slr.searchservice.services;
+
+import com.tfg.slr.searchservice.models.FormType;
+import com.tfg.slr.searchservice.models.Status;
+import com.tfg.slr.searchservice.utils.StudyWriter;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+
+public interface StudyExportService {
+
+    /**
+     * @param format the writer format (bibtex, ris, csv)
+     * @return the StudyWriter for that format
+     */
+    StudyWriter findWriter(String format);
+
+    /**
+     * Writes the filtered studies to the output as they are read from a database cursor, so memory use does not
+     * depend on the number of exported studies.
+     *
+     * @return the number of exported studies
+     */
+    long export(StudyWriter writer, Long searchId, Long protocolId, Status status, OutputStream out) throws IOException;
+
+    /**
+     * @return the field names of the protocol form, which are the answer columns of its matrix
+     */
+    List<String> findMatrixColumns(Long protocolId, FormType formType);
+
+    /**
+     * Writes a CSV with one row per study of the protocol and one column per form field, streamed from a database
+     * cursor like {@link #export}.
+     *
+     * @return the number of exported studies
+     */
+    long exportAnswerMatrix(Long protocolId, FormType formType, List<String> columns, OutputStream out) throws IOException;
+
+    List<String> getSupportedFormats();
+}
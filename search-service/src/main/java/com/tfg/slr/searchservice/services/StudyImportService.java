@@ -0,0 +1,33 @@
+package com.tfg.slr.searchservice.services;
+
+import com.tfg.slr.searchservice.dtos.ImportReportDTO;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.List;
+
+public interface StudyImportService {
+
+    /**
+     * Imports every entry of a BibTeX export into a search. Entries are parsed one at a time and
+     * written in JDBC batches inside a single transaction.
+     *
+     * @param searchId the search the studies belong to
+     * @param reader the BibTeX content
+     * @return a report with the number of imported studies and the entries that were rejected
+     */
+    ImportReportDTO importBibTeX(Long searchId, Reader reader) throws IOException;
+
+    /**
+     * Imports a bibliographic export with any of the available StudyParser implementations.
+     *
+     * @param searchId the search the studies belong to
+     * @param format the parser format (bibtex, ris, csv, jsonl). If null, it is taken from the file extension
+     * @param fileName the original file name, only used when no format is given
+     * @param reader the content of the export
+     * @return a report with the number of imported studies, the rejected entries and the elapsed time
+     */
+    ImportReportDTO importStudies(Long searchId, String format, String fileName, Reader reader) throws IOException;
+
+    List<String> getSupportedFormats();
+}
@@ -0,0 +1,16 @@
+package com.tfg.slr.searchservice.services;
+
+import com.tfg.slr.searchservice.dtos.StudyFilterDTO;
+import com.tfg.slr.searchservice.dtos.StudyQueryDTO;
+
+/**
+ * Filtered study listing for the screening UI, built on JPA Specifications.
+ */
+public interface StudyQueryService {
+
+    /**
+     * Returns a page of the studies matching the filter, ordered by ID, and optionally the facet counts of every
+     * filter dimension (selection status, year, type, venue, data source and applied criterion).
+     */
+    StudyQueryDTO query(StudyFilterDTO filter);
+}
@@ -1,7 +1,10 @@
 package com.tfg.slr.searchservice.services;
 
+import com.tfg.slr.searchservice.dtos.ScreeningDecisionDTO;
 import com.tfg.slr.searchservice.dtos.SelectionCriteriaDTO;
 import com.tfg.slr.searchservice.dtos.StudyDTO;
+import com.tfg.slr.searchservice.dtos.StudyPageDTO;
+import com.tfg.slr.searchservice.dtos.StudyStatusDTO;
 import com.tfg.slr.searchservice.exceptions.StudyNotFoundException;
 import com.tfg.slr.searchservice.models.Search;
 import com.tfg.slr.searchservice.models.Status;
@@ -9,6 +12,7 @@ import com.tfg.slr.searchservice.models.Study;
 
 import java.time.Year;
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface StudyService {
 
@@ -16,6 +20,26 @@ public interface StudyService {
 
     List<Study> findAll();
 
+    /**
+     * Keyset pagination over the studies, ordered by ID. Filters are optional.
+     *
+     * @param afterId the nextCursor of the previous page, or null for the first one
+     * @param size the number of studies per page, up to 500
+     */
+    StudyPageDTO findPage(Long searchId, Long protocolId, Status status, Long afterId, int size);
+
+    /**
+     * Sends every study matching the optional filters to the consumer, reading them from a database cursor
+     * and detaching each one once consumed, so memory use does not depend on the number of rows.
+     */
+    void streamAll(Long searchId, Long protocolId, Status status, Consumer<StudyDTO> consumer);
+
+    /**
+     * Full-text search over title, author and venue, ranked by relevance. A query that looks like a DOI is looked
+     * up exactly instead. At least one of searchId or protocolId is required.
+     */
+    List<StudyDTO> searchText(String query, Long searchId, Long protocolId, int page, int size);
+
     Study createAndSave(Long searchId, StudyDTO dto);
 
     StudyDTO update(Study study);
@@ -28,5 +52,14 @@ public interface StudyService {
 
     StudyDTO markAsDuplicated(Long studyId);
 
+    /**
+     * Applies a list of screening decisions in a single transaction: one UPDATE statement per resulting status
+     * and batched inserts for the applied criteria. If any study does not exist, nothing is changed.
+     *
+     * @param decisions the decision and the applied criteria for each study
+     * @return the new selection status of every study
+     */
+    List<StudyStatusDTO> applyDecisions(List<ScreeningDecisionDTO> decisions);
+
 
 }
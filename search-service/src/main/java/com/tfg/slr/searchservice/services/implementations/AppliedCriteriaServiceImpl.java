@@ -0,0 +1,181 @@
+package com.tfg.slr.searchservice.services.implementations;
+
+import com.google.common.collect.Lists;
+import com.tfg.slr.searchservice.dtos.CriteriaMatrixDTO;
+import com.tfg.slr.searchservice.exceptions.NullEntityException;
+import com.tfg.slr.searchservice.models.CriteriaOrdinal;
+import com.tfg.slr.searchservice.models.Study;
+import com.tfg.slr.searchservice.repositories.CriteriaOrdinalRepository;
+import com.tfg.slr.searchservice.repositories.StudyCriteriaView;
+import com.tfg.slr.searchservice.repositories.StudyRepository;
+import com.tfg.slr.searchservice.services.AppliedCriteriaService;
+import com.tfg.slr.searchservice.utils.CriteriaBitmap;
+import com.tfg.slr.searchservice.utils.MessageConstants;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.ResultSet;
+import java.util.*;
+
+@Slf4j
+@Service
+@Transactional
+@AllArgsConstructor
+public class AppliedCriteriaServiceImpl implements AppliedCriteriaService {
+
+    private static final String LEGACY_TABLE = "study_applied_criteria_ids";
+    private static final int MAX_ASSIGN_ATTEMPTS = 5;
+    private static final int LOCK_BATCH_SIZE = 1000;
+
+    private CriteriaOrdinalRepository criteriaOrdinalRepository;
+    private StudyRepository studyRepository;
+    private JdbcTemplate jdbcTemplate;
+
+    public void apply(List<Study> studies, Map<Long, Set<Long>> criteriaByStudy){
+        if(studies == null || criteriaByStudy == null) throw new NullEntityException(MessageConstants.NULL_ENTITY_ID);
+
+        Map<Long, byte[]> current = lockBitmaps(studies);
+        Map<Long, List<Study>> byProtocol = new HashMap<>();
+        for(Study study : studies){
+            byProtocol.computeIfAbsent(protocolOf(study), p -> new ArrayList<>()).add(study);
+        }
+        for(Map.Entry<Long, List<Study>> entry : byProtocol.entrySet()){
+            Set<Long> criteriaIds = new HashSet<>();
+            entry.getValue().forEach(study -> criteriaIds.addAll(criteriaByStudy.getOrDefault(study.getId(), Collections.emptySet())));
+            Map<Long, Integer> ordinals = assignOrdinals(entry.getKey(), criteriaIds);
+            for(Study study : entry.getValue()){
+                List<Integer> applied = new ArrayList<>();
+                criteriaByStudy.getOrDefault(study.getId(), Collections.emptySet()).forEach(id -> applied.add(ordinals.get(id)));
+                study.setAppliedCriteria(CriteriaBitmap.add(current.getOrDefault(study.getId(), study.getAppliedCriteria()), applied));
+            }
+        }
+    }
+
+    public void remove(Study study, Collection<Long> criteriaIds){
+        if(study == null || criteriaIds == null) throw new NullEntityException(MessageConstants.NULL_ENTITY_ID);
+        Map<Long, Integer> ordinals = loadOrdinals(protocolOf(study));
+        List<Integer> removed = new ArrayList<>();
+        for(Long criteriaId : criteriaIds){
+            //A criterion without ordinal was never applied to any study of the protocol
+            if(ordinals.containsKey(criteriaId)) removed.add(ordinals.get(criteriaId));
+        }
+        byte[] current = lockBitmaps(Collections.singletonList(study)).getOrDefault(study.getId(), study.getAppliedCriteria());
+        study.setAppliedCriteria(CriteriaBitmap.remove(current, removed));
+    }
+
+    @Transactional(readOnly = true)
+    public Set<Long> getApplied(Study study){
+        if(study == null) throw new NullEntityException(MessageConstants.NULL_ENTITY_ID);
+        Set<Long> result = new HashSet<>();
+        if(study.getAppliedCriteria() == null) return result;
+
+        BitSet bits = CriteriaBitmap.toBits(study.getAppliedCriteria());
+        for(CriteriaOrdinal ordinal : criteriaOrdinalRepository.findByProtocolIdOrderByOrdinalAsc(protocolOf(study))){
+            if(bits.get(ordinal.getOrdinal())) result.add(ordinal.getCriteriaId());
+        }
+        return result;
+    }
+
+    @Transactional(readOnly = true)
+    public CriteriaMatrixDTO getMatrix(Long protocolId){
+        if(protocolId == null) throw new NullEntityException(MessageConstants.NULL_ENTITY_ID);
+
+        List<CriteriaOrdinal> ordinals = criteriaOrdinalRepository.findByProtocolIdOrderByOrdinalAsc(protocolId);
+        CriteriaMatrixDTO matrix = CriteriaMatrixDTO.builder().protocolId(protocolId).build();
+        long[] counts = new long[ordinals.size()];
+        ordinals.forEach(ordinal -> matrix.getCriteriaIds().add(ordinal.getCriteriaId()));
+
+        char[] row = new char[ordinals.size()];
+        for(StudyCriteriaView study : studyRepository.findCriteriaByProtocolId(protocolId)){
+            byte[] bitmap = study.getAppliedCriteria();
+            for(int i = 0; i < ordinals.size(); i++){
+                boolean applied = CriteriaBitmap.contains(bitmap, ordinals.get(i).getOrdinal());
+                row[i] = applied ? '1' : '0';
+                if(applied) counts[i]++;
+            }
+            matrix.getRows().add(new CriteriaMatrixDTO.Row(study.getId(), study.getSelectionStatus().toString(), new String(row)));
+        }
+        for(int i = 0; i < ordinals.size(); i++){
+            matrix.getCounts().put(ordinals.get(i).getCriteriaId(), counts[i]);
+        }
+        return matrix;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public int migrateLegacyCriteria(){
+        Boolean exists = jdbcTemplate.execute((ConnectionCallback<Boolean>) connection -> {
+            for(String name : Arrays.asList(LEGACY_TABLE, LEGACY_TABLE.toUpperCase(Locale.ROOT))){
+                try(ResultSet tables = connection.getMetaData().getTables(null, null, name, null)){
+                    if(tables.next()) return true;
+                }
+            }
+            return false;
+        });
+        if(!Boolean.TRUE.equals(exists)) return 0;
+
+        Map<Long, Set<Long>> criteriaByStudy = new HashMap<>();
+        jdbcTemplate.query("select study_study_id, applied_criteria_ids from " + LEGACY_TABLE, (ResultSet rs) -> {
+            criteriaByStudy.computeIfAbsent(rs.getLong(1), id -> new HashSet<>()).add(rs.getLong(2));
+        });
+        List<Study> studies = new ArrayList<>();
+        List<Long> withoutProtocol = new ArrayList<>();
+        for(Study study : studyRepository.findWithSearchByIdIn(criteriaByStudy.keySet())){
+            if(study.getSearch().getProtocolId() == null) withoutProtocol.add(study.getId());
+            else studies.add(study);
+        }
+        apply(studies, criteriaByStudy);
+
+        if(withoutProtocol.isEmpty()){
+            jdbcTemplate.execute("drop table " + LEGACY_TABLE);
+        }else{
+            log.warn("Applied criteria of studies {} were not migrated: their search has no protocol", withoutProtocol);
+        }
+        log.info("Applied criteria of {} studies moved to bitmaps", studies.size());
+        return studies.size();
+    }
+
+    private Map<Long, Integer> assignOrdinals(Long protocolId, Set<Long> criteriaIds){
+        Map<Long, Integer> ordinals = loadOrdinals(protocolId);
+        for(int attempt = 0; attempt < MAX_ASSIGN_ATTEMPTS; attempt++){
+            List<Long> missing = new ArrayList<>();
+            criteriaIds.forEach(id -> { if(!ordinals.containsKey(id)) missing.add(id); });
+            if(missing.isEmpty()) return ordinals;
+
+            //A lost race leaves the criterion without ordinal: the next attempt takes the following one
+            missing.stream().sorted().forEach(id -> criteriaOrdinalRepository.assign(protocolId, id));
+            ordinals.putAll(loadOrdinals(protocolId));
+        }
+        throw new IllegalStateException("Could not assign ordinals to the criteria of protocol " + protocolId);
+    }
+
+    //The bitmap is read again under the row lock: the loaded one may predate a concurrent change, whose bits would be lost
+    private Map<Long, byte[]> lockBitmaps(List<Study> studies){
+        List<Long> ids = new ArrayList<>();
+        studies.forEach(study -> { if(study.getId() != null) ids.add(study.getId()); });
+        Map<Long, byte[]> bitmaps = new HashMap<>();
+        for(List<Long> batch : Lists.partition(ids, LOCK_BATCH_SIZE)){
+            studyRepository.lockByIdIn(batch);
+            studyRepository.findCriteriaByIdIn(batch).forEach(view -> bitmaps.put(view.getId(), view.getAppliedCriteria()));
+        }
+        return bitmaps;
+    }
+
+    private Map<Long, Integer> loadOrdinals(Long protocolId){
+        Map<Long, Integer> ordinals = new HashMap<>();
+        criteriaOrdinalRepository.findByProtocolIdOrderByOrdinalAsc(protocolId)
+                .forEach(ordinal -> ordinals.put(ordinal.getCriteriaId(), ordinal.getOrdinal()));
+        return ordinals;
+    }
+
+    private Long protocolOf(Study study){
+        Long protocolId = study.getSearch() == null ? null : study.getSearch().getProtocolId();
+        if(protocolId == null) throw new IllegalArgumentException(MessageConstants.SEARCH_WITHOUT_PROTOCOL);
+        return protocolId;
+    }
+}
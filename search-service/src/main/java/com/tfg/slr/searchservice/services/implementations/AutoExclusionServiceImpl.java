@@ -0,0 +1,134 @@
+package com.tfg.slr.searchservice.services.implementations;
+
+import com.google.common.collect.Lists;
+import com.tfg.slr.searchservice.dtos.AutoExclusionReportDTO;
+import com.tfg.slr.searchservice.exceptions.NullEntityException;
+import com.tfg.slr.searchservice.models.Status;
+import com.tfg.slr.searchservice.models.Study;
+import com.tfg.slr.searchservice.repositories.StudyRepository;
+import com.tfg.slr.searchservice.services.AppliedCriteriaService;
+import com.tfg.slr.searchservice.services.AutoExclusionService;
+import com.tfg.slr.searchservice.services.PrismaService;
+import com.tfg.slr.searchservice.services.ProtocolDataService;
+import com.tfg.slr.searchservice.services.RankingService;
+import com.tfg.slr.searchservice.services.ScreeningQueueService;
+import com.tfg.slr.searchservice.services.SearchService;
+import com.tfg.slr.searchservice.utils.CriteriaRule;
+import com.tfg.slr.searchservice.utils.MessageConstants;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.client.RestClientException;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Service
+@Transactional
+@AllArgsConstructor
+public class AutoExclusionServiceImpl implements AutoExclusionService {
+
+    private static final int BATCH_SIZE = 1000;
+
+    private StudyRepository studyRepository;
+    private SearchService searchService;
+    private ProtocolDataService protocolDataService;
+    private AppliedCriteriaService appliedCriteriaService;
+    private PrismaService prismaService;
+    private ScreeningQueueService screeningQueueService;
+    private RankingService rankingService;
+
+    public AutoExclusionReportDTO applyRules(Long protocolId, Long searchId){
+        if(protocolId == null && searchId == null) throw new NullEntityException(MessageConstants.NULL_ENTITY_ID);
+        long start = System.currentTimeMillis();
+
+        Long relatedProtocol = protocolId != null ? protocolId : searchService.findOne(searchId).getProtocolId();
+        if(relatedProtocol == null) throw new IllegalArgumentException(MessageConstants.SEARCH_WITHOUT_PROTOCOL);
+        List<CriteriaRule> rules = CriteriaRule.compile(protocolDataService.getSelectionCriteria(relatedProtocol));
+
+        Map<Long, Set<Long>> criteriaByStudy = new TreeMap<>();
+        Map<Long, Integer> byCriteria = new HashMap<>();
+        for(CriteriaRule rule : rules){
+            List<Long> rejected = studyRepository.findUnclassifiedRejectedBy(relatedProtocol, searchId, rule);
+            rejected.forEach(id -> criteriaByStudy.computeIfAbsent(id, k -> new HashSet<>()).add(rule.getCriteriaId()));
+            byCriteria.put(rule.getCriteriaId(), rejected.size());
+        }
+
+        int rejected = 0;
+        for(List<Long> batch : Lists.partition(new ArrayList<>(criteriaByStudy.keySet()), BATCH_SIZE)){
+            rejected += reject(batch, criteriaByStudy);
+        }
+
+        return AutoExclusionReportDTO.builder().protocolId(relatedProtocol).searchId(searchId).rules(rules.size())
+                .rejectedStudies(rejected).rejectedByCriteria(byCriteria).elapsedMillis(System.currentTimeMillis() - start).build();
+    }
+
+    public int screenImported(List<Study> studies){
+        if(studies == null) throw new NullEntityException(MessageConstants.NULL_ENTITY_ID);
+
+        Map<Long, List<Study>> byProtocol = new HashMap<>();
+        for(Study study : studies){
+            Long protocolId = study.getSearch() == null ? null : study.getSearch().getProtocolId();
+            if(protocolId != null && study.getSelectionStatus() == Status.UNCLASSIFIED){
+                byProtocol.computeIfAbsent(protocolId, id -> new ArrayList<>()).add(study);
+            }
+        }
+
+        int rejected = 0;
+        for(Map.Entry<Long, List<Study>> entry : byProtocol.entrySet()){
+            List<CriteriaRule> rules;
+            try{
+                rules = CriteriaRule.compile(protocolDataService.getSelectionCriteria(entry.getKey()));
+            }catch (RestClientException e){
+                //The import must not fail because review-service is down: the rules can be applied later
+                log.warn("Selection criteria of protocol {} not available, imported studies were not screened: {}",
+                        entry.getKey(), e.getMessage());
+                continue;
+            }
+            if(rules.isEmpty()) continue;
+
+            //Rules are pure functions of the study, so the studies are evaluated in parallel
+            Map<Long, Set<Long>> criteriaByStudy = new ConcurrentHashMap<>();
+            entry.getValue().parallelStream().forEach(study -> {
+                Set<Long> matching = rules.stream().filter(rule -> rule.rejects(study))
+                        .map(CriteriaRule::getCriteriaId).collect(Collectors.toSet());
+                if(!matching.isEmpty()) criteriaByStudy.put(study.getId(), matching);
+            });
+            if(criteriaByStudy.isEmpty()) continue;
+
+            List<Study> matched = entry.getValue().stream().filter(study -> criteriaByStudy.containsKey(study.getId()))
+                    .collect(Collectors.toList());
+            appliedCriteriaService.apply(matched, criteriaByStudy);
+            matched.forEach(study -> study.setSelectionStatus(Status.REJECTED));
+            rejected += matched.size();
+        }
+        return rejected;
+    }
+
+    private int reject(List<Long> studyIds, Map<Long, Set<Long>> criteriaByStudy){
+        //A researcher may have classified some of them since the rules were evaluated. The lock makes a decision in
+        //progress finish first, so its study is seen as classified and not counted twice
+        studyRepository.lockByIdIn(studyIds);
+        List<Study> studies = studyRepository.findWithSearchByIdIn(studyIds).stream()
+                .filter(study -> study.getSelectionStatus() == Status.UNCLASSIFIED).collect(Collectors.toList());
+        if(studies.isEmpty()) return 0;
+
+        appliedCriteriaService.apply(studies, criteriaByStudy);
+        List<Long> ids = new ArrayList<>(studies.size());
+        Map<Long, Long> bySearch = new HashMap<>();
+        for(Study study : studies){
+            ids.add(study.getId());
+            bySearch.merge(study.getSearch().getId(), 1L, Long::sum);
+        }
+        //Flushes the applied criteria and clears the persistence context before the next batch
+        studyRepository.updateSelectionStatus(ids, Status.REJECTED);
+
+        bySearch.forEach((searchId, count) -> prismaService.statusChanged(searchId, Status.UNCLASSIFIED, Status.REJECTED, count));
+        screeningQueueService.completed(ids);
+        rankingService.statusChanged(ids, Status.REJECTED);
+        return ids.size();
+    }
+}
@@ -0,0 +1,164 @@
+package com.tfg.slr.searchservice.services.implementations;
+
+import com.google.common.collect.Lists;
+import com.tfg.slr.searchservice.dtos.*;
+import com.tfg.slr.searchservice.exceptions.NullEntityException;
+import com.tfg.slr.searchservice.models.CitationDirection;
+import com.tfg.slr.searchservice.models.CitationNode;
+import com.tfg.slr.searchservice.models.Status;
+import com.tfg.slr.searchservice.models.Study;
+import com.tfg.slr.searchservice.repositories.CitationNodeRepository;
+import com.tfg.slr.searchservice.repositories.CitationNodeView;
+import com.tfg.slr.searchservice.repositories.StudyDoiView;
+import com.tfg.slr.searchservice.repositories.StudyRepository;
+import com.tfg.slr.searchservice.services.CitationService;
+import com.tfg.slr.searchservice.services.StudyService;
+import com.tfg.slr.searchservice.utils.CitationGraph;
+import com.tfg.slr.searchservice.utils.MessageConstants;
+import com.tfg.slr.searchservice.utils.StudyFingerprints;
+import com.tfg.slr.searchservice.utils.TransactionCallbacks;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Service
+@Transactional
+public class CitationServiceImpl implements CitationService {
+
+    private static final int MAX_HOPS = 5;
+    private static final int MAX_LIMIT = 5000;
+    //Expansions stop after the hop that reaches this many works
+    private static final int MAX_REACHED = 500000;
+    private static final int CHUNK_SIZE = 1000;
+
+    private final CitationNodeRepository citationNodeRepository;
+    private final StudyRepository studyRepository;
+    private final StudyService studyService;
+
+    private volatile CitationGraph graph;
+    private volatile boolean stale = true;
+
+    public CitationServiceImpl(CitationNodeRepository citationNodeRepository, StudyRepository studyRepository,
+                               StudyService studyService){
+        this.citationNodeRepository = citationNodeRepository;
+        this.studyRepository = studyRepository;
+        this.studyService = studyService;
+    }
+
+    public CitationIngestReportDTO ingest(List<CitationListDTO> lists){
+        if(lists == null || lists.isEmpty()) throw new NullEntityException(MessageConstants.NULL_ENTITY_ID);
+
+        Map<String, String> works = new HashMap<>();
+        List<String[]> pairs = new ArrayList<>();
+        int skipped = 0;
+        for(CitationListDTO list : lists){
+            String doi = resolveDoi(list);
+            if(doi == null){
+                skipped++;
+                continue;
+            }
+            addWork(works, doi, list.getTitle());
+            for(CitedWorkDTO reference : Optional.ofNullable(list.getReferences()).orElse(Collections.emptyList())){
+                String cited = StudyFingerprints.normalizeDOI(reference.getDoi());
+                if(cited == null){ skipped++; continue; }
+                addWork(works, cited, reference.getTitle());
+                pairs.add(new String[]{doi, cited});
+            }
+            for(CitedWorkDTO citing : Optional.ofNullable(list.getCitedBy()).orElse(Collections.emptyList())){
+                String citingDoi = StudyFingerprints.normalizeDOI(citing.getDoi());
+                if(citingDoi == null){ skipped++; continue; }
+                addWork(works, citingDoi, citing.getTitle());
+                pairs.add(new String[]{citingDoi, doi});
+            }
+        }
+
+        Map<String, Long> ids = works.isEmpty() ? Collections.emptyMap() : citationNodeRepository.upsertNodes(works);
+        Set<List<Long>> edges = new LinkedHashSet<>();
+        for(String[] pair : pairs){
+            Long citing = ids.get(pair[0]);
+            Long cited = ids.get(pair[1]);
+            if(citing != null && cited != null && !citing.equals(cited)) edges.add(Arrays.asList(citing, cited));
+        }
+        int added = citationNodeRepository.insertEdges(edges.stream().map(e -> new long[]{e.get(0), e.get(1)})
+                .collect(Collectors.toList()));
+        if(added > 0 || works.size() > 0) TransactionCallbacks.afterCommit(() -> stale = true);
+
+        return CitationIngestReportDTO.builder().works(works.size()).edgesAdded(added).skipped(skipped).build();
+    }
+
+    @Transactional(readOnly = true)
+    public CitationExpansionDTO expand(Long protocolId, CitationDirection direction, int hops, int limit){
+        if(protocolId == null) throw new NullEntityException(MessageConstants.NULL_ENTITY_ID);
+        CitationDirection relatedDirection = direction == null ? CitationDirection.BOTH : direction;
+        int maxHops = Math.max(1, Math.min(hops, MAX_HOPS));
+        int maxResults = Math.max(1, Math.min(limit, MAX_LIMIT));
+
+        //DOI index: every study of the protocol is already seen, the accepted ones are the seeds
+        Map<String, Boolean> accepted = new HashMap<>();
+        for(StudyDoiView study : studyRepository.findDoisByProtocolId(protocolId)){
+            String doi = StudyFingerprints.normalizeDOI(study.getDoi());
+            if(doi != null) accepted.merge(doi, study.getSelectionStatus() == Status.ACCEPTED, Boolean::logicalOr);
+        }
+
+        CitationGraph snapshot = currentGraph();
+        BitSet seen = new BitSet(snapshot.size());
+        List<Integer> seeds = new ArrayList<>();
+        for(List<String> chunk : Lists.partition(new ArrayList<>(accepted.keySet()), CHUNK_SIZE)){
+            for(CitationNodeView node : citationNodeRepository.findByDoiIn(chunk)){
+                int index = snapshot.indexOf(node.getId());
+                if(index < 0) continue;
+                seen.set(index);
+                if(accepted.get(node.getDoi())) seeds.add(index);
+            }
+        }
+
+        CitationGraph.Expansion expansion = snapshot.expand(seeds, seen, relatedDirection, maxHops, MAX_REACHED, maxResults);
+        List<CitationGraph.Reached> selected = expansion.getReached();
+        Map<Long, CitationNode> nodes = new HashMap<>();
+        for(List<CitationGraph.Reached> chunk : Lists.partition(selected, CHUNK_SIZE)){
+            citationNodeRepository.findByIdIn(chunk.stream().map(CitationGraph.Reached::getNodeId).collect(Collectors.toList()))
+                    .forEach(node -> nodes.put(node.getId(), node));
+        }
+        List<CitationCandidateDTO> candidates = new ArrayList<>(selected.size());
+        for(CitationGraph.Reached reached : selected){
+            CitationNode node = nodes.get(reached.getNodeId());
+            if(node == null) continue;
+            candidates.add(CitationCandidateDTO.builder().doi(node.getDoi()).title(node.getTitle())
+                    .hop(reached.getHop()).links(reached.getLinks()).build());
+        }
+
+        return CitationExpansionDTO.builder().protocolId(protocolId).direction(relatedDirection).hops(maxHops)
+                .seeds(seeds.size()).discovered(expansion.getReachedCount()).truncated(expansion.isTruncated())
+                .candidates(candidates).build();
+    }
+
+    //The snapshot is rebuilt on the first expansion after an ingestion, not on every ingestion
+    private synchronized CitationGraph currentGraph(){
+        if(graph != null && !stale) return graph;
+        stale = false;
+        long start = System.currentTimeMillis();
+        CitationGraph.Builder builder = CitationGraph.builder();
+        citationNodeRepository.forEachNodeId(builder::addNode);
+        citationNodeRepository.forEachEdge(builder::addEdge);
+        graph = builder.build();
+        log.info("Citation graph loaded: {} works, {} citations in {} ms", graph.size(), graph.edgeCount(),
+                System.currentTimeMillis() - start);
+        return graph;
+    }
+
+    private String resolveDoi(CitationListDTO list){
+        String doi = StudyFingerprints.normalizeDOI(list.getDoi());
+        if(doi != null || list.getStudyId() == null) return doi;
+        Study study = studyService.findOne(list.getStudyId());
+        return StudyFingerprints.normalizeDOI(study.getDOI());
+    }
+
+    //The first known title of a work is kept
+    private void addWork(Map<String, String> works, String doi, String title){
+        if(works.get(doi) == null) works.put(doi, title);
+    }
+}
@@ -0,0 +1,149 @@
+package com.tfg.slr.searchservice.services.implementations;
+
+import com.tfg.slr.searchservice.exceptions.NullEntityException;
+import com.tfg.slr.searchservice.models.Search;
+import com.tfg.slr.searchservice.models.Status;
+import com.tfg.slr.searchservice.models.Study;
+import com.tfg.slr.searchservice.models.StudyFingerprint;
+import com.tfg.slr.searchservice.repositories.StudyFingerprintRepository;
+import com.tfg.slr.searchservice.repositories.StudyRepository;
+import com.tfg.slr.searchservice.services.AutoExclusionService;
+import com.tfg.slr.searchservice.services.DeduplicationService;
+import com.tfg.slr.searchservice.services.PrismaService;
+import com.tfg.slr.searchservice.services.RankingService;
+import com.tfg.slr.searchservice.services.SearchService;
+import com.tfg.slr.searchservice.utils.MessageConstants;
+import com.tfg.slr.searchservice.utils.StudyFingerprints;
+import lombok.AllArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import java.util.*;
+
+@Service
+@Transactional
+@AllArgsConstructor
+public class DeduplicationServiceImpl implements DeduplicationService {
+
+    private static final int PAGE_SIZE = 500;
+
+    private StudyRepository studyRepository;
+    private StudyFingerprintRepository studyFingerprintRepository;
+    private SearchService searchService;
+    private EntityManager entityManager;
+    private PrismaService prismaService;
+    private RankingService rankingService;
+    private AutoExclusionService autoExclusionService;
+
+    public List<Study> saveAndDeduplicate(List<Study> studies){
+        if(studies == null) throw new NullEntityException(MessageConstants.NULL_ENTITY_ID);
+        if(studies.isEmpty()) return studies;
+
+        Search search = studies.get(0).getSearch();
+        Map<Study, Set<Long>> originals = markDuplicates(search, studies);
+        List<Study> result = studyRepository.saveAll(studies);
+        autoExclusionService.screenImported(result);
+        index(originals);
+        prismaService.studiesAdded(result);
+        rankingService.studiesAdded(result);
+        return result;
+    }
+
+    public int deduplicate(Long searchId){
+        Search search = searchService.findOne(searchId);
+        if(search.getProtocolId() != null){
+            studyFingerprintRepository.deleteByProtocol(search.getProtocolId());
+        }else{
+            studyFingerprintRepository.deleteBySearch(searchId);
+        }
+
+        int marked = 0;
+        Slice<Study> page;
+        int number = 0;
+        do{
+            PageRequest pageRequest = PageRequest.of(number++, PAGE_SIZE);
+            page = search.getProtocolId() != null
+                    ? studyRepository.findBySearchProtocolIdOrderByIdAsc(search.getProtocolId(), pageRequest)
+                    : studyRepository.findBySearchIdOrderByIdAsc(searchId, pageRequest);
+
+            List<Study> pending = new ArrayList<>();
+            for(Study study : page.getContent()){
+                if(study.getSelectionStatus() != Status.DUPLICATED) pending.add(study);
+            }
+            Map<Study, Set<Long>> originals = markDuplicates(search, pending);
+            marked += pending.size() - originals.size();
+            index(originals);
+            entityManager.flush();
+            entityManager.clear();
+        }while(page.hasNext());
+
+        prismaService.recount(search);
+        rankingService.invalidate(search.getProtocolId());
+        return marked;
+    }
+
+    //Marks the duplicated studies and returns the keys of the remaining ones, which become new originals
+    private Map<Study, Set<Long>> markDuplicates(Search search, List<Study> studies){
+        Map<Study, Set<Long>> keys = new LinkedHashMap<>();
+        Set<Long> allKeys = new HashSet<>();
+        for(Study study : studies){
+            Set<Long> studyKeys = StudyFingerprints.keys(study);
+            keys.put(study, studyKeys);
+            allKeys.addAll(studyKeys);
+        }
+        if(allKeys.isEmpty()) return keys;
+
+        //Stored candidates for the whole list in one query, plus the originals found earlier in the list
+        Map<Long, List<Study>> candidates = new HashMap<>();
+        List<Study> stored = search.getProtocolId() != null
+                ? studyFingerprintRepository.findCandidatesByProtocol(search.getProtocolId(), allKeys)
+                : studyFingerprintRepository.findCandidatesBySearch(search.getId(), allKeys);
+        for(Study candidate : stored){
+            for(Long key : StudyFingerprints.keys(candidate)){
+                if(allKeys.contains(key)) candidates.computeIfAbsent(key, k -> new ArrayList<>()).add(candidate);
+            }
+        }
+
+        Map<Study, Set<Long>> originals = new LinkedHashMap<>();
+        for(Map.Entry<Study, Set<Long>> entry : keys.entrySet()){
+            Study study = entry.getKey();
+            //Only unclassified studies are marked, a decision already taken by a researcher is kept
+            if(study.getSelectionStatus() == Status.UNCLASSIFIED && findOriginal(study, entry.getValue(), candidates) != null){
+                study.setSelectionStatus(Status.DUPLICATED);
+                continue;
+            }
+            originals.put(study, entry.getValue());
+            for(Long key : entry.getValue()){
+                candidates.computeIfAbsent(key, k -> new ArrayList<>()).add(study);
+            }
+        }
+        return originals;
+    }
+
+    private Study findOriginal(Study study, Set<Long> keys, Map<Long, List<Study>> candidates){
+        Set<Study> checked = Collections.newSetFromMap(new IdentityHashMap<>());
+        for(Long key : keys){
+            for(Study candidate : candidates.getOrDefault(key, Collections.emptyList())){
+                if(candidate != study && checked.add(candidate) && StudyFingerprints.isDuplicate(study, candidate)){
+                    return candidate;
+                }
+            }
+        }
+        return null;
+    }
+
+    private void index(Map<Study, Set<Long>> originals){
+        List<StudyFingerprint> fingerprints = new ArrayList<>();
+        for(Map.Entry<Study, Set<Long>> original : originals.entrySet()){
+            Search search = original.getKey().getSearch();
+            for(Long key : original.getValue()){
+                fingerprints.add(StudyFingerprint.builder().key(key).studyId(original.getKey().getId())
+                        .searchId(search.getId()).protocolId(search.getProtocolId()).build());
+            }
+        }
+        studyFingerprintRepository.saveAll(fingerprints);
+    }
+}
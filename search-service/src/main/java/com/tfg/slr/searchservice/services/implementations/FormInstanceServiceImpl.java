@@ -1,37 +1,77 @@
 package com.tfg.slr.searchservice.services.implementations;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.Lists;
+import com.tfg.slr.searchservice.dtos.BulkFormReportDTO;
 import com.tfg.slr.searchservice.dtos.FormFieldInstanceDTO;
 import com.tfg.slr.searchservice.dtos.FormInstanceDTO;
+import com.tfg.slr.searchservice.dtos.FormMigrationReportDTO;
+import com.tfg.slr.searchservice.dtos.StudyDTO;
 import com.tfg.slr.searchservice.exceptions.FormInstanceNotFoundException;
+import com.tfg.slr.searchservice.exceptions.ItemsNotFoundException;
 import com.tfg.slr.searchservice.exceptions.NullEntityException;
 import com.tfg.slr.searchservice.models.FormFieldInstance;
 import com.tfg.slr.searchservice.models.FormInstance;
+import com.tfg.slr.searchservice.models.FormStorage;
 import com.tfg.slr.searchservice.models.FormType;
+import com.tfg.slr.searchservice.models.Status;
 import com.tfg.slr.searchservice.models.Study;
 import com.tfg.slr.searchservice.repositories.FormFieldInstanceRepository;
 import com.tfg.slr.searchservice.repositories.FormInstanceRepository;
+import com.tfg.slr.searchservice.repositories.StudyRepository;
 import com.tfg.slr.searchservice.services.FormInstanceService;
+import com.tfg.slr.searchservice.services.ProtocolDataService;
+import com.tfg.slr.searchservice.services.SearchService;
 import com.tfg.slr.searchservice.services.StudyService;
+import com.tfg.slr.searchservice.utils.AnswerMatrix;
 import com.tfg.slr.searchservice.utils.MessageConstants;
-import lombok.AllArgsConstructor;
-
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.web.client.RestTemplate;
 
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
 
 @Service
 @Transactional
-@AllArgsConstructor
 public class FormInstanceServiceImpl implements FormInstanceService {
 
-    private FormInstanceRepository formInstanceRepository;
-    private StudyService studyService;
-    private FormFieldInstanceRepository formFieldInstanceRepository;
-    private RestTemplate restTemplate;
+    private final FormInstanceRepository formInstanceRepository;
+    private final StudyService studyService;
+    private final FormFieldInstanceRepository formFieldInstanceRepository;
+    private final ProtocolDataService protocolDataService;
+    private final StudyRepository studyRepository;
+    private final SearchService searchService;
+    //Storage used for new instances; existing ones keep theirs until migrated
+    private final FormStorage defaultStorage;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private static final int BATCH_SIZE = 500;
+    private static final TypeReference<LinkedHashMap<String, String>> ANSWERS = new TypeReference<>() {};
+
+    public FormInstanceServiceImpl(FormInstanceRepository formInstanceRepository, StudyService studyService,
+                                   FormFieldInstanceRepository formFieldInstanceRepository,
+                                   ProtocolDataService protocolDataService, StudyRepository studyRepository,
+                                   SearchService searchService,
+                                   @Value("${form-storage.default:ROWS}") FormStorage defaultStorage){
+        this.formInstanceRepository = formInstanceRepository;
+        this.studyService = studyService;
+        this.formFieldInstanceRepository = formFieldInstanceRepository;
+        this.protocolDataService = protocolDataService;
+        this.studyRepository = studyRepository;
+        this.searchService = searchService;
+        this.defaultStorage = defaultStorage == null ? FormStorage.ROWS : defaultStorage;
+    }
 
     public FormInstance findOne(Long id){
         if(id == null) throw new NullEntityException(MessageConstants.NULL_ENTITY_ID);
@@ -49,7 +89,9 @@ public class FormInstanceServiceImpl implements FormInstanceService {
         Study relatedStudy = studyService.findOne(studyId);
         Long protocolID = relatedStudy.getSearch().getProtocolId();
 
-        FormInstance formInstance = FormInstance.builder().formType(formType).build();
+        List<FormFieldInstanceDTO> DtoList= protocolDataService.getFormFields(protocolID, formType);
+        FormInstance formInstance = FormInstance.builder().formType(formType).storage(defaultStorage)
+                .formId(DtoList.isEmpty() ? null : DtoList.get(0).getFormId()).fields(new HashSet<>()).build();
 
         if(formType.equals(FormType.EXTRACTION)){
             relatedStudy.setExtractionFormInstance(formInstance);
@@ -57,27 +99,153 @@ public class FormInstanceServiceImpl implements FormInstanceService {
             relatedStudy.setQualityFormInstance(formInstance);
         }
 
-        FormInstance result = formInstanceRepository.save(formInstance);
-        List<FormFieldInstanceDTO> DtoList= restTemplate.getForObject("http://review-service:8002/api/review/protocol/"
-                +protocolID+"/get-form-data/"+formType, List.class);
+        FormInstance result;
+        if(defaultStorage == FormStorage.DOCUMENT){
+            //The answers column is not mapped, so the document is written once the row exists
+            result = formInstanceRepository.saveAndFlush(formInstance);
+            formInstanceRepository.writeAnswers(result.getId(), emptyDocument(fieldNames(DtoList)));
+        }else{
+            Set<FormFieldInstance> fields = new HashSet<>();
+            for(FormFieldInstanceDTO fieldInstanceDTO : DtoList){
+                FormFieldInstance fieldInstance = FormFieldInstance.builder().name(fieldInstanceDTO.getFieldName()).build();
+                fieldInstance.setFormInstance(formInstance);
+                fields.add(fieldInstance);
+            }
 
-        Set<FormFieldInstance> fields = new HashSet<>();
-        for(FormFieldInstanceDTO fieldInstanceDTO : DtoList){
-            FormFieldInstance fieldInstance = FormFieldInstance.builder().name(fieldInstanceDTO.getFieldName()).build();
-            fieldInstance.setFormInstance(formInstance);
-            formFieldInstanceRepository.save(fieldInstance);
-            fields.add(fieldInstance);
+            //Fields are persisted by cascade together with the instance
+            formInstance.setFields(fields);
+            result = formInstanceRepository.save(formInstance);
         }
 
-        result.setFields(fields);
-        formInstanceRepository.save(result);
-
         studyService.update(relatedStudy);
 
         return FormInstanceDTO.builder().id(result.getId()).formId(result.getFormId()).formType(result.getFormType()).build();
     }
 
 
+    public BulkFormReportDTO createForAccepted(FormType formType, Long searchId, Long protocolId){
+        if(formType == null || (searchId == null && protocolId == null)) throw new NullEntityException(MessageConstants.NULL_ENTITY_ID);
+        long start = System.currentTimeMillis();
+
+        Long relatedProtocol = protocolId != null ? protocolId : searchService.findOne(searchId).getProtocolId();
+        if(relatedProtocol == null) throw new IllegalArgumentException(MessageConstants.SEARCH_WITHOUT_PROTOCOL);
+
+        List<FormFieldInstanceDTO> definition = protocolDataService.getFormFields(relatedProtocol, formType);
+        if(definition.isEmpty()) throw new ItemsNotFoundException(MessageConstants.FORM_NOT_DEFINED);
+        Long formId = definition.get(0).getFormId();
+        List<String> fieldNames = fieldNames(definition);
+        String document = defaultStorage == FormStorage.DOCUMENT ? emptyDocument(fieldNames) : null;
+
+        List<Long> studyIds = formType.equals(FormType.EXTRACTION)
+                ? studyRepository.findIdsWithoutExtractionForm(searchId, protocolId, Status.ACCEPTED)
+                : studyRepository.findIdsWithoutQualityForm(searchId, protocolId, Status.ACCEPTED);
+
+        int created = 0;
+        for(List<Long> batch : Lists.partition(studyIds, BATCH_SIZE)){
+            created += formInstanceRepository.insertForStudies(formType, formId, batch, fieldNames, document);
+        }
+
+        return BulkFormReportDTO.builder().formType(formType).protocolId(relatedProtocol).formId(formId)
+                .pendingStudies(studyIds.size()).createdInstances(created).fieldsPerInstance(fieldNames.size())
+                .elapsedMillis(System.currentTimeMillis() - start).build();
+    }
+
+    @Transactional(readOnly = true)
+    public Map<String, String> getAnswers(Long formInstanceId){
+        FormInstance formInstance = findOne(formInstanceId);
+        Map<String, String> answers = new TreeMap<>();
+        if(formInstance.getStorage() == FormStorage.DOCUMENT){
+            formInstanceRepository.findAnswers(formInstanceId).ifPresent(json -> answers.putAll(readDocument(json)));
+        }else{
+            formInstance.getFields().forEach(field -> answers.put(field.getName(), field.getValue()));
+        }
+        return answers;
+    }
+
+    public Map<String, String> saveAnswers(Long formInstanceId, Map<String, String> answers){
+        if(answers == null) throw new NullEntityException(MessageConstants.NULL_ENTITY_ID);
+        FormInstance formInstance = findOne(formInstanceId);
+        Map<String, String> current = getAnswers(formInstanceId);
+        for(String name : answers.keySet()){
+            if(!current.containsKey(name)) throw new IllegalArgumentException(MessageConstants.UNKNOWN_FORM_FIELD + name);
+        }
+
+        if(formInstance.getStorage() == FormStorage.DOCUMENT){
+            formInstanceRepository.mergeAnswers(formInstanceId, writeDocument(answers));
+        }else{
+            //Managed entities, flushed by dirty checking at commit
+            formInstance.getFields().stream().filter(field -> answers.containsKey(field.getName()))
+                    .forEach(field -> field.setValue(answers.get(field.getName())));
+        }
+        current.putAll(answers);
+        return current;
+    }
+
+    @Transactional(readOnly = true)
+    public List<StudyDTO> findStudiesByAnswers(Long protocolId, FormType formType, Map<String, String> criteria){
+        if(protocolId == null || formType == null) throw new NullEntityException(MessageConstants.NULL_ENTITY_ID);
+        if(criteria == null || criteria.isEmpty()) throw new IllegalArgumentException(MessageConstants.EMPTY_FORM_FILTER);
+
+        List<Long> studyIds = formInstanceRepository.findStudyIdsByAnswers(protocolId, formType, criteria, writeDocument(criteria));
+        List<StudyDTO> result = new ArrayList<>(studyIds.size());
+        for(List<Long> batch : Lists.partition(studyIds, BATCH_SIZE)){
+            studyRepository.findWithSearchByIdIn(batch).forEach(study -> result.add(StudyDTO.buildFromEntity(study)));
+        }
+        result.sort(Comparator.comparing(StudyDTO::getId));
+        return result;
+    }
+
+    //Each batch is its own statement, so an interrupted migration resumes from the instances still stored as rows
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public FormMigrationReportDTO migrateToDocuments(){
+        long start = System.currentTimeMillis();
+        int scanned = 0, migrated = 0, batches = 0;
+        Long after = 0L;
+        List<Long> batch;
+        while(!(batch = formInstanceRepository.findRowInstanceIds(after, BATCH_SIZE)).isEmpty()){
+            migrated += formInstanceRepository.migrateToDocuments(batch);
+            scanned += batch.size();
+            batches++;
+            after = batch.get(batch.size() - 1);
+        }
+        return FormMigrationReportDTO.builder().scannedInstances(scanned).migratedInstances(migrated).batches(batches)
+                .elapsedMillis(System.currentTimeMillis() - start).build();
+    }
+
+    @Transactional(readOnly = true)
+    public long streamAnswerMatrix(Long protocolId, FormType formType, List<String> fieldNames, AnswerMatrix.RowConsumer consumer){
+        if(protocolId == null || formType == null) throw new NullEntityException(MessageConstants.NULL_ENTITY_ID);
+        AnswerMatrix matrix = new AnswerMatrix(fieldNames, consumer);
+        formInstanceRepository.forEachAnswer(protocolId, formType, matrix);
+        return matrix.finish();
+    }
+
+    private List<String> fieldNames(List<FormFieldInstanceDTO> definition){
+        return definition.stream().map(FormFieldInstanceDTO::getFieldName).distinct().collect(Collectors.toList());
+    }
+
+    private String emptyDocument(List<String> fieldNames){
+        Map<String, String> document = new LinkedHashMap<>();
+        fieldNames.forEach(name -> document.put(name, null));
+        return writeDocument(document);
+    }
+
+    private String writeDocument(Map<String, String> answers){
+        try{
+            return objectMapper.writeValueAsString(answers);
+        }catch (JsonProcessingException e){
+            throw new IllegalArgumentException(e.getMessage(), e);
+        }
+    }
+
+    private Map<String, String> readDocument(String json){
+        try{
+            return objectMapper.readValue(json, ANSWERS);
+        }catch (JsonProcessingException e){
+            throw new IllegalStateException(e.getMessage(), e);
+        }
+    }
+
     public FormInstanceDTO update(FormInstance formInstance) {
         return FormInstanceDTO.builder().build();
     }
@@ -87,9 +255,15 @@ public class FormInstanceServiceImpl implements FormInstanceService {
     }
 
     public void deleteFromProtocol(Long formId){
-        FormInstance formInstance = formInstanceRepository.findFormInstanceByFormId(formId)
-                .orElseThrow(() -> new FormInstanceNotFoundException(MessageConstants.FORM_INSTANCE_NOT_FOUND));
+        if(deleteAllOfForm(formId) == 0) throw new FormInstanceNotFoundException(MessageConstants.FORM_INSTANCE_NOT_FOUND);
+    }
 
-        formInstanceRepository.delete(formInstance);
+    //A form has one instance per study, so they are removed in bulk instead of one by one
+    public int deleteAllOfForm(Long formId){
+        if(formId == null) throw new NullEntityException(MessageConstants.NULL_ENTITY_ID);
+        formInstanceRepository.unlinkExtractionInstances(formId);
+        formInstanceRepository.unlinkQualityInstances(formId);
+        formInstanceRepository.deleteFieldsByFormId(formId);
+        return formInstanceRepository.deleteByFormId(formId);
     }
 }
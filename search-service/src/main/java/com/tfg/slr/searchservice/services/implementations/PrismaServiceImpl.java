@@ -0,0 +1,137 @@
+package com.tfg.slr.searchservice.services.implementations;
+
+import com.tfg.slr.searchservice.dtos.PrismaDTO;
+import com.tfg.slr.searchservice.exceptions.NullEntityException;
+import com.tfg.slr.searchservice.exceptions.SearchNotFoundException;
+import com.tfg.slr.searchservice.models.PrismaCounter;
+import com.tfg.slr.searchservice.models.Search;
+import com.tfg.slr.searchservice.models.Status;
+import com.tfg.slr.searchservice.models.Study;
+import com.tfg.slr.searchservice.repositories.PrismaCounterRepository;
+import com.tfg.slr.searchservice.repositories.SearchRepository;
+import com.tfg.slr.searchservice.repositories.StatusCountView;
+import com.tfg.slr.searchservice.repositories.StudyRepository;
+import com.tfg.slr.searchservice.services.PrismaService;
+import com.tfg.slr.searchservice.utils.MessageConstants;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.*;
+
+@Slf4j
+@Service
+@Transactional
+@AllArgsConstructor
+public class PrismaServiceImpl implements PrismaService {
+
+    private PrismaCounterRepository prismaCounterRepository;
+    private StudyRepository studyRepository;
+    private SearchRepository searchRepository;
+
+    public PrismaDTO getBySearch(Long searchId){
+        if(searchId == null) throw new NullEntityException(MessageConstants.NULL_ENTITY_ID);
+        Optional<PrismaCounter> counter = prismaCounterRepository.findById(searchId);
+        if(counter.isEmpty()){
+            prismaCounterRepository.createCounted(searchId);
+            counter = prismaCounterRepository.findById(searchId);
+            if(counter.isEmpty()) throw new SearchNotFoundException(MessageConstants.SEARCH_NOT_FOUND);
+        }
+        PrismaDTO result = PrismaDTO.buildFromCounters(Collections.singletonList(counter.get()));
+        result.setSearchId(searchId);
+        return result;
+    }
+
+    @Transactional(readOnly = true)
+    public PrismaDTO getByProtocol(Long protocolId){
+        if(protocolId == null) throw new NullEntityException(MessageConstants.NULL_ENTITY_ID);
+        PrismaDTO result = PrismaDTO.buildFromCounters(prismaCounterRepository.findByProtocolId(protocolId));
+        result.setProtocolId(protocolId);
+        return result;
+    }
+
+    public void initialize(Search search){
+        if(search == null || search.getId() == null) throw new NullEntityException(MessageConstants.NULL_ENTITY_ID);
+        prismaCounterRepository.save(PrismaCounter.builder().searchId(search.getId()).dataSourceId(search.getDataSourceId()).build());
+    }
+
+    public void studiesAdded(Collection<Study> studies){
+        Map<Long, EnumMap<Status, Long>> bySearch = new HashMap<>();
+        for(Study study : studies){
+            bySearch.computeIfAbsent(study.getSearch().getId(), id -> new EnumMap<>(Status.class))
+                    .merge(study.getSelectionStatus(), 1L, Long::sum);
+        }
+        bySearch.forEach((searchId, deltas) -> apply(searchId, deltas.values().stream().mapToLong(Long::longValue).sum(), deltas));
+    }
+
+    public void statusChanged(Long searchId, Status from, Status to, long count){
+        if(from == to || count == 0) return;
+        EnumMap<Status, Long> deltas = new EnumMap<>(Status.class);
+        deltas.put(from, -count);
+        deltas.merge(to, count, Long::sum);
+        apply(searchId, 0, deltas);
+    }
+
+    public void recount(Search search){
+        if(search == null) throw new NullEntityException(MessageConstants.NULL_ENTITY_ID);
+        recount(search.getProtocolId() != null
+                ? searchRepository.findIdsByProtocolId(search.getProtocolId())
+                : Collections.singletonList(search.getId()));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public int initializeMissing(){
+        List<Long> missing = prismaCounterRepository.findSearchIdsWithoutCounter();
+        if(!missing.isEmpty()){
+            recount(missing);
+            log.info("PRISMA counters created for {} searches", missing.size());
+        }
+        return missing.size();
+    }
+
+    private void apply(Long searchId, long identified, Map<Status, Long> deltas){
+        if(increment(searchId, identified, deltas) > 0) return;
+        //No counter yet: counting the study table already includes the change being applied
+        if(prismaCounterRepository.createCounted(searchId) > 0) return;
+        //Another transaction created it first, without this change
+        if(increment(searchId, identified, deltas) == 0) throw new SearchNotFoundException(MessageConstants.SEARCH_NOT_FOUND);
+    }
+
+    private int increment(Long searchId, long identified, Map<Status, Long> deltas){
+        return prismaCounterRepository.increment(searchId, identified,
+                deltas.getOrDefault(Status.DUPLICATED, 0L), deltas.getOrDefault(Status.UNCLASSIFIED, 0L),
+                deltas.getOrDefault(Status.ACCEPTED, 0L), deltas.getOrDefault(Status.REJECTED, 0L));
+    }
+
+    private void recount(List<Long> searchIds){
+        if(searchIds.isEmpty()) return;
+        Map<Long, PrismaCounter> counters = new HashMap<>();
+        for(Long searchId : searchIds){
+            PrismaCounter counter = prismaCounterRepository.findById(searchId).orElseGet(() -> PrismaCounter.builder().searchId(searchId)
+                    .dataSourceId(searchRepository.findById(searchId)
+                            .orElseThrow(() -> new SearchNotFoundException(MessageConstants.SEARCH_NOT_FOUND)).getDataSourceId())
+                    .build());
+            counter.setIdentified(0);
+            counter.setDuplicated(0);
+            counter.setUnclassified(0);
+            counter.setAccepted(0);
+            counter.setRejected(0);
+            counters.put(searchId, counter);
+        }
+        for(StatusCountView count : studyRepository.countBySearchAndStatus(searchIds)){
+            PrismaCounter counter = counters.get(count.getSearchId());
+            long total = count.getTotal();
+            counter.setIdentified(counter.getIdentified() + total);
+            switch (count.getStatus()){
+                case DUPLICATED: counter.setDuplicated(total); break;
+                case ACCEPTED: counter.setAccepted(total); break;
+                case REJECTED: counter.setRejected(total); break;
+                default: counter.setUnclassified(counter.getUnclassified() + total);
+            }
+        }
+        prismaCounterRepository.saveAll(counters.values());
+    }
+}
@@ -0,0 +1,105 @@
+package com.tfg.slr.searchservice.services.implementations;
+
+import com.tfg.slr.searchservice.dtos.CacheStatsDTO;
+import com.tfg.slr.searchservice.dtos.FormFieldInstanceDTO;
+import com.tfg.slr.searchservice.dtos.ProtocolTermsDTO;
+import com.tfg.slr.searchservice.dtos.SelectionCriteriaDTO;
+import com.tfg.slr.searchservice.exceptions.NullEntityException;
+import com.tfg.slr.searchservice.models.FormType;
+import com.tfg.slr.searchservice.services.ProtocolDataService;
+import com.tfg.slr.searchservice.utils.ExpiringCache;
+import com.tfg.slr.searchservice.utils.MessageConstants;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+@Service
+public class ProtocolDataServiceImpl implements ProtocolDataService {
+
+    private static final String REVIEW_SERVICE = "http://review-service:8002/api/review/protocol/";
+
+    private final RestTemplate restTemplate;
+    private final ExpiringCache<Long, List<SelectionCriteriaDTO>> criteriaCache;
+    private final ExpiringCache<String, List<FormFieldInstanceDTO>> formCache;
+    private final ExpiringCache<Long, ProtocolTermsDTO> termsCache;
+
+    public ProtocolDataServiceImpl(RestTemplate restTemplate, MeterRegistry meterRegistry,
+                                   @Value("${review-cache.max-size:1000}") int maxSize,
+                                   @Value("${review-cache.ttl-seconds:300}") long ttlSeconds){
+        this.restTemplate = restTemplate;
+        this.criteriaCache = new ExpiringCache<>("selectionCriteria", maxSize, ttlSeconds * 1000);
+        this.formCache = new ExpiringCache<>("formDefinitions", maxSize, ttlSeconds * 1000);
+        this.termsCache = new ExpiringCache<>("protocolTerms", maxSize, ttlSeconds * 1000);
+        registerMetrics(meterRegistry, criteriaCache);
+        registerMetrics(meterRegistry, formCache);
+        registerMetrics(meterRegistry, termsCache);
+    }
+
+    public List<SelectionCriteriaDTO> getSelectionCriteria(Long protocolId){
+        if(protocolId == null) throw new NullEntityException(MessageConstants.NULL_ENTITY_ID);
+        return criteriaCache.get(protocolId, id -> {
+            SelectionCriteriaDTO[] criteria = restTemplate.getForObject(REVIEW_SERVICE + id + "/get-selection-criteria",
+                    SelectionCriteriaDTO[].class);
+            return criteria == null ? Collections.emptyList() : Collections.unmodifiableList(Arrays.asList(criteria));
+        });
+    }
+
+    public List<FormFieldInstanceDTO> getFormFields(Long protocolId, FormType formType){
+        if(protocolId == null || formType == null) throw new NullEntityException(MessageConstants.NULL_ENTITY_ID);
+        return formCache.get(formKey(protocolId, formType), key -> {
+            FormFieldInstanceDTO[] fields = restTemplate.getForObject(REVIEW_SERVICE + protocolId + "/get-form-data/" + formType,
+                    FormFieldInstanceDTO[].class);
+            return fields == null ? Collections.emptyList() : Collections.unmodifiableList(Arrays.asList(fields));
+        });
+    }
+
+    public ProtocolTermsDTO getTerms(Long protocolId){
+        if(protocolId == null) throw new NullEntityException(MessageConstants.NULL_ENTITY_ID);
+        return termsCache.get(protocolId, id -> {
+            ProtocolTermsDTO terms = restTemplate.getForObject(REVIEW_SERVICE + id + "/get-terms", ProtocolTermsDTO.class);
+            return terms == null ? ProtocolTermsDTO.builder().protocolId(id).keywords(Collections.emptyList()).build() : terms;
+        });
+    }
+
+    public void invalidate(Long protocolId){
+        if(protocolId == null) throw new NullEntityException(MessageConstants.NULL_ENTITY_ID);
+        criteriaCache.invalidate(protocolId);
+        termsCache.invalidate(protocolId);
+        for(FormType formType : FormType.values()){
+            formCache.invalidate(formKey(protocolId, formType));
+        }
+    }
+
+    public void invalidateAll(){
+        criteriaCache.invalidateAll();
+        formCache.invalidateAll();
+        termsCache.invalidateAll();
+    }
+
+    public List<CacheStatsDTO> getStats(){
+        return Arrays.asList(CacheStatsDTO.buildFromCache(criteriaCache), CacheStatsDTO.buildFromCache(formCache),
+                CacheStatsDTO.buildFromCache(termsCache));
+    }
+
+    private String formKey(Long protocolId, FormType formType){
+        return protocolId + ":" + formType;
+    }
+
+    private void registerMetrics(MeterRegistry registry, ExpiringCache<?, ?> cache){
+        FunctionCounter.builder("review.cache.requests", cache, ExpiringCache::getHits).tag("cache", cache.getName())
+                .tag("result", "hit").register(registry);
+        FunctionCounter.builder("review.cache.requests", cache, ExpiringCache::getMisses).tag("cache", cache.getName())
+                .tag("result", "miss").register(registry);
+        FunctionCounter.builder("review.cache.loads", cache, ExpiringCache::getLoads).tag("cache", cache.getName()).register(registry);
+        FunctionCounter.builder("review.cache.load.failures", cache, ExpiringCache::getLoadFailures).tag("cache", cache.getName()).register(registry);
+        FunctionCounter.builder("review.cache.evictions", cache, ExpiringCache::getEvictions).tag("cache", cache.getName()).register(registry);
+        Gauge.builder("review.cache.size", cache, ExpiringCache::size).tag("cache", cache.getName()).register(registry);
+    }
+}
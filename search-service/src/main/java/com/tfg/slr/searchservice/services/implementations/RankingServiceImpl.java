@@ -0,0 +1,140 @@
+package com.tfg.slr.searchservice.services.implementations;
+
+import com.tfg.slr.searchservice.dtos.ProtocolTermsDTO;
+import com.tfg.slr.searchservice.dtos.RankedStudyDTO;
+import com.tfg.slr.searchservice.dtos.RankingDTO;
+import com.tfg.slr.searchservice.dtos.StudyDTO;
+import com.tfg.slr.searchservice.exceptions.NullEntityException;
+import com.tfg.slr.searchservice.models.Status;
+import com.tfg.slr.searchservice.models.Study;
+import com.tfg.slr.searchservice.repositories.RankingDocumentView;
+import com.tfg.slr.searchservice.repositories.StudyRepository;
+import com.tfg.slr.searchservice.repositories.StudyStatusView;
+import com.tfg.slr.searchservice.services.ProtocolDataService;
+import com.tfg.slr.searchservice.services.RankingService;
+import com.tfg.slr.searchservice.services.SearchService;
+import com.tfg.slr.searchservice.utils.ExpiringCache;
+import com.tfg.slr.searchservice.utils.MessageConstants;
+import com.tfg.slr.searchservice.utils.RelevanceIndex;
+import com.tfg.slr.searchservice.utils.TextAnalyzer;
+import com.tfg.slr.searchservice.utils.TransactionCallbacks;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+@Transactional
+public class RankingServiceImpl implements RankingService {
+
+    private static final int MAX_SIZE = 500;
+    //Rankings are checked against the database, studies classified by another instance are dropped and replaced
+    private static final int MAX_VERIFICATIONS = 3;
+
+    private static final float KEYWORD_WEIGHT = 2f;
+    private static final float PRINCIPAL_QUESTION_WEIGHT = 1f;
+    private static final float SECONDARY_QUESTION_WEIGHT = 0.5f;
+
+    private final StudyRepository studyRepository;
+    private final SearchService searchService;
+    private final ProtocolDataService protocolDataService;
+    private final ExpiringCache<Long, RelevanceIndex> indexes;
+
+    public RankingServiceImpl(StudyRepository studyRepository, SearchService searchService,
+                              ProtocolDataService protocolDataService,
+                              @Value("${ranking.max-protocols:20}") int maxProtocols,
+                              @Value("${ranking.ttl-seconds:3600}") long ttlSeconds){
+        this.studyRepository = studyRepository;
+        this.searchService = searchService;
+        this.protocolDataService = protocolDataService;
+        this.indexes = new ExpiringCache<>("relevanceIndex", maxProtocols, ttlSeconds * 1000);
+    }
+
+    @Transactional(readOnly = true)
+    public RankingDTO rank(Long protocolId, Long searchId, int size){
+        if(protocolId == null && searchId == null) throw new NullEntityException(MessageConstants.NULL_ENTITY_ID);
+        Long relatedProtocol = protocolId != null ? protocolId : searchService.findOne(searchId).getProtocolId();
+        if(relatedProtocol == null) throw new IllegalArgumentException(MessageConstants.SEARCH_WITHOUT_PROTOCOL);
+        int limit = Math.max(1, Math.min(size, MAX_SIZE));
+
+        Map<String, Float> query = buildQuery(protocolDataService.getTerms(relatedProtocol));
+        RelevanceIndex index = indexes.get(relatedProtocol, this::load);
+
+        List<RelevanceIndex.Hit> hits = index.top(query, searchId, limit);
+        for(int attempt = 0; attempt < MAX_VERIFICATIONS && !hits.isEmpty(); attempt++){
+            Set<Long> ids = hits.stream().map(RelevanceIndex.Hit::getStudyId).collect(Collectors.toSet());
+            Set<Long> open = studyRepository.findStatusesByIdIn(ids).stream()
+                    .filter(s -> s.getSelectionStatus() == Status.UNCLASSIFIED).map(StudyStatusView::getId)
+                    .collect(Collectors.toSet());
+            if(open.size() == ids.size()) break;
+            ids.removeAll(open);
+            index.setOpen(ids, false);
+            hits = index.top(query, searchId, limit);
+        }
+
+        Map<Long, Study> studies = hits.isEmpty() ? Collections.emptyMap() : studyRepository.findWithSearchByIdIn(
+                hits.stream().map(RelevanceIndex.Hit::getStudyId).collect(Collectors.toList())).stream()
+                .collect(Collectors.toMap(Study::getId, Function.identity()));
+        List<RankedStudyDTO> ranked = new ArrayList<>(hits.size());
+        for(RelevanceIndex.Hit hit : hits){
+            Study study = studies.get(hit.getStudyId());
+            if(study == null) continue;
+            ranked.add(RankedStudyDTO.builder().rank(ranked.size() + 1).relevance(hit.getScore())
+                    .study(StudyDTO.buildFromEntity(study)).build());
+        }
+        return RankingDTO.builder().protocolId(relatedProtocol).searchId(searchId).unclassified(index.openCount())
+                .terms(new ArrayList<>(query.keySet())).studies(ranked).build();
+    }
+
+    public void studiesAdded(Collection<Study> studies){
+        if(studies == null || studies.isEmpty()) return;
+        List<Study> added = new ArrayList<>(studies);
+        TransactionCallbacks.afterCommit(() -> {
+            for(Study study : added){
+                Long protocolId = study.getSearch().getProtocolId();
+                if(protocolId == null) continue;
+                RelevanceIndex index = indexes.peek(protocolId);
+                if(index != null){
+                    index.add(study.getId(), study.getSearch().getId(), study.getTitle(), study.getVenue(),
+                            study.getSelectionStatus() == Status.UNCLASSIFIED);
+                }else{
+                    //Discards an index that may be loading right now without these studies
+                    indexes.invalidate(protocolId);
+                }
+            }
+        });
+    }
+
+    public void statusChanged(Collection<Long> studyIds, Status status){
+        if(studyIds == null || studyIds.isEmpty()) return;
+        List<Long> changed = new ArrayList<>(studyIds);
+        TransactionCallbacks.afterCommit(() -> indexes.values().forEach(index -> index.setOpen(changed, status == Status.UNCLASSIFIED)));
+    }
+
+    public void invalidate(Long protocolId){
+        if(protocolId == null) return;
+        TransactionCallbacks.afterCommit(() -> indexes.invalidate(protocolId));
+    }
+
+    private RelevanceIndex load(Long protocolId){
+        RelevanceIndex index = new RelevanceIndex();
+        for(RankingDocumentView study : studyRepository.findRankingDocumentsByProtocolId(protocolId)){
+            index.add(study.getId(), study.getSearchId(), study.getTitle(), study.getVenue(),
+                    study.getSelectionStatus() == Status.UNCLASSIFIED);
+        }
+        return index;
+    }
+
+    private Map<String, Float> buildQuery(ProtocolTermsDTO terms){
+        Map<String, Float> query = new LinkedHashMap<>();
+        if(terms.getKeywords() != null){
+            terms.getKeywords().forEach(keyword -> TextAnalyzer.addTerms(query, keyword, KEYWORD_WEIGHT));
+        }
+        TextAnalyzer.addTerms(query, terms.getPrincipalQuestion(), PRINCIPAL_QUESTION_WEIGHT);
+        TextAnalyzer.addTerms(query, terms.getSecondaryQuestion(), SECONDARY_QUESTION_WEIGHT);
+        return query;
+    }
+}
@@ -0,0 +1,70 @@
+package com.tfg.slr.searchservice.services.implementations;
+
+import com.tfg.slr.searchservice.dtos.ReviewEventDTO;
+import com.tfg.slr.searchservice.exceptions.NullEntityException;
+import com.tfg.slr.searchservice.services.FormInstanceService;
+import com.tfg.slr.searchservice.services.ProtocolDataService;
+import com.tfg.slr.searchservice.services.RankingService;
+import com.tfg.slr.searchservice.services.ReviewEventService;
+import com.tfg.slr.searchservice.utils.MessageConstants;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+@Service
+@Transactional
+@AllArgsConstructor
+@Slf4j
+public class ReviewEventServiceImpl implements ReviewEventService {
+
+    private final ProtocolDataService protocolDataService;
+    private final FormInstanceService formInstanceService;
+    private final RankingService rankingService;
+
+    public int handle(List<ReviewEventDTO> events){
+        if(events == null) throw new NullEntityException(MessageConstants.NULL_ENTITY_ID);
+
+        //A batch usually has several events of the same protocol, so each one is invalidated once
+        Set<Long> changedProtocols = new LinkedHashSet<>();
+        Set<Long> deletedProtocols = new LinkedHashSet<>();
+        Set<Long> deletedForms = new LinkedHashSet<>();
+        int handled = 0;
+        for(ReviewEventDTO event : events){
+            if(event == null || event.getType() == null || event.getProtocolId() == null){
+                log.warn("Skipping review event {} without type or protocol", event == null ? null : event.getId());
+                continue;
+            }
+            switch (event.getType()){
+                case "PROTOCOL_CHANGED":
+                case "SELECTION_CRITERIA_CHANGED":
+                case "FORM_CHANGED":
+                    changedProtocols.add(event.getProtocolId());
+                    break;
+                case "PROTOCOL_DELETED":
+                    deletedProtocols.add(event.getProtocolId());
+                    break;
+                case "FORM_DELETED":
+                    changedProtocols.add(event.getProtocolId());
+                    if(event.getFormId() != null) deletedForms.add(event.getFormId());
+                    break;
+                default:
+                    log.warn("Skipping review event {} of unknown type {}", event.getId(), event.getType());
+                    continue;
+            }
+            handled++;
+        }
+
+        for(Long formId : deletedForms){
+            formInstanceService.deleteAllOfForm(formId);
+        }
+        changedProtocols.addAll(deletedProtocols);
+        changedProtocols.forEach(protocolDataService::invalidate);
+        deletedProtocols.forEach(rankingService::invalidate);
+        return handled;
+    }
+}
@@ -0,0 +1,159 @@
+package com.tfg.slr.searchservice.services.implementations;
+
+import com.tfg.slr.searchservice.dtos.ScreeningBatchDTO;
+import com.tfg.slr.searchservice.dtos.ScreeningQueueDTO;
+import com.tfg.slr.searchservice.dtos.StudyDTO;
+import com.tfg.slr.searchservice.exceptions.NullEntityException;
+import com.tfg.slr.searchservice.models.QueueOrder;
+import com.tfg.slr.searchservice.models.ScreeningLease;
+import com.tfg.slr.searchservice.models.Study;
+import com.tfg.slr.searchservice.repositories.LeaseCountView;
+import com.tfg.slr.searchservice.repositories.ScreeningLeaseRepository;
+import com.tfg.slr.searchservice.repositories.SearchRepository;
+import com.tfg.slr.searchservice.repositories.StudyRepository;
+import com.tfg.slr.searchservice.services.ScreeningQueueService;
+import com.tfg.slr.searchservice.utils.MessageConstants;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+@Transactional
+public class ScreeningQueueServiceImpl implements ScreeningQueueService {
+
+    private static final int MAX_BATCH_SIZE = 100;
+
+    private final ScreeningLeaseRepository screeningLeaseRepository;
+    private final StudyRepository studyRepository;
+    private final SearchRepository searchRepository;
+    private final Duration leaseDuration;
+
+    public ScreeningQueueServiceImpl(ScreeningLeaseRepository screeningLeaseRepository, StudyRepository studyRepository,
+                                     SearchRepository searchRepository,
+                                     @Value("${screening-queue.lease-minutes:30}") long leaseMinutes){
+        this.screeningLeaseRepository = screeningLeaseRepository;
+        this.studyRepository = studyRepository;
+        this.searchRepository = searchRepository;
+        this.leaseDuration = Duration.ofMinutes(leaseMinutes);
+    }
+
+    public ScreeningBatchDTO claim(Long researcherId, Long searchId, Long protocolId, int size, QueueOrder order){
+        if(researcherId == null) throw new NullEntityException(MessageConstants.NULL_ENTITY_ID);
+        List<Long> searchIds = scope(searchId, protocolId);
+        int batchSize = Math.max(1, Math.min(size, MAX_BATCH_SIZE));
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime expiresAt = now.plus(leaseDuration);
+
+        int claimed = 0;
+        int stolen = 0;
+        if(!searchIds.isEmpty()){
+            screeningLeaseRepository.renew(researcherId, searchIds, now, expiresAt);
+            int missing = batchSize - (int) screeningLeaseRepository.countActive(researcherId, searchIds, now);
+            if(missing > 0){
+                claimed = claimFree(researcherId, searchIds, order, missing, now, expiresAt);
+                missing -= claimed;
+            }
+            if(missing > 0){
+                stolen = steal(researcherId, searchIds, missing, now, expiresAt);
+            }
+        }
+
+        return ScreeningBatchDTO.builder().researcherId(researcherId).claimed(claimed).stolen(stolen).expiresAt(expiresAt)
+                .studies(searchIds.isEmpty() ? Collections.emptyList() : findLeasedStudies(researcherId, searchIds, now)).build();
+    }
+
+    public int renew(Long researcherId, Long searchId, Long protocolId){
+        if(researcherId == null) throw new NullEntityException(MessageConstants.NULL_ENTITY_ID);
+        List<Long> searchIds = scope(searchId, protocolId);
+        if(searchIds.isEmpty()) return 0;
+        LocalDateTime now = LocalDateTime.now();
+        return screeningLeaseRepository.renew(researcherId, searchIds, now, now.plus(leaseDuration));
+    }
+
+    public int release(Long researcherId, Long searchId, Long protocolId, Collection<Long> studyIds){
+        if(researcherId == null) throw new NullEntityException(MessageConstants.NULL_ENTITY_ID);
+        if(studyIds != null && !studyIds.isEmpty()){
+            return screeningLeaseRepository.release(researcherId, studyIds);
+        }
+        List<Long> searchIds = scope(searchId, protocolId);
+        return searchIds.isEmpty() ? 0 : screeningLeaseRepository.releaseAll(researcherId, searchIds);
+    }
+
+    @Transactional(readOnly = true)
+    public ScreeningQueueDTO getStatus(Long searchId, Long protocolId){
+        List<Long> searchIds = scope(searchId, protocolId);
+        Map<Long, Long> byResearcher = new LinkedHashMap<>();
+        if(!searchIds.isEmpty()){
+            screeningLeaseRepository.countActiveByResearcher(searchIds, LocalDateTime.now())
+                    .forEach(view -> byResearcher.put(view.getResearcherId(), view.getTotal()));
+        }
+        long leased = byResearcher.values().stream().mapToLong(Long::longValue).sum();
+        return ScreeningQueueDTO.builder().leased(leased).leasesByResearcher(byResearcher).build();
+    }
+
+    public void completed(Collection<Long> studyIds){
+        if(studyIds == null || studyIds.isEmpty()) return;
+        screeningLeaseRepository.deleteByStudyIds(studyIds);
+    }
+
+    private int claimFree(Long researcherId, List<Long> searchIds, QueueOrder order, int limit,
+                          LocalDateTime now, LocalDateTime expiresAt){
+        List<Long> ids;
+        switch (order == null ? QueueOrder.ID : order){
+            case SCORE:
+                ids = studyRepository.lockClaimableByScore(searchIds, now, limit);
+                break;
+            case PRIORITY:
+                ids = studyRepository.lockClaimableByPriority(searchIds, now, limit);
+                break;
+            default:
+                ids = studyRepository.lockClaimableById(searchIds, now, limit);
+        }
+        if(ids.isEmpty()) return 0;
+
+        //Only expired leases are replaced. A lease taken by a claimer whose snapshot was older than ours is still live,
+        //so it survives the delete and the insert skips its study
+        screeningLeaseRepository.deleteExpiredByStudyIds(ids, now);
+        return screeningLeaseRepository.insertIfFree(ids, researcherId, now, expiresAt);
+    }
+
+    //Takes work from the researcher holding the most leases, never more than half of their backlog
+    private int steal(Long researcherId, List<Long> searchIds, int limit, LocalDateTime now, LocalDateTime expiresAt){
+        Optional<LeaseCountView> busiest = screeningLeaseRepository.countActiveByResearcher(searchIds, now).stream()
+                .filter(view -> !view.getResearcherId().equals(researcherId))
+                .findFirst();
+        if(busiest.isEmpty() || busiest.get().getTotal() < 2) return 0;
+
+        Long holder = busiest.get().getResearcherId();
+        int wanted = (int) Math.min(limit, busiest.get().getTotal() / 2);
+        List<Long> candidates = screeningLeaseRepository.findNewestActiveIds(holder, searchIds, now, PageRequest.of(0, wanted));
+        if(candidates.isEmpty()) return 0;
+        //Studies the holder is deciding right now stay locked by their transaction and are skipped
+        List<Long> locked = studyRepository.lockUnclassified(candidates);
+        if(locked.isEmpty()) return 0;
+        return screeningLeaseRepository.reassign(locked, holder, researcherId, now, expiresAt);
+    }
+
+    private List<StudyDTO> findLeasedStudies(Long researcherId, List<Long> searchIds, LocalDateTime now){
+        List<Long> ids = screeningLeaseRepository.findActive(researcherId, searchIds, now).stream()
+                .map(ScreeningLease::getStudyId).collect(Collectors.toList());
+        if(ids.isEmpty()) return Collections.emptyList();
+        Map<Long, Study> studies = studyRepository.findWithSearchByIdIn(ids).stream()
+                .collect(Collectors.toMap(Study::getId, Function.identity()));
+        return ids.stream().map(studies::get).filter(Objects::nonNull).map(StudyDTO::buildFromEntity)
+                .collect(Collectors.toList());
+    }
+
+    private List<Long> scope(Long searchId, Long protocolId){
+        if(searchId != null) return Collections.singletonList(searchId);
+        if(protocolId == null) throw new NullEntityException(MessageConstants.NULL_ENTITY_ID);
+        return searchRepository.findIdsByProtocolId(protocolId);
+    }
+}
@@ -4,6 +4,7 @@ import com.tfg.slr.searchservice.dtos.SearchDTO;
 import com.tfg.slr.searchservice.exceptions.SearchNotFoundException;
 import com.tfg.slr.searchservice.models.Search;
 import com.tfg.slr.searchservice.repositories.SearchRepository;
+import com.tfg.slr.searchservice.services.PrismaService;
 import com.tfg.slr.searchservice.services.SearchService;
 import com.tfg.slr.searchservice.utils.MessageConstants;
 import com.tfg.slr.searchservice.utils.ReferenceGenerator;
@@ -21,6 +22,8 @@ import java.util.Optional;
 public class SearchServiceImpl implements SearchService {
 
     private SearchRepository searchRepository;
+    private PrismaService prismaService;
+    private ReferenceGenerator referenceGenerator;
 
     public Search findOne(Long id){
         return searchRepository.findSearchById(id).orElseThrow(()-> new SearchNotFoundException("Search doesn't exist"));
@@ -39,11 +42,7 @@ public class SearchServiceImpl implements SearchService {
         if(dto == null) throw new IllegalArgumentException("Search dto is null");
 
         Search search = SearchDTO.buildEntity(dto);
-        String ref = ReferenceGenerator.generateRef();
-        while(findByReference(ref).isPresent()){
-            ref = ReferenceGenerator.generateRef();
-        }
-        search.setSearchReference(ref);
+        search.setSearchReference(referenceGenerator.generateRef());
 
         Calendar calendar = Calendar.getInstance();
         calendar.add(Calendar.MILLISECOND, -10);
@@ -51,7 +50,9 @@ public class SearchServiceImpl implements SearchService {
 
         search.setDataSourceId(dataSourceId);
 
-        return searchRepository.save(search);
+        Search result = searchRepository.save(search);
+        prismaService.initialize(result);
+        return result;
     }
 
     public Search update (Search search){
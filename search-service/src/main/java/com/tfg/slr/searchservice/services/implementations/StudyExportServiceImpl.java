@@ -0,0 +1,104 @@
+package com.tfg.slr.searchservice.services.implementations;
+
+import com.tfg.slr.searchservice.dtos.FormFieldInstanceDTO;
+import com.tfg.slr.searchservice.exceptions.ItemsNotFoundException;
+import com.tfg.slr.searchservice.models.FormType;
+import com.tfg.slr.searchservice.models.Status;
+import com.tfg.slr.searchservice.services.FormInstanceService;
+import com.tfg.slr.searchservice.services.ProtocolDataService;
+import com.tfg.slr.searchservice.services.StudyExportService;
+import com.tfg.slr.searchservice.services.StudyService;
+import com.tfg.slr.searchservice.utils.CSVwriter;
+import com.tfg.slr.searchservice.utils.MessageConstants;
+import com.tfg.slr.searchservice.utils.StudyWriter;
+import lombok.AllArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+@Service
+@AllArgsConstructor
+public class StudyExportServiceImpl implements StudyExportService {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private StudyService studyService;
+    private List<StudyWriter> writers;
+    private FormInstanceService formInstanceService;
+    private ProtocolDataService protocolDataService;
+
+    public StudyWriter findWriter(String format){
+        if(format != null){
+            for(StudyWriter writer : writers){
+                if(writer.getFormat().equalsIgnoreCase(format.trim())) return writer;
+            }
+        }
+        throw new IllegalArgumentException(MessageConstants.UNSUPPORTED_EXPORT_FORMAT + getSupportedFormats());
+    }
+
+    public long export(StudyWriter writer, Long searchId, Long protocolId, Status status, OutputStream out) throws IOException {
+        Writer output = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+        AtomicLong count = new AtomicLong();
+        writer.writeHeader(output);
+        try{
+            studyService.streamAll(searchId, protocolId, status, study -> {
+                try{
+                    writer.write(output, study);
+                    count.incrementAndGet();
+                }catch (IOException e){
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }catch (UncheckedIOException e){
+            throw e.getCause();
+        }
+        output.flush();
+        return count.get();
+    }
+
+    public List<String> findMatrixColumns(Long protocolId, FormType formType){
+        List<String> columns = protocolDataService.getFormFields(protocolId, formType).stream()
+                .map(FormFieldInstanceDTO::getFieldName).distinct().collect(Collectors.toList());
+        if(columns.isEmpty()) throw new ItemsNotFoundException(MessageConstants.FORM_NOT_DEFINED);
+        return columns;
+    }
+
+    public long exportAnswerMatrix(Long protocolId, FormType formType, List<String> columns, OutputStream out) throws IOException {
+        Writer output = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+        Object[] row = new Object[3 + columns.size()];
+        row[0] = "ID";
+        row[1] = "Title";
+        row[2] = "DOI";
+        for(int i = 0; i < columns.size(); i++) row[3 + i] = columns.get(i);
+        CSVwriter.row(output, row);
+        long count;
+        try{
+            count = formInstanceService.streamAnswerMatrix(protocolId, formType, columns, (studyId, title, doi, values) -> {
+                row[0] = studyId;
+                row[1] = title;
+                row[2] = doi;
+                System.arraycopy(values, 0, row, 3, values.length);
+                try{
+                    CSVwriter.row(output, row);
+                }catch (IOException e){
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }catch (UncheckedIOException e){
+            throw e.getCause();
+        }
+        output.flush();
+        return count;
+    }
+
+    public List<String> getSupportedFormats(){
+        List<String> formats = new ArrayList<>();
+        writers.forEach(writer -> formats.add(writer.getFormat()));
+        return formats;
+    }
+}
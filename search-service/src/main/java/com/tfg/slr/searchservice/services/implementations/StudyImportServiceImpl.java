@@ -0,0 +1,138 @@
+package com.tfg.slr.searchservice.services.implementations;
+
+import com.tfg.slr.searchservice.dtos.ImportReportDTO;
+import com.tfg.slr.searchservice.exceptions.NullEntityException;
+import com.tfg.slr.searchservice.models.Search;
+import com.tfg.slr.searchservice.models.Status;
+import com.tfg.slr.searchservice.models.Study;
+import com.tfg.slr.searchservice.services.DeduplicationService;
+import com.tfg.slr.searchservice.services.SearchService;
+import com.tfg.slr.searchservice.services.StudyImportService;
+import com.tfg.slr.searchservice.utils.MessageConstants;
+import com.tfg.slr.searchservice.utils.ParsedEntry;
+import com.tfg.slr.searchservice.utils.StudyParser;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import java.io.IOException;
+import java.io.Reader;
+import java.time.Year;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Service
+@Transactional
+@AllArgsConstructor
+public class StudyImportServiceImpl implements StudyImportService {
+
+    //Must match spring.jpa.properties.hibernate.jdbc.batch_size
+    private static final int BATCH_SIZE = 50;
+
+    private DeduplicationService deduplicationService;
+    private SearchService searchService;
+    private EntityManager entityManager;
+    private Validator validator;
+    private List<StudyParser> parsers;
+
+    public ImportReportDTO importBibTeX(Long searchId, Reader reader) throws IOException {
+        return importStudies(searchId, "bibtex", null, reader);
+    }
+
+    public ImportReportDTO importStudies(Long searchId, String format, String fileName, Reader reader) throws IOException {
+        if(searchId == null || reader == null) throw new NullEntityException(MessageConstants.NULL_ENTITY_ID);
+        StudyParser parser = findParser(format, fileName);
+        Search search = searchService.findOne(searchId);
+
+        long start = System.currentTimeMillis();
+        ImportReportDTO report = ImportReportDTO.builder().searchId(searchId).format(parser.getFormat()).build();
+        List<Study> batch = new ArrayList<>(BATCH_SIZE);
+        parser.read(reader, entry -> accept(entry, search, batch, report));
+        flush(batch, report);
+        report.setElapsedMillis(System.currentTimeMillis() - start);
+
+        log.info("Imported {} of {} {} entries into search {} in {} ms", report.getImportedStudies(), report.getTotalEntries(),
+                report.getFormat(), searchId, report.getElapsedMillis());
+        return report;
+    }
+
+    public List<String> getSupportedFormats(){
+        List<String> formats = new ArrayList<>();
+        parsers.forEach(parser -> formats.add(parser.getFormat()));
+        return formats;
+    }
+
+    private StudyParser findParser(String format, String fileName){
+        if(format != null){
+            for(StudyParser parser : parsers){
+                if(parser.getFormat().equalsIgnoreCase(format.trim())) return parser;
+            }
+        }else if(fileName != null && fileName.contains(".")){
+            String extension = fileName.substring(fileName.lastIndexOf('.') + 1).toLowerCase(Locale.ROOT);
+            for(StudyParser parser : parsers){
+                if(parser.getExtensions().contains(extension)) return parser;
+            }
+        }
+        throw new IllegalArgumentException(MessageConstants.UNSUPPORTED_IMPORT_FORMAT + getSupportedFormats());
+    }
+
+    private void accept(ParsedEntry entry, Search search, List<Study> batch, ImportReportDTO report){
+        report.setTotalEntries(report.getTotalEntries() + 1);
+        if(entry.hasError()){
+            report.addError(entry.getIndex(), entry.getKey(), entry.getError());
+            return;
+        }
+
+        //Same defaults as StudyServiceImpl.createAndSave, without touching search.getStudies()
+        Study study = entry.getStudy();
+        study.setPriority(null);
+        study.setScore(0);
+        study.setSelectionStatus(Status.UNCLASSIFIED);
+        study.setExtractionStatus(Status.UNCLASSIFIED);
+        study.setSearch(search);
+
+        String error = validate(study);
+        if(error != null){
+            report.addError(entry.getIndex(), entry.getKey(), error);
+            return;
+        }
+
+        batch.add(study);
+        if(batch.size() >= BATCH_SIZE){
+            flush(batch, report);
+        }
+    }
+
+    private String validate(Study study){
+        Set<ConstraintViolation<Study>> violations = validator.validate(study);
+        if(!violations.isEmpty()){
+            return violations.stream().map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                    .sorted().collect(Collectors.joining("; "));
+        }
+        if(study.getYear() > Year.now().getValue()){
+            return "Studies can't come from the future!";
+        }
+        return null;
+    }
+
+    //Writes the pending studies and detaches them, so the persistence context never grows with the file
+    private void flush(List<Study> batch, ImportReportDTO report){
+        if(batch.isEmpty()) return;
+        deduplicationService.saveAndDeduplicate(batch);
+        report.setImportedStudies(report.getImportedStudies() + batch.size());
+        for(Study study : batch){
+            if(study.getSelectionStatus() == Status.DUPLICATED) report.setDuplicatedStudies(report.getDuplicatedStudies() + 1);
+        }
+        entityManager.flush();
+        entityManager.clear();
+        batch.clear();
+    }
+}
@@ -0,0 +1,95 @@
+package com.tfg.slr.searchservice.services.implementations;
+
+import com.tfg.slr.searchservice.dtos.StudyDTO;
+import com.tfg.slr.searchservice.dtos.StudyFacetsDTO;
+import com.tfg.slr.searchservice.dtos.StudyFilterDTO;
+import com.tfg.slr.searchservice.dtos.StudyQueryDTO;
+import com.tfg.slr.searchservice.exceptions.NullEntityException;
+import com.tfg.slr.searchservice.models.CriteriaOrdinal;
+import com.tfg.slr.searchservice.models.Study;
+import com.tfg.slr.searchservice.repositories.CriteriaOrdinalRepository;
+import com.tfg.slr.searchservice.repositories.StudyRepository;
+import com.tfg.slr.searchservice.repositories.StudySpecifications;
+import com.tfg.slr.searchservice.repositories.StudySpecifications.Dimension;
+import com.tfg.slr.searchservice.services.SearchService;
+import com.tfg.slr.searchservice.services.StudyQueryService;
+import com.tfg.slr.searchservice.utils.MessageConstants;
+import lombok.AllArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+@Service
+@Transactional
+@AllArgsConstructor
+public class StudyQueryServiceImpl implements StudyQueryService {
+
+    private StudyRepository studyRepository;
+    private CriteriaOrdinalRepository criteriaOrdinalRepository;
+    private SearchService searchService;
+
+    private static final int MAX_PAGE_SIZE = 500;
+    //Values per facet. Venues can have thousands of distinct values
+    private static final int MAX_FACET_VALUES = 50;
+
+    @Transactional(readOnly = true)
+    public StudyQueryDTO query(StudyFilterDTO filter){
+        if(filter == null || (filter.getSearchId() == null && filter.getProtocolId() == null))
+            throw new NullEntityException(MessageConstants.NULL_ENTITY_ID);
+        if(filter.getPage() < 0 || filter.getSize() < 1 || filter.getSize() > MAX_PAGE_SIZE)
+            throw new IllegalArgumentException(MessageConstants.INVALID_PAGE + MAX_PAGE_SIZE);
+        if(filter.getMinYear() != null && filter.getMaxYear() != null && filter.getMinYear() > filter.getMaxYear())
+            throw new IllegalArgumentException(MessageConstants.INVALID_YEAR_RANGE);
+
+        //Ordinals are only needed to filter or count by criteria
+        List<CriteriaOrdinal> ordinals = filter.getCriteriaId() != null || filter.isFacets()
+                ? criteriaOrdinals(filter) : Collections.emptyList();
+        Integer criteriaOrdinal = filter.getCriteriaId() == null ? null : ordinals.stream()
+                .filter(ordinal -> ordinal.getCriteriaId().equals(filter.getCriteriaId()))
+                .map(CriteriaOrdinal::getOrdinal).findFirst().orElse(-1);
+
+        Page<Study> page = studyRepository.findAll(StudySpecifications.of(filter, criteriaOrdinal, null),
+                PageRequest.of(filter.getPage(), filter.getSize(), Sort.by("id")));
+
+        return StudyQueryDTO.builder()
+                .studies(page.getContent().stream().map(StudyDTO::buildFromEntity).collect(Collectors.toList()))
+                .page(filter.getPage()).size(filter.getSize()).total(page.getTotalElements()).hasNext(page.hasNext())
+                .facets(filter.isFacets() ? facets(filter, criteriaOrdinal, ordinals) : null).build();
+    }
+
+    //One grouped query per dimension, each without the filter of its own dimension
+    private StudyFacetsDTO facets(StudyFilterDTO filter, Integer criteriaOrdinal, List<CriteriaOrdinal> ordinals){
+        StudyFacetsDTO facets = StudyFacetsDTO.builder()
+                .selectionStatus(count(filter, criteriaOrdinal, Dimension.SELECTION_STATUS))
+                .year(count(filter, criteriaOrdinal, Dimension.YEAR))
+                .type(count(filter, criteriaOrdinal, Dimension.TYPE))
+                .venue(count(filter, criteriaOrdinal, Dimension.VENUE))
+                .dataSource(count(filter, criteriaOrdinal, Dimension.DATA_SOURCE)).build();
+
+        long[] counts = studyRepository.countByCriteria(StudySpecifications.of(filter, criteriaOrdinal, Dimension.CRITERIA),
+                ordinals.stream().map(CriteriaOrdinal::getOrdinal).collect(Collectors.toList()));
+        for(int i = 0; i < counts.length; i++){
+            if(counts[i] > 0) facets.getCriteria().put(ordinals.get(i).getCriteriaId(), counts[i]);
+        }
+        return facets;
+    }
+
+    private Map<String, Long> count(StudyFilterDTO filter, Integer criteriaOrdinal, Dimension dimension){
+        return studyRepository.countBy(StudySpecifications.of(filter, criteriaOrdinal, dimension), dimension, MAX_FACET_VALUES)
+                .entrySet().stream().collect(Collectors.toMap(entry -> entry.getKey().toString(), Map.Entry::getValue,
+                        (a, b) -> a + b, LinkedHashMap::new));
+    }
+
+    private List<CriteriaOrdinal> criteriaOrdinals(StudyFilterDTO filter){
+        Long protocolId = filter.getProtocolId() != null ? filter.getProtocolId() : searchService.findOne(filter.getSearchId()).getProtocolId();
+        return protocolId == null ? Collections.emptyList() : criteriaOrdinalRepository.findByProtocolIdOrderByOrdinalAsc(protocolId);
+    }
+}
@@ -1,28 +1,44 @@
 package com.tfg.slr.searchservice.services.implementations;
 
 import com.google.common.collect.Lists;
+import com.tfg.slr.searchservice.dtos.ScreeningDecisionDTO;
 import com.tfg.slr.searchservice.dtos.SearchDTO;
 import com.tfg.slr.searchservice.dtos.SelectionCriteriaDTO;
 import com.tfg.slr.searchservice.dtos.StudyDTO;
+import com.tfg.slr.searchservice.dtos.StudyPageDTO;
+import com.tfg.slr.searchservice.dtos.StudyStatusDTO;
 import com.tfg.slr.searchservice.exceptions.NullEntityException;
 import com.tfg.slr.searchservice.exceptions.StudyNotFoundException;
 import com.tfg.slr.searchservice.models.Search;
 import com.tfg.slr.searchservice.models.Status;
 import com.tfg.slr.searchservice.models.Study;
 import com.tfg.slr.searchservice.repositories.StudyRepository;
+import com.tfg.slr.searchservice.repositories.StudyStatusView;
+import com.tfg.slr.searchservice.services.AppliedCriteriaService;
+import com.tfg.slr.searchservice.services.DeduplicationService;
+import com.tfg.slr.searchservice.services.PrismaService;
+import com.tfg.slr.searchservice.services.ProtocolDataService;
+import com.tfg.slr.searchservice.services.RankingService;
+import com.tfg.slr.searchservice.services.ScreeningQueueService;
 import com.tfg.slr.searchservice.services.SearchService;
 import com.tfg.slr.searchservice.services.StudyService;
 import com.tfg.slr.searchservice.utils.MessageConstants;
+import com.tfg.slr.searchservice.utils.StudyFingerprints;
 import lombok.AllArgsConstructor;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.client.RestTemplate;
 
+import javax.persistence.EntityManager;
 import javax.sql.DataSource;
 import java.time.Year;
-import java.util.List;
-import java.util.Set;
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @Transactional
@@ -32,11 +48,61 @@ public class StudyServiceImpl implements StudyService {
     private StudyRepository studyRepository;
     private SearchService searchService;
     private RestTemplate restTemplate;
+    private DeduplicationService deduplicationService;
+    private EntityManager entityManager;
+    private ProtocolDataService protocolDataService;
+    private PrismaService prismaService;
+    private AppliedCriteriaService appliedCriteriaService;
+    private ScreeningQueueService screeningQueueService;
+    private RankingService rankingService;
+
+    private static final int MAX_PAGE_SIZE = 500;
+    private static final Set<Status> DECISIONS = EnumSet.of(Status.ACCEPTED, Status.REJECTED, Status.DUPLICATED);
+    private static final Pattern DOI = Pattern.compile("^(https?://(dx\\.)?doi\\.org/)?10\\.\\d{4,9}/\\S+$", Pattern.CASE_INSENSITIVE);
 
     public List<Study> findAll(){
         return studyRepository.findAll();
     }
 
+    @Transactional(readOnly = true)
+    public StudyPageDTO findPage(Long searchId, Long protocolId, Status status, Long afterId, int size){
+        if(size < 1 || size > MAX_PAGE_SIZE) throw new IllegalArgumentException(MessageConstants.INVALID_PAGE + MAX_PAGE_SIZE);
+
+        //One extra row tells whether there is a next page without a count query
+        List<Study> studies = studyRepository.findPageAfter(searchId, protocolId, status, afterId == null ? 0L : afterId,
+                PageRequest.of(0, size + 1));
+        boolean hasNext = studies.size() > size;
+        if(hasNext) studies = studies.subList(0, size);
+
+        return StudyPageDTO.builder()
+                .studies(studies.stream().map(StudyDTO::buildFromEntity).collect(Collectors.toList()))
+                .nextCursor(hasNext ? studies.get(studies.size() - 1).getId() : null)
+                .hasNext(hasNext).build();
+    }
+
+    @Transactional(readOnly = true)
+    public void streamAll(Long searchId, Long protocolId, Status status, Consumer<StudyDTO> consumer){
+        try(Stream<Study> studies = studyRepository.streamFiltered(searchId, protocolId, status)){
+            studies.forEach(study -> {
+                consumer.accept(StudyDTO.buildFromEntity(study));
+                entityManager.detach(study);
+            });
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public List<StudyDTO> searchText(String query, Long searchId, Long protocolId, int page, int size){
+        if(query == null || query.isBlank()) throw new IllegalArgumentException(MessageConstants.EMPTY_SEARCH_QUERY);
+        if(searchId == null && protocolId == null) throw new NullEntityException(MessageConstants.NULL_ENTITY_ID);
+        if(page < 0 || size < 1 || size > MAX_PAGE_SIZE) throw new IllegalArgumentException(MessageConstants.INVALID_PAGE + MAX_PAGE_SIZE);
+
+        String trimmed = query.trim();
+        List<Study> studies = DOI.matcher(trimmed).matches()
+                ? studyRepository.findByDoiIgnoreCase(StudyFingerprints.normalizeDOI(trimmed), searchId, protocolId)
+                : studyRepository.searchText(trimmed, searchId, protocolId, size, page * size);
+        return studies.stream().map(StudyDTO::buildFromEntity).collect(Collectors.toList());
+    }
+
     public Study findOne(Long id){
         return studyRepository.findStudyById(id).orElseThrow(()-> new StudyNotFoundException(MessageConstants.STUDY_NOT_FOUND));
     }
@@ -55,7 +121,7 @@ public class StudyServiceImpl implements StudyService {
         result.setExtractionStatus(Status.UNCLASSIFIED);
         result.setSearch(search);
 
-        Study response  = studyRepository.save(result);
+        Study response  = deduplicationService.saveAndDeduplicate(Collections.singletonList(result)).get(0);
         search.getStudies().add(response);
         searchService.update(search);
         return response;
@@ -74,48 +140,112 @@ public class StudyServiceImpl implements StudyService {
         Study study = this.findOne(studyId);
         Search search = study.getSearch();
 
-        return restTemplate.getForObject("http://review-service:8002/api/review/protocol/"+search.getProtocolId()+"/get-selection-criteria", List.class);
+        return protocolDataService.getSelectionCriteria(search.getProtocolId());
     }
 
     public List<SelectionCriteriaDTO> getAppliedSelectionCriteria(Long studyId){
         Study study = this.findOne(studyId);
-        List<Long> appliedCriteriaIds = Lists.newArrayList(study.getAppliedCriteriaIds());
+        List<Long> appliedCriteriaIds = Lists.newArrayList(appliedCriteriaService.getApplied(study));
 
         return restTemplate.getForObject("http://review-service:8002/api/selection-criteria/get-applied-criteria", List.class, appliedCriteriaIds);
     }
 
     public void applySelectionCriteria (Long studyId, Set<Long> criteriaApplied){
         Study study = this.findOne(studyId);
-        Set<Long> currentCriteriaList = study.getAppliedCriteriaIds();
-        currentCriteriaList.addAll(criteriaApplied);
-        study.setAppliedCriteriaIds(currentCriteriaList);
+        appliedCriteriaService.apply(Collections.singletonList(study), Collections.singletonMap(studyId, criteriaApplied));
     }
 
     public void removeSelectionCriteria (Long studyId, Long criteriaId){
         Study study = this.findOne(studyId);
-        Set<Long> currentCriteriaList = study.getAppliedCriteriaIds();
-        currentCriteriaList.remove(criteriaId);
-        study.setAppliedCriteriaIds(currentCriteriaList);
+        appliedCriteriaService.remove(study, Collections.singletonList(criteriaId));
     }
 
     public StudyDTO acceptStudy(Long studyId){
-        Study study = this.findOne(studyId);
-        study.setSelectionStatus(Status.ACCEPTED);
-        return StudyDTO.buildFromEntity(studyRepository.save(study));
+        return changeStatus(studyId, Status.ACCEPTED);
     }
 
     public StudyDTO rejectStudy(Long studyId){
-        Study study = this.findOne(studyId);
-        study.setSelectionStatus(Status.REJECTED);
-        studyRepository.save(study);
-        return StudyDTO.buildFromEntity(studyRepository.save(study));
+        return changeStatus(studyId, Status.REJECTED);
     }
 
     public StudyDTO markAsDuplicated(Long studyId){
-        Study study = this.findOne(studyId);
-        study.setSelectionStatus(Status.DUPLICATED);
-        studyRepository.save(study);
-        return StudyDTO.buildFromEntity(studyRepository.save(study));
+        return changeStatus(studyId, Status.DUPLICATED);
+    }
+
+    public List<StudyStatusDTO> applyDecisions(List<ScreeningDecisionDTO> decisions){
+        if(decisions == null || decisions.isEmpty()) throw new NullEntityException(MessageConstants.NULL_ENTITY_ID);
+
+        //The last decision for a study wins
+        Map<Long, ScreeningDecisionDTO> byStudy = new LinkedHashMap<>();
+        Map<Status, Set<Long>> byStatus = new EnumMap<>(Status.class);
+        Map<Long, Status> targets = new HashMap<>();
+        //Every decision is validated before anything changes, including the ones overridden later
+        for(ScreeningDecisionDTO decision : decisions){
+            if(decision == null || decision.getStudyId() == null) throw new NullEntityException(MessageConstants.NULL_ENTITY_ID);
+            byStudy.put(decision.getStudyId(), decision);
+            targets.put(decision.getStudyId(), parseDecision(decision.getDecision()));
+        }
+        targets.forEach((studyId, status) -> byStatus.computeIfAbsent(status, s -> new HashSet<>()).add(studyId));
+
+        //Concurrent decisions on the same studies wait here, so each transition is counted once
+        studyRepository.lockByIdIn(byStudy.keySet());
+
+        //Criteria go first: the bulk updates below clear the persistence context
+        Map<Long, Set<Long>> withCriteria = new HashMap<>();
+        byStudy.values().forEach(d -> {
+            if(d.getAppliedCriteriaIds() != null && !d.getAppliedCriteriaIds().isEmpty()) withCriteria.put(d.getStudyId(), d.getAppliedCriteriaIds());
+        });
+        if(!withCriteria.isEmpty()){
+            appliedCriteriaService.apply(studyRepository.findWithSearchByIdIn(withCriteria.keySet()), withCriteria);
+        }
+
+        List<StudyStatusView> previous = studyRepository.findStatusesByIdIn(byStudy.keySet());
+        int updated = 0;
+        for(Map.Entry<Status, Set<Long>> entry : byStatus.entrySet()){
+            updated += studyRepository.updateSelectionStatus(entry.getValue(), entry.getKey());
+        }
+        if(updated != byStudy.size()){
+            throw new StudyNotFoundException(MessageConstants.STUDY_NOT_FOUND);
+        }
+
+        //One counter update per search and transition
+        Map<Long, Map<Status, Map<Status, Long>>> transitions = new HashMap<>();
+        for(StudyStatusView study : previous){
+            transitions.computeIfAbsent(study.getSearchId(), id -> new EnumMap<>(Status.class))
+                    .computeIfAbsent(study.getSelectionStatus(), from -> new EnumMap<>(Status.class))
+                    .merge(targets.get(study.getId()), 1L, Long::sum);
+        }
+        transitions.forEach((searchId, byFrom) -> byFrom.forEach((from, byTo) ->
+                byTo.forEach((to, count) -> prismaService.statusChanged(searchId, from, to, count))));
+        screeningQueueService.completed(byStudy.keySet());
+        byStatus.forEach((status, ids) -> rankingService.statusChanged(ids, status));
+
+        List<StudyStatusDTO> result = new ArrayList<>();
+        byStatus.forEach((status, ids) -> ids.forEach(id -> result.add(new StudyStatusDTO(id, status.toString()))));
+        result.sort(Comparator.comparing(StudyStatusDTO::getStudyId));
+        return result;
     }
 
+    //A decision classifies the study: going back to UNCLASSIFIED would end its lease and undo the PRISMA counters
+    private Status parseDecision(String decision){
+        if(decision != null){
+            String value = decision.trim().toUpperCase(Locale.ROOT);
+            for(Status status : DECISIONS){
+                if(status.name().equals(value)) return status;
+            }
+        }
+        throw new IllegalArgumentException(MessageConstants.INVALID_DECISION);
+    }
+
+    private StudyDTO changeStatus(Long studyId, Status status){
+        studyRepository.lockByIdIn(Collections.singletonList(studyId));
+        Study study = this.findOne(studyId);
+        Status previous = study.getSelectionStatus();
+        study.setSelectionStatus(status);
+        Study result = studyRepository.save(study);
+        prismaService.statusChanged(study.getSearch().getId(), previous, status, 1);
+        screeningQueueService.completed(Collections.singletonList(studyId));
+        rankingService.statusChanged(Collections.singletonList(studyId), status);
+        return StudyDTO.buildFromEntity(result);
+    }
 }
@@ -0,0 +1,97 @@
+package com.tfg.slr.searchservice.utils;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.tfg.slr.searchservice.repositories.FormAnswersRepository;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Pivots the answer records of {@link FormAnswersRepository#forEachAnswer} into one row per study with a column per
+ * field. Records must arrive grouped by study; only the current row is kept in memory. Answers to fields that are no
+ * longer in the form definition are dropped.
+ */
+public class AnswerMatrix implements FormAnswersRepository.AnswerConsumer {
+
+    private static final JsonFactory JSON = new JsonFactory();
+
+    private final Map<String, Integer> columns = new HashMap<>();
+    private final RowConsumer consumer;
+
+    private long studyId = -1;
+    private String title;
+    private String doi;
+    private String[] values;
+    private long rows;
+
+    public AnswerMatrix(List<String> fieldNames, RowConsumer consumer) {
+        for(int i = 0; i < fieldNames.size(); i++) columns.putIfAbsent(fieldNames.get(i), i);
+        this.values = new String[fieldNames.size()];
+        this.consumer = consumer;
+    }
+
+    public void accept(long studyId, String title, String doi, String answers, String fieldName, String value){
+        if(studyId != this.studyId){
+            flush();
+            this.studyId = studyId;
+            this.title = title;
+            this.doi = doi;
+        }
+        if(answers != null) readDocument(answers);
+        if(fieldName != null) set(fieldName, value);
+    }
+
+    /**
+     * Emits the last row. Must be called once the records are exhausted.
+     * @return the number of emitted rows
+     */
+    public long finish(){
+        flush();
+        studyId = -1;
+        return rows;
+    }
+
+    private void flush(){
+        if(studyId < 0) return;
+        consumer.accept(studyId, title, doi, values);
+        Arrays.fill(values, null);
+        rows++;
+    }
+
+    private void set(String fieldName, String value){
+        Integer column = columns.get(fieldName);
+        if(column != null) values[column] = value;
+    }
+
+    //Streaming parser: documents are flat objects and no intermediate map is built
+    private void readDocument(String answers){
+        try(JsonParser parser = JSON.createParser(answers)){
+            if(parser.nextToken() != JsonToken.START_OBJECT) return;
+            while(parser.nextToken() == JsonToken.FIELD_NAME){
+                String fieldName = parser.getCurrentName();
+                JsonToken token = parser.nextToken();
+                if(token.isStructStart()){
+                    parser.skipChildren();
+                }else{
+                    set(fieldName, token == JsonToken.VALUE_NULL ? null : parser.getText());
+                }
+            }
+        }catch (IOException e){
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @FunctionalInterface
+    public interface RowConsumer {
+        /**
+         * @param values answers in the column order of the field names, reused between rows
+         */
+        void accept(long studyId, String title, String doi, String[] values);
+    }
+}
@@ -1,46 +1,182 @@
 package com.tfg.slr.searchservice.utils;
 
-import com.tfg.slr.searchservice.models.Status;
 import com.tfg.slr.searchservice.models.Study;
 import org.jbibtex.*;
+import org.springframework.stereotype.Component;
 
-import java.io.FileNotFoundException;
-import java.io.FileReader;
-import java.io.Reader;
+import java.io.*;
 import java.util.ArrayList;
-import java.util.Collection;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Map;
+import java.util.Locale;
+import java.util.function.Consumer;
 
-public class BibTeXparser {
+@Component
+public class BibTeXparser implements StudyParser {
 
-    public static void parser(String location) throws ParseException, FileNotFoundException {
-        Reader inputReader = new FileReader(location);
+    private static final Key KEY_TYPE = new Key("type");
+    private static final Key KEY_LANGUAGE = new Key("language");
 
-        BibTeXParser parser = new BibTeXParser();
-        CharacterFilterReader filterReader = new CharacterFilterReader(inputReader);
-        BibTeXDatabase database = parser.parseFully(filterReader);
+    public String getFormat(){
+        return "bibtex";
+    }
+
+    public List<String> getExtensions(){
+        return Arrays.asList("bib", "bibtex");
+    }
 
-        Map<Key,BibTeXEntry> bibTeXEntryMap = database.getEntries();
+    public void read(Reader reader, Consumer<ParsedEntry> consumer) throws IOException {
+        try{
+            parse(reader, consumer);
+        }catch (ParseException e){
+            throw new IOException(e);
+        }
+    }
 
-        Collection<BibTeXEntry> entries = bibTeXEntryMap.values();
+    public static List<Study> parser(String location) throws IOException, ParseException {
         List<Study> studies = new ArrayList<>();
+        try(Reader inputReader = new FileReader(location)){
+            parse(inputReader, entry -> {
+                if(!entry.hasError()) studies.add(entry.getStudy());
+            });
+        }
+        return studies;
+    }
 
-        for(BibTeXEntry entry : entries) {
-            Study study = new Study();
-            study.setTitle(entry.getField(BibTeXEntry.KEY_TITLE).toUserString());
-            study.setAuthor(entry.getField(BibTeXEntry.KEY_AUTHOR).toUserString());
-            study.setYear(Integer.parseInt(entry.getField(BibTeXEntry.KEY_YEAR).toUserString()));
-            //study.setVenue(entry.getField(BibTeXEntry.KEY));
-            study.setSourceURL(entry.getField(BibTeXEntry.KEY_URL).toUserString());
-            //study.setPriority
-            study.setSelectionStatus(Status.UNCLASSIFIED);
-            study.setExtractionStatus(Status.UNCLASSIFIED);
-            //study.score
-            study.setDOI(entry.getField(BibTeXEntry.KEY_DOI).toUserString());
-            studies.add(study);
-        }
-
-        System.out.println(studies);
+    /**
+     * Reads a BibTeX file entry by entry, so only the entry being parsed is kept in memory.
+     * Every entry is handed to the consumer as soon as it is closed, either mapped to a Study
+     * or with the error that prevented it. A malformed entry does not stop the rest of the file.
+     *
+     * @param reader the BibTeX content
+     * @param consumer receives one ParsedEntry per bibliographic entry, in file order
+     */
+    public static void parse(Reader reader, Consumer<ParsedEntry> consumer) throws IOException, ParseException {
+        BibTeXParser parser = new BibTeXParser();
+        BufferedReader in = new BufferedReader(new CharacterFilterReader(reader));
+        StringBuilder chunk = new StringBuilder();
+        int index = 0;
+        int depth = 0;
+        char open = 0;
+        char close = 0;
+        char previous = '\n';
+        boolean inEntry = false;
+        int c;
+
+        while((c = in.read()) != -1){
+            char ch = (char) c;
+            if(ch == '@' && previous == '\n' && inEntry){
+                //A new entry starts at the beginning of a line before the current one was closed
+                index++;
+                consumer.accept(ParsedEntry.failed(index, extractKey(chunk), "Entrada sin cerrar"));
+                inEntry = false;
+            }
+            previous = ch;
+            if(!inEntry){
+                if(ch == '@'){
+                    inEntry = true;
+                    open = 0;
+                    depth = 0;
+                    chunk.setLength(0);
+                    chunk.append(ch);
+                }
+                continue;
+            }
+            chunk.append(ch);
+            if(open == 0){
+                if(ch == '{' || ch == '('){
+                    open = ch;
+                    close = ch == '{' ? '}' : ')';
+                    depth = 1;
+                }
+                continue;
+            }
+            if(ch == open){
+                depth++;
+            }else if(ch == close && --depth == 0){
+                inEntry = false;
+                index = handleChunk(parser, chunk.toString(), index, consumer);
+            }
+        }
+        if(inEntry){
+            consumer.accept(ParsedEntry.failed(index + 1, extractKey(chunk), "Entrada sin cerrar"));
+        }
+    }
+
+    private static int handleChunk(BibTeXParser parser, String chunk, int index, Consumer<ParsedEntry> consumer){
+        String entryType = extractType(chunk);
+        if(entryType.equals("comment") || entryType.equals("preamble")){
+            return index;
+        }
+        if(entryType.equals("string")){
+            try{
+                parser.parse(new StringReader(chunk)).getStrings().values().forEach(parser::addMacro);
+            }catch (Exception ignored){
+                //An unreadable macro only affects the entries that use it, which will report their own error
+            }
+            return index;
+        }
+
+        index++;
+        String key = extractKey(chunk);
+        //Only the mapping is guarded: a failure of the consumer is not a malformed entry
+        List<ParsedEntry> parsed = new ArrayList<>();
+        try{
+            BibTeXDatabase database = parser.parse(new StringReader(chunk));
+            if(database.getEntries().isEmpty()){
+                parsed.add(ParsedEntry.failed(index, key, "Entrada vacía o no reconocida"));
+            }else{
+                for(BibTeXEntry entry : database.getEntries().values()){
+                    parsed.add(ParsedEntry.of(index, entry.getKey().getValue(), buildStudy(entry)));
+                }
+            }
+        }catch (Exception e){
+            parsed.clear();
+            parsed.add(ParsedEntry.failed(index, key, e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName()));
+        }
+        parsed.forEach(consumer);
+        return index;
+    }
+
+    private static Study buildStudy(BibTeXEntry entry){
+        String type = field(entry, KEY_TYPE);
+        String venue = field(entry, BibTeXEntry.KEY_JOURNAL);
+        if(venue == null) venue = field(entry, BibTeXEntry.KEY_BOOKTITLE);
+        if(venue == null) venue = field(entry, BibTeXEntry.KEY_PUBLISHER);
+
+        Study study = StudyParserUtils.buildStudy(field(entry, BibTeXEntry.KEY_TITLE), field(entry, BibTeXEntry.KEY_AUTHOR),
+                StudyParserUtils.parseYear(field(entry, BibTeXEntry.KEY_YEAR)),
+                type != null ? type : entry.getType().getValue().toLowerCase(Locale.ROOT),
+                venue, field(entry, BibTeXEntry.KEY_DOI), field(entry, BibTeXEntry.KEY_URL));
+        study.setLanguage(field(entry, KEY_LANGUAGE));
+        return study;
+    }
+
+    private static String field(BibTeXEntry entry, Key key){
+        Value value = entry.getField(key);
+        return value == null ? null : StudyParserUtils.clean(value.toUserString());
+    }
+
+    private static String extractType(CharSequence chunk){
+        StringBuilder type = new StringBuilder();
+        for(int i = 1; i < chunk.length(); i++){
+            char ch = chunk.charAt(i);
+            if(ch == '{' || ch == '(') break;
+            type.append(ch);
+        }
+        return type.toString().trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static String extractKey(CharSequence chunk){
+        int start = -1;
+        for(int i = 0; i < chunk.length(); i++){
+            char ch = chunk.charAt(i);
+            if(start < 0 && (ch == '{' || ch == '(')){
+                start = i + 1;
+            }else if(start >= 0 && (ch == ',' || ch == '\n')){
+                return chunk.subSequence(start, i).toString().trim();
+            }
+        }
+        return null;
     }
 }
@@ -0,0 +1,74 @@
+package com.tfg.slr.searchservice.utils;
+
+import com.tfg.slr.searchservice.dtos.StudyDTO;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.text.Normalizer;
+import java.util.Locale;
+
+@Component
+public class BibTeXwriter implements StudyWriter {
+
+    public String getFormat(){
+        return "bibtex";
+    }
+
+    public String getExtension(){
+        return "bib";
+    }
+
+    public String getContentType(){
+        return "application/x-bibtex;charset=UTF-8";
+    }
+
+    public void write(Writer writer, StudyDTO study) throws IOException {
+        String type = StudyParserUtils.clean(study.getType());
+        writer.write('@');
+        writer.write(type == null ? "misc" : type.toLowerCase(Locale.ROOT).replaceAll("[^a-z]", ""));
+        writer.write('{');
+        writer.write(key(study));
+        field(writer, "title", study.getTitle());
+        field(writer, "author", study.getAuthor());
+        field(writer, "year", study.getYear() == null ? null : study.getYear().toString());
+        field(writer, "journal", study.getVenue());
+        field(writer, "doi", study.getDOI());
+        field(writer, "url", study.getSourceURL());
+        writer.write("\n}\n\n");
+    }
+
+    //Surname of the first author, year and ID, which keeps keys readable and unique within the export
+    private String key(StudyDTO study){
+        String author = StudyParserUtils.clean(study.getAuthor());
+        String surname = "";
+        if(author != null){
+            String first = author.split("\\s+and\\s+")[0];
+            surname = first.contains(",") ? first.substring(0, first.indexOf(',')) : first.substring(first.lastIndexOf(' ') + 1);
+            surname = Normalizer.normalize(surname, Normalizer.Form.NFD).replaceAll("[^A-Za-z]", "");
+        }
+        return (surname.isEmpty() ? "study" : surname.toLowerCase(Locale.ROOT)) + (study.getYear() == null ? "" : study.getYear())
+                + "_" + study.getId();
+    }
+
+    private void field(Writer writer, String name, String value) throws IOException {
+        value = StudyParserUtils.clean(value);
+        if(value == null) return;
+        writer.write(",\n  ");
+        writer.write(name);
+        writer.write(" = {");
+        writer.write(balanced(value) ? value : value.replace("{", "").replace("}", ""));
+        writer.write('}');
+    }
+
+    //An unbalanced brace would end the field early or swallow the next entry
+    private boolean balanced(String value){
+        int depth = 0;
+        for(int i = 0; i < value.length(); i++){
+            char ch = value.charAt(i);
+            if(ch == '{') depth++;
+            else if(ch == '}' && --depth < 0) return false;
+        }
+        return depth == 0;
+    }
+}
@@ -0,0 +1,155 @@
+package com.tfg.slr.searchservice.utils;
+
+import com.tfg.slr.searchservice.models.Study;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.*;
+import java.util.function.Consumer;
+
+/**
+ * Parser for tabular exports with a header row, such as Web of Science (tab or comma separated,
+ * two-letter field tags) and Scopus CSV. Rows are read one at a time; quoted values may span lines.
+ */
+@Component
+public class CSVparser implements StudyParser {
+
+    private static final Map<String, String> COLUMNS = new HashMap<>();
+
+    static {
+        column("title", "TI", "Title", "Article Title", "Document Title");
+        column("author", "AU", "AF", "Authors", "Author Full Names", "Author");
+        column("year", "PY", "Year", "Publication Year");
+        column("type", "DT", "Document Type", "Publication Type");
+        column("venue", "SO", "Source title", "Source Title", "Publication Title", "Journal", "Venue");
+        column("doi", "DI", "DOI");
+        column("url", "Link", "URL", "UR");
+        column("language", "LA", "Language", "Language of Original Document");
+    }
+
+    private static void column(String property, String... headers){
+        for(String header : headers){
+            COLUMNS.put(header.toLowerCase(Locale.ROOT), property);
+        }
+    }
+
+    public String getFormat(){
+        return "csv";
+    }
+
+    public List<String> getExtensions(){
+        return Arrays.asList("csv", "tsv", "txt");
+    }
+
+    public void read(Reader reader, Consumer<ParsedEntry> consumer) throws IOException {
+        BufferedReader in = new BufferedReader(reader);
+        in.mark(1);
+        if(in.read() != '\uFEFF') in.reset();
+
+        RowReader rows = new RowReader(in);
+        List<String> header = rows.next();
+        if(header == null) return;
+
+        Map<String, Integer> positions = new HashMap<>();
+        for(int i = 0; i < header.size(); i++){
+            String property = COLUMNS.get(header.get(i).trim().toLowerCase(Locale.ROOT));
+            if(property != null) positions.putIfAbsent(property, i);
+        }
+        if(!positions.containsKey("title")){
+            throw new IllegalArgumentException("La cabecera no contiene una columna de título");
+        }
+
+        int index = 0;
+        List<String> row;
+        while((row = rows.next()) != null){
+            if(row.size() == 1 && row.get(0).trim().isEmpty()) continue;
+            index++;
+            String doi = value(row, positions, "doi");
+            String title = value(row, positions, "title");
+            //Only the mapping is guarded: a failure of the consumer is not a malformed row
+            ParsedEntry entry;
+            try{
+                String author = value(row, positions, "author");
+                if(author != null && author.contains(";")){
+                    author = String.join(" and ", author.split("\\s*;\\s*"));
+                }
+                Study study = StudyParserUtils.buildStudy(title, author,
+                        StudyParserUtils.parseYear(value(row, positions, "year")), value(row, positions, "type"),
+                        value(row, positions, "venue"), doi, value(row, positions, "url"));
+                study.setLanguage(value(row, positions, "language"));
+                entry = ParsedEntry.of(index, doi != null ? doi : title, study);
+            }catch (Exception e){
+                entry = ParsedEntry.failed(index, doi != null ? doi : title, e.getMessage());
+            }
+            consumer.accept(entry);
+        }
+    }
+
+    private String value(List<String> row, Map<String, Integer> positions, String property){
+        Integer position = positions.get(property);
+        if(position == null || position >= row.size()) return null;
+        return StudyParserUtils.clean(row.get(position));
+    }
+
+    /**
+     * RFC 4180 row reader. The separator (comma, semicolon or tab) is taken from the first line.
+     */
+    private static class RowReader {
+
+        private final BufferedReader in;
+        private char separator = 0;
+
+        RowReader(BufferedReader in){
+            this.in = in;
+        }
+
+        List<String> next() throws IOException {
+            List<String> row = new ArrayList<>();
+            StringBuilder cell = new StringBuilder();
+            boolean quoted = false;
+            boolean read = false;
+            int c;
+
+            while((c = in.read()) != -1){
+                read = true;
+                char ch = (char) c;
+                if(quoted){
+                    if(ch == '"'){
+                        in.mark(1);
+                        if(in.read() == '"'){
+                            cell.append('"');
+                        }else{
+                            in.reset();
+                            quoted = false;
+                        }
+                    }else{
+                        cell.append(ch);
+                    }
+                }else if(ch == '"' && cell.length() == 0){
+                    quoted = true;
+                }else if(ch == '\n'){
+                    break;
+                }else if(ch == '\r'){
+                    continue;
+                }else if(isSeparator(ch)){
+                    row.add(cell.toString());
+                    cell.setLength(0);
+                }else{
+                    cell.append(ch);
+                }
+            }
+            if(!read) return null;
+            row.add(cell.toString());
+            return row;
+        }
+
+        private boolean isSeparator(char ch){
+            if(separator == 0 && (ch == ',' || ch == ';' || ch == '\t')){
+                separator = ch;
+            }
+            return ch == separator;
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.tfg.slr.searchservice.utils;
+
+import com.tfg.slr.searchservice.dtos.StudyDTO;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * RFC 4180 CSV. The headers are the ones {@link CSVparser} recognises, so an export can be imported again.
+ */
+@Component
+public class CSVwriter implements StudyWriter {
+
+    private static final String[] HEADERS = {"ID", "Title", "Authors", "Year", "Document Type", "Source Title", "DOI", "URL",
+            "Selection Status", "Extraction Status", "Search"};
+
+    public String getFormat(){
+        return "csv";
+    }
+
+    public String getExtension(){
+        return "csv";
+    }
+
+    public String getContentType(){
+        return "text/csv;charset=UTF-8";
+    }
+
+    public void writeHeader(Writer writer) throws IOException {
+        row(writer, (Object[]) HEADERS);
+    }
+
+    public void write(Writer writer, StudyDTO study) throws IOException {
+        row(writer, study.getId(), study.getTitle(), study.getAuthor(), study.getYear(), study.getType(), study.getVenue(),
+                study.getDOI(), study.getSourceURL(), study.getSelectionStatus(), study.getExtractionStatus(), study.getSearch());
+    }
+
+    /**
+     * Writes one record, quoting only the values that need it. Null values are left empty.
+     */
+    public static void row(Writer writer, Object... values) throws IOException {
+        for(int i = 0; i < values.length; i++){
+            if(i > 0) writer.write(',');
+            if(values[i] != null) writer.write(escape(values[i].toString()));
+        }
+        writer.write("\r\n");
+    }
+
+    private static String escape(String value){
+        if(value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) return value;
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,223 @@
+package com.tfg.slr.searchservice.utils;
+
+import com.tfg.slr.searchservice.models.CitationDirection;
+
+import java.util.*;
+
+/**
+ * Immutable snapshot of the citation graph in compressed sparse row form: node IDs are mapped to dense indexes and
+ * the references and citations of each node are contiguous slices of two int arrays. A few million edges take
+ * tens of megabytes and a breadth-first expansion touches only the slices of the nodes it reaches.
+ */
+public class CitationGraph {
+
+    private final long[] nodeIds;
+    private final int[] referenceOffsets;
+    private final int[] references;
+    private final int[] citationOffsets;
+    private final int[] citations;
+
+    private CitationGraph(long[] nodeIds, int[] citing, int[] cited, int edgeCount){
+        this.nodeIds = nodeIds;
+        this.referenceOffsets = new int[nodeIds.length + 1];
+        this.references = new int[edgeCount];
+        this.citationOffsets = new int[nodeIds.length + 1];
+        this.citations = new int[edgeCount];
+        fill(citing, cited, edgeCount, referenceOffsets, references);
+        fill(cited, citing, edgeCount, citationOffsets, citations);
+    }
+
+    //Counting sort of the edges by source node
+    private static void fill(int[] from, int[] to, int edgeCount, int[] offsets, int[] targets){
+        for(int i = 0; i < edgeCount; i++) offsets[from[i] + 1]++;
+        for(int i = 1; i < offsets.length; i++) offsets[i] += offsets[i - 1];
+        int[] next = Arrays.copyOf(offsets, offsets.length - 1);
+        for(int i = 0; i < edgeCount; i++) targets[next[from[i]]++] = to[i];
+    }
+
+    public static Builder builder(){
+        return new Builder();
+    }
+
+    public int size(){
+        return nodeIds.length;
+    }
+
+    public int edgeCount(){
+        return references.length;
+    }
+
+    //Dense index of a node, -1 when the node is not in the snapshot
+    public int indexOf(long nodeId){
+        int index = Arrays.binarySearch(nodeIds, nodeId);
+        return index >= 0 ? index : -1;
+    }
+
+    /**
+     * Breadth-first expansion from the seeds. Excluded nodes, other than the seeds, are neither reported nor expanded.
+     * @param maxNodes the expansion stops after the hop in which this many nodes have been reached
+     * @param limit number of reached nodes to return, by hop, then by number of links from expanded nodes
+     *              (descending), then by ID
+     */
+    public Expansion expand(Collection<Integer> seeds, BitSet excluded, CitationDirection direction, int hops,
+                            int maxNodes, int limit){
+        BitSet visited = (BitSet) excluded.clone();
+        int[] links = new int[nodeIds.length];
+        IntList frontier = new IntList();
+        for(Integer seed : new LinkedHashSet<>(seeds)){
+            frontier.add(seed);
+            visited.set(seed);
+        }
+
+        //Nodes are appended hop after hop, so each hop is a contiguous slice of reached
+        IntList reached = new IntList();
+        List<Integer> hopEnds = new ArrayList<>();
+        boolean truncated = false;
+        for(int hop = 1; hop <= hops && frontier.size > 0; hop++){
+            if(reached.size >= maxNodes){
+                truncated = true;
+                break;
+            }
+            int hopStart = reached.size;
+            for(int i = 0; i < frontier.size; i++){
+                int node = frontier.values[i];
+                if(direction != CitationDirection.FORWARD) visit(node, referenceOffsets, references, visited, links, reached);
+                if(direction != CitationDirection.BACKWARD) visit(node, citationOffsets, citations, visited, links, reached);
+            }
+            hopEnds.add(reached.size);
+            frontier = reached.slice(hopStart, reached.size);
+        }
+
+        //Only the hops needed to fill the limit are sorted. Indexes follow ID order, so they break ties by ID
+        List<Reached> top = new ArrayList<>(Math.min(limit, reached.size));
+        int hopStart = 0;
+        for(int hop = 0; hop < hopEnds.size() && top.size() < limit; hop++){
+            int hopEnd = hopEnds.get(hop);
+            long[] keys = new long[hopEnd - hopStart];
+            for(int i = hopStart; i < hopEnd; i++){
+                int node = reached.values[i];
+                keys[i - hopStart] = ((long) (Integer.MAX_VALUE - links[node]) << 32) | node;
+            }
+            Arrays.sort(keys);
+            for(int i = 0; i < keys.length && top.size() < limit; i++){
+                int node = (int) keys[i];
+                top.add(new Reached(nodeIds[node], hop + 1, links[node]));
+            }
+            hopStart = hopEnd;
+        }
+        return new Expansion(top, reached.size, truncated);
+    }
+
+    private void visit(int node, int[] offsets, int[] targets, BitSet visited, int[] links, IntList reached){
+        for(int i = offsets[node]; i < offsets[node + 1]; i++){
+            int target = targets[i];
+            if(links[target] > 0){
+                links[target]++;
+            }else if(!visited.get(target)){
+                visited.set(target);
+                links[target] = 1;
+                reached.add(target);
+            }
+        }
+    }
+
+    private static class IntList {
+        private int[] values = new int[256];
+        private int size;
+
+        void add(int value){
+            if(size == values.length) values = Arrays.copyOf(values, size * 2);
+            values[size++] = value;
+        }
+
+        IntList slice(int from, int to){
+            IntList result = new IntList();
+            result.values = Arrays.copyOfRange(values, from, Math.max(to, from + 1));
+            result.size = to - from;
+            return result;
+        }
+    }
+
+    public static class Builder {
+        private long[] nodeIds = new long[1024];
+        private int nodeCount;
+        private int[] citing = new int[1024];
+        private int[] cited = new int[1024];
+        private int edgeCount;
+
+        //Nodes must be added in ascending ID order and before their edges
+        public Builder addNode(long nodeId){
+            if(nodeCount > 0 && nodeId <= nodeIds[nodeCount - 1]) throw new IllegalArgumentException("Nodes must be added in ascending order");
+            if(nodeCount == nodeIds.length) nodeIds = Arrays.copyOf(nodeIds, nodeCount * 2);
+            nodeIds[nodeCount++] = nodeId;
+            return this;
+        }
+
+        //Edges to nodes created after the node list was read are ignored until the next snapshot
+        public Builder addEdge(long citingId, long citedId){
+            int from = Arrays.binarySearch(nodeIds, 0, nodeCount, citingId);
+            int to = Arrays.binarySearch(nodeIds, 0, nodeCount, citedId);
+            if(from < 0 || to < 0) return this;
+            if(edgeCount == citing.length){
+                citing = Arrays.copyOf(citing, edgeCount * 2);
+                cited = Arrays.copyOf(cited, edgeCount * 2);
+            }
+            citing[edgeCount] = from;
+            cited[edgeCount++] = to;
+            return this;
+        }
+
+        public CitationGraph build(){
+            return new CitationGraph(Arrays.copyOf(nodeIds, nodeCount), citing, cited, edgeCount);
+        }
+    }
+
+    public static class Expansion {
+        private final List<Reached> reached;
+        private final int reachedCount;
+        private final boolean truncated;
+
+        Expansion(List<Reached> reached, int reachedCount, boolean truncated){
+            this.reached = reached;
+            this.reachedCount = reachedCount;
+            this.truncated = truncated;
+        }
+
+        //The best reached nodes, up to the requested limit
+        public List<Reached> getReached(){
+            return reached;
+        }
+
+        public int getReachedCount(){
+            return reachedCount;
+        }
+
+        public boolean isTruncated(){
+            return truncated;
+        }
+    }
+
+    public static class Reached {
+        private final long nodeId;
+        private final int hop;
+        private final int links;
+
+        Reached(long nodeId, int hop, int links){
+            this.nodeId = nodeId;
+            this.hop = hop;
+            this.links = links;
+        }
+
+        public long getNodeId(){
+            return nodeId;
+        }
+
+        public int getHop(){
+            return hop;
+        }
+
+        public int getLinks(){
+            return links;
+        }
+    }
+}
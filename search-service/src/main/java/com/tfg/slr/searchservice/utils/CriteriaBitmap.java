@@ -0,0 +1,38 @@
+package com.tfg.slr.searchservice.utils;
+
+import lombok.experimental.UtilityClass;
+
+import java.util.BitSet;
+import java.util.Collection;
+
+/**
+ * Applied selection criteria of a study, stored as a bitmap where bit n is the criterion with ordinal n in the
+ * protocol (see CriteriaOrdinal). Twenty criteria take three bytes. An empty bitmap is stored as null.
+ */
+@UtilityClass
+public class CriteriaBitmap {
+
+    public byte[] add(byte[] bitmap, Collection<Integer> ordinals){
+        BitSet bits = toBits(bitmap);
+        ordinals.forEach(bits::set);
+        return toBytes(bits);
+    }
+
+    public byte[] remove(byte[] bitmap, Collection<Integer> ordinals){
+        BitSet bits = toBits(bitmap);
+        ordinals.forEach(bits::clear);
+        return toBytes(bits);
+    }
+
+    public boolean contains(byte[] bitmap, int ordinal){
+        return bitmap != null && ordinal / 8 < bitmap.length && (bitmap[ordinal / 8] & (1 << (ordinal % 8))) != 0;
+    }
+
+    public BitSet toBits(byte[] bitmap){
+        return bitmap == null ? new BitSet() : BitSet.valueOf(bitmap);
+    }
+
+    private byte[] toBytes(BitSet bits){
+        return bits.isEmpty() ? null : bits.toByteArray();
+    }
+}
@@ -0,0 +1,154 @@
+package com.tfg.slr.searchservice.utils;
+
+import com.tfg.slr.searchservice.dtos.SelectionCriteriaDTO;
+import com.tfg.slr.searchservice.models.Study;
+import lombok.Getter;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Structured rule of a selection criterion, compiled once so that it can be evaluated in memory over imported studies
+ * or pushed down to SQL over the stored ones. Both forms give the same result: an exclusion rejects the studies that
+ * match, an inclusion the ones that do not, and studies without a value for the field are never rejected. Text values
+ * are compared trimmed and in lower case; title keywords are substrings.
+ */
+@Getter
+public class CriteriaRule {
+
+    public enum Field {
+        YEAR("year"), TYPE("type"), VENUE("venue"), LANGUAGE("language"), TITLE("title");
+
+        private final String column;
+
+        Field(String column) {
+            this.column = column;
+        }
+    }
+
+    private final Long criteriaId;
+    private final boolean exclusion;
+    private final Field field;
+    private final Integer minYear;
+    private final Integer maxYear;
+    private final Set<String> values;
+
+    private CriteriaRule(Long criteriaId, boolean exclusion, Field field, Integer minYear, Integer maxYear, Set<String> values) {
+        this.criteriaId = criteriaId;
+        this.exclusion = exclusion;
+        this.field = field;
+        this.minYear = minYear;
+        this.maxYear = maxYear;
+        this.values = values;
+    }
+
+    /**
+     * @return the rule of the criterion, or null if it has none or it cannot be applied
+     */
+    public static CriteriaRule compile(SelectionCriteriaDTO criteria){
+        if(criteria.getId() == null || criteria.getRuleField() == null || criteria.getCriteriaType() == null) return null;
+        Field field;
+        try{
+            field = Field.valueOf(criteria.getRuleField().trim().toUpperCase(Locale.ROOT));
+        }catch (IllegalArgumentException e){
+            return null;
+        }
+        boolean exclusion = criteria.getCriteriaType().trim().equalsIgnoreCase("EXCLUSION");
+        if(field == Field.YEAR){
+            if(criteria.getMinYear() == null && criteria.getMaxYear() == null) return null;
+            return new CriteriaRule(criteria.getId(), exclusion, field, criteria.getMinYear(), criteria.getMaxYear(), Set.of());
+        }
+        Set<String> values = new LinkedHashSet<>();
+        if(criteria.getRuleValues() != null){
+            for(String value : criteria.getRuleValues()){
+                String normalized = normalize(value);
+                if(normalized != null) values.add(normalized);
+            }
+        }
+        return values.isEmpty() ? null : new CriteriaRule(criteria.getId(), exclusion, field, null, null, values);
+    }
+
+    public static List<CriteriaRule> compile(List<SelectionCriteriaDTO> criteria){
+        List<CriteriaRule> rules = new ArrayList<>();
+        for(SelectionCriteriaDTO criterion : criteria){
+            CriteriaRule rule = compile(criterion);
+            if(rule != null) rules.add(rule);
+        }
+        return rules;
+    }
+
+    public boolean rejects(Study study){
+        if(field == Field.YEAR){
+            Integer year = study.getYear();
+            if(year == null) return false;
+            boolean matches = (minYear == null || year >= minYear) && (maxYear == null || year <= maxYear);
+            return matches == exclusion;
+        }
+        String value = normalize(text(study));
+        if(value == null) return false;
+        boolean matches = false;
+        if(field == Field.TITLE){
+            for(String keyword : values){
+                if(value.contains(keyword)){
+                    matches = true;
+                    break;
+                }
+            }
+        }else{
+            matches = values.contains(value);
+        }
+        return matches == exclusion;
+    }
+
+    /**
+     * SQL condition, over the study table with the given alias, that holds for the studies this rule rejects.
+     * Parameters are added with the given prefix, so several rules can share a parameter source.
+     */
+    public String toSql(String alias, String prefix, MapSqlParameterSource parameters){
+        //Blank text is a missing value, as in rejects(): not every write path stores it as null
+        String column = field == Field.YEAR ? alias + "." + field.column : "nullif(trim(" + alias + "." + field.column + "), '')";
+        String matches;
+        if(field == Field.YEAR){
+            List<String> bounds = new ArrayList<>();
+            if(minYear != null){
+                bounds.add(column + " >= :" + prefix + "min");
+                parameters.addValue(prefix + "min", minYear);
+            }
+            if(maxYear != null){
+                bounds.add(column + " <= :" + prefix + "max");
+                parameters.addValue(prefix + "max", maxYear);
+            }
+            matches = String.join(" and ", bounds);
+        }else if(field == Field.TITLE){
+            List<String> likes = new ArrayList<>();
+            int i = 0;
+            for(String keyword : values){
+                likes.add("lower(" + column + ") like :" + prefix + i + " escape '!'");
+                parameters.addValue(prefix + i++, "%" + keyword.replace("!", "!!").replace("%", "!%").replace("_", "!_") + "%");
+            }
+            matches = String.join(" or ", likes);
+        }else{
+            matches = "lower(" + column + ") in (:" + prefix + "values)";
+            parameters.addValue(prefix + "values", values);
+        }
+        return exclusion ? "(" + matches + ")" : "(" + column + " is not null and not (" + matches + "))";
+    }
+
+    private String text(Study study){
+        switch (field){
+            case TYPE: return study.getType();
+            case VENUE: return study.getVenue();
+            case LANGUAGE: return study.getLanguage();
+            default: return study.getTitle();
+        }
+    }
+
+    private static String normalize(String value){
+        if(value == null || value.isBlank()) return null;
+        return value.trim().toLowerCase(Locale.ROOT);
+    }
+}
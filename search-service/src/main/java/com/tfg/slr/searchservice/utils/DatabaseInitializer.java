@@ -0,0 +1,46 @@
+package com.tfg.slr.searchservice.utils;
+
+import com.tfg.slr.searchservice.repositories.StudyRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Creates the PostgreSQL columns and indexes that Hibernate cannot generate from the entity annotations.
+ * The full-text index is an expression index, so the database keeps it up to date on every insert and update.
+ * The JSONB answers of form instances are not mapped by JPA and are read and written by FormAnswersRepository.
+ * On other databases (e.g. H2 in tests) nothing is created.
+ */
+@Slf4j
+@Component
+public class DatabaseInitializer implements CommandLineRunner {
+
+    private static final List<String> POSTGRES_INDEXES = Arrays.asList(
+            "create index if not exists idx_study_fulltext on study using gin ((" + StudyRepository.SEARCH_DOCUMENT + "))",
+            "create index if not exists idx_study_doi_lower on study (lower(doi))",
+            "alter table form_instance add column if not exists answers jsonb",
+            "create index if not exists idx_form_instance_answers on form_instance using gin (answers jsonb_path_ops)"
+    );
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public DatabaseInitializer(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void run(String... args) throws Exception {
+        String database = jdbcTemplate.execute((ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+        if(!"PostgreSQL".equals(database)) return;
+
+        for(String index : POSTGRES_INDEXES){
+            jdbcTemplate.execute(index);
+        }
+        log.info("PostgreSQL columns and indexes checked: {}", POSTGRES_INDEXES.size());
+    }
+}
@@ -0,0 +1,162 @@
+package com.tfg.slr.searchservice.utils;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Bounded LRU cache whose entries expire after a fixed time. Concurrent misses on the same key share a single
+ * call to the loader (single flight). An invalidation that arrives while a value is being loaded prevents that
+ * value from being stored, so callers never see data older than the invalidation.
+ */
+public class ExpiringCache<K, V> {
+
+    private final String name;
+    private final long ttlMillis;
+    private final Map<K, Entry<V>> entries;
+    private final ConcurrentHashMap<K, CompletableFuture<V>> loading = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder loads = new LongAdder();
+    private final LongAdder loadFailures = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public ExpiringCache(String name, int maxSize, long ttlMillis){
+        this.name = name;
+        this.ttlMillis = ttlMillis;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true){
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                if(size() > maxSize){
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    public V get(K key, Function<K, V> loader){
+        Entry<V> entry;
+        synchronized (entries){
+            entry = entries.get(key);
+        }
+        if(entry != null && entry.expiresAt > System.currentTimeMillis()){
+            hits.increment();
+            return entry.value;
+        }
+        misses.increment();
+
+        CompletableFuture<V> future = new CompletableFuture<>();
+        CompletableFuture<V> inFlight = loading.putIfAbsent(key, future);
+        if(inFlight != null){
+            return await(inFlight);
+        }
+        try{
+            V value = loader.apply(key);
+            loads.increment();
+            synchronized (entries){
+                if(loading.get(key) == future){
+                    entries.put(key, new Entry<>(value, System.currentTimeMillis() + ttlMillis));
+                }
+            }
+            future.complete(value);
+            return value;
+        }catch (RuntimeException e){
+            loadFailures.increment();
+            future.completeExceptionally(e);
+            throw e;
+        }finally{
+            loading.remove(key, future);
+        }
+    }
+
+    //Current value without loading it or counting a request, null when absent or expired
+    public V peek(K key){
+        synchronized (entries){
+            Entry<V> entry = entries.get(key);
+            return entry != null && entry.expiresAt > System.currentTimeMillis() ? entry.value : null;
+        }
+    }
+
+    public List<V> values(){
+        long now = System.currentTimeMillis();
+        synchronized (entries){
+            List<V> result = new ArrayList<>(entries.size());
+            for(Entry<V> entry : entries.values()){
+                if(entry.expiresAt > now) result.add(entry.value);
+            }
+            return result;
+        }
+    }
+
+    public void invalidate(K key){
+        synchronized (entries){
+            loading.remove(key);
+            entries.remove(key);
+        }
+    }
+
+    public void invalidateAll(){
+        synchronized (entries){
+            loading.clear();
+            entries.clear();
+        }
+    }
+
+    public String getName(){
+        return name;
+    }
+
+    public int size(){
+        synchronized (entries){
+            return entries.size();
+        }
+    }
+
+    public long getHits(){
+        return hits.sum();
+    }
+
+    public long getMisses(){
+        return misses.sum();
+    }
+
+    public long getLoads(){
+        return loads.sum();
+    }
+
+    public long getLoadFailures(){
+        return loadFailures.sum();
+    }
+
+    public long getEvictions(){
+        return evictions.sum();
+    }
+
+    private V await(CompletableFuture<V> future){
+        try{
+            return future.join();
+        }catch (CompletionException e){
+            if(e.getCause() instanceof RuntimeException) throw (RuntimeException) e.getCause();
+            throw e;
+        }
+    }
+
+    private static class Entry<V> {
+        private final V value;
+        private final long expiresAt;
+
+        Entry(V value, long expiresAt){
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
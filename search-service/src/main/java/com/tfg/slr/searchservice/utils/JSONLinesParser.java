@@ -0,0 +1,73 @@
+package com.tfg.slr.searchservice.utils;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tfg.slr.searchservice.models.Study;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Parser for JSON-lines files: one JSON object per line, with the same property names as StudyDTO.
+ * Authors may be given as a single string or as an array.
+ */
+@Component
+public class JSONLinesParser implements StudyParser {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    public String getFormat(){
+        return "jsonl";
+    }
+
+    public List<String> getExtensions(){
+        return Arrays.asList("jsonl", "ndjson");
+    }
+
+    public void read(Reader reader, Consumer<ParsedEntry> consumer) throws IOException {
+        BufferedReader in = new BufferedReader(reader);
+        int index = 0;
+        String line;
+
+        while((line = in.readLine()) != null){
+            if(line.trim().isEmpty()) continue;
+            index++;
+            //Only the mapping is guarded: a failure of the consumer is not a malformed line
+            ParsedEntry entry;
+            try{
+                JsonNode node = objectMapper.readTree(line);
+                String doi = text(node, "DOI", "doi");
+                Study study = StudyParserUtils.buildStudy(text(node, "title"), authors(node),
+                        StudyParserUtils.parseYear(text(node, "year")), text(node, "type"), text(node, "venue"),
+                        doi, text(node, "sourceURL", "url"));
+                study.setLanguage(StudyParserUtils.clean(text(node, "language")));
+                entry = ParsedEntry.of(index, doi, study);
+            }catch (Exception e){
+                entry = ParsedEntry.failed(index, null, e.getMessage());
+            }
+            consumer.accept(entry);
+        }
+    }
+
+    private String authors(JsonNode node){
+        JsonNode authors = node.has("author") ? node.get("author") : node.get("authors");
+        if(authors == null || !authors.isArray()) return text(node, "author", "authors");
+        List<String> names = new ArrayList<>();
+        authors.forEach(author -> names.add(author.asText()));
+        return String.join(" and ", names);
+    }
+
+    private String text(JsonNode node, String... names){
+        for(String name : names){
+            JsonNode value = node.get(name);
+            if(value != null && !value.isNull()) return value.asText();
+        }
+        return null;
+    }
+}
@@ -12,4 +12,14 @@ public class MessageConstants {
     public static String DELETE_FAIL = "No se ha podido llevar a cabo la eliminación de las entidades.";
 
     public static String SEARCH_NOT_FOUND = "No se ha encontrado la búsqueda solicitada";
+    public static String FORM_NOT_DEFINED = "El protocolo no tiene definido un formulario de ese tipo.";
+    public static String UNKNOWN_FORM_FIELD = "El formulario no contiene el campo: ";
+    public static String EMPTY_FORM_FILTER = "Debe indicarse al menos un campo por el que filtrar.";
+    public static String SEARCH_WITHOUT_PROTOCOL = "La búsqueda no está asociada a ningún protocolo.";
+    public static String EMPTY_SEARCH_QUERY = "La consulta de búsqueda no puede estar vacía.";
+    public static String INVALID_PAGE = "La página no puede ser negativa y su tamaño debe estar entre 1 y ";
+    public static String INVALID_DECISION = "La decisión debe ser ACCEPTED, REJECTED o DUPLICATED.";
+    public static String INVALID_YEAR_RANGE = "El año inicial no puede ser posterior al año final.";
+    public static String UNSUPPORTED_IMPORT_FORMAT = "Formato de importación no soportado. Formatos disponibles: ";
+    public static String UNSUPPORTED_EXPORT_FORMAT = "Formato de exportación no soportado. Formatos disponibles: ";
 }
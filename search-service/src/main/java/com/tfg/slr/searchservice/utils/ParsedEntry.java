@@ -0,0 +1,34 @@
+package com.tfg.slr.searchservice.utils;
+
+import com.tfg.slr.searchservice.models.Study;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Result of parsing a single entry of a bibliographic export: either the mapped Study
+ * or the reason why the entry could not be read.
+ */
+@Getter
+@AllArgsConstructor
+public class ParsedEntry {
+
+    private int index;
+
+    private String key;
+
+    private Study study;
+
+    private String error;
+
+    public static ParsedEntry of(int index, String key, Study study){
+        return new ParsedEntry(index, key, study, null);
+    }
+
+    public static ParsedEntry failed(int index, String key, String error){
+        return new ParsedEntry(index, key, null, error);
+    }
+
+    public boolean hasError(){
+        return error != null;
+    }
+}
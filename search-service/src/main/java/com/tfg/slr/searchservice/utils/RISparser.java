@@ -0,0 +1,124 @@
+package com.tfg.slr.searchservice.utils;
+
+import com.tfg.slr.searchservice.models.Study;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Parser for RIS exports (IEEE Xplore, ACM DL). Records are read line by line and emitted when
+ * their ER tag is found.
+ */
+@Component
+public class RISparser implements StudyParser {
+
+    private static final Pattern TAG_LINE = Pattern.compile("^([A-Z][A-Z0-9])  -(?: (.*))?$");
+    private static final Map<String, String> TYPES = new HashMap<>();
+
+    static {
+        TYPES.put("JOUR", "article");
+        TYPES.put("EJOUR", "article");
+        TYPES.put("CONF", "inproceedings");
+        TYPES.put("CPAPER", "inproceedings");
+        TYPES.put("BOOK", "book");
+        TYPES.put("CHAP", "incollection");
+        TYPES.put("THES", "phdthesis");
+        TYPES.put("RPRT", "techreport");
+    }
+
+    public String getFormat(){
+        return "ris";
+    }
+
+    public List<String> getExtensions(){
+        return Collections.singletonList("ris");
+    }
+
+    public void read(Reader reader, Consumer<ParsedEntry> consumer) throws IOException {
+        BufferedReader in = new BufferedReader(reader);
+        Map<String, List<String>> record = new HashMap<>();
+        String lastTag = null;
+        int index = 0;
+        String line;
+
+        while((line = in.readLine()) != null){
+            if(line.startsWith("\uFEFF")) line = line.substring(1);
+            Matcher matcher = TAG_LINE.matcher(line);
+            if(!matcher.matches()){
+                //Continuation of a multi-line value
+                if(lastTag != null && !line.trim().isEmpty()){
+                    List<String> values = record.get(lastTag);
+                    int last = values.size() - 1;
+                    values.set(last, values.get(last) + " " + line.trim());
+                }
+                continue;
+            }
+
+            String tag = matcher.group(1);
+            String value = matcher.group(2) != null ? matcher.group(2).trim() : "";
+            if(tag.equals("TY")){
+                if(!record.isEmpty()){
+                    index++;
+                    consumer.accept(ParsedEntry.failed(index, key(record), "Registro sin etiqueta ER"));
+                }
+                record.clear();
+            }else if(tag.equals("ER")){
+                index++;
+                consumer.accept(buildEntry(index, record));
+                record.clear();
+                lastTag = null;
+                continue;
+            }
+            record.computeIfAbsent(tag, t -> new ArrayList<>()).add(value);
+            lastTag = tag;
+        }
+        if(!record.isEmpty()){
+            consumer.accept(ParsedEntry.failed(index + 1, key(record), "Registro sin etiqueta ER"));
+        }
+    }
+
+    private ParsedEntry buildEntry(int index, Map<String, List<String>> record){
+        try{
+            String type = first(record, "TY");
+            List<String> authors = new ArrayList<>();
+            for(String tag : Arrays.asList("AU", "A1", "A2")){
+                authors.addAll(record.getOrDefault(tag, Collections.emptyList()));
+            }
+            Study study = StudyParserUtils.buildStudy(
+                    first(record, "TI", "T1"),
+                    authors.isEmpty() ? null : String.join(" and ", authors),
+                    StudyParserUtils.parseYear(first(record, "PY", "Y1", "DA")),
+                    type == null ? null : TYPES.getOrDefault(type, type.toLowerCase(Locale.ROOT)),
+                    first(record, "JO", "JF", "T2", "BT", "PB"),
+                    first(record, "DO"),
+                    first(record, "UR", "L2"));
+            study.setLanguage(StudyParserUtils.clean(first(record, "LA")));
+            return ParsedEntry.of(index, key(record), study);
+        }catch (Exception e){
+            return ParsedEntry.failed(index, key(record), e.getMessage());
+        }
+    }
+
+    private String key(Map<String, List<String>> record){
+        String id = first(record, "ID", "AN", "DO");
+        return id != null ? id : first(record, "TI", "T1");
+    }
+
+    private String first(Map<String, List<String>> record, String... tags){
+        for(String tag : tags){
+            List<String> values = record.get(tag);
+            if(values != null){
+                for(String value : values){
+                    if(StudyParserUtils.clean(value) != null) return value;
+                }
+            }
+        }
+        return null;
+    }
+}
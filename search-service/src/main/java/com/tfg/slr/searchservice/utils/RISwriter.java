@@ -0,0 +1,69 @@
+package com.tfg.slr.searchservice.utils;
+
+import com.tfg.slr.searchservice.dtos.StudyDTO;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+@Component
+public class RISwriter implements StudyWriter {
+
+    private static final Map<String, String> TYPES = new HashMap<>();
+
+    static {
+        TYPES.put("article", "JOUR");
+        TYPES.put("inproceedings", "CONF");
+        TYPES.put("conference", "CONF");
+        TYPES.put("book", "BOOK");
+        TYPES.put("incollection", "CHAP");
+        TYPES.put("inbook", "CHAP");
+        TYPES.put("phdthesis", "THES");
+        TYPES.put("mastersthesis", "THES");
+        TYPES.put("techreport", "RPRT");
+    }
+
+    public String getFormat(){
+        return "ris";
+    }
+
+    public String getExtension(){
+        return "ris";
+    }
+
+    public String getContentType(){
+        return "application/x-research-info-systems;charset=UTF-8";
+    }
+
+    public void write(Writer writer, StudyDTO study) throws IOException {
+        String type = StudyParserUtils.clean(study.getType());
+        String risType = type == null ? "GEN" : TYPES.getOrDefault(type.toLowerCase(Locale.ROOT), "GEN");
+        tag(writer, "TY", risType);
+        tag(writer, "ID", study.getId() == null ? null : study.getId().toString());
+        tag(writer, "TI", study.getTitle());
+        String author = StudyParserUtils.clean(study.getAuthor());
+        if(author != null){
+            for(String name : author.split("\\s+and\\s+")){
+                tag(writer, "AU", name);
+            }
+        }
+        tag(writer, "PY", study.getYear() == null ? null : study.getYear().toString());
+        tag(writer, risType.equals("JOUR") ? "JO" : "T2", study.getVenue());
+        tag(writer, "DO", study.getDOI());
+        tag(writer, "UR", study.getSourceURL());
+        writer.write("ER  - \r\n\r\n");
+    }
+
+    private void tag(Writer writer, String tag, String value) throws IOException {
+        value = StudyParserUtils.clean(value);
+        if(value == null) return;
+        writer.write(tag);
+        writer.write("  - ");
+        //A line break inside a value would be read as the start of a new tag
+        writer.write(value.replaceAll("\\s*[\\r\\n]+\\s*", " "));
+        writer.write("\r\n");
+    }
+}
@@ -1,23 +1,80 @@
 package com.tfg.slr.searchservice.utils;
 
-import net.bytebuddy.utility.RandomString;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
 
-import java.util.Random;
+import javax.annotation.PostConstruct;
 
+/**
+ * Allocates search references such as S-0000A3-K from a database sequence. Each instance reserves a block of
+ * BLOCK_SIZE numbers with a single nextval and hands them out from memory, so only one allocation per block
+ * reaches the database, and two instances can never produce the same number.
+ * The letters and digits follow Crockford's base 32 (no I, L, O or U) and the last character is a check symbol,
+ * so a mistyped reference is detected instead of pointing to another search. Legacy references (abc-12345) have
+ * a different shape and can't collide with these.
+ */
+@Component
 public class ReferenceGenerator {
 
-    public static String generateRef(){
-        //Generate 3 random letters
-        String letters = RandomString.make(3);
-        // Generate 4 random numbers
-        Integer random = new Random().nextInt(99999);
-        String numbers = random.toString();
-
-        if(numbers.length()<5) {
-            for (int i = 0; i < numbers.length(); i++) {
-                numbers=0+numbers;
-            }
+    //Must match the increment of the sequence: changing it requires a new sequence
+    static final int BLOCK_SIZE = 100;
+    private static final String SEQUENCE = "search_ref_seq";
+    private static final String ALPHABET = "0123456789ABCDEFGHJKMNPQRSTVWXYZ";
+    private static final int DIGITS = 6;
+
+    private final JdbcTemplate jdbcTemplate;
+    private long next;
+    private long limit;
+
+    public ReferenceGenerator(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @PostConstruct
+    public void createSequence(){
+        jdbcTemplate.execute("create sequence if not exists " + SEQUENCE + " start with 1 increment by " + BLOCK_SIZE);
+    }
+
+    public synchronized String generateRef(){
+        if(next >= limit){
+            Long start = jdbcTemplate.queryForObject("select nextval('" + SEQUENCE + "')", Long.class);
+            next = start;
+            limit = start + BLOCK_SIZE;
+        }
+        return encode(next++);
+    }
+
+    public static String encode(long number){
+        if(number < 0) throw new IllegalArgumentException("Reference numbers can't be negative");
+        StringBuilder digits = new StringBuilder();
+        long rest = number;
+        do{
+            digits.append(ALPHABET.charAt((int) (rest % 32)));
+            rest /= 32;
+        }while(rest > 0);
+        while(digits.length() < DIGITS) digits.append('0');
+        digits.reverse();
+        return "S-" + digits + "-" + checkSymbol(digits);
+    }
+
+    public static boolean isValid(String reference){
+        if(reference == null || !reference.matches("S-[0-9A-Z]{" + DIGITS + ",}-[0-9A-Z]")) return false;
+        String digits = reference.substring(2, reference.length() - 2);
+        for(int i = 0; i < digits.length(); i++){
+            if(ALPHABET.indexOf(digits.charAt(i)) < 0) return false;
+        }
+        return checkSymbol(digits) == reference.charAt(reference.length() - 1);
+    }
+
+    //Luhn mod 32: detects any single wrong symbol and most swaps of two adjacent ones
+    private static char checkSymbol(CharSequence digits){
+        int factor = 2;
+        int sum = 0;
+        for(int i = digits.length() - 1; i >= 0; i--){
+            int addend = factor * ALPHABET.indexOf(digits.charAt(i));
+            sum += addend / 32 + addend % 32;
+            factor = factor == 2 ? 1 : 2;
         }
-        return letters +"-"+ numbers;
+        return ALPHABET.charAt((32 - sum % 32) % 32);
     }
 }
@@ -0,0 +1,177 @@
+package com.tfg.slr.searchservice.utils;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory BM25 index over the titles and venues of the studies of one protocol. Documents are only appended; a
+ * study that gets classified stays in the collection statistics but is no longer returned by {@link #top}.
+ * Queries walk the postings of their own terms only, so ranking cost grows with the number of matches and not
+ * with the number of studies.
+ */
+public class RelevanceIndex {
+
+    private static final float K1 = 1.2f;
+    private static final float B = 0.75f;
+    private static final float VENUE_WEIGHT = 0.5f;
+
+    private final Map<String, Postings> postings = new HashMap<>();
+    private final Map<Long, Integer> documents = new HashMap<>();
+    private long[] studyIds = new long[1024];
+    private long[] searchIds = new long[1024];
+    private float[] lengths = new float[1024];
+    private final BitSet open = new BitSet();
+    private int size;
+    private double totalLength;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Adds a study, or only updates whether it is open when it is already indexed.
+     */
+    public void add(long studyId, long searchId, String title, String venue, boolean unclassified){
+        lock.writeLock().lock();
+        try{
+            Integer existing = documents.get(studyId);
+            if(existing != null){
+                open.set(existing, unclassified);
+                return;
+            }
+            int doc = size++;
+            if(doc == studyIds.length){
+                int capacity = doc * 2;
+                studyIds = Arrays.copyOf(studyIds, capacity);
+                searchIds = Arrays.copyOf(searchIds, capacity);
+                lengths = Arrays.copyOf(lengths, capacity);
+            }
+            Map<String, Float> frequencies = new HashMap<>();
+            TextAnalyzer.addTerms(frequencies, title, 1f);
+            TextAnalyzer.addTerms(frequencies, venue, VENUE_WEIGHT);
+            float length = 0;
+            for(Map.Entry<String, Float> term : frequencies.entrySet()){
+                postings.computeIfAbsent(term.getKey(), t -> new Postings()).add(doc, term.getValue());
+                length += term.getValue();
+            }
+            studyIds[doc] = studyId;
+            searchIds[doc] = searchId;
+            lengths[doc] = length;
+            totalLength += length;
+            documents.put(studyId, doc);
+            open.set(doc, unclassified);
+        }finally{
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void setOpen(Collection<Long> studies, boolean unclassified){
+        lock.writeLock().lock();
+        try{
+            for(Long studyId : studies){
+                Integer doc = documents.get(studyId);
+                if(doc != null) open.set(doc, unclassified);
+            }
+        }finally{
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size(){
+        lock.readLock().lock();
+        try{
+            return size;
+        }finally{
+            lock.readLock().unlock();
+        }
+    }
+
+    public int openCount(){
+        lock.readLock().lock();
+        try{
+            return open.cardinality();
+        }finally{
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Best open studies for a weighted query, optionally restricted to one search. Ties, including studies that
+     * match no term at all, keep insertion order.
+     */
+    public List<Hit> top(Map<String, Float> query, Long searchId, int limit){
+        lock.readLock().lock();
+        try{
+            if(size == 0 || limit <= 0) return Collections.emptyList();
+            float[] scores = new float[size];
+            float averageLength = (float) Math.max(totalLength / size, 1e-6);
+            for(Map.Entry<String, Float> term : query.entrySet()){
+                Postings list = postings.get(term.getKey());
+                if(list == null) continue;
+                float idf = (float) Math.log(1 + (size - list.count + 0.5) / (list.count + 0.5));
+                float weight = term.getValue() * idf;
+                for(int i = 0; i < list.count; i++){
+                    int doc = list.docs[i];
+                    float tf = list.frequencies[i];
+                    scores[doc] += weight * tf * (K1 + 1) / (tf + K1 * (1 - B + B * lengths[doc] / averageLength));
+                }
+            }
+
+            //Min-heap of the current best, the worst on top: lower score first, then later insertion first
+            PriorityQueue<Integer> heap = new PriorityQueue<>(limit + 1,
+                    (a, b) -> scores[a] != scores[b] ? Float.compare(scores[a], scores[b]) : Integer.compare(b, a));
+            for(int doc = open.nextSetBit(0); doc >= 0; doc = open.nextSetBit(doc + 1)){
+                if(searchId != null && searchIds[doc] != searchId) continue;
+                if(heap.size() < limit){
+                    heap.add(doc);
+                }else{
+                    int worst = heap.peek();
+                    if(scores[doc] > scores[worst]){
+                        heap.poll();
+                        heap.add(doc);
+                    }
+                }
+            }
+            List<Hit> result = new ArrayList<>(heap.size());
+            while(!heap.isEmpty()){
+                int doc = heap.poll();
+                result.add(new Hit(studyIds[doc], scores[doc]));
+            }
+            Collections.reverse(result);
+            return result;
+        }finally{
+            lock.readLock().unlock();
+        }
+    }
+
+    public static class Hit {
+        private final long studyId;
+        private final float score;
+
+        public Hit(long studyId, float score){
+            this.studyId = studyId;
+            this.score = score;
+        }
+
+        public long getStudyId(){
+            return studyId;
+        }
+
+        public float getScore(){
+            return score;
+        }
+    }
+
+    private static class Postings {
+        private int[] docs = new int[4];
+        private float[] frequencies = new float[4];
+        private int count;
+
+        void add(int doc, float frequency){
+            if(count == docs.length){
+                docs = Arrays.copyOf(docs, count * 2);
+                frequencies = Arrays.copyOf(frequencies, count * 2);
+            }
+            docs[count] = doc;
+            frequencies[count++] = frequency;
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.tfg.slr.searchservice.utils;
+
+import com.tfg.slr.searchservice.models.Study;
+import lombok.experimental.UtilityClass;
+
+import java.text.Normalizer;
+import java.util.*;
+
+/**
+ * Keys used by the duplicate detection. Every study gets one key for its normalized DOI and one key per
+ * MinHash-LSH band of its title shingles, so two studies share a key when they have the same DOI or, with
+ * high probability, when their titles are very similar. Coefficients are fixed so stored keys stay valid.
+ */
+@UtilityClass
+public class StudyFingerprints {
+
+    private final int SHINGLE_SIZE = 5;
+    private final int BANDS = 12;
+    private final int ROWS = 5;
+    private final long PRIME = 2147483647L;
+    private final long[] A = new long[BANDS * ROWS];
+    private final long[] B = new long[BANDS * ROWS];
+    private final double TITLE_SIMILARITY = 0.8;
+
+    static {
+        Random random = new Random(20230627L);
+        for(int i = 0; i < A.length; i++){
+            A[i] = 1 + random.nextInt(Integer.MAX_VALUE - 1);
+            B[i] = random.nextInt(Integer.MAX_VALUE);
+        }
+    }
+
+    public String normalizeDOI(String doi){
+        if(doi == null) return null;
+        String result = doi.trim().toLowerCase(Locale.ROOT)
+                .replaceFirst("^https?://(dx\\.)?doi\\.org/", "")
+                .replaceFirst("^doi:\\s*", "");
+        return result.isEmpty() ? null : result;
+    }
+
+    public String normalizeTitle(String title){
+        if(title == null) return "";
+        return Normalizer.normalize(title, Normalizer.Form.NFD)
+                .replaceAll("\\p{M}", "")
+                .toLowerCase(Locale.ROOT)
+                .replaceAll("[^a-z0-9]+", " ")
+                .trim();
+    }
+
+    public Set<String> shingles(String normalizedTitle){
+        Set<String> result = new HashSet<>();
+        if(normalizedTitle.length() <= SHINGLE_SIZE){
+            if(!normalizedTitle.isEmpty()) result.add(normalizedTitle);
+            return result;
+        }
+        for(int i = 0; i + SHINGLE_SIZE <= normalizedTitle.length(); i++){
+            result.add(normalizedTitle.substring(i, i + SHINGLE_SIZE));
+        }
+        return result;
+    }
+
+    /**
+     * @return the DOI key, if the study has a DOI, followed by one key per LSH band of the title
+     */
+    public Set<Long> keys(Study study){
+        Set<Long> keys = new LinkedHashSet<>();
+        String doi = normalizeDOI(study.getDOI());
+        if(doi != null){
+            keys.add(fnv("doi:" + doi));
+        }
+        Set<String> shingles = shingles(normalizeTitle(study.getTitle()));
+        if(shingles.isEmpty()) return keys;
+
+        long[] signature = new long[A.length];
+        Arrays.fill(signature, Long.MAX_VALUE);
+        for(String shingle : shingles){
+            long x = mix(shingle.hashCode()) % PRIME;
+            for(int i = 0; i < signature.length; i++){
+                long h = (A[i] * x + B[i]) % PRIME;
+                if(h < signature[i]) signature[i] = h;
+            }
+        }
+        for(int band = 0; band < BANDS; band++){
+            long h = band + 1;
+            for(int row = 0; row < ROWS; row++){
+                h = (h ^ signature[band * ROWS + row]) * 0x9E3779B97F4A7C15L;
+                h ^= h >>> 29;
+            }
+            keys.add(h);
+        }
+        return keys;
+    }
+
+    /**
+     * Checks a candidate returned by the key lookup. Same DOI means duplicate and different DOIs mean distinct
+     * studies. Without both DOIs, titles must have a shingle Jaccard similarity of at least 0.8 and first authors,
+     * when both are known, must share a name.
+     */
+    public boolean isDuplicate(Study study, Study candidate){
+        String doi = normalizeDOI(study.getDOI());
+        String candidateDoi = normalizeDOI(candidate.getDOI());
+        if(doi != null && candidateDoi != null){
+            return doi.equals(candidateDoi);
+        }
+        if(jaccard(shingles(normalizeTitle(study.getTitle())), shingles(normalizeTitle(candidate.getTitle()))) < TITLE_SIMILARITY){
+            return false;
+        }
+        Set<String> author = firstAuthor(study.getAuthor());
+        Set<String> candidateAuthor = firstAuthor(candidate.getAuthor());
+        return author.isEmpty() || candidateAuthor.isEmpty() || !Collections.disjoint(author, candidateAuthor);
+    }
+
+    private Set<String> firstAuthor(String authors){
+        Set<String> result = new HashSet<>();
+        if(authors == null) return result;
+        String first = authors.split("(?i)\\s+and\\s+|;")[0];
+        for(String token : normalizeTitle(first).split(" ")){
+            if(token.length() > 1) result.add(token);
+        }
+        return result;
+    }
+
+    private double jaccard(Set<String> a, Set<String> b){
+        if(a.isEmpty() || b.isEmpty()) return 0;
+        int intersection = 0;
+        for(String s : a){
+            if(b.contains(s)) intersection++;
+        }
+        return (double) intersection / (a.size() + b.size() - intersection);
+    }
+
+    private long mix(int value){
+        long h = value & 0xffffffffL;
+        h ^= h >>> 16;
+        h *= 0x85ebca6bL;
+        h ^= h >>> 13;
+        return h & 0x7fffffffL;
+    }
+
+    private long fnv(String value){
+        long h = 0xcbf29ce484222325L;
+        for(int i = 0; i < value.length(); i++){
+            h ^= value.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        return h;
+    }
+}
@@ -0,0 +1,30 @@
+package com.tfg.slr.searchservice.utils;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Reads a bibliographic export and maps each record to a Study. Implementations are Spring components,
+ * so a new format is supported just by adding another one. They must stream the input: only the record
+ * being read may be kept in memory.
+ */
+public interface StudyParser {
+
+    /**
+     * @return the name used to select this parser in the import endpoint (bibtex, ris, csv...)
+     */
+    String getFormat();
+
+    /**
+     * @return the file extensions, without the dot, that this parser understands
+     */
+    List<String> getExtensions();
+
+    /**
+     * @param reader the content of the export
+     * @param consumer receives one ParsedEntry per record, in file order
+     */
+    void read(Reader reader, Consumer<ParsedEntry> consumer) throws IOException;
+}
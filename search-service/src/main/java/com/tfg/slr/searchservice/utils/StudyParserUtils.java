@@ -0,0 +1,52 @@
+package com.tfg.slr.searchservice.utils;
+
+import com.tfg.slr.searchservice.models.Status;
+import com.tfg.slr.searchservice.models.Study;
+import lombok.experimental.UtilityClass;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+@UtilityClass
+public class StudyParserUtils {
+
+    private final String DOI_RESOLVER = "https://doi.org/";
+    private final Pattern YEAR = Pattern.compile("\\d{4}");
+
+    /**
+     * Builds an unclassified Study from the fields found in an export. Blank values are stored as null,
+     * so they are reported by the bean validation, and the DOI link is used when there is no URL.
+     */
+    public Study buildStudy(String title, String author, Integer year, String type, String venue, String doi, String url){
+        Study study = new Study();
+        study.setTitle(clean(title));
+        study.setAuthor(clean(author));
+        study.setYear(year);
+        study.setType(clean(type));
+        study.setVenue(clean(venue));
+        study.setDOI(clean(doi));
+        study.setSourceURL(clean(url));
+        if(study.getSourceURL() == null && study.getDOI() != null){
+            study.setSourceURL(DOI_RESOLVER + study.getDOI());
+        }
+        study.setSelectionStatus(Status.UNCLASSIFIED);
+        study.setExtractionStatus(Status.UNCLASSIFIED);
+        return study;
+    }
+
+    //Accepts plain years and dates such as 2020/05/01 or 2020-05
+    public Integer parseYear(String value){
+        if(clean(value) == null) return null;
+        Matcher matcher = YEAR.matcher(value);
+        if(!matcher.find()){
+            throw new IllegalArgumentException("Año no válido: " + value);
+        }
+        return Integer.parseInt(matcher.group());
+    }
+
+    public String clean(String value){
+        if(value == null) return null;
+        String result = value.trim();
+        return result.isEmpty() ? null : result;
+    }
+}
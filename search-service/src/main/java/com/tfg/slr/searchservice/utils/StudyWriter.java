@@ -0,0 +1,31 @@
+package com.tfg.slr.searchservice.utils;
+
+import com.tfg.slr.searchservice.dtos.StudyDTO;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Writes studies in a bibliographic format, one record at a time. It is the export counterpart of
+ * {@link StudyParser}: implementations are Spring components selected by format name, and they must not keep
+ * previous records in memory.
+ */
+public interface StudyWriter {
+
+    /**
+     * @return the name used to select this writer in the export endpoint (bibtex, ris, csv...)
+     */
+    String getFormat();
+
+    /**
+     * @return the file extension, without the dot, of the exported file
+     */
+    String getExtension();
+
+    String getContentType();
+
+    default void writeHeader(Writer writer) throws IOException {
+    }
+
+    void write(Writer writer, StudyDTO study) throws IOException;
+}
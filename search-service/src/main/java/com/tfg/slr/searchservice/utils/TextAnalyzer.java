@@ -0,0 +1,71 @@
+package com.tfg.slr.searchservice.utils;
+
+import lombok.experimental.UtilityClass;
+
+import java.text.Normalizer;
+import java.util.*;
+
+/**
+ * Turns titles, venues, keywords and research questions into comparable terms: lower case without accents, split on
+ * anything that is not a letter or digit, without stop words and with plurals reduced to the singular.
+ */
+@UtilityClass
+public class TextAnalyzer {
+
+    private static final Set<String> STOP_WORDS = new HashSet<>(Arrays.asList(
+            "a", "an", "and", "are", "as", "at", "be", "by", "can", "do", "does", "for", "from", "how", "in", "into",
+            "is", "it", "its", "of", "on", "or", "our", "that", "the", "their", "this", "to", "towards", "using", "via",
+            "what", "when", "which", "who", "why", "with",
+            "al", "como", "con", "cual", "cuales", "de", "del", "el", "en", "es", "la", "las", "lo", "los", "para",
+            "por", "que", "se", "son", "su", "sus", "un", "una", "y"));
+
+    public static List<String> analyze(String text){
+        if(text == null || text.isBlank()) return Collections.emptyList();
+        List<String> terms = new ArrayList<>();
+        StringBuilder token = new StringBuilder();
+        boolean accented = false;
+        for(int i = 0; i <= text.length(); i++){
+            char c = i < text.length() ? text.charAt(i) : ' ';
+            if(Character.isLetterOrDigit(c)){
+                token.append(Character.toLowerCase(c));
+                accented |= c > 127;
+            }else if(token.length() > 0){
+                addTerm(terms, accented ? stripAccents(token.toString()) : token.toString());
+                token.setLength(0);
+                accented = false;
+            }
+        }
+        return terms;
+    }
+
+    //Adds the terms of a text to a weighted query, repeated terms add up
+    public static void addTerms(Map<String, Float> query, String text, float weight){
+        for(String term : analyze(text)){
+            query.merge(term, weight, Float::sum);
+        }
+    }
+
+    private static void addTerm(List<String> terms, String token){
+        if(token.length() < 2 || STOP_WORDS.contains(token)) return;
+        terms.add(stem(token));
+    }
+
+    private static String stripAccents(String token){
+        return Normalizer.normalize(token, Normalizer.Form.NFD).replaceAll("\\p{M}", "");
+    }
+
+    //Plural removal only (S-stemmer), enough to match "systems" with "system" without distorting technical terms
+    static String stem(String term){
+        if(term.length() <= 3) return term;
+        if(term.endsWith("ies") && !term.endsWith("eies") && !term.endsWith("aies")){
+            return term.substring(0, term.length() - 3) + "y";
+        }
+        if(term.endsWith("es") && !term.endsWith("aes") && !term.endsWith("ees") && !term.endsWith("oes")){
+            return term.substring(0, term.length() - 1);
+        }
+        if(term.endsWith("s") && !term.endsWith("us") && !term.endsWith("ss")){
+            return term.substring(0, term.length() - 1);
+        }
+        return term;
+    }
+}
@@ -0,0 +1,120 @@
+package com.tfg.slr.searchservice;
+
+import com.tfg.slr.searchservice.dtos.StudyDTO;
+import com.tfg.slr.searchservice.models.FormInstance;
+import com.tfg.slr.searchservice.models.FormType;
+import com.tfg.slr.searchservice.models.Search;
+import com.tfg.slr.searchservice.models.Status;
+import com.tfg.slr.searchservice.models.Study;
+import com.tfg.slr.searchservice.repositories.StudyRepository;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Listing studies must take a constant number of statements, whatever the number of studies and their forms.
+ * Runs on an in-memory H2 database in PostgreSQL mode.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:study-list;MODE=PostgreSQL;NON_KEYWORDS=VALUE,YEAR,KEY",
+        "spring.datasource.driverClassName=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.database=h2",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.default_schema=PUBLIC",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.show-sql=false",
+        "eureka.client.enabled=false"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class StudyListQueryCountTest {
+
+    private static final int STUDIES = 1000;
+
+    @Autowired
+    private TestEntityManager entityManager;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private StudyRepository studyRepository;
+
+    private Statistics statistics;
+    private Search search;
+
+    @BeforeEach
+    void setUp(){
+        search = entityManager.persist(Search.builder().searchReference("REF-1").searchDate(new Date(0))
+                .searchString("query").observations("none").protocolId(7L).build());
+        for(int i = 0; i < STUDIES; i++){
+            Study study = Study.builder().title("Study " + i).author("Author").year(2020).type("Article")
+                    .sourceURL("https://example.org/" + i).selectionStatus(Status.ACCEPTED).extractionStatus(Status.UNCLASSIFIED)
+                    .score(0).DOI("10.1000/" + i).search(search)
+                    .extractionFormInstance(FormInstance.builder().formType(FormType.EXTRACTION).formId(3L).build())
+                    .qualityFormInstance(FormInstance.builder().formType(FormType.QUALITY).formId(4L).build()).build();
+            entityManager.persist(study);
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    private List<StudyDTO> toDTOs(Iterable<Study> studies){
+        List<StudyDTO> result = new ArrayList<>();
+        studies.forEach(study -> result.add(StudyDTO.buildFromEntity(study)));
+        return result;
+    }
+
+    @Test
+    void listBySearch_UsesOneStatement(){
+        List<StudyDTO> studies = toDTOs(studyRepository.findBySearchIdOrderByIdAsc(search.getId(), PageRequest.of(0, STUDIES)));
+
+        Assertions.assertEquals(STUDIES, studies.size());
+        Assertions.assertEquals("REF-1", studies.get(STUDIES - 1).getSearch());
+        Assertions.assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void listAll_UsesOneStatement(){
+        List<StudyDTO> studies = toDTOs(studyRepository.findAll());
+
+        Assertions.assertEquals(STUDIES, studies.size());
+        Assertions.assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void listByIds_UsesOneStatement(){
+        List<Long> ids = studyRepository.findIdsWithoutQualityForm(search.getId(), null, Status.ACCEPTED);
+        Assertions.assertTrue(ids.isEmpty());
+        ids = entityManager.getEntityManager().createQuery("select s.id from Study s", Long.class).getResultList();
+        statistics.clear();
+
+        List<StudyDTO> studies = toDTOs(studyRepository.findWithSearchByIdIn(ids));
+
+        Assertions.assertEquals(STUDIES, studies.size());
+        Assertions.assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void formsAreLoadedOnlyWhenUsed(){
+        Study study = studyRepository.findAll().get(0);
+        long listing = statistics.getPrepareStatementCount();
+
+        Assertions.assertEquals(FormType.EXTRACTION, study.getExtractionFormInstance().getFormType());
+        Assertions.assertEquals(listing + 1, statistics.getPrepareStatementCount());
+    }
+}
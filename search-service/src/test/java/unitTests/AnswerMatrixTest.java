@@ -0,0 +1,48 @@
+package unitTests;
+
+import com.tfg.slr.searchservice.utils.AnswerMatrix;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class AnswerMatrixTest {
+
+    private final List<String> rows = new ArrayList<>();
+
+    private AnswerMatrix matrix(String... fieldNames){
+        return new AnswerMatrix(Arrays.asList(fieldNames),
+                (studyId, title, doi, values) -> rows.add(studyId + "|" + title + "|" + doi + "|" + Arrays.toString(values)));
+    }
+
+    @Test
+    public void pivotsRowsAndDocumentsByStudy(){
+        AnswerMatrix matrix = matrix("Method", "Results");
+        matrix.accept(1L, "A", "10.1/a", null, "Results", "Positive");
+        matrix.accept(1L, "A", "10.1/a", null, "Method", "Survey");
+        matrix.accept(2L, "B", null, "{\"Method\":\"Case study\",\"Results\":null}", null, null);
+        matrix.accept(3L, "C", null, null, null, null);
+
+        Assertions.assertEquals(3, matrix.finish());
+        Assertions.assertEquals(Arrays.asList("1|A|10.1/a|[Survey, Positive]", "2|B|null|[Case study, null]",
+                "3|C|null|[null, null]"), rows);
+    }
+
+    @Test
+    public void ignoresFieldsOutsideTheDefinition(){
+        AnswerMatrix matrix = matrix("Method");
+        matrix.accept(1L, "A", null, "{\"Removed\":\"x\",\"Nested\":{\"Method\":\"y\"},\"Method\":\"Survey\"}", null, null);
+        matrix.accept(2L, "B", null, null, "Removed", "x");
+
+        Assertions.assertEquals(2, matrix.finish());
+        Assertions.assertEquals(Arrays.asList("1|A|null|[Survey]", "2|B|null|[null]"), rows);
+    }
+
+    @Test
+    public void emitsNothingWithoutRecords(){
+        Assertions.assertEquals(0, matrix("Method").finish());
+        Assertions.assertTrue(rows.isEmpty());
+    }
+}
@@ -0,0 +1,111 @@
+package unitTests;
+
+import com.tfg.slr.searchservice.dtos.CriteriaMatrixDTO;
+import com.tfg.slr.searchservice.models.CriteriaOrdinal;
+import com.tfg.slr.searchservice.models.Search;
+import com.tfg.slr.searchservice.models.Status;
+import com.tfg.slr.searchservice.models.Study;
+import com.tfg.slr.searchservice.repositories.CriteriaOrdinalRepository;
+import com.tfg.slr.searchservice.repositories.StudyCriteriaView;
+import com.tfg.slr.searchservice.repositories.StudyRepository;
+import com.tfg.slr.searchservice.services.implementations.AppliedCriteriaServiceImpl;
+import com.tfg.slr.searchservice.utils.CriteriaBitmap;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.*;
+
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class AppliedCriteriaServiceTest {
+
+    @InjectMocks
+    private AppliedCriteriaServiceImpl appliedCriteriaService;
+
+    @Mock
+    private CriteriaOrdinalRepository criteriaOrdinalRepository;
+    @Mock
+    private StudyRepository studyRepository;
+
+    private Study study(Long id){
+        Study study = new Study();
+        study.setId(id);
+        study.setSearch(Search.builder().id(1L).protocolId(7L).build());
+        return study;
+    }
+
+    private CriteriaOrdinal ordinal(Long criteriaId, int ordinal){
+        return CriteriaOrdinal.builder().protocolId(7L).criteriaId(criteriaId).ordinal(ordinal).build();
+    }
+
+    private StudyCriteriaView row(Long id, byte[] bitmap){
+        return new StudyCriteriaView() {
+            public Long getId() { return id; }
+            public Status getSelectionStatus() { return Status.REJECTED; }
+            public byte[] getAppliedCriteria() { return bitmap; }
+        };
+    }
+
+    @Test
+    public void apply_AssignsMissingOrdinalsOncePerProtocol(){
+        when(criteriaOrdinalRepository.findByProtocolIdOrderByOrdinalAsc(7L))
+                .thenReturn(Collections.singletonList(ordinal(10L, 0)))
+                .thenReturn(Arrays.asList(ordinal(10L, 0), ordinal(11L, 1)));
+        Study first = study(1L);
+        Study second = study(2L);
+
+        appliedCriteriaService.apply(Arrays.asList(first, second), Map.of(1L, Set.of(10L), 2L, Set.of(10L, 11L)));
+
+        verify(criteriaOrdinalRepository, times(1)).assign(7L, 11L);
+        verify(criteriaOrdinalRepository, times(2)).findByProtocolIdOrderByOrdinalAsc(7L);
+        Assertions.assertArrayEquals(new byte[]{1}, first.getAppliedCriteria());
+        Assertions.assertArrayEquals(new byte[]{3}, second.getAppliedCriteria());
+    }
+
+    @Test
+    public void apply_KeepsBitsSetConcurrently(){
+        when(criteriaOrdinalRepository.findByProtocolIdOrderByOrdinalAsc(7L)).thenReturn(Arrays.asList(ordinal(10L, 0), ordinal(11L, 1)));
+        //The loaded study has no criteria, another transaction applied criterion 11 before the lock was taken
+        Study study = study(1L);
+        when(studyRepository.findCriteriaByIdIn(Collections.singletonList(1L)))
+                .thenReturn(Collections.singletonList(row(1L, new byte[]{2})));
+
+        appliedCriteriaService.apply(Collections.singletonList(study), Map.of(1L, Set.of(10L)));
+
+        verify(studyRepository).lockByIdIn(Collections.singletonList(1L));
+        Assertions.assertArrayEquals(new byte[]{3}, study.getAppliedCriteria());
+    }
+
+    @Test
+    public void removeAndGetApplied(){
+        when(criteriaOrdinalRepository.findByProtocolIdOrderByOrdinalAsc(7L)).thenReturn(Arrays.asList(ordinal(10L, 0), ordinal(11L, 9)));
+        Study study = study(1L);
+        study.setAppliedCriteria(CriteriaBitmap.add(null, Arrays.asList(0, 9)));
+
+        Assertions.assertEquals(Set.of(10L, 11L), appliedCriteriaService.getApplied(study));
+        appliedCriteriaService.remove(study, Arrays.asList(10L, 99L));
+        Assertions.assertEquals(Set.of(11L), appliedCriteriaService.getApplied(study));
+        appliedCriteriaService.remove(study, Collections.singletonList(11L));
+        Assertions.assertNull(study.getAppliedCriteria());
+    }
+
+    @Test
+    public void getMatrix_RowsAndCounts(){
+        when(criteriaOrdinalRepository.findByProtocolIdOrderByOrdinalAsc(7L)).thenReturn(Arrays.asList(ordinal(10L, 0), ordinal(11L, 1)));
+        when(studyRepository.findCriteriaByProtocolId(7L)).thenReturn(Arrays.asList(row(1L, new byte[]{3}), row(2L, new byte[]{2}), row(3L, null)));
+
+        CriteriaMatrixDTO matrix = appliedCriteriaService.getMatrix(7L);
+
+        Assertions.assertEquals(Arrays.asList(10L, 11L), matrix.getCriteriaIds());
+        Assertions.assertEquals("11", matrix.getRows().get(0).getApplied());
+        Assertions.assertEquals("01", matrix.getRows().get(1).getApplied());
+        Assertions.assertEquals("00", matrix.getRows().get(2).getApplied());
+        Assertions.assertEquals(1L, matrix.getCounts().get(10L));
+        Assertions.assertEquals(2L, matrix.getCounts().get(11L));
+    }
+}
@@ -0,0 +1,133 @@
+package unitTests;
+
+import com.tfg.slr.searchservice.dtos.AutoExclusionReportDTO;
+import com.tfg.slr.searchservice.dtos.SelectionCriteriaDTO;
+import com.tfg.slr.searchservice.models.Search;
+import com.tfg.slr.searchservice.models.Status;
+import com.tfg.slr.searchservice.models.Study;
+import com.tfg.slr.searchservice.repositories.StudyRepository;
+import com.tfg.slr.searchservice.services.AppliedCriteriaService;
+import com.tfg.slr.searchservice.services.PrismaService;
+import com.tfg.slr.searchservice.services.ProtocolDataService;
+import com.tfg.slr.searchservice.services.RankingService;
+import com.tfg.slr.searchservice.services.ScreeningQueueService;
+import com.tfg.slr.searchservice.services.SearchService;
+import com.tfg.slr.searchservice.services.implementations.AutoExclusionServiceImpl;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.util.*;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class AutoExclusionServiceTest {
+
+    @InjectMocks
+    private AutoExclusionServiceImpl autoExclusionService;
+
+    @Mock
+    private StudyRepository studyRepository;
+    @Mock
+    private SearchService searchService;
+    @Mock
+    private ProtocolDataService protocolDataService;
+    @Mock
+    private AppliedCriteriaService appliedCriteriaService;
+    @Mock
+    private PrismaService prismaService;
+    @Mock
+    private ScreeningQueueService screeningQueueService;
+    @Mock
+    private RankingService rankingService;
+
+    private final Search search = Search.builder().id(1L).protocolId(7L).build();
+
+    private Study study(Long id, Integer year, Status status){
+        return Study.builder().id(id).year(year).selectionStatus(status).search(search).build();
+    }
+
+    private List<SelectionCriteriaDTO> criteria(){
+        return Arrays.asList(
+                SelectionCriteriaDTO.builder().id(10L).criteriaType("INCLUSION").ruleField("YEAR").minYear(2015).build(),
+                SelectionCriteriaDTO.builder().id(11L).criteriaType("EXCLUSION").ruleField("TYPE")
+                        .ruleValues(Collections.singletonList("thesis")).build(),
+                SelectionCriteriaDTO.builder().id(12L).criteriaType("EXCLUSION").build());
+    }
+
+    @Test
+    public void applyRules_RejectsOncePerStudy(){
+        Study first = study(1L, 2010, Status.UNCLASSIFIED);
+        Study second = study(2L, 2020, Status.UNCLASSIFIED);
+        when(protocolDataService.getSelectionCriteria(7L)).thenReturn(criteria());
+        when(studyRepository.findUnclassifiedRejectedBy(eq(7L), isNull(), any()))
+                .thenReturn(Collections.singletonList(1L))
+                .thenReturn(Arrays.asList(1L, 2L));
+        when(studyRepository.findWithSearchByIdIn(Arrays.asList(1L, 2L))).thenReturn(Arrays.asList(first, second));
+
+        AutoExclusionReportDTO report = autoExclusionService.applyRules(7L, null);
+
+        Assertions.assertEquals(2, report.getRules());
+        Assertions.assertEquals(2, report.getRejectedStudies());
+        Assertions.assertEquals(1, report.getRejectedByCriteria().get(10L));
+        Assertions.assertEquals(2, report.getRejectedByCriteria().get(11L));
+        verify(appliedCriteriaService).apply(eq(Arrays.asList(first, second)),
+                argThat(map -> map.get(1L).equals(Set.of(10L, 11L)) && map.get(2L).equals(Set.of(11L))));
+        InOrder order = inOrder(studyRepository);
+        order.verify(studyRepository).lockByIdIn(Arrays.asList(1L, 2L));
+        order.verify(studyRepository).findWithSearchByIdIn(Arrays.asList(1L, 2L));
+        verify(studyRepository).updateSelectionStatus(Arrays.asList(1L, 2L), Status.REJECTED);
+        verify(prismaService).statusChanged(1L, Status.UNCLASSIFIED, Status.REJECTED, 2L);
+    }
+
+    @Test
+    public void applyRules_SkipsClassifiedStudies(){
+        when(protocolDataService.getSelectionCriteria(7L)).thenReturn(criteria());
+        when(studyRepository.findUnclassifiedRejectedBy(eq(7L), eq(1L), any())).thenReturn(Collections.singletonList(1L));
+        when(studyRepository.findWithSearchByIdIn(Collections.singletonList(1L)))
+                .thenReturn(Collections.singletonList(study(1L, 2010, Status.ACCEPTED)));
+
+        AutoExclusionReportDTO report = autoExclusionService.applyRules(7L, 1L);
+
+        Assertions.assertEquals(0, report.getRejectedStudies());
+        verify(studyRepository, never()).updateSelectionStatus(any(), any());
+    }
+
+    @Test
+    public void applyRules_RequiresScope(){
+        Assertions.assertThrows(RuntimeException.class, () -> autoExclusionService.applyRules(null, null));
+    }
+
+    @Test
+    public void screenImported_RejectsMatchingStudies(){
+        Study old = study(1L, 2010, Status.UNCLASSIFIED);
+        Study recent = study(2L, 2020, Status.UNCLASSIFIED);
+        Study undated = study(3L, null, Status.UNCLASSIFIED);
+        when(protocolDataService.getSelectionCriteria(7L)).thenReturn(criteria());
+
+        int rejected = autoExclusionService.screenImported(Arrays.asList(old, recent, undated));
+
+        Assertions.assertEquals(1, rejected);
+        Assertions.assertEquals(Status.REJECTED, old.getSelectionStatus());
+        Assertions.assertEquals(Status.UNCLASSIFIED, recent.getSelectionStatus());
+        Assertions.assertEquals(Status.UNCLASSIFIED, undated.getSelectionStatus());
+        verify(appliedCriteriaService).apply(eq(Collections.singletonList(old)), eq(Map.of(1L, Set.of(10L))));
+    }
+
+    @Test
+    public void screenImported_KeepsStudiesWhenCriteriaUnavailable(){
+        Study old = study(1L, 2010, Status.UNCLASSIFIED);
+        when(protocolDataService.getSelectionCriteria(7L)).thenThrow(new ResourceAccessException("Connection refused"));
+
+        Assertions.assertEquals(0, autoExclusionService.screenImported(Collections.singletonList(old)));
+        Assertions.assertEquals(Status.UNCLASSIFIED, old.getSelectionStatus());
+        verifyNoInteractions(appliedCriteriaService);
+    }
+}
@@ -0,0 +1,83 @@
+package unitTests;
+
+import com.tfg.slr.searchservice.utils.BibTeXparser;
+import com.tfg.slr.searchservice.utils.ParsedEntry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+public class BibTeXparserTest {
+
+    private static final String ENTRY = "@ARTICLE{Quach2023,\n" +
+            "\tauthor = {Quach, Shirley and Brooks, Dina},\n" +
+            "\ttitle = {Mobile heath applications {(mHealth)} for self-management},\n" +
+            "\tyear = {2023},\n" +
+            "\tjournal = {Network Modeling Analysis in Health Informatics},\n" +
+            "\tdoi = {10.1007/s13721-023-00419-0},\n" +
+            "\turl = {https://www.scopus.com/inward/record.uri?eid=2-s2.0-85161276251},\n" +
+            "\ttype = {Review}\n" +
+            "}\n";
+
+    private List<ParsedEntry> parse(String content) throws Exception {
+        List<ParsedEntry> entries = new ArrayList<>();
+        BibTeXparser.parse(new StringReader(content), entries::add);
+        return entries;
+    }
+
+    @Test
+    public void parse_OK() throws Exception {
+        List<ParsedEntry> entries = parse("Scopus\nEXPORT DATE: 27 June 2023\n\n" + ENTRY);
+
+        Assertions.assertEquals(1, entries.size());
+        ParsedEntry entry = entries.get(0);
+        Assertions.assertFalse(entry.hasError());
+        Assertions.assertEquals("Quach2023", entry.getKey());
+        Assertions.assertEquals(2023, entry.getStudy().getYear());
+        Assertions.assertEquals("Review", entry.getStudy().getType());
+        Assertions.assertEquals("Network Modeling Analysis in Health Informatics", entry.getStudy().getVenue());
+        Assertions.assertEquals("10.1007/s13721-023-00419-0", entry.getStudy().getDOI());
+    }
+
+    @Test
+    public void parse_DoiAsUrl() throws Exception {
+        List<ParsedEntry> entries = parse("@inproceedings{Key1, title={T}, author={A}, year={2020}, booktitle={ICSE}, doi={10.1/x}}");
+
+        Assertions.assertEquals("https://doi.org/10.1/x", entries.get(0).getStudy().getSourceURL());
+        Assertions.assertEquals("inproceedings", entries.get(0).getStudy().getType());
+        Assertions.assertEquals("ICSE", entries.get(0).getStudy().getVenue());
+    }
+
+    @Test
+    public void parse_StringMacros() throws Exception {
+        List<ParsedEntry> entries = parse("@string{tse = \"IEEE Transactions on Software Engineering\"}\n" +
+                "@article{Key1, title={T}, author={A}, year={2020}, journal=tse}");
+
+        Assertions.assertEquals(1, entries.size());
+        Assertions.assertEquals("IEEE Transactions on Software Engineering", entries.get(0).getStudy().getVenue());
+    }
+
+    @Test
+    public void parse_MalformedEntryDoesNotStopImport() throws Exception {
+        List<ParsedEntry> entries = parse("@article{Broken, title={Unclosed, year={2020},\n" +
+                ENTRY +
+                "@article{BadYear, title={T}, author={A}, year={20x0}}\n");
+
+        Assertions.assertEquals(3, entries.size());
+        Assertions.assertTrue(entries.get(0).hasError());
+        Assertions.assertEquals("Broken", entries.get(0).getKey());
+        Assertions.assertFalse(entries.get(1).hasError());
+        Assertions.assertTrue(entries.get(2).hasError());
+        Assertions.assertEquals(3, entries.get(2).getIndex());
+    }
+
+    @Test
+    public void parse_ConsumerFailureIsNotAnEntryError(){
+        IllegalStateException failure = new IllegalStateException("flush failed");
+
+        Assertions.assertSame(failure, Assertions.assertThrows(IllegalStateException.class,
+                () -> BibTeXparser.parse(new StringReader(ENTRY), entry -> { throw failure; })));
+    }
+}
@@ -0,0 +1,72 @@
+package unitTests;
+
+import com.tfg.slr.searchservice.models.CitationDirection;
+import com.tfg.slr.searchservice.utils.CitationGraph;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CitationGraphTest {
+
+    //1 and 2 are studies; 1 cites 10 and 11, 2 cites 11, 11 cites 12, 20 cites 1, 21 cites 20
+    private CitationGraph graph(){
+        CitationGraph.Builder builder = CitationGraph.builder();
+        for(long id : new long[]{1, 2, 10, 11, 12, 20, 21}) builder.addNode(id);
+        builder.addEdge(1, 10).addEdge(1, 11).addEdge(2, 11).addEdge(11, 12).addEdge(20, 1).addEdge(21, 20)
+                .addEdge(1, 99);
+        return builder.build();
+    }
+
+    private List<Long> ids(CitationGraph.Expansion expansion){
+        return expansion.getReached().stream().map(CitationGraph.Reached::getNodeId).collect(Collectors.toList());
+    }
+
+    private List<Integer> seeds(CitationGraph graph, long... ids){
+        return Arrays.stream(ids).mapToObj(graph::indexOf).collect(Collectors.toList());
+    }
+
+    @Test
+    public void backwardExpansionOrdersByHopAndLinks(){
+        CitationGraph graph = graph();
+        BitSet seen = new BitSet();
+        seen.set(graph.indexOf(1));
+        seen.set(graph.indexOf(2));
+
+        CitationGraph.Expansion expansion = graph.expand(seeds(graph, 1, 2), seen, CitationDirection.BACKWARD, 2, 100, 100);
+
+        assertEquals(Arrays.asList(11L, 10L, 12L), ids(expansion));
+        assertEquals(2, expansion.getReached().get(0).getLinks());
+        assertEquals(2, expansion.getReached().get(2).getHop());
+        assertEquals(6, graph.edgeCount());
+        assertFalse(expansion.isTruncated());
+    }
+
+    @Test
+    public void forwardAndBothDirections(){
+        CitationGraph graph = graph();
+        BitSet seen = new BitSet();
+        seen.set(graph.indexOf(1));
+
+        assertEquals(Arrays.asList(20L, 21L), ids(graph.expand(seeds(graph, 1), seen, CitationDirection.FORWARD, 3, 100, 100)));
+        assertEquals(Arrays.asList(10L, 11L, 20L),
+                ids(graph.expand(seeds(graph, 1), seen, CitationDirection.BOTH, 1, 100, 100)));
+    }
+
+    @Test
+    public void seenStudiesAreNotExpandedAndLimitTruncates(){
+        CitationGraph graph = graph();
+        BitSet seen = new BitSet();
+        seen.set(graph.indexOf(1));
+        seen.set(graph.indexOf(11));
+
+        assertEquals(Collections.singletonList(10L), ids(graph.expand(seeds(graph, 1), seen, CitationDirection.BACKWARD, 3, 100, 100)));
+
+        CitationGraph.Expansion truncated = graph.expand(seeds(graph, 1), new BitSet(), CitationDirection.BOTH, 3, 1, 2);
+        assertTrue(truncated.isTruncated());
+        assertEquals(3, truncated.getReachedCount());
+        assertEquals(Arrays.asList(10L, 11L), ids(truncated));
+    }
+}
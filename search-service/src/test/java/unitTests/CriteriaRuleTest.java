@@ -0,0 +1,99 @@
+package unitTests;
+
+import com.tfg.slr.searchservice.dtos.SelectionCriteriaDTO;
+import com.tfg.slr.searchservice.models.Study;
+import com.tfg.slr.searchservice.utils.CriteriaRule;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+
+import java.util.Arrays;
+import java.util.List;
+
+public class CriteriaRuleTest {
+
+    private SelectionCriteriaDTO criteria(String type, String field, Integer minYear, Integer maxYear, String... values){
+        return SelectionCriteriaDTO.builder().id(1L).criterion("Rule").criteriaType(type).ruleField(field)
+                .minYear(minYear).maxYear(maxYear).ruleValues(Arrays.asList(values)).build();
+    }
+
+    private Study study(Integer year, String type, String language, String title){
+        return Study.builder().year(year).type(type).language(language).title(title).build();
+    }
+
+    @Test
+    public void compile_SkipsCriteriaWithoutRule(){
+        List<CriteriaRule> rules = CriteriaRule.compile(Arrays.asList(
+                criteria("EXCLUSION", null, null, null),
+                criteria("EXCLUSION", "UNKNOWN", null, null, "x"),
+                criteria("EXCLUSION", "TYPE", null, null, " ", ""),
+                criteria("INCLUSION", "YEAR", null, null),
+                criteria("INCLUSION", "year", 2015, null)));
+
+        Assertions.assertEquals(1, rules.size());
+        Assertions.assertEquals(CriteriaRule.Field.YEAR, rules.get(0).getField());
+    }
+
+    @Test
+    public void rejects_InclusionYearRange(){
+        CriteriaRule rule = CriteriaRule.compile(criteria("INCLUSION", "YEAR", 2015, 2020));
+
+        Assertions.assertTrue(rule.rejects(study(2014, null, null, null)));
+        Assertions.assertFalse(rule.rejects(study(2015, null, null, null)));
+        Assertions.assertFalse(rule.rejects(study(2020, null, null, null)));
+        Assertions.assertTrue(rule.rejects(study(2021, null, null, null)));
+        Assertions.assertFalse(rule.rejects(study(null, null, null, null)));
+    }
+
+    @Test
+    public void rejects_ExclusionValuesIgnoreCase(){
+        CriteriaRule rule = CriteriaRule.compile(criteria("EXCLUSION", "TYPE", null, null, " Thesis ", "BOOK"));
+
+        Assertions.assertTrue(rule.rejects(study(null, "thesis", null, null)));
+        Assertions.assertTrue(rule.rejects(study(null, "Book ", null, null)));
+        Assertions.assertFalse(rule.rejects(study(null, "Article", null, null)));
+        Assertions.assertFalse(rule.rejects(study(null, null, null, null)));
+    }
+
+    @Test
+    public void rejects_InclusionLanguageKeepsMissingValues(){
+        CriteriaRule rule = CriteriaRule.compile(criteria("INCLUSION", "LANGUAGE", null, null, "English"));
+
+        Assertions.assertFalse(rule.rejects(study(null, null, "english", null)));
+        Assertions.assertTrue(rule.rejects(study(null, null, "Spanish", null)));
+        Assertions.assertFalse(rule.rejects(study(null, null, null, null)));
+    }
+
+    @Test
+    public void rejects_TitleKeywords(){
+        CriteriaRule rule = CriteriaRule.compile(criteria("EXCLUSION", "TITLE", null, null, "survey", "100%"));
+
+        Assertions.assertTrue(rule.rejects(study(null, null, null, "A Survey of Testing")));
+        Assertions.assertTrue(rule.rejects(study(null, null, null, "Reaching 100% coverage")));
+        Assertions.assertFalse(rule.rejects(study(null, null, null, "Mutation testing")));
+    }
+
+    @Test
+    public void toSql_BindsValuesAsParameters(){
+        MapSqlParameterSource parameters = new MapSqlParameterSource();
+
+        String exclusion = CriteriaRule.compile(criteria("EXCLUSION", "TITLE", null, null, "100%_"))
+                .toSql("s", "r0", parameters);
+        String inclusion = CriteriaRule.compile(criteria("INCLUSION", "YEAR", null, 2020))
+                .toSql("s", "r1", parameters);
+
+        Assertions.assertEquals("(lower(nullif(trim(s.title), '')) like :r00 escape '!')", exclusion);
+        Assertions.assertEquals("%100!%!_%", parameters.getValue("r00"));
+        Assertions.assertEquals("(s.year is not null and not (s.year <= :r1max))", inclusion);
+        Assertions.assertEquals(2020, parameters.getValue("r1max"));
+    }
+
+    @Test
+    public void toSql_TreatsBlankTextAsMissing(){
+        String inclusion = CriteriaRule.compile(criteria("INCLUSION", "TYPE", null, null, "article"))
+                .toSql("s", "r0", new MapSqlParameterSource());
+
+        Assertions.assertFalse(CriteriaRule.compile(criteria("INCLUSION", "TYPE", null, null, "article")).rejects(study(null, "  ", null, null)));
+        Assertions.assertEquals("(nullif(trim(s.type), '') is not null and not (lower(nullif(trim(s.type), '')) in (:r0values)))", inclusion);
+    }
+}
@@ -0,0 +1,108 @@
+package unitTests;
+
+import com.tfg.slr.searchservice.models.Search;
+import com.tfg.slr.searchservice.models.Status;
+import com.tfg.slr.searchservice.models.Study;
+import com.tfg.slr.searchservice.repositories.StudyFingerprintRepository;
+import com.tfg.slr.searchservice.repositories.StudyRepository;
+import com.tfg.slr.searchservice.services.PrismaService;
+import com.tfg.slr.searchservice.services.AutoExclusionService;
+import com.tfg.slr.searchservice.services.RankingService;
+import com.tfg.slr.searchservice.services.implementations.DeduplicationServiceImpl;
+import com.tfg.slr.searchservice.utils.StudyFingerprints;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class DeduplicationServiceTest {
+
+    @InjectMocks
+    private DeduplicationServiceImpl deduplicationService;
+
+    @Mock
+    private StudyRepository studyRepository;
+    @Mock
+    private StudyFingerprintRepository studyFingerprintRepository;
+    @Mock
+    private PrismaService prismaService;
+    @Mock
+    private RankingService rankingService;
+    @Mock
+    private AutoExclusionService autoExclusionService;
+
+    private Study study(Long id, String title, String author, String doi){
+        Study study = new Study();
+        study.setId(id);
+        study.setTitle(title);
+        study.setAuthor(author);
+        study.setDOI(doi);
+        study.setSelectionStatus(Status.UNCLASSIFIED);
+        study.setSearch(Search.builder().id(1L).protocolId(7L).build());
+        return study;
+    }
+
+    @Test
+    public void keys_SameForNormalizedDOI(){
+        Study a = study(1L, "A", "X", "https://doi.org/10.1000/ABC");
+        Study b = study(2L, "B", "Y", "doi:10.1000/abc");
+
+        Assertions.assertEquals(StudyFingerprints.keys(a).iterator().next(), StudyFingerprints.keys(b).iterator().next());
+        Assertions.assertTrue(StudyFingerprints.isDuplicate(a, b));
+    }
+
+    @Test
+    public void isDuplicate_NearTitles(){
+        Study a = study(1L, "Systematic review of digital twin technology and applications", "Yao, Jun-Feng and Yang, Yong", null);
+        Study b = study(2L, "Systematic Review of Digital-Twin Technology and Applications.", "J. Yao; Y. Yang", null);
+        Study c = study(3L, "Systematic review of digital twin technology in manufacturing", "Yao, Jun-Feng", null);
+
+        Assertions.assertTrue(StudyFingerprints.isDuplicate(a, b));
+        Assertions.assertFalse(StudyFingerprints.isDuplicate(a, c));
+        Assertions.assertFalse(Collections.disjoint(StudyFingerprints.keys(a), StudyFingerprints.keys(b)));
+    }
+
+    @Test
+    public void saveAndDeduplicate_MarksStoredAndInListDuplicates(){
+        Study stored = study(10L, "Mobile health applications for self-management", "Quach, Shirley", "10.1007/s13721");
+        Study fromOtherSource = study(null, "Mobile health applications for self management", "Quach S.", "10.1007/S13721");
+        Study fresh = study(null, "Entrepreneurial leadership and organizational culture", "Shiferaw, Robson", null);
+        Study freshAgain = study(null, "Entrepreneurial leadership and organisational culture", "Shiferaw R.", null);
+        List<Study> batch = Arrays.asList(fromOtherSource, fresh, freshAgain);
+
+        when(studyFingerprintRepository.findCandidatesByProtocol(eq(7L), anyCollection())).thenReturn(Collections.singletonList(stored));
+        when(studyRepository.saveAll(any())).thenReturn(batch);
+
+        deduplicationService.saveAndDeduplicate(batch);
+
+        Assertions.assertEquals(Status.DUPLICATED, fromOtherSource.getSelectionStatus());
+        Assertions.assertEquals(Status.UNCLASSIFIED, fresh.getSelectionStatus());
+        Assertions.assertEquals(Status.DUPLICATED, freshAgain.getSelectionStatus());
+    }
+
+    @Test
+    public void saveAndDeduplicate_KeepsDecidedStudies(){
+        Study stored = study(10L, "Mobile health applications", "Quach, Shirley", "10.1007/s13721");
+        Study accepted = study(null, "Mobile health applications", "Quach, Shirley", "10.1007/s13721");
+        accepted.setSelectionStatus(Status.ACCEPTED);
+        List<Study> batch = Collections.singletonList(accepted);
+
+        when(studyFingerprintRepository.findCandidatesByProtocol(eq(7L), anyCollection())).thenReturn(Collections.singletonList(stored));
+        when(studyRepository.saveAll(any())).thenReturn(batch);
+
+        deduplicationService.saveAndDeduplicate(batch);
+        Assertions.assertEquals(Status.ACCEPTED, accepted.getSelectionStatus());
+    }
+}
@@ -0,0 +1,107 @@
+package unitTests;
+
+import com.tfg.slr.searchservice.utils.ExpiringCache;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ExpiringCacheTest {
+
+    @Test
+    public void getLoadsOnceAndThenHits(){
+        ExpiringCache<Long, String> cache = new ExpiringCache<>("test", 10, 60000);
+        AtomicInteger calls = new AtomicInteger();
+
+        assertEquals("1", cache.get(1L, key -> { calls.incrementAndGet(); return key.toString(); }));
+        assertEquals("1", cache.get(1L, key -> { calls.incrementAndGet(); return key.toString(); }));
+
+        assertEquals(1, calls.get());
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getMisses());
+    }
+
+    @Test
+    public void expiredEntriesAreReloaded() throws InterruptedException {
+        ExpiringCache<Long, String> cache = new ExpiringCache<>("test", 10, 1);
+        AtomicInteger calls = new AtomicInteger();
+
+        cache.get(1L, key -> { calls.incrementAndGet(); return "a"; });
+        Thread.sleep(5);
+        cache.get(1L, key -> { calls.incrementAndGet(); return "b"; });
+
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    public void leastRecentlyUsedEntryIsEvicted(){
+        ExpiringCache<Long, String> cache = new ExpiringCache<>("test", 2, 60000);
+
+        cache.get(1L, key -> "1");
+        cache.get(2L, key -> "2");
+        cache.get(1L, key -> "1");
+        cache.get(3L, key -> "3");
+
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.getEvictions());
+        assertEquals("reloaded", cache.get(2L, key -> "reloaded"));
+        assertEquals("3", cache.get(3L, key -> "other"));
+    }
+
+    @Test
+    public void invalidateForcesReload(){
+        ExpiringCache<Long, String> cache = new ExpiringCache<>("test", 10, 60000);
+
+        cache.get(1L, key -> "old");
+        cache.invalidate(1L);
+
+        assertEquals("new", cache.get(1L, key -> "new"));
+    }
+
+    @Test
+    public void failedLoadsAreNotCached(){
+        ExpiringCache<Long, String> cache = new ExpiringCache<>("test", 10, 60000);
+
+        assertThrows(IllegalStateException.class, () -> cache.get(1L, key -> { throw new IllegalStateException(); }));
+
+        assertEquals("ok", cache.get(1L, key -> "ok"));
+        assertEquals(1, cache.getLoadFailures());
+    }
+
+    @Test
+    public void concurrentMissesShareOneLoad() throws Exception {
+        ExpiringCache<Long, String> cache = new ExpiringCache<>("test", 10, 60000);
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        List<Future<String>> results = new ArrayList<>();
+        for(int i = 0; i < 8; i++){
+            results.add(executor.submit(() -> cache.get(1L, key -> {
+                calls.incrementAndGet();
+                try{
+                    release.await(5, TimeUnit.SECONDS);
+                }catch (InterruptedException e){
+                    Thread.currentThread().interrupt();
+                }
+                return "value";
+            })));
+        }
+        Thread.sleep(100);
+        release.countDown();
+
+        for(Future<String> result : results){
+            assertEquals("value", result.get(5, TimeUnit.SECONDS));
+        }
+        executor.shutdown();
+        assertEquals(1, calls.get());
+    }
+}
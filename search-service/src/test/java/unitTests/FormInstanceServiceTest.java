@@ -0,0 +1,182 @@
+package unitTests;
+
+import com.tfg.slr.searchservice.dtos.BulkFormReportDTO;
+import com.tfg.slr.searchservice.dtos.FormFieldInstanceDTO;
+import com.tfg.slr.searchservice.dtos.FormMigrationReportDTO;
+import com.tfg.slr.searchservice.exceptions.ItemsNotFoundException;
+import com.tfg.slr.searchservice.exceptions.FormInstanceNotFoundException;
+import com.tfg.slr.searchservice.exceptions.NullEntityException;
+import com.tfg.slr.searchservice.models.FormFieldInstance;
+import com.tfg.slr.searchservice.models.FormInstance;
+import com.tfg.slr.searchservice.models.FormStorage;
+import com.tfg.slr.searchservice.models.FormType;
+import com.tfg.slr.searchservice.models.Search;
+import com.tfg.slr.searchservice.models.Status;
+import com.tfg.slr.searchservice.repositories.FormInstanceRepository;
+import com.tfg.slr.searchservice.repositories.StudyRepository;
+import com.tfg.slr.searchservice.services.ProtocolDataService;
+import com.tfg.slr.searchservice.services.SearchService;
+import com.tfg.slr.searchservice.services.implementations.FormInstanceServiceImpl;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class FormInstanceServiceTest {
+
+    private FormInstanceServiceImpl formInstanceService;
+
+    @Mock
+    private FormInstanceRepository formInstanceRepository;
+    @Mock
+    private StudyRepository studyRepository;
+    @Mock
+    private SearchService searchService;
+    @Mock
+    private ProtocolDataService protocolDataService;
+
+    @BeforeEach
+    public void setUp(){
+        formInstanceService = new FormInstanceServiceImpl(formInstanceRepository, null, null, protocolDataService,
+                studyRepository, searchService, FormStorage.ROWS);
+    }
+
+    private List<FormFieldInstanceDTO> definition(){
+        return Arrays.asList(FormFieldInstanceDTO.builder().formId(3L).fieldName("Method").build(),
+                FormFieldInstanceDTO.builder().formId(3L).fieldName("Results").build());
+    }
+
+    @Test
+    public void createForAccepted_FetchesDefinitionOnceAndBatches(){
+        List<Long> studyIds = LongStream.rangeClosed(1, 1200).boxed().collect(Collectors.toList());
+        when(protocolDataService.getFormFields(7L, FormType.EXTRACTION)).thenReturn(definition());
+        when(studyRepository.findIdsWithoutExtractionForm(null, 7L, Status.ACCEPTED)).thenReturn(studyIds);
+        when(formInstanceRepository.insertForStudies(eq(FormType.EXTRACTION), eq(3L), anyList(), eq(Arrays.asList("Method", "Results")), isNull()))
+                .thenAnswer(invocation -> ((List<?>) invocation.getArgument(2)).size());
+
+        BulkFormReportDTO report = formInstanceService.createForAccepted(FormType.EXTRACTION, null, 7L);
+
+        Assertions.assertEquals(1200, report.getPendingStudies());
+        Assertions.assertEquals(1200, report.getCreatedInstances());
+        Assertions.assertEquals(2, report.getFieldsPerInstance());
+        Assertions.assertEquals(3L, report.getFormId());
+        verify(protocolDataService, times(1)).getFormFields(7L, FormType.EXTRACTION);
+        verify(formInstanceRepository, times(3)).insertForStudies(any(), any(), anyList(), anyList(), any());
+    }
+
+    @Test
+    public void createForAccepted_ResolvesProtocolFromSearch(){
+        when(searchService.findOne(2L)).thenReturn(Search.builder().id(2L).protocolId(7L).build());
+        when(protocolDataService.getFormFields(7L, FormType.QUALITY)).thenReturn(definition());
+        when(studyRepository.findIdsWithoutQualityForm(2L, null, Status.ACCEPTED)).thenReturn(Collections.emptyList());
+
+        BulkFormReportDTO report = formInstanceService.createForAccepted(FormType.QUALITY, 2L, null);
+
+        Assertions.assertEquals(7L, report.getProtocolId());
+        Assertions.assertEquals(0, report.getCreatedInstances());
+        verify(formInstanceRepository, never()).insertForStudies(any(), any(), anyList(), anyList(), any());
+    }
+
+    @Test
+    public void createForAccepted_FailsWithoutForm(){
+        when(protocolDataService.getFormFields(7L, FormType.EXTRACTION)).thenReturn(Collections.emptyList());
+
+        Assertions.assertThrows(ItemsNotFoundException.class, () -> formInstanceService.createForAccepted(FormType.EXTRACTION, null, 7L));
+    }
+
+    @Test
+    public void createForAccepted_RequiresScope(){
+        Assertions.assertThrows(NullEntityException.class, () -> formInstanceService.createForAccepted(FormType.EXTRACTION, null, null));
+    }
+
+    @Test
+    public void createForAccepted_DocumentStorageSkipsFieldRows(){
+        formInstanceService = new FormInstanceServiceImpl(formInstanceRepository, null, null, protocolDataService,
+                studyRepository, searchService, FormStorage.DOCUMENT);
+        when(protocolDataService.getFormFields(7L, FormType.EXTRACTION)).thenReturn(definition());
+        when(studyRepository.findIdsWithoutExtractionForm(null, 7L, Status.ACCEPTED)).thenReturn(Arrays.asList(1L, 2L));
+
+        formInstanceService.createForAccepted(FormType.EXTRACTION, null, 7L);
+
+        verify(formInstanceRepository).insertForStudies(eq(FormType.EXTRACTION), eq(3L), eq(Arrays.asList(1L, 2L)),
+                anyList(), eq("{\"Method\":null,\"Results\":null}"));
+    }
+
+    @Test
+    public void getAnswers_ReadsDocumentAndRows(){
+        when(formInstanceRepository.findFormInstanceById(1L))
+                .thenReturn(Optional.of(FormInstance.builder().id(1L).storage(FormStorage.DOCUMENT).build()));
+        when(formInstanceRepository.findAnswers(1L)).thenReturn(Optional.of("{\"Method\":\"Survey\",\"Results\":null}"));
+        FormInstance rows = FormInstance.builder().id(2L).fields(new HashSet<>(Arrays.asList(
+                FormFieldInstance.builder().name("Method").value("Survey").build(),
+                FormFieldInstance.builder().name("Results").build()))).build();
+        when(formInstanceRepository.findFormInstanceById(2L)).thenReturn(Optional.of(rows));
+
+        Map<String, String> document = formInstanceService.getAnswers(1L);
+
+        Assertions.assertEquals(document, formInstanceService.getAnswers(2L));
+        Assertions.assertEquals("Survey", document.get("Method"));
+        Assertions.assertTrue(document.containsKey("Results"));
+    }
+
+    @Test
+    public void saveAnswers_MergesDocumentAndRejectsUnknownFields(){
+        when(formInstanceRepository.findFormInstanceById(1L))
+                .thenReturn(Optional.of(FormInstance.builder().id(1L).storage(FormStorage.DOCUMENT).build()));
+        when(formInstanceRepository.findAnswers(1L)).thenReturn(Optional.of("{\"Method\":null,\"Results\":null}"));
+
+        Map<String, String> answers = formInstanceService.saveAnswers(1L, Map.of("Method", "Survey"));
+
+        Assertions.assertEquals("Survey", answers.get("Method"));
+        verify(formInstanceRepository).mergeAnswers(1L, "{\"Method\":\"Survey\"}");
+        Assertions.assertThrows(IllegalArgumentException.class, () -> formInstanceService.saveAnswers(1L, Map.of("Year", "2020")));
+    }
+
+    @Test
+    public void migrateToDocuments_WalksInstancesByKey(){
+        List<Long> first = LongStream.rangeClosed(1, 500).boxed().collect(Collectors.toList());
+        when(formInstanceRepository.findRowInstanceIds(0L, 500)).thenReturn(first);
+        when(formInstanceRepository.findRowInstanceIds(500L, 500)).thenReturn(Arrays.asList(501L, 502L));
+        when(formInstanceRepository.findRowInstanceIds(502L, 500)).thenReturn(Collections.emptyList());
+        when(formInstanceRepository.migrateToDocuments(anyList())).thenAnswer(invocation -> ((List<?>) invocation.getArgument(0)).size());
+
+        FormMigrationReportDTO report = formInstanceService.migrateToDocuments();
+
+        Assertions.assertEquals(2, report.getBatches());
+        Assertions.assertEquals(502, report.getMigratedInstances());
+    }
+
+    @Test
+    public void deleteAllOfForm_DeletesInBulk(){
+        when(formInstanceRepository.deleteByFormId(3L)).thenReturn(40);
+
+        Assertions.assertEquals(40, formInstanceService.deleteAllOfForm(3L));
+
+        verify(formInstanceRepository).unlinkExtractionInstances(3L);
+        verify(formInstanceRepository).unlinkQualityInstances(3L);
+        verify(formInstanceRepository).deleteFieldsByFormId(3L);
+    }
+
+    @Test
+    public void deleteFromProtocol_WithoutInstances(){
+        Assertions.assertThrows(FormInstanceNotFoundException.class, () -> formInstanceService.deleteFromProtocol(3L));
+    }
+}
@@ -0,0 +1,122 @@
+package unitTests;
+
+import com.tfg.slr.searchservice.dtos.PrismaDTO;
+import com.tfg.slr.searchservice.exceptions.SearchNotFoundException;
+import com.tfg.slr.searchservice.models.PrismaCounter;
+import com.tfg.slr.searchservice.models.Search;
+import com.tfg.slr.searchservice.models.Status;
+import com.tfg.slr.searchservice.models.Study;
+import com.tfg.slr.searchservice.repositories.PrismaCounterRepository;
+import com.tfg.slr.searchservice.repositories.SearchRepository;
+import com.tfg.slr.searchservice.repositories.StatusCountView;
+import com.tfg.slr.searchservice.repositories.StudyRepository;
+import com.tfg.slr.searchservice.services.implementations.PrismaServiceImpl;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.*;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class PrismaServiceTest {
+
+    @InjectMocks
+    private PrismaServiceImpl prismaService;
+
+    @Mock
+    private PrismaCounterRepository prismaCounterRepository;
+    @Mock
+    private StudyRepository studyRepository;
+    @Mock
+    private SearchRepository searchRepository;
+
+    private Study study(Long searchId, Status status){
+        Study study = new Study();
+        study.setSelectionStatus(status);
+        study.setSearch(Search.builder().id(searchId).build());
+        return study;
+    }
+
+    private StatusCountView count(Long searchId, Status status, long total){
+        return new StatusCountView() {
+            public Long getSearchId() { return searchId; }
+            public Status getStatus() { return status; }
+            public Long getTotal() { return total; }
+        };
+    }
+
+    @Test
+    public void studiesAdded_IncrementsPerSearch(){
+        when(prismaCounterRepository.increment(anyLong(), anyLong(), anyLong(), anyLong(), anyLong(), anyLong())).thenReturn(1);
+
+        prismaService.studiesAdded(Arrays.asList(study(1L, Status.UNCLASSIFIED), study(1L, Status.DUPLICATED),
+                study(1L, Status.UNCLASSIFIED), study(2L, Status.UNCLASSIFIED)));
+
+        verify(prismaCounterRepository).increment(1L, 3L, 1L, 2L, 0L, 0L);
+        verify(prismaCounterRepository).increment(2L, 1L, 0L, 1L, 0L, 0L);
+    }
+
+    @Test
+    public void statusChanged_MovesBetweenCounters(){
+        when(prismaCounterRepository.increment(anyLong(), anyLong(), anyLong(), anyLong(), anyLong(), anyLong())).thenReturn(1);
+
+        prismaService.statusChanged(1L, Status.UNCLASSIFIED, Status.REJECTED, 4);
+        prismaService.statusChanged(1L, Status.ACCEPTED, Status.ACCEPTED, 1);
+
+        verify(prismaCounterRepository, times(1)).increment(1L, 0L, 0L, -4L, 0L, 4L);
+    }
+
+    @Test
+    public void statusChanged_CreatesMissingCounter(){
+        when(prismaCounterRepository.increment(anyLong(), anyLong(), anyLong(), anyLong(), anyLong(), anyLong())).thenReturn(0);
+        when(prismaCounterRepository.createCounted(1L)).thenReturn(1);
+
+        prismaService.statusChanged(1L, Status.UNCLASSIFIED, Status.ACCEPTED, 1);
+
+        //The count already includes the change, so it is not applied again
+        verify(prismaCounterRepository, times(1)).increment(1L, 0L, 0L, -1L, 1L, 0L);
+        verify(prismaCounterRepository, never()).saveAll(any());
+    }
+
+    @Test
+    public void statusChanged_CounterCreatedConcurrently(){
+        when(prismaCounterRepository.increment(anyLong(), anyLong(), anyLong(), anyLong(), anyLong(), anyLong()))
+                .thenReturn(0).thenReturn(1);
+        when(prismaCounterRepository.createCounted(1L)).thenReturn(0);
+
+        prismaService.statusChanged(1L, Status.UNCLASSIFIED, Status.ACCEPTED, 1);
+
+        verify(prismaCounterRepository, times(2)).increment(1L, 0L, 0L, -1L, 1L, 0L);
+    }
+
+    @Test
+    public void statusChanged_SearchNotFound(){
+        when(prismaCounterRepository.increment(anyLong(), anyLong(), anyLong(), anyLong(), anyLong(), anyLong())).thenReturn(0);
+
+        Assertions.assertThrows(SearchNotFoundException.class,
+                () -> prismaService.statusChanged(1L, Status.UNCLASSIFIED, Status.ACCEPTED, 1));
+    }
+
+    @Test
+    public void getByProtocol_AddsSearches(){
+        when(prismaCounterRepository.findByProtocolId(7L)).thenReturn(Arrays.asList(
+                PrismaCounter.builder().searchId(1L).dataSourceId(9L).identified(10).duplicated(2).accepted(3).rejected(4).unclassified(1).build(),
+                PrismaCounter.builder().searchId(2L).dataSourceId(9L).identified(5).duplicated(1).accepted(1).rejected(1).unclassified(2).build()));
+
+        PrismaDTO prisma = prismaService.getByProtocol(7L);
+
+        Assertions.assertEquals(15, prisma.getIdentified());
+        Assertions.assertEquals(3, prisma.getDuplicatesRemoved());
+        Assertions.assertEquals(12, prisma.getScreened());
+        Assertions.assertEquals(5, prisma.getExcluded());
+        Assertions.assertEquals(4, prisma.getIncluded());
+        Assertions.assertEquals(15L, prisma.getIdentifiedByDataSource().get(9L));
+    }
+}
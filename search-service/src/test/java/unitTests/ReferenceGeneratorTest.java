@@ -0,0 +1,65 @@
+package unitTests;
+
+import com.tfg.slr.searchservice.utils.ReferenceGenerator;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class ReferenceGeneratorTest {
+
+    @InjectMocks
+    private ReferenceGenerator referenceGenerator;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    public void generateRef_OneQueryPerBlock(){
+        when(jdbcTemplate.queryForObject(anyString(), eq(Long.class))).thenReturn(1L, 101L, 201L);
+
+        Set<String> references = new HashSet<>();
+        for(int i = 0; i < 250; i++){
+            references.add(referenceGenerator.generateRef());
+        }
+
+        Assertions.assertEquals(250, references.size());
+        verify(jdbcTemplate, times(3)).queryForObject(anyString(), eq(Long.class));
+    }
+
+    @Test
+    public void encode_Format(){
+        Assertions.assertEquals("S-000001", ReferenceGenerator.encode(1).substring(0, 8));
+        Assertions.assertEquals("S-000010", ReferenceGenerator.encode(32).substring(0, 8));
+        Assertions.assertTrue(ReferenceGenerator.encode(1L << 35).matches("S-[0-9A-Z]{8}-[0-9A-Z]"));
+    }
+
+    @Test
+    public void isValid_DetectsSingleErrors(){
+        String reference = ReferenceGenerator.encode(123456);
+        Assertions.assertTrue(ReferenceGenerator.isValid(reference));
+        Assertions.assertFalse(ReferenceGenerator.isValid("abc-12345"));
+
+        String alphabet = "0123456789ABCDEFGHJKMNPQRSTVWXYZ";
+        for(int position = 2; position < reference.length() - 2; position++){
+            for(char symbol : alphabet.toCharArray()){
+                if(symbol == reference.charAt(position)) continue;
+                String mistyped = reference.substring(0, position) + symbol + reference.substring(position + 1);
+                Assertions.assertFalse(ReferenceGenerator.isValid(mistyped), mistyped);
+            }
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package unitTests;
+
+import com.tfg.slr.searchservice.utils.RelevanceIndex;
+import com.tfg.slr.searchservice.utils.TextAnalyzer;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RelevanceIndexTest {
+
+    private Map<String, Float> query(String text){
+        Map<String, Float> query = new HashMap<>();
+        TextAnalyzer.addTerms(query, text, 1f);
+        return query;
+    }
+
+    private List<Long> ids(List<RelevanceIndex.Hit> hits){
+        return hits.stream().map(RelevanceIndex.Hit::getStudyId).collect(Collectors.toList());
+    }
+
+    @Test
+    public void analyzeNormalizesTerms(){
+        assertEquals(Arrays.asList("microservice", "architecture", "migracion", "study"),
+                TextAnalyzer.analyze("Microservices and the Architecture of Migración: studies"));
+    }
+
+    @Test
+    public void topOrdersByRelevanceAndSkipsClosedStudies(){
+        RelevanceIndex index = new RelevanceIndex();
+        index.add(1L, 10L, "A survey on cooking recipes", "Food Journal", true);
+        index.add(2L, 10L, "Microservice architectures: a systematic mapping", "ICSE", true);
+        index.add(3L, 10L, "Migrating monoliths to microservices", "Software Journal", true);
+        index.add(4L, 10L, "Microservices", "Microservices Conference", false);
+
+        List<RelevanceIndex.Hit> hits = index.top(query("microservices architecture"), null, 3);
+
+        assertEquals(Arrays.asList(2L, 3L, 1L), ids(hits));
+        assertTrue(hits.get(0).getScore() > hits.get(1).getScore());
+        assertEquals(0f, hits.get(2).getScore());
+        assertEquals(3, index.openCount());
+    }
+
+    @Test
+    public void updatesAreVisibleToNextRanking(){
+        RelevanceIndex index = new RelevanceIndex();
+        index.add(1L, 10L, "Microservices in practice", null, true);
+        index.add(2L, 20L, "Microservices testing", null, true);
+
+        assertEquals(Collections.singletonList(2L), ids(index.top(query("microservices"), 20L, 5)));
+
+        index.setOpen(Collections.singletonList(1L), false);
+        index.add(3L, 10L, "Microservices, microservices everywhere", null, true);
+        assertEquals(Arrays.asList(3L, 2L), ids(index.top(query("microservices"), null, 5)));
+
+        //Adding a known study only changes whether it is open
+        index.add(1L, 10L, "Microservices in practice", null, true);
+        assertEquals(3, index.size());
+        assertEquals(3, ids(index.top(query("microservices"), null, 5)).size());
+    }
+}
@@ -0,0 +1,68 @@
+package unitTests;
+
+import com.tfg.slr.searchservice.controllers.ReviewEventController;
+import com.tfg.slr.searchservice.services.FormInstanceService;
+import com.tfg.slr.searchservice.services.ProtocolDataService;
+import com.tfg.slr.searchservice.services.RankingService;
+import com.tfg.slr.searchservice.services.implementations.ReviewEventServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ExtendWith(MockitoExtension.class)
+public class ReviewEventControllerTest {
+
+    private MockMvc mockMvc;
+
+    @Mock
+    private ProtocolDataService protocolDataService;
+    @Mock
+    private FormInstanceService formInstanceService;
+    @Mock
+    private RankingService rankingService;
+
+    @BeforeEach
+    public void setUp(){
+        ReviewEventServiceImpl reviewEventService = new ReviewEventServiceImpl(protocolDataService, formInstanceService, rankingService);
+        mockMvc = MockMvcBuilders.standaloneSetup(new ReviewEventController(reviewEventService)).build();
+    }
+
+    @Test
+    public void handle_OK() throws Exception {
+        mockMvc.perform(post("/api/review-events").contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"id\":1,\"type\":\"FORM_DELETED\",\"protocolId\":7,\"formId\":3}]"))
+                .andExpect(status().isOk())
+                .andExpect(content().string("1"));
+        verify(formInstanceService).deleteAllOfForm(3L);
+        verify(protocolDataService).invalidate(7L);
+    }
+
+    @Test
+    public void handle_TransientFailureIsRetried() throws Exception {
+        when(formInstanceService.deleteAllOfForm(3L)).thenThrow(new CannotAcquireLockException("could not obtain lock"));
+
+        //A 5xx makes review-service send the batch again instead of parking it
+        mockMvc.perform(post("/api/review-events").contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"id\":1,\"type\":\"FORM_DELETED\",\"protocolId\":7,\"formId\":3}]"))
+                .andExpect(status().isInternalServerError());
+        verifyNoInteractions(protocolDataService);
+    }
+
+    @Test
+    public void handle_MalformedBatch() throws Exception {
+        mockMvc.perform(post("/api/review-events").contentType(MediaType.APPLICATION_JSON).content("{\"id\":1}"))
+                .andExpect(status().isBadRequest());
+        verifyNoInteractions(formInstanceService, protocolDataService);
+    }
+}
@@ -0,0 +1,81 @@
+package unitTests;
+
+import com.tfg.slr.searchservice.dtos.ReviewEventDTO;
+import com.tfg.slr.searchservice.services.FormInstanceService;
+import com.tfg.slr.searchservice.services.ProtocolDataService;
+import com.tfg.slr.searchservice.services.RankingService;
+import com.tfg.slr.searchservice.services.implementations.ReviewEventServiceImpl;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ReviewEventServiceTest {
+
+    @InjectMocks
+    private ReviewEventServiceImpl reviewEventService;
+
+    @Mock
+    private ProtocolDataService protocolDataService;
+    @Mock
+    private FormInstanceService formInstanceService;
+    @Mock
+    private RankingService rankingService;
+
+    private ReviewEventDTO event(Long id, String type, Long protocolId, Long formId){
+        return ReviewEventDTO.builder().id(id).type(type).protocolId(protocolId).formId(formId).build();
+    }
+
+    @Test
+    public void handle_InvalidatesEachProtocolOnce(){
+        int handled = reviewEventService.handle(Arrays.asList(
+                event(1L, "PROTOCOL_CHANGED", 7L, null),
+                event(2L, "SELECTION_CRITERIA_CHANGED", 7L, null),
+                event(3L, "FORM_CHANGED", 8L, 3L)));
+
+        Assertions.assertEquals(3, handled);
+        verify(protocolDataService, times(1)).invalidate(7L);
+        verify(protocolDataService, times(1)).invalidate(8L);
+        verifyNoInteractions(formInstanceService, rankingService);
+    }
+
+    @Test
+    public void handle_DeletesFormsOfDeletedProtocols(){
+        int handled = reviewEventService.handle(Arrays.asList(
+                event(1L, "PROTOCOL_DELETED", 7L, null),
+                event(2L, "FORM_DELETED", 7L, 3L),
+                event(3L, "FORM_DELETED", 7L, 4L)));
+
+        Assertions.assertEquals(3, handled);
+        verify(formInstanceService).deleteAllOfForm(3L);
+        verify(formInstanceService).deleteAllOfForm(4L);
+        verify(protocolDataService, times(1)).invalidate(7L);
+        verify(rankingService).invalidate(7L);
+    }
+
+    @Test
+    public void handle_SkipsUnknownAndIncompleteEvents(){
+        int handled = reviewEventService.handle(Arrays.asList(
+                event(1L, "REPORT_CHANGED", 7L, null),
+                event(2L, null, 7L, null),
+                event(3L, "PROTOCOL_CHANGED", null, null)));
+
+        Assertions.assertEquals(0, handled);
+        verify(protocolDataService, never()).invalidate(anyLong());
+    }
+
+    @Test
+    public void handle_EmptyBatch(){
+        Assertions.assertEquals(0, reviewEventService.handle(Collections.emptyList()));
+        Assertions.assertThrows(RuntimeException.class, () -> reviewEventService.handle(null));
+    }
+}
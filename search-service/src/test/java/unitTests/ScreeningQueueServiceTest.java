@@ -0,0 +1,102 @@
+package unitTests;
+
+import com.tfg.slr.searchservice.dtos.ScreeningBatchDTO;
+import com.tfg.slr.searchservice.exceptions.NullEntityException;
+import com.tfg.slr.searchservice.models.QueueOrder;
+import com.tfg.slr.searchservice.repositories.LeaseCountView;
+import com.tfg.slr.searchservice.repositories.ScreeningLeaseRepository;
+import com.tfg.slr.searchservice.repositories.SearchRepository;
+import com.tfg.slr.searchservice.repositories.StudyRepository;
+import com.tfg.slr.searchservice.services.implementations.ScreeningQueueServiceImpl;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.*;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ScreeningQueueServiceTest {
+
+    private ScreeningQueueServiceImpl screeningQueueService;
+
+    @Mock
+    private ScreeningLeaseRepository screeningLeaseRepository;
+    @Mock
+    private StudyRepository studyRepository;
+    @Mock
+    private SearchRepository searchRepository;
+
+    @BeforeEach
+    public void setUp(){
+        screeningQueueService = new ScreeningQueueServiceImpl(screeningLeaseRepository, studyRepository, searchRepository, 30);
+    }
+
+    private LeaseCountView count(Long researcherId, long total){
+        return new LeaseCountView() {
+            public Long getResearcherId() { return researcherId; }
+            public Long getTotal() { return total; }
+        };
+    }
+
+    @Test
+    public void claim_TopsUpHeldLeases(){
+        List<Long> scope = Collections.singletonList(1L);
+        List<Long> free = Arrays.asList(10L, 11L, 12L);
+        when(screeningLeaseRepository.countActive(eq(7L), eq(scope), any())).thenReturn(2L);
+        when(studyRepository.lockClaimableByScore(eq(scope), any(), eq(3))).thenReturn(free);
+        when(screeningLeaseRepository.insertIfFree(eq(free), eq(7L), any(), any())).thenReturn(3);
+
+        ScreeningBatchDTO result = screeningQueueService.claim(7L, 1L, null, 5, QueueOrder.SCORE);
+
+        Assertions.assertEquals(3, result.getClaimed());
+        Assertions.assertEquals(0, result.getStolen());
+        verify(screeningLeaseRepository).renew(eq(7L), eq(scope), any(), any());
+        verify(screeningLeaseRepository).deleteExpiredByStudyIds(eq(free), any());
+        verify(screeningLeaseRepository, never()).deleteByStudyIds(any());
+        verify(screeningLeaseRepository, never()).countActiveByResearcher(any(), any());
+    }
+
+    @Test
+    public void claim_SkipsStudiesLeasedConcurrently(){
+        List<Long> scope = Collections.singletonList(1L);
+        List<Long> free = Arrays.asList(10L, 11L);
+        when(studyRepository.lockClaimableById(eq(scope), any(), eq(2))).thenReturn(free);
+        //Another researcher leased study 11 after our snapshot was taken
+        when(screeningLeaseRepository.insertIfFree(eq(free), eq(7L), any(), any())).thenReturn(1);
+
+        ScreeningBatchDTO result = screeningQueueService.claim(7L, 1L, null, 2, QueueOrder.ID);
+
+        Assertions.assertEquals(1, result.getClaimed());
+    }
+
+    @Test
+    public void claim_StealsHalfFromBusiest(){
+        List<Long> scope = Arrays.asList(1L, 2L);
+        when(searchRepository.findIdsByProtocolId(3L)).thenReturn(scope);
+        when(studyRepository.lockClaimableById(eq(scope), any(), eq(10))).thenReturn(Collections.emptyList());
+        when(screeningLeaseRepository.countActiveByResearcher(eq(scope), any()))
+                .thenReturn(Arrays.asList(count(7L, 12), count(8L, 6), count(9L, 1)));
+        when(screeningLeaseRepository.findNewestActiveIds(eq(8L), eq(scope), any(), any()))
+                .thenReturn(Arrays.asList(20L, 21L, 22L));
+        when(studyRepository.lockUnclassified(Arrays.asList(20L, 21L, 22L))).thenReturn(Arrays.asList(20L, 22L));
+        when(screeningLeaseRepository.reassign(eq(Arrays.asList(20L, 22L)), eq(8L), eq(7L), any(), any())).thenReturn(2);
+
+        ScreeningBatchDTO result = screeningQueueService.claim(7L, null, 3L, 10, null);
+
+        Assertions.assertEquals(0, result.getClaimed());
+        Assertions.assertEquals(2, result.getStolen());
+        verify(screeningLeaseRepository).findNewestActiveIds(eq(8L), eq(scope), any(), argThat(p -> p.getPageSize() == 3));
+    }
+
+    @Test
+    public void claim_WithoutScope(){
+        Assertions.assertThrows(NullEntityException.class, () -> screeningQueueService.claim(7L, null, null, 10, QueueOrder.ID));
+        verifyNoInteractions(studyRepository, screeningLeaseRepository);
+    }
+}
@@ -0,0 +1,97 @@
+package unitTests;
+
+import com.tfg.slr.searchservice.utils.CSVparser;
+import com.tfg.slr.searchservice.utils.JSONLinesParser;
+import com.tfg.slr.searchservice.utils.ParsedEntry;
+import com.tfg.slr.searchservice.utils.RISparser;
+import com.tfg.slr.searchservice.utils.StudyParser;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+public class StudyParsersTest {
+
+    private List<ParsedEntry> read(StudyParser parser, String content) throws Exception {
+        List<ParsedEntry> entries = new ArrayList<>();
+        parser.read(new StringReader(content), entries::add);
+        return entries;
+    }
+
+    @Test
+    public void ris_OK() throws Exception {
+        String content = "TY  - JOUR\n" +
+                "AU  - Smith, John\n" +
+                "AU  - Doe, Jane\n" +
+                "TI  - A systematic review of\n" +
+                "      digital twins\n" +
+                "PY  - 2021/05/01\n" +
+                "JO  - Information and Software Technology\n" +
+                "DO  - 10.1016/j.infsof.2021.1\n" +
+                "ER  - \n" +
+                "TY  - CONF\n" +
+                "TI  - Without end tag\n";
+        List<ParsedEntry> entries = read(new RISparser(), content);
+
+        Assertions.assertEquals(2, entries.size());
+        Assertions.assertEquals("A systematic review of digital twins", entries.get(0).getStudy().getTitle());
+        Assertions.assertEquals("Smith, John and Doe, Jane", entries.get(0).getStudy().getAuthor());
+        Assertions.assertEquals(2021, entries.get(0).getStudy().getYear());
+        Assertions.assertEquals("article", entries.get(0).getStudy().getType());
+        Assertions.assertEquals("https://doi.org/10.1016/j.infsof.2021.1", entries.get(0).getStudy().getSourceURL());
+        Assertions.assertTrue(entries.get(1).hasError());
+    }
+
+    @Test
+    public void csv_WebOfScience() throws Exception {
+        String content = "PT\tAU\tTI\tSO\tDT\tPY\tDI\n" +
+                "J\tSmith, J; Doe, J\tDigital twins\tIEEE SOFTWARE\tArticle\t2020\t10.1109/MS.2020.1\n";
+        List<ParsedEntry> entries = read(new CSVparser(), content);
+
+        Assertions.assertEquals(1, entries.size());
+        Assertions.assertEquals("Smith, J and Doe, J", entries.get(0).getStudy().getAuthor());
+        Assertions.assertEquals("IEEE SOFTWARE", entries.get(0).getStudy().getVenue());
+        Assertions.assertEquals("10.1109/MS.2020.1", entries.get(0).getKey());
+    }
+
+    @Test
+    public void csv_QuotedValues() throws Exception {
+        String content = "\"Authors\",\"Title\",\"Year\",\"Source title\",\"DOI\",\"Link\",\"Document Type\"\r\n" +
+                "\"Smith J.\",\"Twins, \"\"digital\"\"\nand physical\",\"2019\",\"JSS\",\"10.1/a\",\"https://example.org/a\",\"Article\"\r\n" +
+                "\"Doe J.\",\"Bad year\",\"n/a\",\"JSS\",\"10.1/b\",\"https://example.org/b\",\"Article\"\r\n";
+        List<ParsedEntry> entries = read(new CSVparser(), content);
+
+        Assertions.assertEquals(2, entries.size());
+        Assertions.assertEquals("Twins, \"digital\"\nand physical", entries.get(0).getStudy().getTitle());
+        Assertions.assertEquals("https://example.org/a", entries.get(0).getStudy().getSourceURL());
+        Assertions.assertTrue(entries.get(1).hasError());
+    }
+
+    @Test
+    public void jsonLines_OK() throws Exception {
+        String content = "{\"title\":\"T1\",\"author\":[\"A\",\"B\"],\"year\":2018,\"type\":\"article\",\"DOI\":\"10.1/x\"}\n" +
+                "\n" +
+                "{not json}\n";
+        List<ParsedEntry> entries = read(new JSONLinesParser(), content);
+
+        Assertions.assertEquals(2, entries.size());
+        Assertions.assertEquals("A and B", entries.get(0).getStudy().getAuthor());
+        Assertions.assertEquals(2018, entries.get(0).getStudy().getYear());
+        Assertions.assertTrue(entries.get(1).hasError());
+        Assertions.assertEquals(2, entries.get(1).getIndex());
+    }
+
+    @Test
+    public void consumerFailuresAreNotEntryErrors(){
+        IllegalStateException failure = new IllegalStateException("flush failed");
+        String csv = "Title,Year\nDigital twins,2020\n";
+        String jsonLines = "{\"title\":\"T1\"}\n";
+
+        Assertions.assertSame(failure, Assertions.assertThrows(IllegalStateException.class,
+                () -> new CSVparser().read(new StringReader(csv), entry -> { throw failure; })));
+        Assertions.assertSame(failure, Assertions.assertThrows(IllegalStateException.class,
+                () -> new JSONLinesParser().read(new StringReader(jsonLines), entry -> { throw failure; })));
+    }
+}
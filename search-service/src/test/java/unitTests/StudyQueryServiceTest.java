@@ -0,0 +1,112 @@
+package unitTests;
+
+import com.tfg.slr.searchservice.dtos.StudyFilterDTO;
+import com.tfg.slr.searchservice.dtos.StudyQueryDTO;
+import com.tfg.slr.searchservice.exceptions.NullEntityException;
+import com.tfg.slr.searchservice.models.CriteriaOrdinal;
+import com.tfg.slr.searchservice.models.Search;
+import com.tfg.slr.searchservice.models.Status;
+import com.tfg.slr.searchservice.models.Study;
+import com.tfg.slr.searchservice.repositories.CriteriaOrdinalRepository;
+import com.tfg.slr.searchservice.repositories.StudyRepository;
+import com.tfg.slr.searchservice.repositories.StudySpecifications.Dimension;
+import com.tfg.slr.searchservice.services.SearchService;
+import com.tfg.slr.searchservice.services.implementations.StudyQueryServiceImpl;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.*;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class StudyQueryServiceTest {
+
+    @InjectMocks
+    private StudyQueryServiceImpl studyQueryService;
+
+    @Mock
+    private StudyRepository studyRepository;
+    @Mock
+    private CriteriaOrdinalRepository criteriaOrdinalRepository;
+    @Mock
+    private SearchService searchService;
+
+    private final Search search = Search.builder().id(1L).searchReference("REF-1").protocolId(7L).build();
+
+    private Study study(Long id){
+        return Study.builder().id(id).title("Study " + id).year(2020).selectionStatus(Status.REJECTED)
+                .extractionStatus(Status.UNCLASSIFIED).search(search).build();
+    }
+
+    private Map<Object, Long> counts(Object value, long count){
+        Map<Object, Long> counts = new LinkedHashMap<>();
+        counts.put(value, count);
+        return counts;
+    }
+
+    @Test
+    public void query_ReturnsPageAndFacets(){
+        when(criteriaOrdinalRepository.findByProtocolIdOrderByOrdinalAsc(7L)).thenReturn(Arrays.asList(
+                CriteriaOrdinal.builder().protocolId(7L).criteriaId(10L).ordinal(0).build(),
+                CriteriaOrdinal.builder().protocolId(7L).criteriaId(11L).ordinal(1).build()));
+        when(studyRepository.findAll(any(Specification.class), any(Pageable.class)))
+                .thenReturn(new PageImpl<>(Arrays.asList(study(1L), study(2L)), PageRequest.of(0, 2), 3));
+        when(studyRepository.countBy(any(), any(), anyInt())).thenReturn(new LinkedHashMap<>());
+        when(studyRepository.countBy(any(), eq(Dimension.SELECTION_STATUS), anyInt())).thenReturn(counts(Status.REJECTED, 3L));
+        when(studyRepository.countBy(any(), eq(Dimension.YEAR), anyInt())).thenReturn(counts(2020, 3L));
+        when(studyRepository.countByCriteria(any(), eq(Arrays.asList(0, 1)))).thenReturn(new long[]{0, 2});
+
+        StudyQueryDTO result = studyQueryService.query(StudyFilterDTO.builder().protocolId(7L)
+                .selectionStatus(Collections.singletonList(Status.REJECTED)).size(2).build());
+
+        Assertions.assertEquals(2, result.getStudies().size());
+        Assertions.assertEquals(3, result.getTotal());
+        Assertions.assertTrue(result.isHasNext());
+        Assertions.assertEquals(3L, result.getFacets().getSelectionStatus().get("REJECTED"));
+        Assertions.assertEquals(3L, result.getFacets().getYear().get("2020"));
+        Assertions.assertEquals(Collections.singletonMap(11L, 2L), result.getFacets().getCriteria());
+    }
+
+    @Test
+    public void query_WithoutFacetsSkipsCounts(){
+        when(studyRepository.findAll(any(Specification.class), any(Pageable.class))).thenReturn(new PageImpl<>(Collections.emptyList()));
+
+        StudyQueryDTO result = studyQueryService.query(StudyFilterDTO.builder().searchId(1L).facets(false).build());
+
+        Assertions.assertNull(result.getFacets());
+        verifyNoInteractions(criteriaOrdinalRepository, searchService);
+        verify(studyRepository, never()).countBy(any(), any(), anyInt());
+    }
+
+    @Test
+    public void query_ResolvesProtocolOfSearchForCriteria(){
+        when(searchService.findOne(1L)).thenReturn(search);
+        when(criteriaOrdinalRepository.findByProtocolIdOrderByOrdinalAsc(7L)).thenReturn(Collections.emptyList());
+        when(studyRepository.findAll(any(Specification.class), any(Pageable.class))).thenReturn(new PageImpl<>(Collections.emptyList()));
+
+        StudyQueryDTO result = studyQueryService.query(StudyFilterDTO.builder().searchId(1L).criteriaId(10L).facets(false).build());
+
+        Assertions.assertEquals(0, result.getTotal());
+        verify(criteriaOrdinalRepository).findByProtocolIdOrderByOrdinalAsc(7L);
+    }
+
+    @Test
+    public void query_InvalidFilter(){
+        Assertions.assertThrows(NullEntityException.class, () -> studyQueryService.query(StudyFilterDTO.builder().build()));
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> studyQueryService.query(StudyFilterDTO.builder().protocolId(7L).size(501).build()));
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> studyQueryService.query(StudyFilterDTO.builder().protocolId(7L).minYear(2020).maxYear(2010).build()));
+        verifyNoInteractions(studyRepository);
+    }
+}
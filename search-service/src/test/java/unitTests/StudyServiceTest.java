@@ -0,0 +1,198 @@
+package unitTests;
+
+import com.tfg.slr.searchservice.dtos.ScreeningDecisionDTO;
+import com.tfg.slr.searchservice.dtos.StudyPageDTO;
+import com.tfg.slr.searchservice.dtos.StudyStatusDTO;
+import com.tfg.slr.searchservice.exceptions.NullEntityException;
+import com.tfg.slr.searchservice.exceptions.StudyNotFoundException;
+import com.tfg.slr.searchservice.models.Search;
+import com.tfg.slr.searchservice.models.Status;
+import com.tfg.slr.searchservice.models.Study;
+import com.tfg.slr.searchservice.repositories.StudyRepository;
+import com.tfg.slr.searchservice.repositories.StudyStatusView;
+import com.tfg.slr.searchservice.services.AppliedCriteriaService;
+import com.tfg.slr.searchservice.services.PrismaService;
+import com.tfg.slr.searchservice.services.RankingService;
+import com.tfg.slr.searchservice.services.ScreeningQueueService;
+import com.tfg.slr.searchservice.services.implementations.StudyServiceImpl;
+import com.tfg.slr.searchservice.utils.MessageConstants;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.*;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class StudyServiceTest {
+
+    @InjectMocks
+    private StudyServiceImpl studyService;
+
+    @Mock
+    private StudyRepository studyRepository;
+    @Mock
+    private PrismaService prismaService;
+    @Mock
+    private AppliedCriteriaService appliedCriteriaService;
+    @Mock
+    private ScreeningQueueService screeningQueueService;
+    @Mock
+    private RankingService rankingService;
+
+    private List<Study> studies(long from, int count){
+        List<Study> result = new ArrayList<>();
+        for(long id = from; id < from + count; id++){
+            Study study = new Study();
+            study.setId(id);
+            study.setSelectionStatus(Status.UNCLASSIFIED);
+            study.setExtractionStatus(Status.UNCLASSIFIED);
+            study.setSearch(Search.builder().id(1L).searchReference("ABC-00001").build());
+            result.add(study);
+        }
+        return result;
+    }
+
+    @Test
+    public void findPage_HasNext(){
+        when(studyRepository.findPageAfter(1L, null, Status.UNCLASSIFIED, 10L, PageRequest.of(0, 4)))
+                .thenReturn(studies(11L, 4));
+
+        StudyPageDTO page = studyService.findPage(1L, null, Status.UNCLASSIFIED, 10L, 3);
+        Assertions.assertEquals(3, page.getStudies().size());
+        Assertions.assertTrue(page.isHasNext());
+        Assertions.assertEquals(13L, page.getNextCursor());
+    }
+
+    @Test
+    public void findPage_LastPage(){
+        when(studyRepository.findPageAfter(null, 2L, null, 0L, PageRequest.of(0, 4))).thenReturn(studies(1L, 2));
+
+        StudyPageDTO page = studyService.findPage(null, 2L, null, null, 3);
+        Assertions.assertEquals(2, page.getStudies().size());
+        Assertions.assertFalse(page.isHasNext());
+        Assertions.assertNull(page.getNextCursor());
+    }
+
+    @Test
+    public void findPage_InvalidSize(){
+        Assertions.assertThrows(IllegalArgumentException.class, () -> studyService.findPage(null, null, null, null, 0));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> studyService.findPage(null, null, null, null, 501));
+    }
+
+    @Test
+    public void applyDecisions_OK(){
+        Study withCriteria = studies(2L, 1).get(0);
+        List<ScreeningDecisionDTO> decisions = Arrays.asList(
+                ScreeningDecisionDTO.builder().studyId(1L).decision("accepted").build(),
+                ScreeningDecisionDTO.builder().studyId(2L).decision("REJECTED").appliedCriteriaIds(Set.of(5L, 6L)).build(),
+                ScreeningDecisionDTO.builder().studyId(3L).decision("REJECTED").build());
+
+        when(studyRepository.findWithSearchByIdIn(Set.of(2L))).thenReturn(Collections.singletonList(withCriteria));
+        when(studyRepository.updateSelectionStatus(Set.of(1L), Status.ACCEPTED)).thenReturn(1);
+        when(studyRepository.updateSelectionStatus(Set.of(2L, 3L), Status.REJECTED)).thenReturn(2);
+
+        List<StudyStatusDTO> result = studyService.applyDecisions(decisions);
+        Assertions.assertEquals(3, result.size());
+        Assertions.assertEquals("ACCEPTED", result.get(0).getSelectionStatus());
+        Assertions.assertEquals("REJECTED", result.get(2).getSelectionStatus());
+        verify(appliedCriteriaService).apply(Collections.singletonList(withCriteria), Map.of(2L, Set.of(5L, 6L)));
+    }
+
+    private StudyStatusView status(Long id, Long searchId, Status status){
+        return new StudyStatusView() {
+            public Long getId() { return id; }
+            public Long getSearchId() { return searchId; }
+            public Status getSelectionStatus() { return status; }
+        };
+    }
+
+    @Test
+    public void applyDecisions_UpdatesPrismaCounters(){
+        List<ScreeningDecisionDTO> decisions = Arrays.asList(
+                ScreeningDecisionDTO.builder().studyId(1L).decision("ACCEPTED").build(),
+                ScreeningDecisionDTO.builder().studyId(2L).decision("ACCEPTED").build(),
+                ScreeningDecisionDTO.builder().studyId(3L).decision("REJECTED").build());
+
+        when(studyRepository.findStatusesByIdIn(any())).thenReturn(Arrays.asList(status(1L, 1L, Status.UNCLASSIFIED),
+                status(2L, 1L, Status.UNCLASSIFIED), status(3L, 2L, Status.ACCEPTED)));
+        when(studyRepository.updateSelectionStatus(Set.of(1L, 2L), Status.ACCEPTED)).thenReturn(2);
+        when(studyRepository.updateSelectionStatus(Set.of(3L), Status.REJECTED)).thenReturn(1);
+
+        studyService.applyDecisions(decisions);
+        verify(prismaService).statusChanged(1L, Status.UNCLASSIFIED, Status.ACCEPTED, 2L);
+        verify(prismaService).statusChanged(2L, Status.ACCEPTED, Status.REJECTED, 1L);
+        InOrder order = inOrder(studyRepository);
+        order.verify(studyRepository).lockByIdIn(Set.of(1L, 2L, 3L));
+        order.verify(studyRepository).findStatusesByIdIn(any());
+    }
+
+    @Test
+    public void acceptStudy_UpdatesPrismaCounters(){
+        Study study = studies(1L, 1).get(0);
+        when(studyRepository.findStudyById(1L)).thenReturn(Optional.of(study));
+        when(studyRepository.save(study)).thenReturn(study);
+
+        Assertions.assertEquals("ACCEPTED", studyService.acceptStudy(1L).getSelectionStatus());
+        InOrder order = inOrder(studyRepository);
+        order.verify(studyRepository).lockByIdIn(Collections.singletonList(1L));
+        order.verify(studyRepository).findStudyById(1L);
+        verify(prismaService).statusChanged(1L, Status.UNCLASSIFIED, Status.ACCEPTED, 1);
+        verify(screeningQueueService).completed(Collections.singletonList(1L));
+    }
+
+    @Test
+    public void applyDecisions_StudyNotFound(){
+        List<ScreeningDecisionDTO> decisions = Arrays.asList(
+                ScreeningDecisionDTO.builder().studyId(1L).decision("ACCEPTED").build(),
+                ScreeningDecisionDTO.builder().studyId(99L).decision("ACCEPTED").build());
+        when(studyRepository.updateSelectionStatus(Set.of(1L, 99L), Status.ACCEPTED)).thenReturn(1);
+
+        Assertions.assertThrows(StudyNotFoundException.class, () -> studyService.applyDecisions(decisions));
+    }
+
+    @Test
+    public void applyDecisions_InvalidDecision(){
+        for(String value : Arrays.asList("MAYBE", "unclassified", null)){
+            List<ScreeningDecisionDTO> decisions = Arrays.asList(
+                    ScreeningDecisionDTO.builder().studyId(1L).decision(value).build(),
+                    ScreeningDecisionDTO.builder().studyId(1L).decision("ACCEPTED").build());
+
+            IllegalArgumentException e = Assertions.assertThrows(IllegalArgumentException.class,
+                    () -> studyService.applyDecisions(decisions));
+            Assertions.assertEquals(MessageConstants.INVALID_DECISION, e.getMessage());
+        }
+        verifyNoInteractions(studyRepository, prismaService, screeningQueueService);
+    }
+
+    @Test
+    public void searchText_FullText(){
+        when(studyRepository.searchText("digital twin", 1L, null, 20, 40)).thenReturn(studies(1L, 2));
+
+        Assertions.assertEquals(2, studyService.searchText(" digital twin ", 1L, null, 2, 20).size());
+    }
+
+    @Test
+    public void searchText_Doi(){
+        when(studyRepository.findByDoiIgnoreCase("10.1186/s42492-023-00137-4", null, 3L)).thenReturn(studies(1L, 1));
+
+        Assertions.assertEquals(1, studyService.searchText("https://doi.org/10.1186/S42492-023-00137-4", null, 3L, 0, 20).size());
+    }
+
+    @Test
+    public void searchText_WithoutScope(){
+        Assertions.assertThrows(NullEntityException.class, () -> studyService.searchText("twin", null, null, 0, 20));
+    }
+}
@@ -0,0 +1,61 @@
+package unitTests;
+
+import com.tfg.slr.searchservice.dtos.StudyDTO;
+import com.tfg.slr.searchservice.models.Study;
+import com.tfg.slr.searchservice.utils.*;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+
+public class StudyWritersTest {
+
+    private StudyDTO study(){
+        return StudyDTO.builder().id(42L).title("Digital twins, a \"review\" of {unbalanced").author("Pérez, Ana and Smith, John")
+                .year(2021).type("article").venue("Information and Software Technology").DOI("10.1016/j.infsof.2021.1")
+                .sourceURL("https://doi.org/10.1016/j.infsof.2021.1").selectionStatus("ACCEPTED").extractionStatus("UNCLASSIFIED").build();
+    }
+
+    //What a writer produces must be importable again by the parser of the same format
+    private Study roundTrip(StudyWriter writer, StudyParser parser) throws Exception {
+        StringWriter out = new StringWriter();
+        writer.writeHeader(out);
+        writer.write(out, study());
+        List<ParsedEntry> entries = new ArrayList<>();
+        parser.read(new StringReader(out.toString()), entries::add);
+
+        Assertions.assertEquals(1, entries.size());
+        Assertions.assertFalse(entries.get(0).hasError(), entries.get(0).getError());
+        return entries.get(0).getStudy();
+    }
+
+    @Test
+    public void bibtex_RoundTrip() throws Exception {
+        Study study = roundTrip(new BibTeXwriter(), new BibTeXparser());
+
+        Assertions.assertEquals("Digital twins, a \"review\" of unbalanced", study.getTitle());
+        Assertions.assertEquals(2021, study.getYear());
+        Assertions.assertEquals("10.1016/j.infsof.2021.1", study.getDOI());
+    }
+
+    @Test
+    public void ris_RoundTrip() throws Exception {
+        Study study = roundTrip(new RISwriter(), new RISparser());
+
+        Assertions.assertEquals("Pérez, Ana and Smith, John", study.getAuthor());
+        Assertions.assertEquals("article", study.getType());
+        Assertions.assertEquals("Information and Software Technology", study.getVenue());
+    }
+
+    @Test
+    public void csv_RoundTrip() throws Exception {
+        Study study = roundTrip(new CSVwriter(), new CSVparser());
+
+        Assertions.assertEquals("Digital twins, a \"review\" of {unbalanced", study.getTitle());
+        Assertions.assertEquals("Pérez, Ana and Smith, John", study.getAuthor());
+        Assertions.assertEquals("https://doi.org/10.1016/j.infsof.2021.1", study.getSourceURL());
+    }
+}